@@ -0,0 +1,467 @@
+package com.ss.rlib.network.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * The annotation processor which generates registries of readable packets for base types with
+ * {@code @GeneratePacketRegistry}. A generated registry keeps ids and classes of packets in arrays and creates
+ * new packets by a switch by id with direct calls of constructors, so it's loaded without reading annotations
+ * and creating factories by reflection. Wrong and duplicated ids, abstract packets and packets without
+ * an accessible constructor without arguments are reported as compilation errors.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@SupportedAnnotationTypes(PacketRegistryProcessor.PACKET_DESCRIPTION)
+public class PacketRegistryProcessor extends AbstractProcessor {
+
+    static final String PACKET_DESCRIPTION = "com.ss.rlib.network.annotation.PacketDescription";
+    static final String GENERATE_PACKET_REGISTRY = "com.ss.rlib.network.annotation.GeneratePacketRegistry";
+    static final String READABLE_PACKET = "com.ss.rlib.network.packet.IdBasedReadablePacket";
+    static final String PACKET_REGISTRY = "com.ss.rlib.network.packet.registry.impl.IdBasedReadablePacketRegistry";
+
+    /**
+     * The count of ids which are handled by one method of the generated switch, it keeps the methods smaller
+     * than the limit of bytecode size of methods which are compiled by JIT.
+     */
+    private static final int IDS_BY_METHOD = 256;
+
+    /**
+     * The packets of a generated registry.
+     */
+    private static final class RegistryTable {
+
+        private final @NotNull TypeElement baseType;
+        private final @NotNull TypeMirror packetType;
+        private final @NotNull String packageName;
+        private final @NotNull String simpleName;
+        private final @NotNull SortedMap<Integer, TypeElement> packets;
+
+        private RegistryTable(
+            @NotNull TypeElement baseType,
+            @NotNull TypeMirror packetType,
+            @NotNull String packageName,
+            @NotNull String simpleName
+        ) {
+            this.baseType = baseType;
+            this.packetType = packetType;
+            this.packageName = packageName;
+            this.simpleName = simpleName;
+            this.packets = new TreeMap<>();
+        }
+
+        private @NotNull String getQualifiedName() {
+            return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        }
+    }
+
+    /**
+     * The names of registries which are already generated in previous rounds.
+     */
+    private final Set<String> generatedRegistries = new HashSet<>();
+
+    @Override
+    public @NotNull SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(@NotNull Set<? extends TypeElement> annotations, @NotNull RoundEnvironment roundEnv) {
+
+        if (annotations.isEmpty() || roundEnv.processingOver()) {
+            return false;
+        }
+
+        var tables = new LinkedHashMap<String, RegistryTable>();
+
+        for (var annotation : annotations) {
+            for (var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    addPacket(tables, (TypeElement) element);
+                }
+            }
+        }
+
+        for (var table : tables.values()) {
+
+            if (!generatedRegistries.add(table.getQualifiedName())) {
+                error(table.baseType, "Packets of the registry " + table.getQualifiedName() +
+                    " are found after generating the registry");
+            } else if (!table.packets.isEmpty()) {
+                generate(table);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Add the packet to tables of all its base types with {@code @GeneratePacketRegistry}.
+     */
+    private void addPacket(@NotNull Map<String, RegistryTable> tables, @NotNull TypeElement packet) {
+
+        for (var baseType : findRegistryBaseTypes(packet)) {
+
+            var table = tables.get(baseType.getQualifiedName().toString());
+
+            if (table == null) {
+
+                table = newTable(baseType);
+
+                if (table == null) {
+                    continue;
+                }
+
+                tables.put(baseType.getQualifiedName().toString(), table);
+            }
+
+            if (!validatePacket(table, packet)) {
+                continue;
+            }
+
+            var id = getPacketId(packet);
+            var existed = table.packets.putIfAbsent(id, packet);
+
+            if (existed != null) {
+                error(packet, "Have found duplication by id " + id + " in the registry " + table.getQualifiedName() +
+                    ", existed packet is " + existed.getQualifiedName() + ", new packet is " + packet.getQualifiedName());
+            }
+        }
+    }
+
+    private @NotNull List<TypeElement> findRegistryBaseTypes(@NotNull TypeElement packet) {
+
+        var result = new ArrayList<TypeElement>();
+        var visited = new HashSet<String>();
+        var queue = new ArrayDeque<TypeMirror>();
+
+        queue.add(packet.asType());
+
+        while (!queue.isEmpty()) {
+
+            var type = queue.poll();
+
+            if (type.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+
+            var element = (TypeElement) ((DeclaredType) type).asElement();
+
+            if (!visited.add(element.getQualifiedName().toString())) {
+                continue;
+            }
+
+            if (findAnnotation(element, GENERATE_PACKET_REGISTRY) != null) {
+                result.add(element);
+            }
+
+            queue.addAll(processingEnv.getTypeUtils().directSupertypes(type));
+        }
+
+        return result;
+    }
+
+    private @Nullable RegistryTable newTable(@NotNull TypeElement baseType) {
+
+        if (!baseType.getTypeParameters().isEmpty()) {
+            error(baseType, "The base type of a generated packet registry should not have type parameters");
+            return null;
+        }
+
+        var packetType = findPacketType(baseType.asType());
+
+        if (packetType == null || packetType.getKind() != TypeKind.DECLARED) {
+            error(baseType, "The base type of a generated packet registry should extend " + READABLE_PACKET +
+                " with a declared packet type");
+            return null;
+        }
+
+        var elements = processingEnv.getElementUtils();
+        var annotation = findAnnotation(baseType, GENERATE_PACKET_REGISTRY);
+        var name = annotation == null ? "" : (String) getAnnotationValue(annotation, "name", "");
+
+        if (name.isEmpty()) {
+            name = baseType.getSimpleName() + "Registry";
+        }
+
+        var packageName = elements.getPackageOf(baseType)
+            .getQualifiedName()
+            .toString();
+
+        return new RegistryTable(baseType, packetType, packageName, name);
+    }
+
+    /**
+     * Find the type argument of {@code IdBasedReadablePacket} in supertypes of the type.
+     */
+    private @Nullable TypeMirror findPacketType(@NotNull TypeMirror type) {
+
+        var types = processingEnv.getTypeUtils();
+
+        for (var supertype : types.directSupertypes(type)) {
+
+            if (supertype.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+
+            var declaredType = (DeclaredType) supertype;
+            var element = (TypeElement) declaredType.asElement();
+
+            if (element.getQualifiedName().contentEquals(READABLE_PACKET)) {
+                var arguments = declaredType.getTypeArguments();
+                return arguments.isEmpty() ? null : arguments.get(0);
+            }
+
+            var packetType = findPacketType(supertype);
+
+            if (packetType != null) {
+                return packetType;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean validatePacket(@NotNull RegistryTable table, @NotNull TypeElement packet) {
+
+        if (packet.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(packet, "The packet of the registry " + table.getQualifiedName() + " should not be abstract");
+            return false;
+        } else if (!packet.getTypeParameters().isEmpty()) {
+            error(packet, "The packet of the registry " + table.getQualifiedName() +
+                " should not have type parameters");
+            return false;
+        } else if (packet.getNestingKind() == NestingKind.MEMBER && !packet.getModifiers().contains(Modifier.STATIC)) {
+            error(packet, "The nested packet of the registry " + table.getQualifiedName() + " should be static");
+            return false;
+        } else if (packet.getNestingKind() == NestingKind.LOCAL || !isAccessible(packet, table.packageName)) {
+            error(packet, "The packet should be accessible from the registry " + table.getQualifiedName());
+            return false;
+        } else if (getPacketId(packet) < 0) {
+            error(packet, "The packet has wrong id: " + getPacketId(packet));
+            return false;
+        }
+
+        for (var constructor : ElementFilter.constructorsIn(packet.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && isAccessible(constructor, table.packageName)) {
+                return true;
+            }
+        }
+
+        error(packet, "The packet should have an accessible constructor without arguments to be created by " +
+            "the registry " + table.getQualifiedName());
+
+        return false;
+    }
+
+    /**
+     * Check that the element and all its enclosing types are accessible from the package.
+     */
+    private boolean isAccessible(@NotNull Element element, @NotNull String packageName) {
+
+        var elements = processingEnv.getElementUtils();
+        var samePackage = elements.getPackageOf(element)
+            .getQualifiedName()
+            .contentEquals(packageName);
+
+        for (var current = element; current.getKind() != ElementKind.PACKAGE; current = current.getEnclosingElement()) {
+
+            var modifiers = current.getModifiers();
+
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            } else if (!modifiers.contains(Modifier.PUBLIC) && !samePackage) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Return true if the packet or its superclass overrides {@code IdBasedReadablePacket.newInstance()}.
+     */
+    private boolean hasOwnNewInstance(@NotNull TypeElement packet) {
+
+        var types = processingEnv.getTypeUtils();
+
+        for (var type = packet; type != null; ) {
+
+            for (var method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals("newInstance") && method.getParameters().isEmpty() &&
+                    !method.getModifiers().contains(Modifier.ABSTRACT)) {
+                    return true;
+                }
+            }
+
+            var superclass = type.getSuperclass();
+            type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+        }
+
+        return false;
+    }
+
+    private int getPacketId(@NotNull TypeElement packet) {
+        var annotation = Objects.requireNonNull(findAnnotation(packet, PACKET_DESCRIPTION));
+        return (Integer) getAnnotationValue(annotation, "id", -1);
+    }
+
+    private static @Nullable AnnotationMirror findAnnotation(@NotNull Element element, @NotNull String name) {
+
+        for (var annotation : element.getAnnotationMirrors()) {
+
+            var type = (TypeElement) annotation.getAnnotationType().asElement();
+
+            if (type.getQualifiedName().contentEquals(name)) {
+                return annotation;
+            }
+        }
+
+        return null;
+    }
+
+    private static @NotNull Object getAnnotationValue(
+        @NotNull AnnotationMirror annotation,
+        @NotNull String name,
+        @NotNull Object def
+    ) {
+
+        for (var entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+
+        return def;
+    }
+
+    private void generate(@NotNull RegistryTable table) {
+
+        var packetType = table.packetType.toString();
+        var baseType = table.baseType.getQualifiedName().toString();
+        var packets = table.packets;
+        var maxId = packets.lastKey();
+
+        var originatingElements = new ArrayList<Element>(packets.values());
+        originatingElements.add(table.baseType);
+
+        try (var out = new PrintWriter(processingEnv.getFiler()
+            .createSourceFile(table.getQualifiedName(), originatingElements.toArray(Element[]::new))
+            .openWriter())) {
+
+            if (!table.packageName.isEmpty()) {
+                out.println("package " + table.packageName + ";");
+                out.println();
+            }
+
+            out.println("/**");
+            out.println(" * The generated registry of readable packets of {@link " + baseType + "}.");
+            out.println(" */");
+            out.println("@javax.annotation.processing.Generated(\"" + PacketRegistryProcessor.class.getName() + "\")");
+            out.println("public final class " + table.simpleName + " {");
+            out.println();
+            out.println("    private static final int[] IDS = {");
+
+            for (var id : packets.keySet()) {
+                out.println("        " + id + ",");
+            }
+
+            out.println("    };");
+            out.println();
+            out.println("    @SuppressWarnings(\"unchecked\")");
+            out.println("    private static final Class<? extends " + packetType + ">[] CLASSES = new Class[] {");
+
+            for (var packet : packets.values()) {
+                out.println("        " + packet.getQualifiedName() + ".class,");
+            }
+
+            out.println("    };");
+
+            for (var entry : packets.entrySet()) {
+                if (hasOwnNewInstance(entry.getValue())) {
+                    out.println();
+                    out.println("    private static final " + entry.getValue().getQualifiedName() + " PACKET_" +
+                        entry.getKey() + " = new " + entry.getValue().getQualifiedName() + "();");
+                }
+            }
+
+            out.println();
+            out.println("    private " + table.simpleName + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    /**");
+            out.println("     * Create a new registry of readable packets of {@link " + baseType + "}.");
+            out.println("     *");
+            out.println("     * @return the new packet registry.");
+            out.println("     */");
+            out.println("    public static " + PACKET_REGISTRY + "<" + packetType + "> newRegistry() {");
+            out.println("        return new " + PACKET_REGISTRY + "<" + packetType + ">(" + baseType + ".class)");
+            out.println("            .register(IDS, CLASSES, " + table.simpleName + "::newPacket);");
+            out.println("    }");
+            out.println();
+            out.println("    private static " + packetType + " newPacket(int id) {");
+            out.println("        return switch (id / " + IDS_BY_METHOD + ") {");
+
+            for (int i = 0; i <= maxId / IDS_BY_METHOD; i++) {
+                if (!packets.subMap(i * IDS_BY_METHOD, (i + 1) * IDS_BY_METHOD).isEmpty()) {
+                    out.println("            case " + i + " -> newPacket" + i + "(id);");
+                }
+            }
+
+            out.println("            default -> throw new IllegalArgumentException(\"Not found a packet for the id \" + id);");
+            out.println("        };");
+            out.println("    }");
+
+            for (int i = 0; i <= maxId / IDS_BY_METHOD; i++) {
+
+                var methodPackets = packets.subMap(i * IDS_BY_METHOD, (i + 1) * IDS_BY_METHOD);
+
+                if (methodPackets.isEmpty()) {
+                    continue;
+                }
+
+                out.println();
+                out.println("    private static " + packetType + " newPacket" + i + "(int id) {");
+                out.println("        return switch (id) {");
+
+                for (var entry : methodPackets.entrySet()) {
+                    if (hasOwnNewInstance(entry.getValue())) {
+                        out.println("            case " + entry.getKey() + " -> PACKET_" + entry.getKey() +
+                            ".newInstance();");
+                    } else {
+                        out.println("            case " + entry.getKey() + " -> new " +
+                            entry.getValue().getQualifiedName() + "();");
+                    }
+                }
+
+                out.println("            default -> throw new IllegalArgumentException(\"Not found a packet for the id \" + id);");
+                out.println("        };");
+                out.println("    }");
+            }
+
+            out.println("}");
+
+        } catch (IOException e) {
+            error(table.baseType, "Cannot generate the packet registry " + table.getQualifiedName() + ": " + e);
+        }
+    }
+
+    private void error(@NotNull Element element, @NotNull String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,159 @@
+package com.ss.rlib.network.processor.test;
+
+import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
+import com.ss.rlib.network.processor.PacketRegistryProcessor;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.*;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The tests of generating packet registries.
+ *
+ * @author JavaSaBr
+ */
+public class PacketRegistryProcessorTest {
+
+    private static final String BASE_PACKET = """
+        package packets;
+
+        import com.ss.rlib.network.annotation.GeneratePacketRegistry;
+        import com.ss.rlib.network.impl.DefaultConnection;
+        import com.ss.rlib.network.packet.impl.AbstractIdBasedReadablePacket;
+
+        @GeneratePacketRegistry
+        public class BasePacket extends AbstractIdBasedReadablePacket<DefaultConnection, BasePacket> {
+        }
+        """;
+
+    private record CompilationResult(@NotNull Path output, @NotNull List<Diagnostic<? extends JavaFileObject>> errors) {}
+
+    @SneakyThrows
+    private static @NotNull CompilationResult compile(@NotNull Map<String, String> sources) {
+
+        var output = Files.createTempDirectory("packet-registry");
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var files = new ArrayList<JavaFileObject>();
+
+        for (var entry : sources.entrySet()) {
+            files.add(new SimpleJavaFileObject(Path.of(entry.getKey() + ".java").toUri(), JavaFileObject.Kind.SOURCE) {
+
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return entry.getValue();
+                }
+            });
+        }
+
+        var options = List.of(
+            "-d", output.toString(),
+            "-classpath", System.getProperty("java.class.path")
+        );
+
+        var task = compiler.getTask(null, null, diagnostics, options, null, files);
+        task.setProcessors(List.of(new PacketRegistryProcessor()));
+        task.call();
+
+        var errors = diagnostics.getDiagnostics()
+            .stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .collect(Collectors.<Diagnostic<? extends JavaFileObject>>toList());
+
+        return new CompilationResult(output, errors);
+    }
+
+    private static @NotNull String packet(@NotNull String name, int id, @NotNull String body) {
+        return """
+            package packets;
+
+            import com.ss.rlib.network.annotation.PacketDescription;
+
+            @PacketDescription(id = %d)
+            public class %s extends BasePacket {
+            %s
+            }
+            """.formatted(id, name, body);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldGenerateRegistry() {
+
+        var result = compile(Map.of(
+            "packets/BasePacket", BASE_PACKET,
+            "packets/FirstPacket", packet("FirstPacket", 1, ""),
+            "packets/SecondPacket", packet("SecondPacket", 700, ""),
+            "packets/SingletonPacket", packet("SingletonPacket", 3, """
+                public static final SingletonPacket INSTANCE = new SingletonPacket();
+
+                @Override
+                public BasePacket newInstance() {
+                    return INSTANCE;
+                }
+                """)
+        ));
+
+        Assertions.assertEquals(List.of(), result.errors());
+
+        try (var classLoader = new URLClassLoader(new java.net.URL[] {result.output().toUri().toURL()},
+            getClass().getClassLoader())) {
+
+            var registry = (ReadablePacketRegistry<?>) classLoader.loadClass("packets.BasePacketRegistry")
+                .getMethod("newRegistry")
+                .invoke(null);
+
+            var singleton = classLoader.loadClass("packets.SingletonPacket")
+                .getField("INSTANCE")
+                .get(null);
+
+            Assertions.assertEquals("packets.FirstPacket", registry.findById(1).getClass().getName());
+            Assertions.assertEquals("packets.SecondPacket", registry.newInstance(700).getClass().getName());
+            Assertions.assertNotSame(registry.newInstance(1), registry.newInstance(1));
+            Assertions.assertSame(singleton, registry.newInstance(3));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> registry.newInstance(2));
+        }
+    }
+
+    @Test
+    void shouldReportDuplicatedIds() {
+
+        var result = compile(Map.of(
+            "packets/BasePacket", BASE_PACKET,
+            "packets/FirstPacket", packet("FirstPacket", 1, ""),
+            "packets/SecondPacket", packet("SecondPacket", 1, "")
+        ));
+
+        Assertions.assertEquals(1, result.errors().size());
+        Assertions.assertTrue(result.errors().get(0).getMessage(null).contains("duplication by id 1"));
+    }
+
+    @Test
+    void shouldReportNotCreatablePackets() {
+
+        var result = compile(Map.of(
+            "packets/BasePacket", BASE_PACKET,
+            "packets/FirstPacket", packet("FirstPacket", 1, "private FirstPacket() {}"),
+            "packets/SecondPacket", packet("SecondPacket", -1, "")
+        ));
+
+        var messages = result.errors()
+            .stream()
+            .map(diagnostic -> diagnostic.getMessage(null))
+            .sorted()
+            .toList();
+
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertTrue(messages.get(0).contains("wrong id: -1"));
+        Assertions.assertTrue(messages.get(1).contains("constructor without arguments"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.ss.rlib.network.benchmark;
+
+import static com.ss.rlib.network.NetworkFactory.newStringDataServerNetwork;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.metrics.HistogramSnapshot;
+import com.ss.rlib.network.metrics.impl.Histogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The load test which opens a lot of local connections to a server network at the same time and reports
+ * percentiles of accept latency, it's a time from starting connecting a client to handling the accepted
+ * connection by the server. Arguments: connections (50000), acceptors (0 means one per processor),
+ * reusePort (true), client threads (8), accept backlog (0 means a default). Every connection needs two file
+ * descriptors, so a limit of open files should be increased for big counts. Clients are bound to several
+ * loopback addresses to have enough local ports.
+ *
+ * <pre>gradle :rlib-network:acceptLoadTest -PacceptLoadTest.args="50000 0 true 8 4096"</pre>
+ *
+ * @author JavaSaBr
+ */
+public class AcceptLoadTest {
+
+    private static final int CONNECTIONS_BY_LOCAL_ADDRESS = 20_000;
+
+    public static void main(@NotNull String[] args) throws Exception {
+
+        var connections = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        var acceptors = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        var reusePort = args.length <= 2 || Boolean.parseBoolean(args[2]);
+        var clientThreads = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        var acceptBacklog = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .acceptorCount(acceptors)
+            .reusePort(reusePort)
+            .acceptBacklog(acceptBacklog)
+            .build();
+
+        var serverNetwork = newStringDataServerNetwork(serverConfig);
+        var serverAddress = new InetSocketAddress("127.0.0.1", serverNetwork.start().getPort());
+
+        Map<String, Long> connectStartTimes = new ConcurrentHashMap<>();
+
+        var latency = new Histogram();
+        var accepted = new CountDownLatch(connections);
+        var acceptedConnections = new ConcurrentLinkedQueue<Connection<?, ?>>();
+
+        serverNetwork.onAccept(connection -> {
+
+            acceptedConnections.add(connection);
+
+            var startTime = connectStartTimes.remove(connection.getRemoteAddress());
+
+            if (startTime != null) {
+                latency.record(System.nanoTime() - startTime);
+            }
+
+            accepted.countDown();
+        });
+
+        var executor = Executors.newFixedThreadPool(clientThreads);
+        var futures = new ArrayList<Future<List<SocketChannel>>>(clientThreads);
+        var startTime = System.nanoTime();
+
+        for (int i = 0; i < clientThreads; i++) {
+
+            var first = connections * i / clientThreads;
+            var last = connections * (i + 1) / clientThreads;
+
+            futures.add(executor.submit(() -> connect(serverAddress, first, last, connectStartTimes)));
+        }
+
+        var clients = new ArrayList<SocketChannel>(connections);
+
+        for (var future : futures) {
+            clients.addAll(future.get());
+        }
+
+        var allAccepted = accepted.await(2, TimeUnit.MINUTES);
+        var totalTime = System.nanoTime() - startTime;
+
+        print(connections, allAccepted ? 0 : accepted.getCount(), totalTime, latency.snapshot());
+
+        serverNetwork.getAcceptorMetrics()
+            .forEach(System.out::println);
+
+        for (var client : clients) {
+            client.close();
+        }
+
+        acceptedConnections.forEach(Connection::close);
+
+        executor.shutdown();
+        serverNetwork.shutdown();
+    }
+
+    private static @NotNull List<SocketChannel> connect(
+        @NotNull InetSocketAddress serverAddress,
+        int first,
+        int last,
+        @NotNull Map<String, Long> connectStartTimes
+    ) throws IOException {
+
+        var clients = new ArrayList<SocketChannel>(last - first);
+
+        for (int i = first; i < last; i++) {
+
+            var localAddress = "127.0.0." + (1 + i / CONNECTIONS_BY_LOCAL_ADDRESS);
+            var channel = SocketChannel.open();
+            channel.bind(new InetSocketAddress(localAddress, 0));
+
+            connectStartTimes.put(String.valueOf(channel.getLocalAddress()), System.nanoTime());
+
+            channel.connect(serverAddress);
+            clients.add(channel);
+        }
+
+        return clients;
+    }
+
+    private static void print(int connections, long notAccepted, long totalTime, @NotNull HistogramSnapshot latency) {
+        System.out.println("Accepted connections: " + (connections - notAccepted) + " of " + connections +
+            " in " + TimeUnit.NANOSECONDS.toMillis(totalTime) + " ms");
+        System.out.println("Accept latency, us: " +
+            "p50=" + toMicros(latency.getValueAtPercentile(50)) +
+            ", p90=" + toMicros(latency.getValueAtPercentile(90)) +
+            ", p99=" + toMicros(latency.getValueAtPercentile(99)) +
+            ", p99.9=" + toMicros(latency.getValueAtPercentile(99.9)) +
+            ", max=" + toMicros(latency.getMax()));
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.common.util.StringUtils;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkFactory;
+import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.impl.StringDataConnection;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import com.ss.rlib.network.server.ServerNetwork;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of sending packets from a client to a server by loopback when each packet is written by
+ * a separated write operation and when queued packets are coalesced to gathering writes.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchWriteBenchmark {
+
+    private static final int PACKETS_BY_INVOCATION = 1000;
+
+    @Param({"1", "32"})
+    private int maxPacketsByWrite;
+
+    @Param({"16", "256"})
+    private int messageLength;
+
+    private ServerNetwork<StringDataConnection> serverNetwork;
+    private ClientNetwork<StringDataConnection> clientNetwork;
+    private StringDataConnection clientToServer;
+    private Semaphore receivedPackets;
+    private String message;
+
+    @Setup
+    public void setup() {
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .maxPacketsByWrite(maxPacketsByWrite)
+            .build();
+
+        var asyncServerToClient = new CompletableFuture<StringDataConnection>();
+
+        serverNetwork = NetworkFactory.newStringDataServerNetwork(ServerNetworkConfig.DEFAULT_SERVER);
+        serverNetwork.onAccept(asyncServerToClient::complete);
+
+        var serverAddress = serverNetwork.start();
+
+        clientNetwork = NetworkFactory.newStringDataClientNetwork(clientConfig);
+        clientToServer = clientNetwork.connect(serverAddress).join();
+        receivedPackets = new Semaphore(0);
+        message = StringUtils.generate(messageLength);
+
+        asyncServerToClient.join()
+            .onReceive((connection, packet) -> receivedPackets.release());
+    }
+
+    @TearDown
+    public void tearDown() {
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+    }
+
+    /**
+     * Send packets and wait until the server receives all of them, the score is count of packets per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PACKETS_BY_INVOCATION)
+    public void sendPackets() throws InterruptedException {
+
+        for (int i = 0; i < PACKETS_BY_INVOCATION; i++) {
+            clientToServer.send(new StringWritablePacket(message));
+        }
+
+        receivedPackets.acquire(PACKETS_BY_INVOCATION);
+    }
+}
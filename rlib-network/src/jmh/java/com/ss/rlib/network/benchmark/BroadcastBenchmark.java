@@ -0,0 +1,170 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.packet.WritablePacket;
+import com.ss.rlib.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.network.packet.impl.DefaultPacketWriter;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of preparing data of one packet to write it to many connections by serializing
+ * the packet by every connection's writer and by serializing it once to a shared buffer.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    private static final int PACKET_LENGTH_HEADER_SIZE = 4;
+
+    private static class BenchmarkPacket extends AbstractWritablePacket {
+
+        private final byte[] data;
+
+        private BenchmarkPacket(int size) {
+            this.data = new byte[size];
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            buffer.put(data);
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return data.length;
+        }
+    }
+
+    private static class BenchmarkPacketWriter extends
+        DefaultPacketWriter<WritablePacket, Connection<?, WritablePacket>> {
+
+        private BenchmarkPacketWriter(
+            @NotNull AsynchronousSocketChannel channel,
+            @NotNull BufferAllocator bufferAllocator
+        ) {
+            super(
+                newConnection(),
+                channel,
+                bufferAllocator,
+                () -> {},
+                () -> null,
+                packet -> {},
+                (packet, result) -> {},
+                PACKET_LENGTH_HEADER_SIZE,
+                1,
+                0
+            );
+        }
+
+        @SuppressWarnings("unchecked")
+        private static @NotNull Connection<?, WritablePacket> newConnection() {
+            return (Connection<?, WritablePacket>) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> "getMetrics".equals(method.getName()) ? NetworkMetrics.NOOP : null
+            );
+        }
+
+        @Override
+        protected @NotNull ByteBuffer serialize(@NotNull WritablePacket packet) {
+            return super.serialize(packet);
+        }
+    }
+
+    @Param({"100", "500"})
+    private int connections;
+
+    @Param({"64", "2048"})
+    private int packetSize;
+
+    private AsynchronousSocketChannel channel;
+    private BenchmarkPacketWriter[] writers;
+    private BenchmarkPacket packet;
+
+    @Setup
+    public void setup() throws IOException {
+
+        var bufferAllocator = new DefaultBufferAllocator(NetworkConfig.DEFAULT_CLIENT);
+
+        channel = AsynchronousSocketChannel.open();
+        writers = new BenchmarkPacketWriter[connections];
+        packet = new BenchmarkPacket(packetSize);
+
+        for (int i = 0; i < connections; i++) {
+            writers[i] = new BenchmarkPacketWriter(channel, bufferAllocator);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (var writer : writers) {
+            writer.close();
+        }
+        channel.close();
+    }
+
+    /**
+     * Serialize the packet by the writer of every connection.
+     *
+     * @return the count of prepared bytes.
+     */
+    @Benchmark
+    public long serializePerConnection() {
+
+        long bytes = 0;
+
+        for (var writer : writers) {
+            bytes += writer.serialize(packet).remaining();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Serialize the packet once and take a view of the shared data for every connection.
+     *
+     * @return the count of prepared bytes.
+     */
+    @Benchmark
+    public long serializeOnce() {
+
+        var sharedPacket = writers[0].serializeShared(packet);
+
+        if (sharedPacket == null) {
+            throw new IllegalStateException("The packet wasn't serialized");
+        }
+
+        long bytes = 0;
+
+        try {
+
+            for (var writer : writers) {
+                sharedPacket.retain();
+                bytes += writer.serialize(sharedPacket).remaining();
+                sharedPacket.release();
+            }
+
+        } finally {
+            sharedPacket.release();
+        }
+
+        return bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.network.impl.DeflatePacketCompressor;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * The benchmark of compressing world state snapshots by a reused deflate compressor with and without a preset
+ * dictionary and by a new deflater for every packet. Sizes of compressed snapshots are printed at the end
+ * of a trial to compare CPU time with saved bytes.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final String[] STATES = {"IDLE", "MOVING", "ATTACKING", "DEAD"};
+
+    private static final byte[] DICTIONARY = buildSnapshot(new Random(1), 8).array();
+
+    @Param({"4", "64", "512"})
+    private int entities;
+
+    @Param({"1", "6"})
+    private int level;
+
+    @Param({"false", "true"})
+    private boolean dictionary;
+
+    private ByteBuffer snapshot;
+    private ByteBuffer compressed;
+    private ByteBuffer decompressed;
+    private DeflatePacketCompressor compressor;
+    private int compressedSize;
+
+    @Setup
+    public void setup() {
+        snapshot = buildSnapshot(new Random(42), entities);
+        compressed = ByteBuffer.allocate(snapshot.limit() * 2);
+        decompressed = ByteBuffer.allocate(snapshot.limit());
+        compressor = new DeflatePacketCompressor(0, level, snapshot.limit(), dictionary ? DICTIONARY : null);
+        compressedSize = compress().remaining();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("Snapshot size: raw=" + snapshot.limit() + ", compressed=" + compressedSize);
+        compressor.close();
+    }
+
+    private static @NotNull ByteBuffer buildSnapshot(@NotNull Random random, int entities) {
+
+        var buffer = ByteBuffer.allocate(entities * 64);
+
+        for (int i = 0; i < entities; i++) {
+
+            var state = STATES[random.nextInt(STATES.length)].getBytes(StandardCharsets.UTF_8);
+
+            buffer.putInt(1000 + i)
+                .putFloat(100 + random.nextInt(64) * 0.5F)
+                .putFloat(200 + random.nextInt(64) * 0.5F)
+                .putFloat(0)
+                .putShort((short) random.nextInt(360))
+                .putInt(100)
+                .put((byte) state.length)
+                .put(state);
+        }
+
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer compress() {
+        compressor.compress(snapshot.rewind(), compressed.clear());
+        return compressed.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer compressByNewDeflater() {
+
+        var deflater = new Deflater(level);
+
+        if (dictionary) {
+            deflater.setDictionary(DICTIONARY);
+        }
+
+        deflater.setInput(snapshot.rewind());
+        deflater.finish();
+        deflater.deflate(compressed.clear());
+        deflater.end();
+
+        return compressed.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer decompress() {
+        compressor.decompress(compressed.rewind(), decompressed.clear());
+        return decompressed.flip();
+    }
+}
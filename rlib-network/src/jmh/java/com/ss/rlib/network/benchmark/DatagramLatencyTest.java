@@ -0,0 +1,280 @@
+package com.ss.rlib.network.benchmark;
+
+import static com.ss.rlib.network.NetworkFactory.newClientNetwork;
+import static com.ss.rlib.network.NetworkFactory.newDatagramNetwork;
+import static com.ss.rlib.network.NetworkFactory.newServerNetwork;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.annotation.PacketDescription;
+import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.datagram.DatagramNetwork;
+import com.ss.rlib.network.datagram.DatagramNetworkConfig;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.impl.IdBasedPacketConnection;
+import com.ss.rlib.network.metrics.HistogramSnapshot;
+import com.ss.rlib.network.metrics.impl.Histogram;
+import com.ss.rlib.network.packet.impl.AbstractIdBasedReadablePacket;
+import com.ss.rlib.network.packet.impl.DefaultWritablePacket;
+import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
+import com.ss.rlib.network.server.ServerNetwork;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The load test which compares packets per second and percentiles of round trip time of echoed packets between
+ * the datagram transport and the TCP transport on the loopback interface. A client keeps a window of packets
+ * in flight, so datagrams are batched when a sender adds packets faster than they are written. Arguments:
+ * packets (100000), window of packets in flight (32), payload size (64).
+ *
+ * <pre>gradle :rlib-network:datagramLatencyTest -PdatagramLatencyTest.args="100000 32 64"</pre>
+ *
+ * @author JavaSaBr
+ */
+public class DatagramLatencyTest {
+
+    @PacketDescription(id = 1)
+    public static class ReadablePing extends AbstractIdBasedReadablePacket<Connection<?, ?>, ReadablePing> {
+
+        private long sentTime;
+
+        @Override
+        protected void readImpl(@NotNull Connection<?, ?> connection, @NotNull ByteBuffer buffer) {
+            sentTime = readLong(buffer);
+        }
+    }
+
+    @PacketDescription(id = 1)
+    public static class WritablePing extends DefaultWritablePacket {
+
+        private final long sentTime;
+        private final int payloadSize;
+
+        public WritablePing(long sentTime, int payloadSize) {
+            this.sentTime = sentTime;
+            this.payloadSize = payloadSize;
+        }
+
+        @Override
+        public int getExpectedLength() {
+            return 8 + payloadSize;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            writeLong(buffer, sentTime);
+            buffer.position(buffer.position() + payloadSize);
+        }
+    }
+
+    /**
+     * The transport under the test.
+     */
+    private interface Transport {
+
+        /**
+         * Open a connection to an echo server.
+         *
+         * @param payloadSize the payload size of echoed packets.
+         * @param onResponse  the handler of echoed packets.
+         * @return the function to send a packet by the connection.
+         */
+        @NotNull Consumer<WritablePing> open(
+            int payloadSize,
+            @NotNull Consumer<ReadablePing> onResponse
+        ) throws Exception;
+
+        void shutdown();
+    }
+
+    private static class DatagramTransport implements Transport {
+
+        private final ReadablePacketRegistry<ReadablePing> registry =
+            ReadablePacketRegistry.of(ReadablePing.class, ReadablePing.class);
+
+        private final DatagramNetwork<ReadablePing, WritablePing> serverNetwork =
+            newDatagramNetwork(DatagramNetworkConfig.DEFAULT, registry);
+        private final DatagramNetwork<ReadablePing, WritablePing> clientNetwork =
+            newDatagramNetwork(DatagramNetworkConfig.DEFAULT, registry);
+
+        @Override
+        public @NotNull Consumer<WritablePing> open(int payloadSize, @NotNull Consumer<ReadablePing> onResponse) {
+
+            var loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+            var serverAddress = serverNetwork.start(loopback);
+
+            clientNetwork.start(loopback);
+
+            serverNetwork.onAccept(connection -> connection.onReceive((con, packet) ->
+                connection.send(new WritablePing(packet.sentTime, payloadSize))));
+
+            var connection = clientNetwork.connect(serverAddress);
+            connection.onReceive((con, packet) -> onResponse.accept(packet));
+
+            return connection::send;
+        }
+
+        @Override
+        public void shutdown() {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    private static class TcpTransport implements Transport {
+
+        private final ReadablePacketRegistry<ReadablePing> registry =
+            ReadablePacketRegistry.of(ReadablePing.class, ReadablePing.class);
+
+        private final ServerNetwork<IdBasedPacketConnection<ReadablePing, WritablePing>> serverNetwork =
+            newServerNetwork(ServerNetworkConfig.DEFAULT_SERVER, (network, channel) -> new IdBasedPacketConnection<>(
+                network,
+                channel,
+                new DefaultBufferAllocator(ServerNetworkConfig.DEFAULT_SERVER),
+                registry,
+                100,
+                2,
+                2
+            ));
+
+        private final ClientNetwork<IdBasedPacketConnection<ReadablePing, WritablePing>> clientNetwork =
+            newClientNetwork(NetworkConfig.DEFAULT_CLIENT, (network, channel) -> new IdBasedPacketConnection<>(
+                network,
+                channel,
+                new DefaultBufferAllocator(NetworkConfig.DEFAULT_CLIENT),
+                registry,
+                100,
+                2,
+                2
+            ));
+
+        @Override
+        public @NotNull Consumer<WritablePing> open(
+            int payloadSize,
+            @NotNull Consumer<ReadablePing> onResponse
+        ) throws Exception {
+
+            var serverAddress = serverNetwork.start();
+
+            serverNetwork.onAccept(connection -> connection.onReceive((con, packet) ->
+                connection.send(new WritablePing(packet.sentTime, payloadSize))));
+
+            var connection = clientNetwork.connect(serverAddress).get(5, TimeUnit.SECONDS);
+            connection.onReceive((con, packet) -> onResponse.accept(packet));
+
+            return connection::send;
+        }
+
+        @Override
+        public void shutdown() {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    public static void main(@NotNull String[] args) throws Exception {
+
+        var packets = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        var window = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        var payloadSize = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        System.out.println("Packets: " + packets + ", window: " + window + ", payload: " + payloadSize);
+
+        run("UDP", new DatagramTransport(), packets, window, payloadSize);
+        run("TCP", new TcpTransport(), packets, window, payloadSize);
+    }
+
+    private static void run(
+        @NotNull String name,
+        @NotNull Transport transport,
+        int packets,
+        int window,
+        int payloadSize
+    ) throws Exception {
+
+        var inFlight = new Semaphore(window);
+        var latency = new Histogram();
+        var received = new CountDownLatch(packets + packets / 10);
+        var measureFrom = new AtomicLong(Long.MAX_VALUE);
+
+        var sender = transport.open(payloadSize, packet -> {
+
+            if (packet.sentTime >= measureFrom.get()) {
+                latency.record(System.nanoTime() - packet.sentTime);
+            }
+
+            inFlight.release();
+            received.countDown();
+        });
+
+        try {
+
+            // the first tenth of packets warms up both sides and isn't measured
+            var lost = send(sender, inFlight, packets / 10, payloadSize);
+            var startTime = System.nanoTime();
+
+            measureFrom.set(startTime);
+
+            lost += send(sender, inFlight, packets, payloadSize);
+
+            var allReceived = received.await(1, TimeUnit.MINUTES);
+            var elapsed = System.nanoTime() - startTime;
+
+            System.out.println(name + ": " + (packets * TimeUnit.SECONDS.toNanos(1) / elapsed) + " packets/s" +
+                ", lost: " + (allReceived ? 0 : Math.max(lost, received.getCount())));
+
+            print(latency.snapshot());
+
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    /**
+     * Send packets with keeping the window of packets in flight, a packet is counted as lost if the window
+     * isn't released for a second.
+     *
+     * @return the count of lost packets.
+     */
+    private static long send(
+        @NotNull Consumer<WritablePing> sender,
+        @NotNull Semaphore inFlight,
+        int packets,
+        int payloadSize
+    ) throws InterruptedException {
+
+        var lost = 0L;
+
+        for (int i = 0; i < packets; i++) {
+
+            if (!inFlight.tryAcquire(1, TimeUnit.SECONDS)) {
+                lost++;
+            }
+
+            sender.accept(new WritablePing(System.nanoTime(), payloadSize));
+        }
+
+        return lost;
+    }
+
+    private static void print(@NotNull HistogramSnapshot latency) {
+        System.out.println("  round trip time, us: " +
+            "p50=" + toMicros(latency.getValueAtPercentile(50)) +
+            ", p90=" + toMicros(latency.getValueAtPercentile(90)) +
+            ", p99=" + toMicros(latency.getValueAtPercentile(99)) +
+            ", p99.9=" + toMicros(latency.getValueAtPercentile(99.9)) +
+            ", max=" + toMicros(latency.getMax()));
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
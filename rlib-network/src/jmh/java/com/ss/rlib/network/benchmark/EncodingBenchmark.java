@@ -0,0 +1,172 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.network.util.EncodedString;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of encoding and decoding strings and ints by the default methods of packets which write
+ * strings by UTF-16 chars with int length and by the compact methods which write UTF-8 strings and varints.
+ * Sizes of written data are printed at the end of a trial.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+    private static final int VALUES = 64;
+
+    private static class BenchmarkWritablePacket extends AbstractWritablePacket {
+    }
+
+    private static class BenchmarkReadablePacket extends AbstractReadablePacket<Connection<?, ?>> {
+
+        private @NotNull String readDefaultString(@NotNull ByteBuffer buffer) {
+            return readString(buffer);
+        }
+
+        private @NotNull String readCompactString(@NotNull ByteBuffer buffer) {
+            return readUtf8String(buffer);
+        }
+
+        private int readDefaultInt(@NotNull ByteBuffer buffer) {
+            return readInt(buffer);
+        }
+
+        private int readCompactInt(@NotNull ByteBuffer buffer) {
+            return readSignedVarInt(buffer);
+        }
+    }
+
+    @Param({"Hello", "The simple ASCII message which is sent often by the server", "Привет, мир"})
+    private String string;
+
+    private final BenchmarkWritablePacket writablePacket = new BenchmarkWritablePacket();
+    private final BenchmarkReadablePacket readablePacket = new BenchmarkReadablePacket();
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final int[] values = new int[VALUES];
+
+    private ByteBuffer defaultStrings;
+    private ByteBuffer compactStrings;
+    private ByteBuffer defaultInts;
+    private ByteBuffer compactInts;
+    private EncodedString encodedString;
+
+    @Setup
+    public void setup() {
+
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = (i % 2 == 0 ? 1 : -1) * (i * 37 % 1000);
+        }
+
+        encodedString = EncodedString.of(string);
+        defaultStrings = copy(writeDefaultString());
+        compactStrings = copy(writeCompactString());
+        defaultInts = copy(writeDefaultInts());
+        compactInts = copy(writeCompactInts());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("String size: default=" + defaultStrings.limit() + ", compact=" + compactStrings.limit());
+        System.out.println(VALUES + " ints size: default=" + defaultInts.limit() + ", compact=" + compactInts.limit());
+    }
+
+    private static @NotNull ByteBuffer copy(@NotNull ByteBuffer buffer) {
+        return ByteBuffer.allocate(buffer.remaining())
+            .put(buffer)
+            .flip();
+    }
+
+    @Benchmark
+    public ByteBuffer writeDefaultString() {
+        writablePacket.writeString(buffer.clear(), string);
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer writeCompactString() {
+        writablePacket.writeUtf8String(buffer.clear(), string);
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer writeEncodedString() {
+        writablePacket.writeUtf8String(buffer.clear(), encodedString);
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public String readDefaultString() {
+        return readablePacket.readDefaultString(defaultStrings.rewind());
+    }
+
+    @Benchmark
+    public String readCompactString() {
+        return readablePacket.readCompactString(compactStrings.rewind());
+    }
+
+    @Benchmark
+    public ByteBuffer writeDefaultInts() {
+
+        buffer.clear();
+
+        for (var value : values) {
+            writablePacket.writeInt(buffer, value);
+        }
+
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer writeCompactInts() {
+
+        buffer.clear();
+
+        for (var value : values) {
+            writablePacket.writeSignedVarInt(buffer, value);
+        }
+
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public long readDefaultInts() {
+
+        defaultInts.rewind();
+
+        long sum = 0;
+
+        for (int i = 0; i < VALUES; i++) {
+            sum += readablePacket.readDefaultInt(defaultInts);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public long readCompactInts() {
+
+        compactInts.rewind();
+
+        long sum = 0;
+
+        for (int i = 0; i < VALUES; i++) {
+            sum += readablePacket.readCompactInt(compactInts);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,140 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.network.impl.ChaCha20NetworkCryptor;
+import com.ss.rlib.network.util.NetworkUtils;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of encrypting and decrypting one packet by a connection's cryptor in place of a network buffer
+ * and by SSL engines which are used by SSL packet writers and readers, SSL engines also authenticate packets by
+ * records with tags, so they send more bytes which are printed at the end of a trial.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    @Param({"64", "1024", "16000"})
+    private int packetSize;
+
+    private ByteBuffer packet;
+    private ByteBuffer netBuffer;
+    private ByteBuffer appBuffer;
+
+    private ChaCha20NetworkCryptor clientCryptor;
+    private ChaCha20NetworkCryptor serverCryptor;
+
+    private SSLEngine clientEngine;
+    private SSLEngine serverEngine;
+
+    private int recordSize;
+
+    @Setup
+    public void setup() throws Exception {
+
+        var data = new byte[packetSize];
+        new Random(42).nextBytes(data);
+
+        packet = ByteBuffer.wrap(data);
+
+        var secret = new byte[ChaCha20NetworkCryptor.KEY_SIZE];
+        new Random(7).nextBytes(secret);
+
+        clientCryptor = ChaCha20NetworkCryptor.newClientCryptor(secret, 1024);
+        serverCryptor = ChaCha20NetworkCryptor.newServerCryptor(secret, 1024);
+
+        var keyStore = Objects.requireNonNull(getClass().getResourceAsStream("/ssl/rlib_test_cert.p12"));
+
+        serverEngine = NetworkUtils.createSslContext(keyStore, "test").createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        clientEngine = NetworkUtils.createAllTrustedClientSslContext().createSSLEngine();
+        clientEngine.setUseClientMode(true);
+
+        var session = clientEngine.getSession();
+
+        netBuffer = ByteBuffer.allocate(session.getPacketBufferSize());
+        appBuffer = ByteBuffer.allocate(session.getApplicationBufferSize());
+
+        handshake();
+
+        recordSize = ssl().limit();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("Packet size: cryptor=" + packetSize + ", SSL record=" + recordSize);
+    }
+
+    private void handshake() throws SSLException {
+
+        var clientToServer = ByteBuffer.allocate(netBuffer.capacity());
+        var serverToClient = ByteBuffer.allocate(netBuffer.capacity());
+
+        clientEngine.beginHandshake();
+        serverEngine.beginHandshake();
+
+        while (isHandshaking(clientEngine) || isHandshaking(serverEngine)) {
+            handshakeStep(clientEngine, serverToClient, clientToServer);
+            handshakeStep(serverEngine, clientToServer, serverToClient);
+        }
+    }
+
+    private static boolean isHandshaking(@NotNull SSLEngine engine) {
+        var status = engine.getHandshakeStatus();
+        return status != HandshakeStatus.NOT_HANDSHAKING && status != HandshakeStatus.FINISHED;
+    }
+
+    private void handshakeStep(
+        @NotNull SSLEngine engine,
+        @NotNull ByteBuffer incoming,
+        @NotNull ByteBuffer outgoing
+    ) throws SSLException {
+
+        switch (engine.getHandshakeStatus()) {
+            case NEED_WRAP:
+                engine.wrap(ByteBuffer.allocate(0), outgoing);
+                break;
+            case NEED_UNWRAP:
+            case NEED_UNWRAP_AGAIN:
+                incoming.flip();
+                engine.unwrap(incoming, appBuffer.clear());
+                incoming.compact();
+                break;
+            case NEED_TASK:
+                Runnable task;
+                while ((task = engine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+                break;
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer cryptor() {
+        clientCryptor.encrypt(packet, 0, packetSize);
+        serverCryptor.decrypt(packet, 0, packetSize);
+        return packet;
+    }
+
+    @Benchmark
+    public ByteBuffer ssl() throws SSLException {
+        clientEngine.wrap(packet.rewind(), netBuffer.clear());
+        serverEngine.unwrap(netBuffer.flip(), appBuffer.clear());
+        return netBuffer;
+    }
+}
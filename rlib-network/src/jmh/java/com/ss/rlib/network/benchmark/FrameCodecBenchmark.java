@@ -0,0 +1,198 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.impl.ReuseBufferAllocator;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.network.packet.impl.DefaultPacketReader;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of formats of frames on the trace of mixed packet sizes: 70% of packets have 16-64 bytes,
+ * 25% have 64-512 bytes and 5% have 512-1900 bytes. Wire bytes of the trace by each format are printed
+ * on setup, the benchmark measures writing of frame headers and reading of packets from received data.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameCodecBenchmark {
+
+    private static final int PACKET_COUNT = 10_000;
+
+    private static class BenchmarkPacket extends AbstractReadablePacket<Connection<?, ?>> {
+
+        private long checksum;
+
+        @Override
+        protected void readImpl(@NotNull Connection<?, ?> connection, @NotNull ByteBuffer buffer) {
+            checksum = buffer.remaining() + buffer.get(buffer.limit() - 1);
+            buffer.position(buffer.limit());
+        }
+    }
+
+    private static class BenchmarkPacketReader extends
+        DefaultPacketReader<BenchmarkPacket, Connection<BenchmarkPacket, ?>> {
+
+        private BenchmarkPacketReader(
+            @NotNull AsynchronousSocketChannel channel,
+            @NotNull BufferAllocator bufferAllocator,
+            @NotNull FrameCodecBenchmark benchmark,
+            @NotNull FrameCodec frameCodec
+        ) {
+            super(
+                newConnection(),
+                channel,
+                bufferAllocator,
+                () -> {},
+                benchmark::handle,
+                value -> new BenchmarkPacket(),
+                frameCodec,
+                Integer.MAX_VALUE,
+                true
+            );
+        }
+
+        @SuppressWarnings("unchecked")
+        private static @NotNull Connection<BenchmarkPacket, ?> newConnection() {
+            return (Connection<BenchmarkPacket, ?>) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> "getMetrics".equals(method.getName()) ? NetworkMetrics.NOOP : null
+            );
+        }
+    }
+
+    @Param({"fixed4", "fixed2", "varint", "lengthField"})
+    private String codec;
+
+    private AsynchronousSocketChannel channel;
+    private BenchmarkPacketReader reader;
+    private FrameCodec frameCodec;
+    private ByteBuffer receivedData;
+    private ByteBuffer frameBuffer;
+
+    private int[] packetSizes;
+    private long checksum;
+
+    private static @NotNull FrameCodec toFrameCodec(@NotNull String name) {
+        return switch (name) {
+            case "fixed4" -> FrameCodec.fixed(4, 0);
+            case "fixed2" -> FrameCodec.fixed(2, 0);
+            case "varint" -> FrameCodec.varInt();
+            case "lengthField" -> FrameCodec.lengthField(2, 2, 0, 0);
+            default -> throw new IllegalArgumentException("Unknown codec: " + name);
+        };
+    }
+
+    @Setup
+    public void setup() throws IOException {
+
+        var config = NetworkConfig.SimpleNetworkConfig.builder()
+            .inPlaceReading(true)
+            .build();
+
+        frameCodec = toFrameCodec(codec);
+        channel = AsynchronousSocketChannel.open();
+        reader = new BenchmarkPacketReader(channel, new ReuseBufferAllocator(config), this, frameCodec);
+
+        var random = new Random(42);
+
+        packetSizes = new int[PACKET_COUNT];
+
+        var dataSize = 0L;
+
+        for (int i = 0; i < PACKET_COUNT; i++) {
+
+            var chance = random.nextInt(100);
+
+            packetSizes[i] = chance < 70 ? random.nextInt(16, 64) :
+                chance < 95 ? random.nextInt(64, 512) : random.nextInt(512, 1900);
+
+            dataSize += packetSizes[i];
+        }
+
+        var maxHeaderSize = frameCodec.getMaxHeaderSize();
+
+        receivedData = ByteBuffer.allocate(Math.toIntExact(dataSize + (long) maxHeaderSize * PACKET_COUNT))
+            .order(config.getByteOrder());
+        frameBuffer = ByteBuffer.allocate(maxHeaderSize + 1900)
+            .order(config.getByteOrder());
+
+        for (var packetSize : packetSizes) {
+
+            frameBuffer.clear()
+                .position(maxHeaderSize);
+
+            for (int j = 0; j < packetSize; j++) {
+                frameBuffer.put((byte) j);
+            }
+
+            frameBuffer.flip()
+                .position(frameCodec.writeHeader(frameBuffer, maxHeaderSize));
+
+            receivedData.put(frameBuffer);
+        }
+
+        receivedData.flip();
+
+        System.out.printf("%n%s: %d wire bytes for %d data bytes, %.2f header bytes per packet%n",
+            codec, receivedData.limit(), dataSize, (receivedData.limit() - dataSize) / (double) PACKET_COUNT);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        channel.close();
+    }
+
+    private void handle(@NotNull BenchmarkPacket packet) {
+        checksum += packet.checksum;
+    }
+
+    /**
+     * Write headers of frames of the trace's packets.
+     *
+     * @return the sum of positions of written frames.
+     */
+    @Benchmark
+    public long writeHeaders() {
+
+        var maxHeaderSize = frameCodec.getMaxHeaderSize();
+        var positions = 0L;
+
+        for (var packetSize : packetSizes) {
+            frameBuffer.clear()
+                .limit(maxHeaderSize + packetSize);
+            positions += frameCodec.writeHeader(frameBuffer, maxHeaderSize);
+        }
+
+        return positions;
+    }
+
+    /**
+     * Read packets of the trace from received data.
+     *
+     * @return the checksum of read packets.
+     */
+    @Benchmark
+    public long readPackets() {
+        reader.receive(receivedData.rewind());
+        return checksum;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ss.rlib.network.benchmark;
+
+import static com.ss.rlib.network.NetworkFactory.newStringDataClientNetwork;
+import static com.ss.rlib.network.NetworkFactory.newStringDataServerNetwork;
+import com.ss.rlib.common.concurrent.util.ThreadUtils;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.PacketDispatchMode;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.impl.StringDataConnection;
+import com.ss.rlib.network.metrics.HistogramSnapshot;
+import com.ss.rlib.network.metrics.impl.Histogram;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The load test which reports percentiles of latency from sending packets to finishing their handling by
+ * a server network with one network thread when one of connections has a deliberately slow handler. Only
+ * packets of fast connections are measured. Arguments: dispatch mode (DIRECT), connections (8), rounds (2000),
+ * slow handler time in ms (5). Every round sends a packet by each fast connection and every 10th round
+ * sends a packet by the slow connection.
+ *
+ * <pre>gradle :rlib-network:handlerLatencyTest -PhandlerLatencyTest.args="VIRTUAL_THREAD 8 2000 5"</pre>
+ *
+ * @author JavaSaBr
+ */
+public class HandlerLatencyTest {
+
+    private static final int SLOW_CONNECTION_ROUNDS = 10;
+
+    public static void main(@NotNull String[] args) throws Exception {
+
+        var dispatchMode = args.length > 0 ? PacketDispatchMode.valueOf(args[0]) : PacketDispatchMode.DIRECT;
+        var connections = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        var rounds = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        var slowHandlerTime = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .packetDispatchMode(dispatchMode)
+            .build();
+
+        var serverNetwork = newStringDataServerNetwork(serverConfig);
+        var serverAddress = serverNetwork.start();
+
+        var expectedPackets = (connections - 1) * rounds + (rounds + SLOW_CONNECTION_ROUNDS - 1) / SLOW_CONNECTION_ROUNDS;
+        var handled = new CountDownLatch(expectedPackets);
+        var latency = new Histogram();
+        var slowConnection = new AtomicReference<Connection<?, ?>>();
+
+        serverNetwork.onAccept(connection -> {
+
+            var slow = slowConnection.compareAndSet(null, connection);
+
+            connection.onReceive((conn, packet) -> {
+
+                if (slow) {
+                    ThreadUtils.sleep(slowHandlerTime);
+                } else {
+                    latency.record(System.nanoTime() - Long.parseLong(packet.getData()));
+                }
+
+                handled.countDown();
+            });
+        });
+
+        var clientNetworks = new ArrayList<ClientNetwork<StringDataConnection>>(connections);
+        var clients = new ArrayList<StringDataConnection>(connections);
+
+        // the first connection is accepted as the slow one
+        for (int i = 0; i < connections; i++) {
+
+            var clientNetwork = newStringDataClientNetwork(NetworkConfig.DEFAULT_CLIENT);
+
+            clientNetworks.add(clientNetwork);
+            clients.add(clientNetwork.connect(serverAddress).get(5, TimeUnit.SECONDS));
+
+            while (slowConnection.get() == null) {
+                ThreadUtils.sleep(1);
+            }
+        }
+
+        for (int round = 0; round < rounds; round++) {
+
+            for (int i = 0; i < connections; i++) {
+                if (i > 0 || round % SLOW_CONNECTION_ROUNDS == 0) {
+                    clients.get(i).send(new StringWritablePacket(String.valueOf(System.nanoTime())));
+                }
+            }
+
+            ThreadUtils.sleep(1);
+        }
+
+        var allHandled = handled.await(2, TimeUnit.MINUTES);
+
+        System.out.println("Dispatch mode: " + dispatchMode + ", handled packets: " +
+            (expectedPackets - (allHandled ? 0 : handled.getCount())) + " of " + expectedPackets);
+
+        print(latency.snapshot());
+
+        clientNetworks.forEach(ClientNetwork::shutdown);
+        serverNetwork.shutdown();
+    }
+
+    private static void print(@NotNull HistogramSnapshot latency) {
+        System.out.println("Handler latency of fast connections, us: " +
+            "p50=" + toMicros(latency.getValueAtPercentile(50)) +
+            ", p90=" + toMicros(latency.getValueAtPercentile(90)) +
+            ", p99=" + toMicros(latency.getValueAtPercentile(99)) +
+            ", p99.9=" + toMicros(latency.getValueAtPercentile(99.9)) +
+            ", max=" + toMicros(latency.getMax()));
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
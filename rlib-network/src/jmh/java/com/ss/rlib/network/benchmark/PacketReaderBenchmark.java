@@ -0,0 +1,141 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.impl.ReuseBufferAllocator;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.network.packet.impl.DefaultPacketReader;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of reading packets from received data by the default and in place reading modes,
+ * received data is delivered to a packet reader by parts with size of the reader's buffer like
+ * a socket channel does it.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketReaderBenchmark {
+
+    private static final int PACKET_LENGTH_HEADER_SIZE = 4;
+    private static final int RECEIVED_BYTES = 1024 * 1024;
+
+    private static class BenchmarkPacket extends AbstractReadablePacket<Connection<?, ?>> {
+
+        private long checksum;
+
+        @Override
+        protected void readImpl(@NotNull Connection<?, ?> connection, @NotNull ByteBuffer buffer) {
+            checksum = buffer.remaining() + buffer.get(buffer.limit() - 1);
+            buffer.position(buffer.limit());
+        }
+    }
+
+    private static class BenchmarkPacketReader extends
+        DefaultPacketReader<BenchmarkPacket, Connection<BenchmarkPacket, ?>> {
+
+        private BenchmarkPacketReader(
+            @NotNull AsynchronousSocketChannel channel,
+            @NotNull BufferAllocator bufferAllocator,
+            @NotNull PacketReaderBenchmark benchmark,
+            boolean inPlaceReading
+        ) {
+            super(
+                newConnection(),
+                channel,
+                bufferAllocator,
+                () -> {},
+                benchmark::handle,
+                value -> new BenchmarkPacket(),
+                PACKET_LENGTH_HEADER_SIZE,
+                Integer.MAX_VALUE,
+                inPlaceReading
+            );
+        }
+
+        @SuppressWarnings("unchecked")
+        private static @NotNull Connection<BenchmarkPacket, ?> newConnection() {
+            return (Connection<BenchmarkPacket, ?>) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> "getMetrics".equals(method.getName()) ? NetworkMetrics.NOOP : null
+            );
+        }
+    }
+
+    @Param({"64", "2048", "65536"})
+    private int packetSize;
+
+    @Param({"false", "true"})
+    private boolean inPlaceReading;
+
+    private AsynchronousSocketChannel channel;
+    private BenchmarkPacketReader reader;
+    private ByteBuffer receivedData;
+
+    private int packetCount;
+    private long checksum;
+
+    @Setup
+    public void setup() throws IOException {
+
+        var config = NetworkConfig.SimpleNetworkConfig.builder()
+            .inPlaceReading(inPlaceReading)
+            .build();
+
+        channel = AsynchronousSocketChannel.open();
+        reader = new BenchmarkPacketReader(channel, new ReuseBufferAllocator(config), this, inPlaceReading);
+
+        var packetLength = packetSize + PACKET_LENGTH_HEADER_SIZE;
+
+        packetCount = RECEIVED_BYTES / packetLength;
+        receivedData = ByteBuffer.allocate(packetCount * packetLength)
+            .order(config.getByteOrder());
+
+        for (int i = 0; i < packetCount; i++) {
+
+            receivedData.putInt(packetLength);
+
+            for (int j = 0; j < packetSize; j++) {
+                receivedData.put((byte) j);
+            }
+        }
+
+        receivedData.flip();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        channel.close();
+    }
+
+    private void handle(@NotNull BenchmarkPacket packet) {
+        checksum += packet.checksum;
+    }
+
+    /**
+     * Read about 1MB of received data which contains packets with the benchmark's data size.
+     *
+     * @return the checksum of read packets.
+     */
+    @Benchmark
+    public long readPackets() {
+        reader.receive(receivedData.clear());
+        return checksum;
+    }
+}
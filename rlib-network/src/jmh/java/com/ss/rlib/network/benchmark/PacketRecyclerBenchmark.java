@@ -0,0 +1,73 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.common.util.ClassUtils;
+import com.ss.rlib.common.util.pools.Pool;
+import com.ss.rlib.common.util.pools.PoolFactory;
+import com.ss.rlib.network.packet.ReusableWritablePacket;
+import com.ss.rlib.network.packet.impl.AbstractReusableWritablePacket;
+import com.ss.rlib.network.packet.impl.PacketRecycler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of taking and completing reusable packets by a recycler and by thread local pools which were
+ * used by reusable packets before.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketRecyclerBenchmark {
+
+    private static final ThreadLocal<Map<Class<?>, Pool<ReusableWritablePacket>>> LOCAL_POOLS =
+        ThreadLocal.withInitial(HashMap::new);
+
+    public static class BenchmarkPacket extends AbstractReusableWritablePacket {
+    }
+
+    private final PacketRecycler recycler = new PacketRecycler(
+        PacketRecycler.DEFAULT_MAX_CAPACITY,
+        PacketRecycler.DEFAULT_MAX_RETURN_CAPACITY
+    );
+
+    /**
+     * Take a packet from a thread local pool and complete it.
+     *
+     * @return the taken packet.
+     */
+    @Benchmark
+    public ReusableWritablePacket threadLocalPool() {
+
+        var pool = LOCAL_POOLS.get().computeIfAbsent(
+            BenchmarkPacket.class,
+            type -> PoolFactory.newConcurrentStampedLockReusablePool(ReusableWritablePacket.class)
+        );
+
+        var packet = pool.take(BenchmarkPacket.class, ClassUtils::<ReusableWritablePacket>newInstance);
+        packet.setPool(pool);
+        packet.forceComplete();
+
+        return packet;
+    }
+
+    /**
+     * Take a packet from the recycler and complete it.
+     *
+     * @return the taken packet.
+     */
+    @Benchmark
+    public ReusableWritablePacket recycler() {
+
+        var packet = recycler.take(BenchmarkPacket.class);
+        recycler.recycle(packet);
+
+        return packet;
+    }
+}
@@ -0,0 +1,234 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.common.util.ClassUtils;
+import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
+import com.ss.rlib.network.packet.registry.impl.IdBasedReadablePacketRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The load test which compares a registry of readable packets which is built by reflection with a registry which
+ * is generated at compile time by {@link com.ss.rlib.network.annotation.GeneratePacketRegistry}. Sources of
+ * packets are generated and compiled with the annotation processor on start, each registry is created in a new
+ * class loader with the library and packets to measure the cold startup, which includes loading of packet
+ * classes, after that the cost of {@code findById} and {@code newInstance} by random ids is measured.
+ * Arguments: packet types (900), startups (20), lookups (10000000).
+ *
+ * <pre>gradle :rlib-network:packetRegistryStartupTest -PpacketRegistryStartupTest.args="900 20 10000000"</pre>
+ *
+ * @author JavaSaBr
+ */
+public class PacketRegistryStartupTest {
+
+    public static void main(@NotNull String[] args) throws Exception {
+
+        var packetTypes = args.length > 0 ? Integer.parseInt(args[0]) : 900;
+        var startups = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        var lookups = args.length > 2 ? Integer.parseInt(args[2]) : 10_000_000;
+
+        System.out.println("Packet types: " + packetTypes + ", startups: " + startups + ", lookups: " + lookups);
+
+        var classes = compilePackets(packetTypes);
+
+        run("Reflection", classes, packetTypes, startups, lookups, false);
+        run("Generated", classes, packetTypes, startups, lookups, true);
+    }
+
+    /**
+     * Create a registry in the class loader of this class and return the function to look up packets by the
+     * registry, it's called in a new class loader with the library and compiled packets.
+     *
+     * @param packetTypes the count of packet types.
+     * @param generated   true if the generated registry should be created.
+     * @param startupTime the array to put the time in ns of creating the registry.
+     * @return the function to look up packets by id.
+     */
+    public static @NotNull IntUnaryOperator start(
+        int packetTypes,
+        boolean generated,
+        long @NotNull [] startupTime
+    ) throws Exception {
+
+        var classLoader = PacketRegistryStartupTest.class.getClassLoader();
+
+        // classes of the library are loaded before measuring
+        new IdBasedReadablePacketRegistry<>(IdBasedReadablePacket.class);
+
+        var startTime = System.nanoTime();
+        var registry = generated ? loadGenerated(classLoader) : loadByReflection(classLoader, packetTypes);
+
+        startupTime[0] = System.nanoTime() - startTime;
+
+        return id -> lookup(registry, id);
+    }
+
+    private static @NotNull ReadablePacketRegistry<?> loadByReflection(
+        @NotNull ClassLoader classLoader,
+        int packetTypes
+    ) throws Exception {
+
+        Class<? extends IdBasedReadablePacket>[] classes = ClassUtils.unsafeNNCast(new Class[packetTypes]);
+
+        for (int i = 0; i < packetTypes; i++) {
+            classes[i] = ClassUtils.unsafeNNCast(classLoader.loadClass("packets.Packet" + i));
+        }
+
+        return new IdBasedReadablePacketRegistry<>(IdBasedReadablePacket.class)
+            .register(classes, packetTypes);
+    }
+
+    private static @NotNull ReadablePacketRegistry<?> loadGenerated(@NotNull ClassLoader classLoader) throws Exception {
+        return (ReadablePacketRegistry<?>) classLoader.loadClass("packets.BasePacketRegistry")
+            .getMethod("newRegistry")
+            .invoke(null);
+    }
+
+    private static void run(
+        @NotNull String name,
+        @NotNull Path classes,
+        int packetTypes,
+        int startups,
+        int lookups,
+        boolean generated
+    ) throws Exception {
+
+        var startupTimes = new long[startups];
+        var startupTime = new long[1];
+        var urls = new ArrayList<URL>();
+
+        urls.add(classes.toUri().toURL());
+
+        for (var path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            urls.add(Path.of(path).toUri().toURL());
+        }
+
+        IntUnaryOperator lookup = null;
+
+        for (int i = 0; i < startups; i++) {
+
+            // the class loader isn't closed to keep the last registry
+            var classLoader = new URLClassLoader(urls.toArray(URL[]::new), ClassLoader.getPlatformClassLoader());
+            var thread = Thread.currentThread();
+            var contextClassLoader = thread.getContextClassLoader();
+
+            // service providers of the library are loaded by the context class loader
+            thread.setContextClassLoader(classLoader);
+            try {
+                lookup = (IntUnaryOperator) classLoader.loadClass(PacketRegistryStartupTest.class.getName())
+                    .getMethod("start", int.class, boolean.class, long[].class)
+                    .invoke(null, packetTypes, generated, startupTime);
+            } finally {
+                thread.setContextClassLoader(contextClassLoader);
+            }
+
+            startupTimes[i] = startupTime[0];
+        }
+
+        Arrays.sort(startupTimes);
+
+        var random = ThreadLocalRandom.current();
+        var ids = random.ints(4096, 0, packetTypes).toArray();
+        var checksum = 0L;
+
+        // the first half of lookups warms up the registry and isn't measured
+        for (int i = 0; i < lookups / 2; i++) {
+            checksum += lookup.applyAsInt(ids[i & 4095]);
+        }
+
+        var startTime = System.nanoTime();
+
+        for (int i = 0; i < lookups; i++) {
+            checksum += lookup.applyAsInt(ids[i & 4095]);
+        }
+
+        var elapsed = System.nanoTime() - startTime;
+
+        System.out.println(name + ": startup p50=" + toMicros(startupTimes[startups / 2]) + "us" +
+            ", min=" + toMicros(startupTimes[0]) + "us" +
+            ", max=" + toMicros(startupTimes[startups - 1]) + "us" +
+            ", findById+newInstance=" + String.format("%.1f", elapsed / (double) lookups) + "ns" +
+            " (checksum " + checksum + ")");
+    }
+
+    private static int lookup(@NotNull ReadablePacketRegistry<?> registry, int id) {
+        return registry.findById(id).getClass().hashCode() + registry.newInstance(id).hashCode();
+    }
+
+    /**
+     * Generate and compile sources of packets with the annotation processor.
+     *
+     * @return the directory with compiled classes.
+     */
+    private static @NotNull Path compilePackets(int packetTypes) throws Exception {
+
+        var output = Files.createTempDirectory("packets");
+        var sources = new ArrayList<JavaFileObject>();
+
+        sources.add(newSource("BasePacket", """
+            package packets;
+
+            @com.ss.rlib.network.annotation.GeneratePacketRegistry
+            public class BasePacket extends com.ss.rlib.network.packet.impl.AbstractIdBasedReadablePacket<
+                com.ss.rlib.network.impl.DefaultConnection, BasePacket> {
+            }
+            """));
+
+        for (int i = 0; i < packetTypes; i++) {
+            sources.add(newSource("Packet" + i, """
+                package packets;
+
+                @com.ss.rlib.network.annotation.PacketDescription(id = %d)
+                public class Packet%d extends BasePacket {
+                }
+                """.formatted(i, i)));
+        }
+
+        var classpath = System.getProperty("java.class.path");
+        var options = List.of(
+            "-d", output.toString(),
+            "-classpath", classpath,
+            "-processorpath", classpath,
+            "-processor", "com.ss.rlib.network.processor.PacketRegistryProcessor"
+        );
+
+        var startTime = System.nanoTime();
+
+        if (!ToolProvider.getSystemJavaCompiler().getTask(null, null, null, options, null, sources).call()) {
+            throw new IllegalStateException("Cannot compile packets");
+        }
+
+        System.out.println("Compiled packets in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) +
+            "ms");
+
+        return output;
+    }
+
+    private static @NotNull JavaFileObject newSource(@NotNull String name, @NotNull String source) {
+        return new SimpleJavaFileObject(Path.of(name + ".java").toUri(), JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
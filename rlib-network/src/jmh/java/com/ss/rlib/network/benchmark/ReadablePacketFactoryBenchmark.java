@@ -0,0 +1,79 @@
+package com.ss.rlib.network.benchmark;
+
+import com.ss.rlib.network.annotation.PacketDescription;
+import com.ss.rlib.network.impl.DefaultConnection;
+import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.ReusableReadablePacket;
+import com.ss.rlib.network.packet.impl.AbstractReusableIdBasedReadablePacket;
+import com.ss.rlib.network.packet.impl.DefaultReadablePacket;
+import com.ss.rlib.network.packet.registry.impl.IdBasedReadablePacketRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmark of creating readable packets by reflection, by a generated factory of a packet registry and
+ * by a pool of a packet registry.
+ *
+ * @author JavaSaBr
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadablePacketFactoryBenchmark {
+
+    @PacketDescription(id = 1)
+    public static class BenchmarkPacket extends DefaultReadablePacket {
+    }
+
+    public static class ReusableBenchmarkBase extends
+        AbstractReusableIdBasedReadablePacket<DefaultConnection, ReusableBenchmarkBase> {
+    }
+
+    @PacketDescription(id = 1)
+    public static class ReusableBenchmarkPacket extends ReusableBenchmarkBase {
+    }
+
+    private final IdBasedReadablePacket<?> prototype = new BenchmarkPacket();
+
+    private final IdBasedReadablePacketRegistry<DefaultReadablePacket> registry =
+        new IdBasedReadablePacketRegistry<>(DefaultReadablePacket.class).register(BenchmarkPacket.class);
+
+    private final IdBasedReadablePacketRegistry<ReusableBenchmarkBase> reusableRegistry =
+        new IdBasedReadablePacketRegistry<>(ReusableBenchmarkBase.class).register(ReusableBenchmarkPacket.class);
+
+    /**
+     * Create a new packet by reflection.
+     *
+     * @return the new packet.
+     */
+    @Benchmark
+    public Object reflection() {
+        return prototype.newInstance();
+    }
+
+    /**
+     * Create a new packet by the generated factory.
+     *
+     * @return the new packet.
+     */
+    @Benchmark
+    public Object factory() {
+        return registry.newInstance(1);
+    }
+
+    /**
+     * Take a packet from the pool and release it.
+     *
+     * @return the taken packet.
+     */
+    @Benchmark
+    public Object pool() {
+        var packet = reusableRegistry.newInstance(1);
+        ((ReusableReadablePacket) packet).release();
+        return packet;
+    }
+}
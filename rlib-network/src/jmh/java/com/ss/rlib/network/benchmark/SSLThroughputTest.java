@@ -0,0 +1,101 @@
+package com.ss.rlib.network.benchmark;
+
+import static com.ss.rlib.network.NetworkFactory.newStringDataSSLClientNetwork;
+import static com.ss.rlib.network.NetworkFactory.newStringDataSSLServerNetwork;
+import com.ss.rlib.common.util.StringUtils;
+import com.ss.rlib.network.NetworkConfig.SimpleNetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import com.ss.rlib.network.util.NetworkUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The load test which reports throughput of sending packets from an SSL client to an SSL server on loopback
+ * in MB/s of packets' data. Arguments: packet size (1024), packets (200000), max packets by write (16), rounds (5).
+ * Packets of one write are wrapped by SSL engine together when max packets by write is more than 1.
+ *
+ * <pre>gradle :rlib-network:sslThroughputTest -PsslThroughputTest.args="1024 200000 1 5"</pre>
+ *
+ * @author JavaSaBr
+ */
+public class SSLThroughputTest {
+
+    public static void main(@NotNull String[] args) throws Exception {
+
+        var packetSize = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        var packets = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        var maxPacketsByWrite = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        var rounds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        var keyStore = Objects.requireNonNull(SSLThroughputTest.class.getResourceAsStream("/ssl/rlib_test_cert.p12"));
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .maxPacketsByWrite(maxPacketsByWrite)
+            .build();
+
+        var clientConfig = SimpleNetworkConfig.builder()
+            .maxPacketsByWrite(maxPacketsByWrite)
+            .maxBytesByWrite(Math.max(packetSize * maxPacketsByWrite, 8192))
+            .build();
+
+        var serverNetwork = newStringDataSSLServerNetwork(
+            serverConfig,
+            new DefaultBufferAllocator(serverConfig),
+            NetworkUtils.createSslContext(keyStore, "test")
+        );
+
+        var serverAddress = serverNetwork.start();
+        var received = new CountDownLatch[1];
+
+        serverNetwork.onAccept(connection -> connection.onReceive((conn, packet) -> received[0].countDown()));
+
+        var clientNetwork = newStringDataSSLClientNetwork(
+            clientConfig,
+            new DefaultBufferAllocator(clientConfig),
+            NetworkUtils.createAllTrustedClientSslContext()
+        );
+
+        var connection = clientNetwork.connect(serverAddress)
+            .get(5, TimeUnit.SECONDS);
+
+        // the packet has 2 bytes of length, 4 bytes of string length and 2 bytes per char
+        var data = StringUtils.generate((packetSize - 6) / 2);
+
+        for (int round = 0; round < rounds; round++) {
+
+            received[0] = new CountDownLatch(packets);
+
+            var startTime = System.nanoTime();
+
+            for (int i = 0; i < packets; i++) {
+                connection.send(new StringWritablePacket(data));
+            }
+
+            if (!received[0].await(2, TimeUnit.MINUTES)) {
+                System.out.println("Round " + round + ": received only " + (packets - received[0].getCount()) +
+                    " of " + packets + " packets");
+                break;
+            }
+
+            var time = System.nanoTime() - startTime;
+            var megabytes = (double) packets * packetSize / (1024 * 1024);
+
+            System.out.printf(
+                "Round %d: packet size=%d, max packets by write=%d, %.1f MB/s, %d packets/s%n",
+                round,
+                packetSize,
+                maxPacketsByWrite,
+                megabytes / (time / 1_000_000_000D),
+                TimeUnit.SECONDS.toNanos(packets) / time
+            );
+        }
+
+        clientNetwork.shutdown();
+        serverNetwork.shutdown();
+    }
+}
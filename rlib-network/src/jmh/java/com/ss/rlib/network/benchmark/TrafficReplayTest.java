@@ -0,0 +1,289 @@
+package com.ss.rlib.network.benchmark;
+
+import static com.ss.rlib.network.NetworkFactory.newServerNetwork;
+import static com.ss.rlib.network.NetworkFactory.newStringDataClientNetwork;
+import static com.ss.rlib.network.NetworkFactory.newStringDataServerNetwork;
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
+import com.ss.rlib.network.Network;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.capture.TrafficCapture;
+import com.ss.rlib.network.capture.TrafficCaptureReader;
+import com.ss.rlib.network.capture.TrafficDirection;
+import com.ss.rlib.network.capture.TrafficReplay;
+import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.impl.DefaultDataConnection;
+import com.ss.rlib.network.impl.ReuseBufferAllocator;
+import com.ss.rlib.network.impl.StringDataConnection;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.packet.impl.AbstractReadablePacket;
+import com.ss.rlib.network.packet.impl.DefaultPacketReader;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The load test which replays captures of {@link TrafficCapture} to measure reading of received packets offline.
+ * Received frames of captures are loaded to memory and are replayed to packet readers without sockets by both
+ * reading modes, then all captures are replayed at the same time to a local server network by socket
+ * connections. Packets are framed by a fixed length header and their data is skipped, so captures of any
+ * default data connections can be replayed. Arguments: directory of server captures or "-" to capture
+ * a generated exchange of string packets, packet length header size (2), speed of replaying to the server
+ * (0 is max speed), iterations of replaying to packet readers (20).
+ *
+ * <pre>gradle :rlib-network:trafficReplayTest -PtrafficReplayTest.args="/tmp/captures 2 1 20"</pre>
+ *
+ * @author JavaSaBr
+ */
+public class TrafficReplayTest {
+
+    private static final int GENERATED_CONNECTIONS = 4;
+    private static final int GENERATED_PACKETS = 20_000;
+
+    private static class ReplayPacket extends AbstractReadablePacket<Connection<?, ?>> {
+
+        @Override
+        protected void readImpl(@NotNull Connection<?, ?> connection, @NotNull ByteBuffer buffer) {
+            buffer.position(buffer.limit());
+        }
+    }
+
+    private static class ReplayConnection extends DefaultDataConnection<ReplayPacket, StringWritablePacket> {
+
+        private ReplayConnection(
+            @NotNull Network<ReplayConnection> network,
+            @NotNull AsynchronousSocketChannel channel,
+            @NotNull BufferAllocator bufferAllocator,
+            int packetLengthHeaderSize
+        ) {
+            super(network, channel, bufferAllocator, 100, packetLengthHeaderSize);
+        }
+
+        @Override
+        protected @NotNull ReplayPacket createReadablePacket() {
+            return new ReplayPacket();
+        }
+    }
+
+    public static void main(@NotNull String[] args) throws Exception {
+
+        var directory = args.length > 0 && !"-".equals(args[0]) ? Path.of(args[0]) : null;
+        var packetLengthHeaderSize = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        var speed = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        var iterations = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        if (directory == null) {
+            directory = Files.createTempDirectory("rlib-network-captures");
+            generateCaptures(directory);
+            System.out.println("Generated captures: " + directory);
+        }
+
+        var captures = TrafficCaptureReader.findCaptures(directory);
+        var frames = new ArrayList<List<ByteBuffer>>();
+        var bytes = 0L;
+        var frameCount = 0;
+
+        for (var capture : captures) {
+
+            var captureFrames = new ArrayList<ByteBuffer>();
+
+            TrafficReplay.replay(capture, TrafficDirection.INBOUND, TrafficReplay.MAX_SPEED, captureFrames::add);
+
+            frames.add(captureFrames);
+            frameCount += captureFrames.size();
+
+            for (var frame : captureFrames) {
+                bytes += frame.remaining();
+            }
+        }
+
+        System.out.println("Captures: " + captures.size() + ", received frames: " + frameCount +
+            ", received bytes: " + bytes);
+
+        replayToReaders(frames, bytes, packetLengthHeaderSize, false, iterations);
+        replayToReaders(frames, bytes, packetLengthHeaderSize, true, iterations);
+        replayToServer(captures, packetLengthHeaderSize, speed);
+    }
+
+    /**
+     * Capture the exchange of string packets with mixed sizes between clients and a server.
+     */
+    private static void generateCaptures(@NotNull Path directory) throws Exception {
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .trafficCapture(TrafficCapture.toDirectory(directory))
+            .build();
+
+        var serverNetwork = newStringDataServerNetwork(serverConfig);
+        var clientNetworks = new ArrayList<ClientNetwork<StringDataConnection>>();
+
+        var received = new CountDownLatch(GENERATED_CONNECTIONS * GENERATED_PACKETS);
+        var accepted = new CopyOnWriteArrayList<StringDataConnection>();
+
+        try {
+
+            var serverAddress = serverNetwork.start();
+
+            serverNetwork.onAccept(connection -> {
+                accepted.add(connection);
+                connection.onReceive((conn, packet) -> received.countDown());
+            });
+
+            var random = new Random(42);
+
+            for (int i = 0; i < GENERATED_CONNECTIONS; i++) {
+
+                // a client network has only one connection
+                var clientNetwork = newStringDataClientNetwork();
+                clientNetworks.add(clientNetwork);
+
+                var connection = clientNetwork.connect(serverAddress).get(5, TimeUnit.SECONDS);
+
+                for (int j = 0; j < GENERATED_PACKETS; j++) {
+
+                    // most of packets are small and some of them are big
+                    var length = random.nextInt(10) == 0 ? 256 + random.nextInt(1280) : 8 + random.nextInt(56);
+
+                    connection.send(new StringWritablePacket("a".repeat(length)));
+                }
+            }
+
+            if (!received.await(1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Not all generated packets were received");
+            }
+
+            // recorders are flushed by closing of connections
+            accepted.forEach(Connection::close);
+
+        } finally {
+            clientNetworks.forEach(ClientNetwork::shutdown);
+            serverNetwork.shutdown();
+        }
+    }
+
+    private static void replayToReaders(
+        @NotNull List<List<ByteBuffer>> frames,
+        long bytes,
+        int packetLengthHeaderSize,
+        boolean inPlaceReading,
+        int iterations
+    ) throws Exception {
+
+        var config = NetworkConfig.SimpleNetworkConfig.builder()
+            .inPlaceReading(inPlaceReading)
+            .build();
+
+        var bufferAllocator = new ReuseBufferAllocator(config);
+        var frameCodec = FrameCodec.fixed(packetLengthHeaderSize, 0);
+        var handled = new long[1];
+        var times = new long[iterations];
+
+        try (var channel = AsynchronousSocketChannel.open()) {
+            for (int i = 0; i < iterations; i++) {
+
+                handled[0] = 0;
+
+                var startTime = System.nanoTime();
+
+                for (var captureFrames : frames) {
+
+                    var reader = new DefaultPacketReader<>(
+                        newConnection(),
+                        channel,
+                        bufferAllocator,
+                        () -> {},
+                        packet -> handled[0]++,
+                        length -> new ReplayPacket(),
+                        frameCodec,
+                        Integer.MAX_VALUE,
+                        inPlaceReading
+                    );
+
+                    for (var frame : captureFrames) {
+                        reader.receive(frame.rewind());
+                    }
+
+                    reader.close();
+                }
+
+                times[i] = System.nanoTime() - startTime;
+            }
+        }
+
+        // the first half of iterations warms up reading
+        var measured = Arrays.copyOfRange(times, iterations / 2, iterations);
+        Arrays.sort(measured);
+
+        var median = measured[measured.length / 2];
+
+        System.out.println("Reader (inPlaceReading=" + inPlaceReading + "): " +
+            (handled[0] * TimeUnit.SECONDS.toNanos(1) / median) + " packets/s, " +
+            (bytes * TimeUnit.SECONDS.toNanos(1) / median / 1024 / 1024) + " MB/s");
+    }
+
+    private static void replayToServer(
+        @NotNull List<Path> captures,
+        int packetLengthHeaderSize,
+        double speed
+    ) throws Exception {
+
+        var serverConfig = ServerNetworkConfig.DEFAULT_SERVER;
+        var bufferAllocator = new ReuseBufferAllocator(serverConfig);
+        var serverNetwork = newServerNetwork(serverConfig, (Network<ReplayConnection> network,
+            AsynchronousSocketChannel channel) ->
+            new ReplayConnection(network, channel, bufferAllocator, packetLengthHeaderSize));
+
+        var handled = new AtomicLong();
+
+        try {
+
+            var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), serverNetwork.start().getPort());
+
+            serverNetwork.onAccept(connection -> connection.onReceive((conn, packet) -> handled.incrementAndGet()));
+
+            var startTime = System.nanoTime();
+            var bytes = TrafficReplay.replay(
+                captures,
+                TrafficDirection.INBOUND,
+                address,
+                speed > 0 ? speed : TrafficReplay.MAX_SPEED
+            );
+            var elapsed = System.nanoTime() - startTime;
+
+            System.out.println("Server (speed=" + (speed > 0 ? speed : "max") + "): " + handled.get() +
+                " packets in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms, " +
+                (handled.get() * TimeUnit.SECONDS.toNanos(1) / elapsed) + " packets/s, " +
+                (bytes * TimeUnit.SECONDS.toNanos(1) / elapsed / 1024 / 1024) + " MB/s");
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull Connection<ReplayPacket, ?> newConnection() {
+        return (Connection<ReplayPacket, ?>) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> "getMetrics".equals(method.getName()) ? NetworkMetrics.NOOP : null
+        );
+    }
+}
@@ -1,10 +1,14 @@
 package com.ss.rlib.network;
 
 import com.ss.rlib.common.function.NotNullBiConsumer;
+import com.ss.rlib.common.function.NotNullConsumer;
+import com.ss.rlib.network.capture.TrafficRecorder;
+import com.ss.rlib.network.metrics.NetworkMetrics;
 import com.ss.rlib.network.packet.ReadablePacket;
 import com.ss.rlib.network.packet.WritablePacket;
 import lombok.AllArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Flux;
 
 import java.util.concurrent.CompletableFuture;
@@ -36,11 +40,36 @@ public interface Connection<R extends ReadablePacket, W extends WritablePacket>
      */
     long getLastActivity();
 
+    /**
+     * Get a timestamp of last read activity.
+     *
+     * @return the timestamp of last read activity.
+     * @since 9.10.0
+     */
+    long getLastReadActivity();
+
+    /**
+     * Get a timestamp of last write activity.
+     *
+     * @return the timestamp of last write activity.
+     * @since 9.10.0
+     */
+    long getLastWriteActivity();
+
     /**
      * Close this connection if this connection is still opened.
      */
     void close();
 
+    /**
+     * Register a consumer to handle closing of this connection, the consumer is called immediately if this
+     * connection is already closed.
+     *
+     * @param consumer the consumer.
+     * @since 9.10.0
+     */
+    void onClose(@NotNull NotNullConsumer<? super Connection<R, W>> consumer);
+
     /**
      * Check a closed state of this connection.
      *
@@ -64,6 +93,104 @@ public interface Connection<R extends ReadablePacket, W extends WritablePacket>
      */
     @NotNull CompletableFuture<Boolean> sendWithFeedback(@NotNull W packet);
 
+    /**
+     * Check a writable state of this connection, a connection isn't writable when its pending packets are above
+     * a high watermark and it becomes writable again when they are below a low watermark.
+     *
+     * @return true if this connection is writable.
+     * @since 9.10.0
+     */
+    boolean isWritable();
+
+    /**
+     * Get a stream of changes of writable state of this connection.
+     *
+     * @return the stream of writable states.
+     * @since 9.10.0
+     */
+    @NotNull Flux<Boolean> writabilityChanges();
+
+    /**
+     * Get metrics of this connection.
+     *
+     * @return the metrics of this connection.
+     * @since 9.10.0
+     */
+    @NotNull NetworkMetrics getMetrics();
+
+    /**
+     * Get a recorder of raw bytes of this connection.
+     *
+     * @return the recorder or null if traffic of this connection isn't captured.
+     * @since 9.10.0
+     */
+    default @Nullable TrafficRecorder getTrafficRecorder() {
+        return null;
+    }
+
+    /**
+     * Get a compressor of packets of this connection.
+     *
+     * @return the compressor or null if compression is disabled by the network config.
+     * @since 9.10.0
+     */
+    @Nullable PacketCompressor getPacketCompressor();
+
+    /**
+     * Return true if this connection compresses sent packets which are bigger than the compression threshold.
+     *
+     * @return true if this connection compresses sent packets.
+     * @since 9.10.0
+     */
+    boolean isCompressionEnabled();
+
+    /**
+     * Enable or disable compressing of sent packets, it can be changed at any time when both sides agreed to use
+     * compression, because received compressed packets are always decompressed if the network config enables
+     * compression. It does nothing if compression is disabled by the network config.
+     *
+     * @param enabled true to compress sent packets.
+     * @since 9.10.0
+     */
+    void setCompressionEnabled(boolean enabled);
+
+    /**
+     * Get a cryptor of packets of this connection.
+     *
+     * @return the cryptor or null if packets aren't encrypted.
+     * @since 9.10.0
+     */
+    @Nullable NetworkCryptor getCryptor();
+
+    /**
+     * Set a cryptor of packets of this connection. Packets which are received after this call are decrypted
+     * and packets which are written after this call are encrypted, so to switch encryption at a known packet
+     * it should be called by a handler of received packets in {@link PacketDispatchMode#DIRECT} mode or after
+     * the feedback of the last not encrypted packet.
+     *
+     * @param cryptor the cryptor or null to stop encrypting packets.
+     * @throws UnsupportedOperationException if this connection doesn't support cryptors.
+     * @since 9.10.0
+     */
+    void setCryptor(@Nullable NetworkCryptor cryptor);
+
+    /**
+     * Register a consumer to handle idle states of this connection, the consumer is called by a shared timer
+     * so it should be fast.
+     *
+     * @param consumer the consumer.
+     * @since 9.10.0
+     */
+    void onIdle(@NotNull NotNullConsumer<IdleState> consumer);
+
+    /**
+     * Get a stream of idle states of this connection.
+     *
+     * @return the stream of idle states.
+     * @since 9.10.0
+     */
+    @NotNull Flux<IdleState> idleEvents();
+
     /**
      * Register a consumer to handle received packets.
      *
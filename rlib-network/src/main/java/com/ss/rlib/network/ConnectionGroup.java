@@ -0,0 +1,58 @@
+package com.ss.rlib.network;
+
+import com.ss.rlib.network.packet.ChunkedWritablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The group of connections to broadcast packets to all of them, for example, to players which are in
+ * the same area. Closed connections are removed from the group automatically.
+ *
+ * @param <W> the writable packet's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface ConnectionGroup<W extends WritablePacket> {
+
+    /**
+     * Add the connection to this group.
+     *
+     * @param connection the connection.
+     * @return true if the connection was added.
+     */
+    boolean add(@NotNull Connection<?, ? super W> connection);
+
+    /**
+     * Remove the connection from this group.
+     *
+     * @param connection the connection.
+     * @return true if the connection was removed.
+     */
+    boolean remove(@NotNull Connection<?, ? super W> connection);
+
+    /**
+     * Check that the connection is in this group.
+     *
+     * @param connection the connection.
+     * @return true if the connection is in this group.
+     */
+    boolean contains(@NotNull Connection<?, ? super W> connection);
+
+    /**
+     * Get a count of connections in this group.
+     *
+     * @return the count of connections.
+     */
+    int size();
+
+    /**
+     * Send the packet to all connections of this group. The packet can be serialized only once for all
+     * connections which use the same serialization format and every connection writes a view of the same
+     * serialized data, other connections send the packet as usual. Chunked packets can't be broadcasted,
+     * because they keep the state of writing.
+     *
+     * @param packet the packet.
+     * @throws IllegalArgumentException if the packet is a {@link ChunkedWritablePacket}.
+     */
+    void broadcast(@NotNull W packet);
+}
@@ -0,0 +1,118 @@
+package com.ss.rlib.network;
+
+import com.ss.rlib.network.impl.LengthFieldFrameCodec;
+import com.ss.rlib.network.impl.VarIntFrameCodec;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface to implement a format of packets in a stream. Each packet is a frame which starts with
+ * a header with the frame's length, the frame's body starts with the packet's id for id based packets.
+ * Packet writers reserve the max size of the header before the body and write the header right before
+ * the body after serializing it, so headers of variable size don't need moving the body.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface FrameCodec {
+
+    /**
+     * Create a codec of headers with fixed sizes, the length header contains the full length of the frame.
+     *
+     * @param lengthHeaderSize the size of the length header: 1, 2 or 4 bytes.
+     * @param idHeaderSize     the size of the id header: 1, 2 or 4 bytes or 0 if packets don't have ids.
+     * @return the codec.
+     */
+    static @NotNull FrameCodec fixed(int lengthHeaderSize, int idHeaderSize) {
+        return new LengthFieldFrameCodec(0, lengthHeaderSize, -lengthHeaderSize, idHeaderSize);
+    }
+
+    /**
+     * Create a codec of headers with the length of the frame's body and the packet's id encoded as varints,
+     * so small packets take 2 bytes of headers.
+     *
+     * @return the codec.
+     */
+    static @NotNull FrameCodec varInt() {
+        return VarIntFrameCodec.INSTANCE;
+    }
+
+    /**
+     * Create a codec of headers with the length field after other bytes of the header which are skipped by
+     * readers and are written as zeros by writers. The length of the frame is the value of the length field
+     * plus the adjustment plus the size of the header.
+     *
+     * @param lengthFieldOffset the count of bytes before the length field.
+     * @param lengthFieldSize   the size of the length field: 1, 2 or 4 bytes.
+     * @param lengthAdjustment  the value to add to the length field to get the length of the frame's body.
+     * @param idHeaderSize      the size of the id header: 1, 2 or 4 bytes or 0 if packets don't have ids.
+     * @return the codec.
+     */
+    static @NotNull FrameCodec lengthField(
+        int lengthFieldOffset,
+        int lengthFieldSize,
+        int lengthAdjustment,
+        int idHeaderSize
+    ) {
+        return new LengthFieldFrameCodec(lengthFieldOffset, lengthFieldSize, lengthAdjustment, idHeaderSize);
+    }
+
+    /**
+     * Get a max size of the frame's header.
+     *
+     * @return the max size of the header.
+     */
+    int getMaxHeaderSize();
+
+    /**
+     * Check that the buffer has the full frame's header from its position.
+     *
+     * @param buffer the buffer with received data.
+     * @return true if the header can be read.
+     */
+    boolean hasHeader(@NotNull ByteBuffer buffer);
+
+    /**
+     * Read the frame's header from the buffer's position.
+     *
+     * @param buffer the buffer with received data.
+     * @return the full length of the frame with its header.
+     */
+    int readFrameLength(@NotNull ByteBuffer buffer);
+
+    /**
+     * Get a size of the header of the written frame.
+     *
+     * @param buffer   the buffer with the frame.
+     * @param position the position of the frame.
+     * @return the size of the frame's header.
+     */
+    int getHeaderSize(@NotNull ByteBuffer buffer, int position);
+
+    /**
+     * Write the header of the frame's body which is placed from the body position to the buffer's limit,
+     * the header is written right before the body.
+     *
+     * @param buffer       the buffer with the body.
+     * @param bodyPosition the position of the body, it's not less than the max size of the header.
+     * @return the position of the frame.
+     */
+    int writeHeader(@NotNull ByteBuffer buffer, int bodyPosition);
+
+    /**
+     * Read the packet's id from the buffer's position.
+     *
+     * @param buffer the buffer.
+     * @return the packet's id.
+     */
+    int readPacketId(@NotNull ByteBuffer buffer);
+
+    /**
+     * Write the packet's id to the buffer's position.
+     *
+     * @param buffer   the buffer.
+     * @param packetId the packet's id.
+     */
+    void writePacketId(@NotNull ByteBuffer buffer, int packetId);
+}
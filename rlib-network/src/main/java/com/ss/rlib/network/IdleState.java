@@ -0,0 +1,24 @@
+package com.ss.rlib.network;
+
+/**
+ * The state of a connection which didn't have any activity during a configured idle timeout.
+ *
+ * @author JavaSaBr
+ */
+public enum IdleState {
+
+    /**
+     * Nothing was read from the connection during the read idle timeout.
+     */
+    READ_IDLE,
+
+    /**
+     * Nothing was written to the connection during the write idle timeout.
+     */
+    WRITE_IDLE,
+
+    /**
+     * Nothing was read from or written to the connection during the all idle timeout.
+     */
+    ALL_IDLE
+}
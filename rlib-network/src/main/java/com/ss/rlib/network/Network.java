@@ -1,5 +1,7 @@
 package com.ss.rlib.network;
 
+import org.jetbrains.annotations.NotNull;
+
 /**
  * The interface to implement an asynchronous network.
  *
@@ -7,6 +9,13 @@ package com.ss.rlib.network;
  */
 public interface Network<C extends Connection<?, ?>> {
 
+    /**
+     * Get a config of this network.
+     *
+     * @return the network config.
+     */
+    @NotNull NetworkConfig getConfig();
+
     /**
      * Shutdown this network.
      */
@@ -1,10 +1,16 @@
 package com.ss.rlib.network;
 
+import com.ss.rlib.network.capture.TrafficCapture;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.util.NetworkUtils;
 import lombok.Builder;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteOrder;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
 
 /**
  * The interface to implement a network config.
@@ -28,6 +34,54 @@ public interface NetworkConfig {
         private int pendingBufferSize = 4096;
         @Builder.Default
         private int writeBufferSize = 2048;
+        @Builder.Default
+        private int maxPacketsByWrite = 1;
+        @Builder.Default
+        private int maxBytesByWrite = 8192;
+        @Builder.Default
+        private int maxPendingPackets = -1;
+        @Builder.Default
+        private PendingPacketsOverflowPolicy pendingPacketsOverflowPolicy = PendingPacketsOverflowPolicy.DROP_NEWEST;
+        @Builder.Default
+        private int pendingPacketsHighWatermark = -1;
+        @Builder.Default
+        private int pendingPacketsLowWatermark = -1;
+        @Builder.Default
+        private int pendingBytesHighWatermark = -1;
+        @Builder.Default
+        private int pendingBytesLowWatermark = -1;
+        @Builder.Default
+        private UnwritableSendPolicy unwritableSendPolicy = UnwritableSendPolicy.SEND;
+        @Builder.Default
+        private boolean inPlaceReading = false;
+        @Builder.Default
+        private NetworkMetrics networkMetrics = NetworkMetrics.NOOP;
+        private TrafficCapture trafficCapture;
+        @Builder.Default
+        private boolean tcpNoDelay = false;
+        @Builder.Default
+        private boolean socketKeepAlive = false;
+        @Builder.Default
+        private int socketSendBufferSize = -1;
+        @Builder.Default
+        private int socketReceiveBufferSize = -1;
+        @Builder.Default
+        private int socketLinger = -1;
+        @Builder.Default
+        private PacketDispatchMode packetDispatchMode = PacketDispatchMode.DIRECT;
+        @Builder.Default
+        private int maxDispatchedPackets = 1024;
+        @Builder.Default
+        private int receivePrefetch = 32;
+        @Builder.Default
+        private int compressionThreshold = -1;
+        @Builder.Default
+        private int compressionLevel = Deflater.BEST_SPEED;
+        @Builder.Default
+        private int maxDecompressedPacketSize = 1024 * 1024;
+        private byte[] compressionDictionary;
+        @Builder.Default
+        private Executor sslTaskExecutor = NetworkUtils.getSharedSslTaskExecutor();
     }
 
     @NotNull NetworkConfig DEFAULT_CLIENT = new NetworkConfig() {
@@ -75,6 +129,270 @@ public interface NetworkConfig {
         return 2048;
     }
 
+    /**
+     * Get a max count of packets which can be coalesced to one write operation. The value 1 means that
+     * each packet is written to a channel by a separated write operation.
+     *
+     * @return the max count of packets by one write operation.
+     */
+    default int getMaxPacketsByWrite() {
+        return 1;
+    }
+
+    /**
+     * Get a max count of bytes which can be coalesced to one write operation, it's used only if
+     * {@link #getMaxPacketsByWrite()} is more than 1.
+     *
+     * @return the max count of bytes by one write operation.
+     */
+    default int getMaxBytesByWrite() {
+        return getWriteBufferSize() * 4;
+    }
+
+    /**
+     * Get a max count of packets which can wait to be written for each connection,
+     * the negative value means that the count is unlimited.
+     *
+     * @return the max count of pending packets.
+     */
+    default int getMaxPendingPackets() {
+        return -1;
+    }
+
+    /**
+     * Get a policy of handling a new packet when a connection already has max count of pending packets.
+     *
+     * @return the overflow policy.
+     * @see #getMaxPendingPackets()
+     */
+    default @NotNull PendingPacketsOverflowPolicy getPendingPacketsOverflowPolicy() {
+        return PendingPacketsOverflowPolicy.DROP_NEWEST;
+    }
+
+    /**
+     * Get a count of pending packets when a connection becomes not writable,
+     * the negative value disables this watermark.
+     *
+     * @return the high watermark of pending packets.
+     */
+    default int getPendingPacketsHighWatermark() {
+        return -1;
+    }
+
+    /**
+     * Get a count of pending packets when a not writable connection becomes writable again,
+     * the negative value means a half of {@link #getPendingPacketsHighWatermark()}.
+     *
+     * @return the low watermark of pending packets.
+     */
+    default int getPendingPacketsLowWatermark() {
+        return getPendingPacketsHighWatermark() / 2;
+    }
+
+    /**
+     * Get a count of bytes of pending packets when a connection becomes not writable, the bytes are calculated
+     * by expected lengths of packets. The negative value disables this watermark.
+     *
+     * @return the high watermark of pending bytes.
+     */
+    default int getPendingBytesHighWatermark() {
+        return -1;
+    }
+
+    /**
+     * Get a count of bytes of pending packets when a not writable connection becomes writable again,
+     * the negative value means a half of {@link #getPendingBytesHighWatermark()}.
+     *
+     * @return the low watermark of pending bytes.
+     */
+    default int getPendingBytesLowWatermark() {
+        return getPendingBytesHighWatermark() / 2;
+    }
+
+    /**
+     * Get a policy of sending packets with feedback when a connection is not writable.
+     *
+     * @return the policy of sending packets with feedback.
+     */
+    default @NotNull UnwritableSendPolicy getUnwritableSendPolicy() {
+        return UnwritableSendPolicy.SEND;
+    }
+
+    /**
+     * Return true if received data should be parsed in place of a read buffer. In this mode a packet which is
+     * received by several parts is assembled only once and packets read their data from read-only slices
+     * of the read buffer instead of copying data to pending buffers. Packets which are bigger than the read
+     * buffer are assembled in temp buffers, so the read buffer should be bigger than most of packets.
+     *
+     * @return true if received data should be parsed in place of a read buffer.
+     */
+    default boolean isInPlaceReading() {
+        return false;
+    }
+
+    /**
+     * Get metrics of a network, metrics of each connection are created by {@link NetworkMetrics#forConnection}.
+     *
+     * @return the network's metrics.
+     */
+    default @NotNull NetworkMetrics getNetworkMetrics() {
+        return NetworkMetrics.NOOP;
+    }
+
+    /**
+     * Get a capture of raw bytes of connections, a recorder of each connection is created by
+     * {@link TrafficCapture#forConnection}.
+     *
+     * @return the capture or null if traffic isn't captured.
+     * @since 9.10.0
+     */
+    default @Nullable TrafficCapture getTrafficCapture() {
+        return null;
+    }
+
+    /**
+     * Return true if Nagle's algorithm should be disabled for sockets of connections (TCP_NODELAY),
+     * small packets are sent without delays in this case. It's disabled by default as sockets of
+     * connections were before the option was added, latency sensitive applications should enable it.
+     *
+     * @return true if TCP_NODELAY should be enabled.
+     * @since 9.10.0
+     */
+    default boolean isTcpNoDelay() {
+        return false;
+    }
+
+    /**
+     * Return true if SO_KEEPALIVE should be enabled for sockets of connections.
+     *
+     * @return true if SO_KEEPALIVE should be enabled.
+     * @since 9.10.0
+     */
+    default boolean isSocketKeepAlive() {
+        return false;
+    }
+
+    /**
+     * Get a size of socket send buffer (SO_SNDBUF) of connections.
+     *
+     * @return the size of socket send buffer or -1 to use a system default.
+     * @since 9.10.0
+     */
+    default int getSocketSendBufferSize() {
+        return -1;
+    }
+
+    /**
+     * Get a size of socket receive buffer (SO_RCVBUF) of connections.
+     *
+     * @return the size of socket receive buffer or -1 to use a system default.
+     * @since 9.10.0
+     */
+    default int getSocketReceiveBufferSize() {
+        return -1;
+    }
+
+    /**
+     * Get a linger timeout in seconds on closing sockets of connections with unsent data (SO_LINGER),
+     * it's applied only if socket channels support it.
+     *
+     * @return the linger timeout or -1 to disable it.
+     * @since 9.10.0
+     */
+    default int getSocketLinger() {
+        return -1;
+    }
+
+    /**
+     * Get a mode of calling handlers of received packets.
+     *
+     * @return the mode of calling handlers of received packets.
+     * @since 9.10.0
+     */
+    default @NotNull PacketDispatchMode getPacketDispatchMode() {
+        return PacketDispatchMode.DIRECT;
+    }
+
+    /**
+     * Get a max count of received packets of a connection which wait for their handlers in
+     * {@link PacketDispatchMode#VIRTUAL_THREAD} mode. Reading of the connection is paused when the count is
+     * reached and is resumed when handlers complete half of them, packets which are already received are still
+     * dispatched, so the count can be exceeded by them. The negative value means that the count is unlimited.
+     *
+     * @return the max count of dispatched packets.
+     * @since 9.10.0
+     */
+    default int getMaxDispatchedPackets() {
+        return 1024;
+    }
+
+    /**
+     * Get a count of packets which are requested ahead by streams of received packets of connections. Reading
+     * from a socket is paused while any of the streams has no demand, so TCP flow control pushes back on the
+     * sender instead of buffering packets in memory.
+     *
+     * @return the count of prefetched packets.
+     * @since 9.10.0
+     */
+    default int getReceivePrefetch() {
+        return 32;
+    }
+
+    /**
+     * Get a min size of packet's data to compress it, compression adds a flag byte after the length header of
+     * every packet, so it should be enabled on both sides, but connections send compressed packets only after
+     * {@link Connection#setCompressionEnabled(boolean)}.
+     *
+     * @return the min size of packet's data to compress or -1 to disable compression.
+     * @since 9.10.0
+     */
+    default int getCompressionThreshold() {
+        return -1;
+    }
+
+    /**
+     * Get a level of compression from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+     *
+     * @return the level of compression.
+     * @since 9.10.0
+     */
+    default int getCompressionLevel() {
+        return Deflater.BEST_SPEED;
+    }
+
+    /**
+     * Get a preset dictionary of frequently sent data to compress small packets better, it should be the same
+     * on both sides.
+     *
+     * @return the preset dictionary or null.
+     * @since 9.10.0
+     */
+    default @Nullable byte[] getCompressionDictionary() {
+        return null;
+    }
+
+    /**
+     * Get a max size of decompressed packet's data, received packets which are bigger are considered as broken.
+     *
+     * @return the max size of decompressed packet's data.
+     * @since 9.10.0
+     */
+    default int getMaxDecompressedPacketSize() {
+        return 1024 * 1024;
+    }
+
+    /**
+     * Get an executor of delegated tasks of SSL engines, the tasks do expensive computations of handshakes,
+     * so network threads don't wait for them and continue reading and writing of a connection when the tasks
+     * are done. The shared executor has a bounded queue and runs tasks by network threads when the queue is full.
+     *
+     * @return the executor or null to run the tasks by network threads.
+     * @since 9.10.0
+     */
+    default @Nullable Executor getSslTaskExecutor() {
+        return NetworkUtils.getSharedSslTaskExecutor();
+    }
+
     default @NotNull ByteOrder getByteOrder() {
         return ByteOrder.BIG_ENDIAN;
     }
@@ -6,7 +6,10 @@ import org.jetbrains.annotations.Nullable;
 import java.nio.ByteBuffer;
 
 /**
- * The interface to implement a network cryptor.
+ * The interface to implement a network cryptor. A cryptor of a connection encrypts bodies of sent packets and
+ * decrypts bodies of received packets in place of network buffers, length headers of packets aren't encrypted.
+ * Encrypting and decrypting are called by different threads, but each of them is called by one thread at time
+ * in order of packets, so they can be implemented by stream ciphers.
  *
  * @author JavaSaBr
  */
@@ -47,4 +50,24 @@ public interface NetworkCryptor {
      * @return the buffer with encrypted data or null if don't need to decrypt encrypt.
      */
     @Nullable ByteBuffer encrypt(@NotNull ByteBuffer data, int length, @NotNull ByteBuffer toStore);
+
+    /**
+     * Decrypt data in place of the buffer, the buffer's position and limit aren't changed.
+     *
+     * @param buffer the buffer with data to decrypt.
+     * @param offset the offset of data in the buffer.
+     * @param length the data length.
+     * @since 9.10.0
+     */
+    default void decrypt(@NotNull ByteBuffer buffer, int offset, int length) {}
+
+    /**
+     * Encrypt data in place of the buffer, the buffer's position and limit aren't changed.
+     *
+     * @param buffer the buffer with data to encrypt.
+     * @param offset the offset of data in the buffer.
+     * @param length the data length.
+     * @since 9.10.0
+     */
+    default void encrypt(@NotNull ByteBuffer buffer, int offset, int length) {}
 }
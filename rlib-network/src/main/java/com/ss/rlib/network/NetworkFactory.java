@@ -1,11 +1,22 @@
 package com.ss.rlib.network;
 
+import com.ss.rlib.network.client.ClientConnectionPool;
+import com.ss.rlib.network.client.ClientConnectionPoolConfig;
 import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.client.impl.DefaultClientConnectionPool;
 import com.ss.rlib.network.client.impl.DefaultClientNetwork;
+import com.ss.rlib.network.datagram.DatagramNetwork;
+import com.ss.rlib.network.datagram.DatagramNetworkConfig;
+import com.ss.rlib.network.datagram.impl.DefaultDatagramNetwork;
 import com.ss.rlib.network.impl.DefaultBufferAllocator;
 import com.ss.rlib.network.impl.DefaultConnection;
+import com.ss.rlib.network.impl.DefaultConnectionGroup;
 import com.ss.rlib.network.impl.StringDataConnection;
 import com.ss.rlib.network.impl.StringDataSSLConnection;
+import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.IdBasedWritablePacket;
+import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
 import com.ss.rlib.network.packet.impl.DefaultReadablePacket;
 import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
 import com.ss.rlib.network.server.ServerNetwork;
@@ -13,8 +24,10 @@ import com.ss.rlib.network.server.impl.DefaultServerNetwork;
 import org.jetbrains.annotations.NotNull;
 
 import javax.net.ssl.SSLContext;
+import java.net.InetSocketAddress;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Class with factory methods to build client/server networks.
@@ -78,6 +91,26 @@ public final class NetworkFactory {
         );
     }
 
+    /**
+     * Create a string packet based asynchronous client network with the format of frames.
+     *
+     * @param networkConfig   the network config.
+     * @param bufferAllocator the buffer allocator.
+     * @param frameCodec      the format of frames.
+     * @return the client network.
+     * @since 9.10.0
+     */
+    public static @NotNull ClientNetwork<StringDataConnection> newStringDataClientNetwork(
+        @NotNull NetworkConfig networkConfig,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull FrameCodec frameCodec
+    ) {
+        return newClientNetwork(
+            networkConfig,
+            (network, channel) -> new StringDataConnection(network, channel, bufferAllocator, frameCodec)
+        );
+    }
+
     /**
      * Create id based packet default asynchronous client network.
      *
@@ -118,6 +151,34 @@ public final class NetworkFactory {
         );
     }
 
+    /**
+     * Create id based packet default asynchronous client network with the format of frames.
+     *
+     * @param networkConfig   the network config.
+     * @param bufferAllocator the buffer allocator.
+     * @param packetRegistry  the readable packet registry.
+     * @param frameCodec      the format of frames.
+     * @return the client network.
+     * @since 9.10.0
+     */
+    public static @NotNull ClientNetwork<DefaultConnection> newDefaultClientNetwork(
+        @NotNull NetworkConfig networkConfig,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull ReadablePacketRegistry<DefaultReadablePacket> packetRegistry,
+        @NotNull FrameCodec frameCodec
+    ) {
+        return newClientNetwork(
+            networkConfig,
+            (network, channel) -> new DefaultConnection(
+                network,
+                channel,
+                bufferAllocator,
+                packetRegistry,
+                frameCodec
+            )
+        );
+    }
+
     /**
      * Create string packet based asynchronous secure client network.
      *
@@ -178,6 +239,26 @@ public final class NetworkFactory {
         );
     }
 
+    /**
+     * Create string packet based asynchronous server network with the format of frames.
+     *
+     * @param networkConfig   the network config.
+     * @param bufferAllocator the buffer allocator.
+     * @param frameCodec      the format of frames.
+     * @return the server network.
+     * @since 9.10.0
+     */
+    public static @NotNull ServerNetwork<StringDataConnection> newStringDataServerNetwork(
+        @NotNull ServerNetworkConfig networkConfig,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull FrameCodec frameCodec
+    ) {
+        return newServerNetwork(
+            networkConfig,
+            (network, channel) -> new StringDataConnection(network, channel, bufferAllocator, frameCodec)
+        );
+    }
+
     /**
      * Create string packet based asynchronous secure server network.
      *
@@ -237,6 +318,144 @@ public final class NetworkFactory {
         );
     }
 
+    /**
+     * Create id based packet default asynchronous server network with the format of frames.
+     *
+     * @param networkConfig   the network config.
+     * @param bufferAllocator the buffer allocator.
+     * @param packetRegistry  the readable packet registry.
+     * @param frameCodec      the format of frames.
+     * @return the server network.
+     * @since 9.10.0
+     */
+    public static @NotNull ServerNetwork<DefaultConnection> newDefaultServerNetwork(
+        @NotNull ServerNetworkConfig networkConfig,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull ReadablePacketRegistry<DefaultReadablePacket> packetRegistry,
+        @NotNull FrameCodec frameCodec
+    ) {
+        return newServerNetwork(
+            networkConfig,
+            (network, channel) -> new DefaultConnection(
+                network,
+                channel,
+                bufferAllocator,
+                packetRegistry,
+                frameCodec
+            )
+        );
+    }
+
+    /**
+     * Create a new group of connections to broadcast packets.
+     *
+     * @param <W> the writable packet's type.
+     * @return the new connection group.
+     * @since 9.10.0
+     */
+    public static <W extends WritablePacket> @NotNull ConnectionGroup<W> newConnectionGroup() {
+        return new DefaultConnectionGroup<>();
+    }
+
+    /**
+     * Create a new group of connections to broadcast packets.
+     *
+     * @param sharedSerializationThreshold the min expected length of packets to serialize them once for all
+     *                                     connections, smaller packets are serialized by every connection.
+     * @param <W>                          the writable packet's type.
+     * @return the new connection group.
+     * @since 9.10.0
+     */
+    public static <W extends WritablePacket> @NotNull ConnectionGroup<W> newConnectionGroup(
+        int sharedSerializationThreshold
+    ) {
+        return new DefaultConnectionGroup<>(sharedSerializationThreshold);
+    }
+
+    /**
+     * Create a new pool of connections to the server with the default config.
+     *
+     * @param network          the client network to open connections.
+     * @param serverAddress    the server's address.
+     * @param responseIdGetter the function to get an id of a request from a received packet, it should return
+     *                         a negative value if the packet isn't a response.
+     * @param <R>              the readable packet's type.
+     * @param <W>              the writable packet's type.
+     * @param <C>              the connection's type.
+     * @return the new connection pool.
+     * @since 9.10.0
+     */
+    public static <R extends ReadablePacket, W extends WritablePacket, C extends Connection<R, W>>
+    @NotNull ClientConnectionPool<R, W, C> newClientConnectionPool(
+        @NotNull ClientNetwork<C> network,
+        @NotNull InetSocketAddress serverAddress,
+        @NotNull ToLongFunction<? super R> responseIdGetter
+    ) {
+        return newClientConnectionPool(network, serverAddress, responseIdGetter, ClientConnectionPoolConfig.DEFAULT);
+    }
+
+    /**
+     * Create a new pool of connections to the server.
+     *
+     * @param network          the client network to open connections.
+     * @param serverAddress    the server's address.
+     * @param responseIdGetter the function to get an id of a request from a received packet, it should return
+     *                         a negative value if the packet isn't a response.
+     * @param config           the pool's config.
+     * @param <R>              the readable packet's type.
+     * @param <W>              the writable packet's type.
+     * @param <C>              the connection's type.
+     * @return the new connection pool.
+     * @since 9.10.0
+     */
+    public static <R extends ReadablePacket, W extends WritablePacket, C extends Connection<R, W>>
+    @NotNull ClientConnectionPool<R, W, C> newClientConnectionPool(
+        @NotNull ClientNetwork<C> network,
+        @NotNull InetSocketAddress serverAddress,
+        @NotNull ToLongFunction<? super R> responseIdGetter,
+        @NotNull ClientConnectionPoolConfig config
+    ) {
+        return new DefaultClientConnectionPool<>(network, serverAddress, responseIdGetter, config);
+    }
+
+    /**
+     * Create a new datagram network with the default buffer allocator.
+     *
+     * @param config         the datagram network config.
+     * @param packetRegistry the registry of readable packets.
+     * @param <R>            the readable packet's type.
+     * @param <W>            the writable packet's type.
+     * @return the new datagram network.
+     * @since 9.10.0
+     */
+    public static <R extends IdBasedReadablePacket<R>, W extends IdBasedWritablePacket>
+    @NotNull DatagramNetwork<R, W> newDatagramNetwork(
+        @NotNull DatagramNetworkConfig config,
+        @NotNull ReadablePacketRegistry<R> packetRegistry
+    ) {
+        return newDatagramNetwork(config, new DefaultBufferAllocator(config), packetRegistry);
+    }
+
+    /**
+     * Create a new datagram network.
+     *
+     * @param config          the datagram network config.
+     * @param bufferAllocator the buffer allocator.
+     * @param packetRegistry  the registry of readable packets.
+     * @param <R>             the readable packet's type.
+     * @param <W>             the writable packet's type.
+     * @return the new datagram network.
+     * @since 9.10.0
+     */
+    public static <R extends IdBasedReadablePacket<R>, W extends IdBasedWritablePacket>
+    @NotNull DatagramNetwork<R, W> newDatagramNetwork(
+        @NotNull DatagramNetworkConfig config,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull ReadablePacketRegistry<R> packetRegistry
+    ) {
+        return new DefaultDatagramNetwork<>(config, bufferAllocator, packetRegistry);
+    }
+
     private NetworkFactory() throws Exception {
         throw new Exception("no permission");
     }
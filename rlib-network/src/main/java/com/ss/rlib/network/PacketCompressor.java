@@ -0,0 +1,63 @@
+package com.ss.rlib.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface to implement a compressor of packets of a connection. A packet writer and a packet reader of
+ * the connection use it from their threads, so compressing and decompressing can be called in parallel, but
+ * each of them is called by one thread at time.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface PacketCompressor {
+
+    /**
+     * The flag of packets which are sent as is.
+     */
+    byte NOT_COMPRESSED = 0;
+
+    /**
+     * The flag of packets which are sent compressed.
+     */
+    byte COMPRESSED = 1;
+
+    /**
+     * Get a min size of packet's data to compress it.
+     *
+     * @return the min size of packet's data.
+     */
+    int getThreshold();
+
+    /**
+     * Get a max size of decompressed packet's data.
+     *
+     * @return the max size of decompressed packet's data.
+     */
+    int getMaxDecompressedSize();
+
+    /**
+     * Compress remaining data of the source buffer to the destination buffer.
+     *
+     * @param source      the buffer with data to compress.
+     * @param destination the buffer to store compressed data.
+     * @return the count of compressed bytes or -1 if they don't fit to the destination buffer.
+     */
+    int compress(@NotNull ByteBuffer source, @NotNull ByteBuffer destination);
+
+    /**
+     * Decompress remaining data of the source buffer to fill the remaining space of the destination buffer.
+     *
+     * @param source      the buffer with compressed data.
+     * @param destination the buffer to store decompressed data.
+     * @throws IllegalStateException if compressed data is broken or isn't enough to fill the destination buffer.
+     */
+    void decompress(@NotNull ByteBuffer source, @NotNull ByteBuffer destination);
+
+    /**
+     * Release resources of this compressor.
+     */
+    void close();
+}
@@ -0,0 +1,23 @@
+package com.ss.rlib.network;
+
+/**
+ * The mode of calling handlers of received packets.
+ *
+ * @author JavaSaBr
+ */
+public enum PacketDispatchMode {
+
+    /**
+     * Handlers are called by a network thread which has read the packet, so a slow handler delays reading
+     * of all connections which are served by this thread.
+     */
+    DIRECT,
+
+    /**
+     * Handlers are called by virtual threads, packets of one connection are still handled one by one in order
+     * of receiving. Network threads continue reading while handlers are working up to
+     * {@link NetworkConfig#getMaxDispatchedPackets()} not handled packets of a connection, so handle time of
+     * packets in metrics includes only dispatching them.
+     */
+    VIRTUAL_THREAD
+}
@@ -0,0 +1,24 @@
+package com.ss.rlib.network;
+
+/**
+ * The policy of handling a new packet to send when a connection already has max count of pending packets.
+ *
+ * @author JavaSaBr
+ */
+public enum PendingPacketsOverflowPolicy {
+
+    /**
+     * The new packet is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest pending packet is dropped to free a place for the new packet.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new packet is dropped and the connection is closed.
+     */
+    CLOSE_CONNECTION
+}
@@ -1,11 +1,16 @@
 package com.ss.rlib.network;
 
 import com.ss.rlib.common.concurrent.GroupThreadFactory;
+import com.ss.rlib.network.capture.TrafficCapture;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.util.NetworkUtils;
 import lombok.Builder;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.ByteOrder;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
 
 /**
  * The interface to implement a server network config.
@@ -32,6 +37,70 @@ public interface ServerNetworkConfig extends NetworkConfig {
         @Builder.Default
         private int writeBufferSize = 2048;
         @Builder.Default
+        private int maxPacketsByWrite = 1;
+        @Builder.Default
+        private int maxBytesByWrite = 8192;
+        @Builder.Default
+        private int maxPendingPackets = -1;
+        @Builder.Default
+        private PendingPacketsOverflowPolicy pendingPacketsOverflowPolicy = PendingPacketsOverflowPolicy.DROP_NEWEST;
+        @Builder.Default
+        private int pendingPacketsHighWatermark = -1;
+        @Builder.Default
+        private int pendingPacketsLowWatermark = -1;
+        @Builder.Default
+        private int pendingBytesHighWatermark = -1;
+        @Builder.Default
+        private int pendingBytesLowWatermark = -1;
+        @Builder.Default
+        private UnwritableSendPolicy unwritableSendPolicy = UnwritableSendPolicy.SEND;
+        @Builder.Default
+        private boolean inPlaceReading = false;
+        @Builder.Default
+        private NetworkMetrics networkMetrics = NetworkMetrics.NOOP;
+        private TrafficCapture trafficCapture;
+        @Builder.Default
+        private boolean tcpNoDelay = false;
+        @Builder.Default
+        private boolean socketKeepAlive = false;
+        @Builder.Default
+        private int socketSendBufferSize = -1;
+        @Builder.Default
+        private int socketReceiveBufferSize = -1;
+        @Builder.Default
+        private int socketLinger = -1;
+        @Builder.Default
+        private PacketDispatchMode packetDispatchMode = PacketDispatchMode.DIRECT;
+        @Builder.Default
+        private int maxDispatchedPackets = 1024;
+        @Builder.Default
+        private int receivePrefetch = 32;
+        @Builder.Default
+        private int compressionThreshold = -1;
+        @Builder.Default
+        private int compressionLevel = Deflater.BEST_SPEED;
+        @Builder.Default
+        private int maxDecompressedPacketSize = 1024 * 1024;
+        private byte[] compressionDictionary;
+        @Builder.Default
+        private Executor sslTaskExecutor = NetworkUtils.getSharedSslTaskExecutor();
+        @Builder.Default
+        private int acceptBacklog = 0;
+        @Builder.Default
+        private int readIdleTimeout = -1;
+        @Builder.Default
+        private int writeIdleTimeout = -1;
+        @Builder.Default
+        private int allIdleTimeout = -1;
+        @Builder.Default
+        private boolean closeIdleConnections = false;
+        @Builder.Default
+        private int idleTimerTickDuration = 100;
+        @Builder.Default
+        private int acceptorCount = 1;
+        @Builder.Default
+        private boolean reusePort = false;
+        @Builder.Default
         private int threadGroupSize = 1;
         @Builder.Default
         private int threadPriority = Thread.NORM_PRIORITY;
@@ -85,4 +154,87 @@ public interface ServerNetworkConfig extends NetworkConfig {
     default int getThreadPriority() {
         return Thread.NORM_PRIORITY;
     }
+
+    /**
+     * Get a count of acceptors, each acceptor has an own channel group with network threads and an own server
+     * socket which is bound to the server address using {@link #isReusePort()}, so accepted connections are
+     * distributed between acceptors by OS. A channel of an accepted connection can't be moved to another
+     * channel group, so only one acceptor is used when reusing the port isn't enabled or supported.
+     *
+     * @return the count of acceptors or 0 to use one acceptor per available processor.
+     * @since 9.10.0
+     */
+    default int getAcceptorCount() {
+        return 1;
+    }
+
+    /**
+     * Return true if server sockets should be bound with SO_REUSEPORT option.
+     *
+     * @return true if server sockets should be bound with SO_REUSEPORT option.
+     * @since 9.10.0
+     */
+    default boolean isReusePort() {
+        return false;
+    }
+
+    /**
+     * Get a max count of pending connections which are waiting to be accepted by server sockets.
+     *
+     * @return the backlog or 0 to use a default value.
+     * @since 9.10.0
+     */
+    default int getAcceptBacklog() {
+        return 0;
+    }
+
+    /**
+     * Get a timeout in ms after which a connection without reading becomes {@link IdleState#READ_IDLE}.
+     *
+     * @return the read idle timeout or -1 if it's disabled.
+     * @since 9.10.0
+     */
+    default int getReadIdleTimeout() {
+        return -1;
+    }
+
+    /**
+     * Get a timeout in ms after which a connection without writing becomes {@link IdleState#WRITE_IDLE}.
+     *
+     * @return the write idle timeout or -1 if it's disabled.
+     * @since 9.10.0
+     */
+    default int getWriteIdleTimeout() {
+        return -1;
+    }
+
+    /**
+     * Get a timeout in ms after which a connection without reading and writing becomes {@link IdleState#ALL_IDLE}.
+     *
+     * @return the all idle timeout or -1 if it's disabled.
+     * @since 9.10.0
+     */
+    default int getAllIdleTimeout() {
+        return -1;
+    }
+
+    /**
+     * Return true if idle connections should be closed after notifying about their idle states.
+     *
+     * @return true if idle connections should be closed.
+     * @since 9.10.0
+     */
+    default boolean isCloseIdleConnections() {
+        return false;
+    }
+
+    /**
+     * Get a duration in ms of a tick of the timer which checks idle timeouts, it's an accuracy of the timeouts.
+     *
+     * @return the duration of a tick.
+     * @since 9.10.0
+     */
+    default int getIdleTimerTickDuration() {
+        return 100;
+    }
 }
@@ -2,9 +2,18 @@ package com.ss.rlib.network;
 
 import com.ss.rlib.network.packet.ReadablePacket;
 import com.ss.rlib.network.packet.WritablePacket;
+import org.jetbrains.annotations.NotNull;
 
 public interface UnsafeConnection<R extends ReadablePacket, W extends WritablePacket> extends Connection<R, W> {
 
     void onConnected();
 
+    /**
+     * Handle an idle state of this connection.
+     *
+     * @param state the idle state.
+     * @since 9.10.0
+     */
+    void handleIdle(@NotNull IdleState state);
+
 }
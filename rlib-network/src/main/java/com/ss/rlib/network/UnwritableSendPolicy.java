@@ -0,0 +1,25 @@
+package com.ss.rlib.network;
+
+/**
+ * The policy of sending a packet with feedback when a connection is not writable because its pending packets are
+ * above a high watermark.
+ *
+ * @author JavaSaBr
+ */
+public enum UnwritableSendPolicy {
+
+    /**
+     * The packet is added to pending packets as usual.
+     */
+    SEND,
+
+    /**
+     * The packet isn't sent and its feedback is completed with false immediately.
+     */
+    FAIL,
+
+    /**
+     * The packet waits until the connection becomes writable again.
+     */
+    WAIT
+}
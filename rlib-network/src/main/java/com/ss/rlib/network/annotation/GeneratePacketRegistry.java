@@ -0,0 +1,26 @@
+package com.ss.rlib.network.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * The annotation to generate at compile time a registry of readable packets which extend the annotated base
+ * type and have {@link PacketDescription}. The registry is generated by the annotation processor of
+ * rlib-network-processor to the package of the base type, it validates ids of packets at compile time and
+ * creates packets without reflection.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE})
+public @interface GeneratePacketRegistry {
+
+    /**
+     * Get a simple name of the generated registry class, the default name is the name of the base type
+     * with the suffix "Registry".
+     *
+     * @return the simple name of the generated class.
+     */
+    String name() default "";
+}
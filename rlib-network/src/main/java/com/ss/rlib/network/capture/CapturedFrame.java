@@ -0,0 +1,35 @@
+package com.ss.rlib.network.capture;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The bytes which were received or written by one operation of a channel.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CapturedFrame {
+
+    /**
+     * The direction of the bytes.
+     */
+    private final @NotNull TrafficDirection direction;
+
+    /**
+     * The time in nanoseconds from starting the capture.
+     */
+    private final long time;
+
+    /**
+     * The bytes between position and limit of the buffer.
+     */
+    private final @NotNull ByteBuffer data;
+}
@@ -0,0 +1,37 @@
+package com.ss.rlib.network.capture;
+
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.capture.impl.FileTrafficCapture;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * The interface to implement capturing of raw bytes which are received and sent by TCP connections of a network,
+ * captured bytes can be replayed later by {@link TrafficReplay}. Bytes are captured as they are in a socket,
+ * so bytes of SSL connections are encrypted.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface TrafficCapture {
+
+    /**
+     * Create the capture which writes bytes of each connection to a separated file in the directory.
+     *
+     * @param directory the directory of capture files.
+     * @return the new capture.
+     */
+    static @NotNull TrafficCapture toDirectory(@NotNull Path directory) {
+        return new FileTrafficCapture(directory);
+    }
+
+    /**
+     * Get a recorder of bytes of the new connection of the network.
+     *
+     * @param connection the new connection.
+     * @return the connection's recorder or null if bytes of the connection shouldn't be captured.
+     */
+    @Nullable TrafficRecorder forConnection(@NotNull Connection<?, ?> connection);
+}
@@ -0,0 +1,184 @@
+package com.ss.rlib.network.capture;
+
+import static com.ss.rlib.network.util.EncodingUtils.MAX_VAR_INT_SIZE;
+import static com.ss.rlib.network.util.EncodingUtils.MAX_VAR_LONG_SIZE;
+import com.ss.rlib.network.util.EncodingUtils;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The reader of frames of a capture file. The file starts with the header: the magic int, the version byte,
+ * the start time of the capture in epoch milliseconds and the remote address of the connection as UTF-8 string
+ * with varint length. Each frame is the direction byte, varint nanoseconds from the previous frame, varint length
+ * of the bytes and the bytes.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class TrafficCaptureReader implements AutoCloseable {
+
+    /**
+     * The magic int of capture files: "RLCP".
+     */
+    public static final int MAGIC = 0x524C4350;
+
+    /**
+     * The version of the format of capture files.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * The extension of capture files.
+     */
+    public static final String FILE_EXTENSION = ".rcap";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 4 + 1 + 8 + MAX_VAR_INT_SIZE;
+    private static final int FRAME_HEADER_SIZE = 1 + MAX_VAR_LONG_SIZE + MAX_VAR_INT_SIZE;
+
+    private static final TrafficDirection[] DIRECTIONS = TrafficDirection.values();
+
+    /**
+     * Find capture files in the directory.
+     *
+     * @param directory the directory.
+     * @return the list of capture files sorted by names.
+     * @throws IOException if the directory can't be read.
+     */
+    public static @NotNull List<Path> findCaptures(@NotNull Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(FILE_EXTENSION))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private final @NotNull FileChannel channel;
+    private final @NotNull ByteBuffer buffer;
+
+    /**
+     * The start time of the capture in epoch milliseconds.
+     */
+    private final @Getter long startTime;
+
+    /**
+     * The remote address of the captured connection.
+     */
+    private final @Getter @NotNull String remoteAddress;
+
+    /**
+     * The time in nanoseconds from starting the capture to the last read frame.
+     */
+    private long time;
+
+    public TrafficCaptureReader(@NotNull Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        try {
+
+            fill(HEADER_SIZE);
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("The file " + file + " isn't a capture file");
+            }
+
+            var version = buffer.get();
+
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of the capture file " + file);
+            }
+
+            this.startTime = buffer.getLong();
+
+            fill(EncodingUtils.readVarInt(buffer.duplicate()) + MAX_VAR_INT_SIZE);
+
+            this.remoteAddress = EncodingUtils.readUtf8(buffer);
+
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            channel.close();
+            throw new IOException("The header of the capture file " + file + " is broken", e);
+        }
+    }
+
+    /**
+     * Read the next frame of the capture.
+     *
+     * @return the next frame or null if there are no more frames.
+     * @throws IOException if the file can't be read or it's broken.
+     */
+    public @Nullable CapturedFrame next() throws IOException {
+
+        fill(FRAME_HEADER_SIZE);
+
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+
+        try {
+
+            var direction = DIRECTIONS[buffer.get()];
+
+            time += EncodingUtils.readVarLong(buffer);
+
+            var data = ByteBuffer.allocate(EncodingUtils.readVarInt(buffer));
+            var length = Math.min(buffer.remaining(), data.remaining());
+
+            data.put(0, buffer, buffer.position(), length)
+                .position(length);
+
+            buffer.position(buffer.position() + length);
+
+            while (data.hasRemaining()) {
+                if (channel.read(data) == -1) {
+                    throw new IOException("The capture file is truncated");
+                }
+            }
+
+            return new CapturedFrame(direction, time, data.flip());
+
+        } catch (RuntimeException e) {
+            throw new IOException("The capture file is broken", e);
+        }
+    }
+
+    /**
+     * Read from the file to have at least the count of bytes in the buffer if the file has them.
+     *
+     * @param bytes the count of bytes.
+     */
+    private void fill(int bytes) throws IOException {
+
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes && buffer.hasRemaining()) {
+                if (channel.read(buffer) == -1) {
+                    break;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
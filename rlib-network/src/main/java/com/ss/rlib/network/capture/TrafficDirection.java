@@ -0,0 +1,18 @@
+package com.ss.rlib.network.capture;
+
+/**
+ * The direction of captured bytes of a connection.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public enum TrafficDirection {
+    /**
+     * Bytes which were received from a channel.
+     */
+    INBOUND,
+    /**
+     * Bytes which were written to a channel.
+     */
+    OUTBOUND
+}
@@ -0,0 +1,38 @@
+package com.ss.rlib.network.capture;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The interface to implement recording of raw bytes of a connection. Received and sent bytes are recorded
+ * by different network threads, so implementations should be thread-safe.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface TrafficRecorder {
+
+    /**
+     * Record the bytes which were received from a channel, the buffer isn't changed.
+     *
+     * @param buffer the buffer with the received bytes.
+     * @param offset the offset of the received bytes in the buffer.
+     * @param length the count of the received bytes.
+     */
+    void onReceived(@NotNull ByteBuffer buffer, int offset, int length);
+
+    /**
+     * Record the bytes which are written to a channel, the buffer isn't changed.
+     *
+     * @param buffer the buffer with the written bytes.
+     * @param offset the offset of the written bytes in the buffer.
+     * @param length the count of the written bytes.
+     */
+    void onSent(@NotNull ByteBuffer buffer, int offset, int length);
+
+    /**
+     * Finish recording when the connection is closed, bytes which are recorded after closing are ignored.
+     */
+    void close();
+}
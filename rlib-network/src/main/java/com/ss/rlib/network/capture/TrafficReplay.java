@@ -0,0 +1,241 @@
+package com.ss.rlib.network.capture;
+
+import com.ss.rlib.network.packet.impl.AbstractPacketReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The driver to replay captures of {@link TrafficCapture} to packet readers without sockets or to a server
+ * by socket connections. Frames are replayed with recorded delays between them divided by the speed,
+ * so {@link #RECORDED_SPEED} reproduces the recorded timing and {@link #MAX_SPEED} replays frames without delays.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class TrafficReplay {
+
+    /**
+     * The speed to replay frames with recorded delays between them.
+     */
+    public static final double RECORDED_SPEED = 1;
+
+    /**
+     * The speed to replay frames without delays.
+     */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    private static final int DRAIN_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The consumer of bytes of replayed frames.
+     */
+    @FunctionalInterface
+    public interface FrameConsumer {
+
+        /**
+         * Handle bytes of a replayed frame.
+         *
+         * @param data the bytes between position and limit of the buffer.
+         * @throws IOException if the bytes can't be handled.
+         */
+        void accept(@NotNull ByteBuffer data) throws IOException;
+    }
+
+    /**
+     * Replay frames of the direction from the capture file to the consumer by the current thread.
+     *
+     * @param capture   the capture file.
+     * @param direction the direction of replayed frames.
+     * @param speed     the speed of replaying.
+     * @param consumer  the consumer of bytes of frames.
+     * @return the count of replayed bytes.
+     * @throws IOException if the capture can't be read or the consumer failed.
+     */
+    public static long replay(
+        @NotNull Path capture,
+        @NotNull TrafficDirection direction,
+        double speed,
+        @NotNull FrameConsumer consumer
+    ) throws IOException {
+
+        if (speed <= 0) {
+            throw new IllegalArgumentException("The speed should be positive: " + speed);
+        }
+
+        try (var reader = new TrafficCaptureReader(capture)) {
+
+            var startTime = System.nanoTime();
+            var firstFrameTime = -1L;
+            var bytes = 0L;
+
+            for (var frame = reader.next(); frame != null; frame = reader.next()) {
+
+                if (frame.getDirection() != direction) {
+                    continue;
+                }
+
+                if (firstFrameTime == -1) {
+                    firstFrameTime = frame.getTime();
+                } else if (speed != MAX_SPEED) {
+                    waitUntil(startTime + (long) ((frame.getTime() - firstFrameTime) / speed));
+                }
+
+                var data = frame.getData();
+
+                bytes += data.remaining();
+                consumer.accept(data);
+            }
+
+            return bytes;
+        }
+    }
+
+    /**
+     * Replay received frames of the capture file to the packet reader without a socket by the current thread,
+     * read packets are handled by the reader's handler.
+     *
+     * @param capture the capture file.
+     * @param reader  the packet reader.
+     * @param speed   the speed of replaying.
+     * @return the count of read packets.
+     * @throws IOException if the capture can't be read.
+     */
+    public static int replay(
+        @NotNull Path capture,
+        @NotNull AbstractPacketReader<?, ?> reader,
+        double speed
+    ) throws IOException {
+
+        var readPackets = new int[1];
+
+        replay(capture, TrafficDirection.INBOUND, speed, data -> readPackets[0] += reader.receive(data));
+
+        return readPackets[0];
+    }
+
+    /**
+     * Replay frames of the direction from the capture file to the server by a new socket connection,
+     * the server's responses are skipped. The connection is closed after replaying when the server closes it
+     * on the end of stream.
+     *
+     * @param capture   the capture file.
+     * @param direction the direction of replayed frames, it's inbound for captures of servers and outbound
+     *                  for captures of clients.
+     * @param address   the server's address.
+     * @param speed     the speed of replaying.
+     * @return the count of replayed bytes.
+     * @throws IOException if the capture can't be read or the connection failed.
+     */
+    public static long replay(
+        @NotNull Path capture,
+        @NotNull TrafficDirection direction,
+        @NotNull InetSocketAddress address,
+        double speed
+    ) throws IOException {
+
+        try (var channel = SocketChannel.open(address)) {
+
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+
+            var drainer = Thread.ofVirtual()
+                .name("TrafficReplayDrainer")
+                .start(() -> drain(channel));
+
+            var bytes = replay(capture, direction, speed, data -> {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            });
+
+            channel.shutdownOutput();
+
+            try {
+                drainer.join();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Replaying was interrupted");
+            }
+
+            return bytes;
+        }
+    }
+
+    /**
+     * Replay frames of the direction from the capture files to the server at the same time,
+     * each capture is replayed by its own socket connection.
+     *
+     * @param captures  the capture files.
+     * @param direction the direction of replayed frames.
+     * @param address   the server's address.
+     * @param speed     the speed of replaying.
+     * @return the count of replayed bytes.
+     * @throws IOException if any capture can't be read or any connection failed.
+     * @see #replay(Path, TrafficDirection, InetSocketAddress, double)
+     */
+    public static long replay(
+        @NotNull List<Path> captures,
+        @NotNull TrafficDirection direction,
+        @NotNull InetSocketAddress address,
+        double speed
+    ) throws IOException {
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            var results = new ArrayList<Future<Long>>(captures.size());
+
+            for (var capture : captures) {
+                results.add(executor.submit(() -> replay(capture, direction, address, speed)));
+            }
+
+            var bytes = 0L;
+
+            for (var result : results) {
+                try {
+                    bytes += result.get();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("Replaying was interrupted");
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof IOException ? (IOException) e.getCause() :
+                        new IOException(e.getCause());
+                }
+            }
+
+            return bytes;
+        }
+    }
+
+    private static void waitUntil(long time) throws InterruptedIOException {
+        for (var delay = time - System.nanoTime(); delay > 0; delay = time - System.nanoTime()) {
+
+            LockSupport.parkNanos(delay);
+
+            if (Thread.interrupted()) {
+                throw new InterruptedIOException("Replaying was interrupted");
+            }
+        }
+    }
+
+    private static void drain(@NotNull SocketChannel channel) {
+
+        var buffer = ByteBuffer.allocate(DRAIN_BUFFER_SIZE);
+        try {
+            while (channel.read(buffer.clear()) != -1) {
+                // responses aren't interesting for replaying
+            }
+        } catch (IOException e) {
+            // the connection is closed by any side
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ss.rlib.network.capture.impl;
+
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.capture.TrafficCapture;
+import com.ss.rlib.network.capture.TrafficCaptureReader;
+import com.ss.rlib.network.capture.TrafficRecorder;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The capture which writes bytes of each connection to a separated file in the directory, files are named by
+ * the index of a connection and its remote address. Existing files of the directory aren't overwritten.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class FileTrafficCapture implements TrafficCapture {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(FileTrafficCapture.class);
+
+    private final @Getter @NotNull Path directory;
+    private final @NotNull AtomicInteger connectionIndex;
+
+    public FileTrafficCapture(@NotNull Path directory) {
+        this.directory = directory;
+        this.connectionIndex = new AtomicInteger();
+    }
+
+    @Override
+    public @Nullable TrafficRecorder forConnection(@NotNull Connection<?, ?> connection) {
+
+        var remoteAddress = connection.getRemoteAddress();
+        var fileSuffix = "-" + remoteAddress.replaceAll("[^A-Za-z0-9.]", "_") + TrafficCaptureReader.FILE_EXTENSION;
+
+        try {
+
+            Files.createDirectories(directory);
+
+            while (true) {
+
+                var file = directory.resolve(connectionIndex.incrementAndGet() + fileSuffix);
+
+                try {
+                    return new FileTrafficRecorder(file, remoteAddress);
+                } catch (FileAlreadyExistsException e) {
+                    // the file is left from a previous capture to the same directory
+                }
+            }
+
+        } catch (IOException e) {
+            LOGGER.warning(remoteAddress, e, (address, ex) -> "Can't capture traffic of " + address + ": " + ex);
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileTrafficCapture{" + "directory=" + directory + "}";
+    }
+}
@@ -0,0 +1,154 @@
+package com.ss.rlib.network.capture.impl;
+
+import static com.ss.rlib.network.util.EncodingUtils.MAX_VAR_INT_SIZE;
+import static com.ss.rlib.network.util.EncodingUtils.MAX_VAR_LONG_SIZE;
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.capture.TrafficCaptureReader;
+import com.ss.rlib.network.capture.TrafficDirection;
+import com.ss.rlib.network.capture.TrafficRecorder;
+import com.ss.rlib.network.util.EncodingUtils;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The recorder which writes frames of a connection to a capture file in the format of
+ * {@link TrafficCaptureReader}. Frames are collected in a buffer and are written to the file when the buffer
+ * is full or the recorder is closed, so network threads are rarely blocked by the file. Recording is stopped
+ * if the file can't be written.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class FileTrafficRecorder implements TrafficRecorder {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(FileTrafficRecorder.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FRAME_HEADER_SIZE = 1 + MAX_VAR_LONG_SIZE + MAX_VAR_INT_SIZE;
+
+    private final @Getter @NotNull Path file;
+    private final @NotNull FileChannel channel;
+    private final @NotNull ByteBuffer buffer;
+
+    /**
+     * The time in nanoseconds of the last recorded frame.
+     */
+    private long lastTime;
+    private boolean closed;
+
+    /**
+     * @param file          the new capture file.
+     * @param remoteAddress the remote address of the connection.
+     * @throws IOException if the file can't be created or it already exists.
+     */
+    public FileTrafficRecorder(@NotNull Path file, @NotNull String remoteAddress) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.lastTime = System.nanoTime();
+
+        buffer.putInt(TrafficCaptureReader.MAGIC)
+            .put(TrafficCaptureReader.VERSION)
+            .putLong(System.currentTimeMillis());
+
+        EncodingUtils.writeUtf8(buffer, remoteAddress);
+    }
+
+    @Override
+    public void onReceived(@NotNull ByteBuffer buffer, int offset, int length) {
+        record(TrafficDirection.INBOUND, buffer, offset, length);
+    }
+
+    @Override
+    public void onSent(@NotNull ByteBuffer buffer, int offset, int length) {
+        record(TrafficDirection.OUTBOUND, buffer, offset, length);
+    }
+
+    protected synchronized void record(
+        @NotNull TrafficDirection direction,
+        @NotNull ByteBuffer data,
+        int offset,
+        int length
+    ) {
+
+        if (closed || length < 1) {
+            return;
+        }
+
+        var time = System.nanoTime();
+        try {
+
+            if (buffer.remaining() < FRAME_HEADER_SIZE + length) {
+                flush();
+            }
+
+            buffer.put((byte) direction.ordinal());
+
+            EncodingUtils.writeVarLong(buffer, time - lastTime);
+            EncodingUtils.writeVarInt(buffer, length);
+
+            // big frames are written directly from the data
+            if (length > buffer.remaining()) {
+                flush();
+                write(data.slice(offset, length));
+            } else {
+                buffer.put(buffer.position(), data, offset, length)
+                    .position(buffer.position() + length);
+            }
+
+            lastTime = time;
+
+        } catch (IOException e) {
+            LOGGER.warning(file, e, (path, ex) -> "Stop capturing traffic to " + path + ": " + ex);
+            closeChannel();
+        }
+    }
+
+    private void flush() throws IOException {
+        write(buffer.flip());
+        buffer.clear();
+    }
+
+    private void write(@NotNull ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+
+        if (closed) {
+            return;
+        }
+
+        try {
+            flush();
+        } catch (IOException e) {
+            LOGGER.warning(file, e, (path, ex) -> "Can't finish capturing traffic to " + path + ": " + ex);
+        }
+
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileTrafficRecorder{" + "file=" + file + "}";
+    }
+}
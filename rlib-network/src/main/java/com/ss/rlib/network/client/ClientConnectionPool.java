@@ -0,0 +1,92 @@
+package com.ss.rlib.network.client;
+
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongFunction;
+
+/**
+ * The pool of connections to one server. The pool reconnects lost connections with exponential backoff,
+ * balances sent packets between its connections and correlates received responses with sent requests
+ * by their ids. Nothing of it blocks the caller's thread.
+ *
+ * @param <R> the readable packet's type.
+ * @param <W> the writable packet's type.
+ * @param <C> the connection's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface ClientConnectionPool<R extends ReadablePacket, W extends WritablePacket, C extends Connection<R, W>> {
+
+    /**
+     * Get an address of the server.
+     *
+     * @return the server's address.
+     */
+    @NotNull InetSocketAddress getServerAddress();
+
+    /**
+     * Get a count of connections which are connected now.
+     *
+     * @return the count of connected connections.
+     */
+    int getConnectedCount();
+
+    /**
+     * Get the next connected connection by round-robin, writable connections are preferred. If no one connection
+     * is connected now, the future is completed when any connection is connected. The future is failed if the pool
+     * is closed or there are too many waiters of a connection already.
+     *
+     * @return the future with the connection.
+     */
+    @NotNull CompletableFuture<C> nextConnection();
+
+    /**
+     * Send the packet by the next connection, the packet waits for a connection if no one is connected now.
+     * The packet is dropped if the pool is closed or there are too many waiters of a connection already.
+     *
+     * @param packet the packet.
+     */
+    void send(@NotNull W packet);
+
+    /**
+     * Send a request by the next connection and wait for a response with the same id during the default
+     * request timeout. A reusable response is retained for the caller, so the caller should release it.
+     *
+     * @param requestFactory the factory of the request by its id.
+     * @return the future with the response, it's failed with {@link java.util.concurrent.TimeoutException}
+     * if the response wasn't received in time.
+     */
+    @NotNull CompletableFuture<R> request(@NotNull LongFunction<? extends W> requestFactory);
+
+    /**
+     * Send a request by the next connection and wait for a response with the same id during the timeout.
+     * A reusable response is retained for the caller, so the caller should release it.
+     *
+     * @param requestFactory the factory of the request by its id.
+     * @param timeout        the timeout in ms.
+     * @return the future with the response, it's failed with {@link java.util.concurrent.TimeoutException}
+     * if the response wasn't received in time.
+     */
+    @NotNull CompletableFuture<R> request(@NotNull LongFunction<? extends W> requestFactory, long timeout);
+
+    /**
+     * Send a request by the next connection on subscribing and wait for a response with the same id during
+     * the default request timeout.
+     *
+     * @param requestFactory the factory of the request by its id.
+     * @return the mono with the response.
+     * @see #request(LongFunction)
+     */
+    @NotNull Mono<R> requested(@NotNull LongFunction<? extends W> requestFactory);
+
+    /**
+     * Close all connections of this pool and stop reconnecting, not completed requests are failed.
+     */
+    void close();
+}
@@ -0,0 +1,112 @@
+package com.ss.rlib.network.client;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a config of a client connection pool.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface ClientConnectionPoolConfig {
+
+    @Builder
+    @Getter
+    class SimpleClientConnectionPoolConfig implements ClientConnectionPoolConfig {
+
+        @Builder.Default
+        private String timerName = "ClientConnectionPoolTimer";
+        @Builder.Default
+        private int poolSize = 4;
+        @Builder.Default
+        private int reconnectInitialDelay = 100;
+        @Builder.Default
+        private int reconnectMaxDelay = 10_000;
+        @Builder.Default
+        private double reconnectBackoffMultiplier = 2D;
+        @Builder.Default
+        private int requestTimeout = 5_000;
+        @Builder.Default
+        private int timerTickDuration = 10;
+        @Builder.Default
+        private int maxConnectionWaiters = 1024;
+    }
+
+    @NotNull ClientConnectionPoolConfig DEFAULT = new ClientConnectionPoolConfig() {};
+
+    /**
+     * Get a name of the thread of the timer of reconnects and request timeouts.
+     *
+     * @return the timer's name.
+     */
+    default @NotNull String getTimerName() {
+        return "ClientConnectionPoolTimer";
+    }
+
+    /**
+     * Get a count of connections which the pool keeps to the server.
+     *
+     * @return the count of connections.
+     */
+    default int getPoolSize() {
+        return 4;
+    }
+
+    /**
+     * Get a delay in ms before the first reconnect of a lost connection.
+     *
+     * @return the delay before the first reconnect.
+     */
+    default int getReconnectInitialDelay() {
+        return 100;
+    }
+
+    /**
+     * Get a max delay in ms between reconnects of a lost connection.
+     *
+     * @return the max delay between reconnects.
+     */
+    default int getReconnectMaxDelay() {
+        return 10_000;
+    }
+
+    /**
+     * Get a multiplier of the delay before the next reconnect after a failed reconnect.
+     *
+     * @return the multiplier of the reconnect delay.
+     */
+    default double getReconnectBackoffMultiplier() {
+        return 2D;
+    }
+
+    /**
+     * Get a default timeout in ms of waiting for a response to a request.
+     *
+     * @return the request timeout.
+     */
+    default int getRequestTimeout() {
+        return 5_000;
+    }
+
+    /**
+     * Get a duration in ms of a tick of the timer of reconnects and request timeouts,
+     * it's the accuracy of the timeouts.
+     *
+     * @return the timer's tick duration.
+     */
+    default int getTimerTickDuration() {
+        return 10;
+    }
+
+    /**
+     * Get a max count of sends and requests which wait for a connection when no one connection is connected,
+     * the next ones are failed immediately. A not positive value means no limit.
+     *
+     * @return the max count of waiters of a connection.
+     */
+    default int getMaxConnectionWaiters() {
+        return 1024;
+    }
+}
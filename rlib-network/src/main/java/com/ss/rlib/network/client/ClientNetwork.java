@@ -32,6 +32,15 @@ public interface ClientNetwork<C extends Connection<?, ?>> extends Network<C> {
      */
     @NotNull Mono<C> connected(@NotNull InetSocketAddress serverAddress);
 
+    /**
+     * Open a new connection to a server by the address, unlike {@link #connect(InetSocketAddress)} it doesn't
+     * change or close the current connection, so the caller is responsible for closing the new connection.
+     *
+     * @param serverAddress the sever address.
+     * @return the future with the new connection.
+     * @since 9.10.0
+     */
+    @NotNull CompletableFuture<C> openConnection(@NotNull InetSocketAddress serverAddress);
 
     /**
      * Get a current connection to a server or null.
@@ -0,0 +1,435 @@
+package com.ss.rlib.network.client.impl;
+
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.client.ClientConnectionPool;
+import com.ss.rlib.network.client.ClientConnectionPoolConfig;
+import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.impl.HashedWheelTimer;
+import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.packet.ReusableReadablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * The default implementation of a client connection pool. Each slot of the pool keeps one connection and
+ * reconnects it by the shared timer when it's lost, the timer also completes timed out requests.
+ *
+ * @param <R> the readable packet's type.
+ * @param <W> the writable packet's type.
+ * @param <C> the connection's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class DefaultClientConnectionPool<R extends ReadablePacket, W extends WritablePacket, C extends Connection<R, W>>
+    implements ClientConnectionPool<R, W, C> {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(DefaultClientConnectionPool.class);
+
+    private static final int WHEEL_SIZE = 512;
+
+    private static class PendingRequest<R> {
+
+        private final @NotNull CompletableFuture<R> future;
+
+        private volatile @Nullable HashedWheelTimer.Timeout timeout;
+        private volatile @Nullable Connection<?, ?> connection;
+
+        private PendingRequest(@NotNull CompletableFuture<R> future) {
+            this.future = future;
+        }
+    }
+
+    protected final @NotNull ClientNetwork<C> network;
+    protected final @Getter @NotNull InetSocketAddress serverAddress;
+
+    /**
+     * The function to get an id of a request from a received packet, it returns a negative value
+     * if the packet isn't a response.
+     */
+    protected final @NotNull ToLongFunction<? super R> responseIdGetter;
+
+    protected final @NotNull HashedWheelTimer timer;
+    protected final @NotNull AtomicReferenceArray<C> connections;
+    protected final @NotNull Map<Long, PendingRequest<R>> pendingRequests;
+    protected final @NotNull Queue<CompletableFuture<C>> connectionWaiters;
+    protected final @NotNull AtomicLong requestIds;
+    protected final @NotNull AtomicInteger nextConnectionIndex;
+    protected final @NotNull AtomicBoolean closed;
+
+    protected final long reconnectInitialDelay;
+    protected final long reconnectMaxDelay;
+    protected final double reconnectBackoffMultiplier;
+    protected final long requestTimeout;
+
+    public DefaultClientConnectionPool(
+        @NotNull ClientNetwork<C> network,
+        @NotNull InetSocketAddress serverAddress,
+        @NotNull ToLongFunction<? super R> responseIdGetter,
+        @NotNull ClientConnectionPoolConfig config
+    ) {
+        this.network = network;
+        this.serverAddress = serverAddress;
+        this.responseIdGetter = responseIdGetter;
+        this.connections = new AtomicReferenceArray<>(Math.max(config.getPoolSize(), 1));
+        this.pendingRequests = new ConcurrentHashMap<>();
+        this.connectionWaiters = new LinkedBlockingQueue<>(config.getMaxConnectionWaiters() > 0 ?
+            config.getMaxConnectionWaiters() : Integer.MAX_VALUE);
+        this.requestIds = new AtomicLong();
+        this.nextConnectionIndex = new AtomicInteger();
+        this.closed = new AtomicBoolean();
+        this.reconnectInitialDelay = Math.max(config.getReconnectInitialDelay(), 1);
+        this.reconnectMaxDelay = Math.max(config.getReconnectMaxDelay(), reconnectInitialDelay);
+        this.reconnectBackoffMultiplier = Math.max(config.getReconnectBackoffMultiplier(), 1D);
+        this.requestTimeout = config.getRequestTimeout();
+        this.timer = new HashedWheelTimer(
+            config.getTimerName(),
+            config.getTimerTickDuration(),
+            TimeUnit.MILLISECONDS,
+            WHEEL_SIZE
+        );
+
+        for (int slot = 0; slot < connections.length(); slot++) {
+            connect(slot, 0);
+        }
+    }
+
+    /**
+     * Open a new connection for the slot.
+     *
+     * @param slot  the slot.
+     * @param delay the delay before this attempt or 0 if it's the first attempt.
+     */
+    protected void connect(int slot, long delay) {
+
+        if (closed.get()) {
+            return;
+        }
+
+        network.openConnection(serverAddress).whenComplete((connection, throwable) -> {
+
+            if (throwable != null) {
+                LOGGER.warning(serverAddress, throwable, (address, ex) -> "Cannot connect to " + address + ": " +
+                    ex.getMessage());
+                reconnect(slot, delay);
+                return;
+            }
+
+            connection.onReceive((con, packet) -> handleReceivedPacket(packet));
+            connections.set(slot, connection);
+
+            // the pool could be closed before storing the connection
+            if (closed.get() && connections.compareAndSet(slot, connection, null)) {
+                connection.close();
+                return;
+            }
+
+            connection.onClose(con -> handleClosedConnection(slot, connection));
+
+            notifyConnectionWaiters();
+        });
+    }
+
+    /**
+     * Schedule the next attempt to connect the slot with exponential backoff of the delay.
+     *
+     * @param slot      the slot.
+     * @param lastDelay the delay before the last failed attempt or 0 if the connection was just lost.
+     */
+    protected void reconnect(int slot, long lastDelay) {
+
+        var delay = lastDelay < 1 ? reconnectInitialDelay :
+            Math.min((long) (lastDelay * reconnectBackoffMultiplier), reconnectMaxDelay);
+
+        LOGGER.debug(serverAddress, delay, (address, ms) -> "Reconnect to " + address + " after " + ms + "ms");
+
+        schedule(() -> connect(slot, delay), delay);
+    }
+
+    protected @Nullable HashedWheelTimer.Timeout schedule(@NotNull Runnable task, long delay) {
+
+        if (timer.isStopped()) {
+            return null;
+        }
+
+        return timer.newTimeout(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    protected void handleClosedConnection(int slot, @NotNull C connection) {
+
+        connections.compareAndSet(slot, connection, null);
+
+        for (var entry : pendingRequests.entrySet()) {
+            var request = entry.getValue();
+            if (request.connection == connection) {
+                failRequest(entry.getKey(), request, new ClosedChannelException());
+            }
+        }
+
+        if (!closed.get()) {
+            reconnect(slot, 0);
+        }
+    }
+
+    protected void handleReceivedPacket(@NotNull R packet) {
+
+        var id = responseIdGetter.applyAsLong(packet);
+
+        if (id < 0) {
+            return;
+        }
+
+        var request = pendingRequests.remove(id);
+
+        if (request == null) {
+            return;
+        }
+
+        var timeout = request.timeout;
+
+        if (timeout != null) {
+            timeout.cancel();
+        }
+
+        // the connection releases the packet after its handlers
+        if (packet instanceof ReusableReadablePacket) {
+            ((ReusableReadablePacket) packet).retain();
+        }
+
+        if (!request.future.complete(packet) && packet instanceof ReusableReadablePacket) {
+            ((ReusableReadablePacket) packet).release();
+        }
+    }
+
+    protected void failRequest(long id, @NotNull PendingRequest<R> request, @NotNull Throwable exception) {
+
+        if (!pendingRequests.remove(id, request)) {
+            return;
+        }
+
+        var timeout = request.timeout;
+
+        if (timeout != null) {
+            timeout.cancel();
+        }
+
+        request.future.completeExceptionally(exception);
+    }
+
+    @Override
+    public int getConnectedCount() {
+
+        var count = 0;
+
+        for (int i = 0; i < connections.length(); i++) {
+            var connection = connections.get(i);
+            if (connection != null && !connection.isClosed()) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Select the next connected connection by round-robin, writable connections are preferred.
+     *
+     * @return the connection or null if no one connection is connected.
+     */
+    protected @Nullable C selectConnection() {
+
+        var size = connections.length();
+        var start = Math.floorMod(nextConnectionIndex.getAndIncrement(), size);
+
+        C notWritable = null;
+
+        for (int i = 0; i < size; i++) {
+
+            var connection = connections.get((start + i) % size);
+
+            if (connection == null || connection.isClosed()) {
+                continue;
+            } else if (connection.isWritable()) {
+                return connection;
+            } else if (notWritable == null) {
+                notWritable = connection;
+            }
+        }
+
+        return notWritable;
+    }
+
+    protected void notifyConnectionWaiters() {
+        while (!connectionWaiters.isEmpty()) {
+
+            var connection = selectConnection();
+
+            if (connection == null) {
+                return;
+            }
+
+            var waiter = connectionWaiters.poll();
+
+            if (waiter != null) {
+                waiter.complete(connection);
+            }
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<C> nextConnection() {
+
+        var connection = selectConnection();
+
+        if (connection != null) {
+            return CompletableFuture.completedFuture(connection);
+        } else if (closed.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The connection pool is closed"));
+        }
+
+        var waiter = new CompletableFuture<C>();
+
+        if (!connectionWaiters.offer(waiter)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Too many waiters of a connection in " +
+                "the connection pool"));
+        }
+
+        // the pool could be closed before adding the waiter, so the waiter could be missed by draining waiters
+        if (closed.get()) {
+            if (connectionWaiters.remove(waiter)) {
+                waiter.completeExceptionally(new IllegalStateException("The connection pool is closed"));
+            }
+            return waiter;
+        }
+
+        // a connection could be connected before adding the waiter
+        notifyConnectionWaiters();
+
+        return waiter;
+    }
+
+    @Override
+    public void send(@NotNull W packet) {
+
+        var connection = selectConnection();
+
+        if (connection != null) {
+            connection.send(packet);
+        } else {
+            nextConnection().whenComplete((con, throwable) -> {
+                if (throwable != null) {
+                    LOGGER.warning(packet, throwable, (pck, ex) -> "Cannot send packet " + pck + ": " +
+                        ex.getMessage());
+                } else {
+                    con.send(packet);
+                }
+            });
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<R> request(@NotNull LongFunction<? extends W> requestFactory) {
+        return request(requestFactory, requestTimeout);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<R> request(@NotNull LongFunction<? extends W> requestFactory, long timeout) {
+
+        var id = requestIds.incrementAndGet();
+        var packet = requestFactory.apply(id);
+        var request = new PendingRequest<>(new CompletableFuture<R>());
+
+        pendingRequests.put(id, request);
+
+        request.timeout = schedule(() -> failRequest(id, request, new TimeoutException("No response to request " +
+            id + " in " + timeout + "ms")), timeout);
+
+        nextConnection().whenComplete((connection, throwable) -> {
+
+            if (throwable != null) {
+                failRequest(id, request, throwable);
+                return;
+            } else if (request.future.isDone()) {
+                return;
+            }
+
+            request.connection = connection;
+
+            connection.send(packet);
+
+            // the connection could be closed before linking the request with it
+            if (connection.isClosed()) {
+                failRequest(id, request, new ClosedChannelException());
+            }
+        });
+
+        return request.future;
+    }
+
+    @Override
+    public @NotNull Mono<R> requested(@NotNull LongFunction<? extends W> requestFactory) {
+        return Mono.create(monoSink -> request(requestFactory)
+            .whenComplete((response, ex) -> {
+                if (ex != null) {
+                    monoSink.error(ex);
+                } else {
+                    monoSink.success(response);
+                }
+            }));
+    }
+
+    @Override
+    public void close() {
+
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        timer.stop();
+
+        for (int i = 0; i < connections.length(); i++) {
+
+            var connection = connections.getAndSet(i, null);
+
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        var exception = new IllegalStateException("The connection pool is closed");
+
+        for (var entry : pendingRequests.entrySet()) {
+            failRequest(entry.getKey(), entry.getValue(), exception);
+        }
+
+        for (var waiter = connectionWaiters.poll(); waiter != null; waiter = connectionWaiters.poll()) {
+            waiter.completeExceptionally(exception);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultClientConnectionPool{" + "serverAddress=" + serverAddress + ", connected=" +
+            getConnectedCount() + "}";
+    }
+}
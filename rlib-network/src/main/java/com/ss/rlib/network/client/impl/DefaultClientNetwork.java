@@ -2,8 +2,6 @@ package com.ss.rlib.network.client.impl;
 
 import static com.ss.rlib.common.util.Utils.unchecked;
 import static com.ss.rlib.common.util.Utils.uncheckedGet;
-import com.ss.rlib.common.concurrent.util.ThreadUtils;
-import com.ss.rlib.common.util.AsyncUtils;
 import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.Connection;
@@ -17,12 +15,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.CompletionHandler;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 
 /**
@@ -34,9 +33,11 @@ public class DefaultClientNetwork<C extends Connection<?, ?>> extends AbstractNe
 
     protected static final Logger LOGGER = LoggerManager.getLogger(DefaultClientNetwork.class);
 
-    protected final @NotNull AtomicBoolean connecting;
+    /**
+     * The future of a current connection which is still connecting or null.
+     */
+    protected final @NotNull AtomicReference<CompletableFuture<C>> pendingConnection;
 
-    protected volatile @Nullable CompletableFuture<C> pendingConnection;
     protected volatile @Getter @Nullable C currentConnection;
 
     public DefaultClientNetwork(
@@ -44,7 +45,7 @@ public class DefaultClientNetwork<C extends Connection<?, ?>> extends AbstractNe
         @NotNull BiFunction<Network<C>, AsynchronousSocketChannel, C> channelToConnection
     ) {
         super(config, channelToConnection);
-        this.connecting = new AtomicBoolean(false);
+        this.pendingConnection = new AtomicReference<>();
 
         LOGGER.info(config, conf -> "Client network configuration: {\n" +
             "  groupName: \"" + conf.getThreadGroupName() + "\",\n" +
@@ -57,50 +58,68 @@ public class DefaultClientNetwork<C extends Connection<?, ?>> extends AbstractNe
     @Override
     public @NotNull CompletableFuture<C> connect(@NotNull InetSocketAddress serverAddress) {
 
+        var asyncResult = new CompletableFuture<C>();
+
+        // if we are trying connection now
+        var pendingResult = pendingConnection.compareAndExchange(null, asyncResult);
+
+        if (pendingResult != null) {
+            return pendingResult;
+        }
+
         C currentConnection = getCurrentConnection();
 
         if (currentConnection != null) {
             unchecked(currentConnection, C::close);
         }
 
-        // if we are trying connection now
-        if (!connecting.compareAndSet(false, true)) {
+        openConnection(serverAddress).whenComplete((connection, throwable) -> {
 
-            var asyncResult = this.pendingConnection;
+            this.currentConnection = connection;
+            this.pendingConnection.set(null);
 
-            if (asyncResult != null) {
-                return asyncResult;
+            if (throwable != null) {
+                asyncResult.completeExceptionally(throwable);
+            } else {
+                asyncResult.complete(connection);
             }
+        });
 
-            ThreadUtils.sleep(100);
+        return asyncResult;
+    }
 
-            return connect(serverAddress);
-        }
+    @Override
+    public @NotNull CompletableFuture<C> openConnection(@NotNull InetSocketAddress serverAddress) {
 
         var asyncResult = new CompletableFuture<C>();
 
         var channel = uncheckedGet(AsynchronousSocketChannel::open);
-        channel.connect(serverAddress, null, new CompletionHandler<Void, Void>() {
 
-            @Override
-            public void completed(@Nullable Void result, @Nullable Void attachment) {
-                LOGGER.info(channel, ch -> "Connected to server: " + NetworkUtils.getRemoteAddress(ch));
-                asyncResult.complete(channelToConnection.apply(DefaultClientNetwork.this, channel));
-            }
+        try {
+            NetworkUtils.configureSocket(channel, config);
+        } catch (IOException e) {
+            unchecked(channel, AsynchronousSocketChannel::close);
+            asyncResult.completeExceptionally(e);
+        }
 
-            @Override
-            public void failed(@NotNull Throwable exc, @Nullable Void attachment) {
-                asyncResult.completeExceptionally(exc);
-            }
-        });
+        if (channel.isOpen()) {
+            channel.connect(serverAddress, null, new CompletionHandler<Void, Void>() {
 
-        pendingConnection = asyncResult;
+                @Override
+                public void completed(@Nullable Void result, @Nullable Void attachment) {
+                    LOGGER.info(channel, ch -> "Connected to server: " + NetworkUtils.getRemoteAddress(ch));
+                    asyncResult.complete(channelToConnection.apply(DefaultClientNetwork.this, channel));
+                }
 
-        return asyncResult.handle((connection, throwable) -> {
-            this.currentConnection = connection;
-            this.connecting.set(false);
-            return AsyncUtils.continueCompletableStage(connection, throwable);
-        });
+                @Override
+                public void failed(@NotNull Throwable exc, @Nullable Void attachment) {
+                    unchecked(channel, AsynchronousSocketChannel::close);
+                    asyncResult.completeExceptionally(exc);
+                }
+            });
+        }
+
+        return asyncResult;
     }
 
     @Override
@@ -0,0 +1,36 @@
+package com.ss.rlib.network.datagram;
+
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.IdBasedWritablePacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The pseudo-connection to a peer of a datagram network. Packets are delivered unreliably and unordered,
+ * a packet which is bigger than a datagram can't be sent at all.
+ *
+ * @param <R> the readable packet's type.
+ * @param <W> the writable packet's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface DatagramConnection<R extends IdBasedReadablePacket<R>, W extends IdBasedWritablePacket> extends
+    Connection<R, W> {
+
+    /**
+     * Get an address of the peer.
+     *
+     * @return the peer's address.
+     */
+    @NotNull InetSocketAddress getPeerAddress();
+
+    /**
+     * Get a count of received datagrams which were dropped because they were older than the last received
+     * datagram, it's always 0 if datagrams don't have sequence numbers.
+     *
+     * @return the count of dropped stale datagrams.
+     */
+    long getStaleDatagrams();
+}
@@ -0,0 +1,80 @@
+package com.ss.rlib.network.datagram;
+
+import com.ss.rlib.network.Network;
+import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.IdBasedWritablePacket;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+
+import java.net.InetSocketAddress;
+import java.util.function.Consumer;
+
+/**
+ * The interface to implement a datagram (UDP) network. The network has one socket for all peers and keeps
+ * a pseudo-connection for each peer, packets which are sent together to a peer are batched to one datagram.
+ *
+ * @param <R> the readable packet's type.
+ * @param <W> the writable packet's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface DatagramNetwork<R extends IdBasedReadablePacket<R>, W extends IdBasedWritablePacket> extends
+    Network<DatagramConnection<R, W>> {
+
+    @Override
+    @NotNull DatagramNetworkConfig getConfig();
+
+    /**
+     * Start this network using any available port.
+     *
+     * @return the local address of this network.
+     */
+    @NotNull InetSocketAddress start();
+
+    /**
+     * Start this network by the address.
+     *
+     * @param address the local address.
+     * @return the local address of this network.
+     */
+    @NotNull InetSocketAddress start(@NotNull InetSocketAddress address);
+
+    /**
+     * Get or create a connection to the peer. There is no handshake, so the connection is ready immediately,
+     * the address should be the same address which the peer sends datagrams from.
+     *
+     * @param peerAddress the peer's address.
+     * @return the connection.
+     */
+    @NotNull DatagramConnection<R, W> connect(@NotNull InetSocketAddress peerAddress);
+
+    /**
+     * Register a consumer of connections of new peers which are created by received datagrams,
+     * the consumer is called before handling packets of the first datagram.
+     *
+     * @param consumer the consumer of new connections.
+     */
+    void onAccept(@NotNull Consumer<? super DatagramConnection<R, W>> consumer);
+
+    /**
+     * Get a stream of connections of new peers which are created by received datagrams.
+     *
+     * @return the stream of new connections.
+     */
+    @NotNull Flux<DatagramConnection<R, W>> accepted();
+
+    /**
+     * Get a count of connections to peers.
+     *
+     * @return the count of connections.
+     */
+    int getConnectionCount();
+
+    /**
+     * Get a count of received datagrams which were dropped because they came from new peers while the max
+     * count of peers was reached.
+     *
+     * @return the count of rejected datagrams.
+     */
+    long getRejectedDatagrams();
+}
@@ -0,0 +1,126 @@
+package com.ss.rlib.network.datagram;
+
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import lombok.Builder;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteOrder;
+
+/**
+ * The interface to implement a datagram network config. Settings of {@link NetworkConfig} which are related
+ * to streams, such as pending packets, compression or TCP options, aren't used by datagram networks.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface DatagramNetworkConfig extends NetworkConfig {
+
+    @Builder
+    @Getter
+    class SimpleDatagramNetworkConfig implements DatagramNetworkConfig {
+
+        @Builder.Default
+        private String threadGroupName = "DatagramNetworkThread";
+        @Builder.Default
+        private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+        @Builder.Default
+        private boolean directByteBuffer = false;
+        @Builder.Default
+        private NetworkMetrics networkMetrics = NetworkMetrics.NOOP;
+        @Builder.Default
+        private int socketSendBufferSize = -1;
+        @Builder.Default
+        private int socketReceiveBufferSize = -1;
+        @Builder.Default
+        private int maxDatagramSize = 1400;
+        @Builder.Default
+        private int packetLengthHeaderSize = 2;
+        @Builder.Default
+        private int packetIdHeaderSize = 2;
+        @Builder.Default
+        private boolean sequenceNumbers = false;
+        @Builder.Default
+        private int maxPeers = 4096;
+        @Builder.Default
+        private int peerIdleTimeout = 30000;
+        @Builder.Default
+        private int idleTimerTickDuration = 100;
+    }
+
+    @NotNull DatagramNetworkConfig DEFAULT = new DatagramNetworkConfig() {};
+
+    @Override
+    default @NotNull String getThreadGroupName() {
+        return "DatagramNetworkThread";
+    }
+
+    /**
+     * Get a max size of one datagram, packets which are sent together are batched to one datagram up to this
+     * size. The default size fits to the usual MTU 1500 bytes with IP and UDP headers.
+     *
+     * @return the max size of one datagram.
+     */
+    default int getMaxDatagramSize() {
+        return 1400;
+    }
+
+    /**
+     * Get a size of the header of packet's length in a datagram: 1, 2 or 4 bytes.
+     *
+     * @return the size of the header of packet's length.
+     */
+    default int getPacketLengthHeaderSize() {
+        return 2;
+    }
+
+    /**
+     * Get a size of the header of packet's id in a datagram: 1, 2 or 4 bytes.
+     *
+     * @return the size of the header of packet's id.
+     */
+    default int getPacketIdHeaderSize() {
+        return 2;
+    }
+
+    /**
+     * Return true if each datagram starts with a sequence number, so a receiver drops datagrams which are
+     * older than the last received datagram from the same peer. It should be the same on both peers.
+     *
+     * @return true if datagrams have sequence numbers.
+     */
+    default boolean isSequenceNumbers() {
+        return false;
+    }
+
+    /**
+     * Get a max count of connections to peers, datagrams from new peers are dropped while the count is reached.
+     * The negative value disables the limit.
+     *
+     * @return the max count of peers.
+     */
+    default int getMaxPeers() {
+        return 4096;
+    }
+
+    /**
+     * Get a timeout in ms of receiving nothing from an accepted peer before closing its connection,
+     * connections which are created by {@link DatagramNetwork#connect} aren't closed by it.
+     * The negative value disables closing of idle peers.
+     *
+     * @return the idle timeout of peers.
+     */
+    default int getPeerIdleTimeout() {
+        return 30000;
+    }
+
+    /**
+     * Get a duration in ms of a tick of the timer of peer idle timeouts, it's the accuracy of the timeouts.
+     *
+     * @return the tick duration.
+     */
+    default int getIdleTimerTickDuration() {
+        return 100;
+    }
+}
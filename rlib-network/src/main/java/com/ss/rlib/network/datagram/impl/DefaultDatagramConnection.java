@@ -0,0 +1,599 @@
+package com.ss.rlib.network.datagram.impl;
+
+import com.ss.rlib.common.function.NotNullBiConsumer;
+import com.ss.rlib.common.function.NotNullConsumer;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.IdleState;
+import com.ss.rlib.network.NetworkCryptor;
+import com.ss.rlib.network.PacketCompressor;
+import com.ss.rlib.network.datagram.DatagramConnection;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.IdBasedWritablePacket;
+import com.ss.rlib.network.packet.ReusableReadablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import com.ss.rlib.network.packet.impl.WritablePacketWrapper;
+import com.ss.rlib.network.util.NetworkUtils;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * The default implementation of a datagram connection. A sender which takes the writing flag batches all
+ * pending packets of the connection to datagrams, so packets are batched when they are sent faster than
+ * datagrams are written. Received datagrams are handled by the receiving thread of the network.
+ *
+ * @param <R> the readable packet's type.
+ * @param <W> the writable packet's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class DefaultDatagramConnection<R extends IdBasedReadablePacket<R>, W extends IdBasedWritablePacket> implements
+    DatagramConnection<R, W> {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(DefaultDatagramConnection.class);
+
+    private static final int SEQUENCE_HEADER_SIZE = 4;
+
+    private static class WritablePacketWithFeedback<W extends WritablePacket> extends
+        WritablePacketWrapper<CompletableFuture<Boolean>, W> {
+
+        public WritablePacketWithFeedback(@NotNull CompletableFuture<Boolean> attachment, @NotNull W packet) {
+            super(attachment, packet);
+        }
+    }
+
+    protected final @NotNull DefaultDatagramNetwork<R, W> network;
+    protected final @Getter @NotNull InetSocketAddress peerAddress;
+    protected final @Getter @NotNull String remoteAddress;
+    protected final @Getter @NotNull NetworkMetrics metrics;
+
+    protected final @NotNull Queue<WritablePacket> pendingPackets;
+    protected final @NotNull Array<WritablePacket> datagramPackets;
+    protected final @NotNull AtomicBoolean writing;
+    protected final @NotNull AtomicInteger writeRequests;
+    protected final @NotNull AtomicInteger sendSequence;
+    protected final @NotNull AtomicBoolean closed;
+
+    protected final @NotNull Array<NotNullBiConsumer<? super Connection<R, W>, ? super R>> subscribers;
+    protected final @NotNull Array<NotNullConsumer<IdleState>> idleSubscribers;
+    protected final @NotNull Array<NotNullConsumer<? super Connection<R, W>>> closeSubscribers;
+
+    protected final int packetLengthHeaderSize;
+    protected final int packetIdHeaderSize;
+    protected final int sequenceHeaderSize;
+    protected final int maxDatagramSize;
+    protected final boolean metricsEnabled;
+
+    /**
+     * The buffers to serialize datagrams, they are used only by a holder of the writing flag.
+     */
+    protected @Nullable ByteBuffer datagramBuffer;
+    protected @Nullable ByteBuffer packetBuffer;
+
+    /**
+     * The last received sequence number, it's used only by the receiving thread.
+     */
+    protected int lastReceivedSequence;
+    protected boolean sequenceReceived;
+
+    protected volatile @Getter long staleDatagrams;
+    protected volatile @Getter long lastActivity;
+    protected volatile @Getter long lastReadActivity;
+    protected volatile @Getter long lastWriteActivity;
+
+    public DefaultDatagramConnection(
+        @NotNull DefaultDatagramNetwork<R, W> network,
+        @NotNull InetSocketAddress peerAddress
+    ) {
+        var config = network.getConfig();
+
+        this.network = network;
+        this.peerAddress = peerAddress;
+        this.remoteAddress = String.valueOf(peerAddress);
+        this.pendingPackets = new ConcurrentLinkedQueue<>();
+        this.datagramPackets = ArrayFactory.newArray(WritablePacket.class);
+        this.writing = new AtomicBoolean();
+        this.writeRequests = new AtomicInteger();
+        this.sendSequence = new AtomicInteger();
+        this.closed = new AtomicBoolean();
+        this.subscribers = ArrayFactory.newCopyOnModifyArray(NotNullBiConsumer.class);
+        this.idleSubscribers = ArrayFactory.newCopyOnModifyArray(NotNullConsumer.class);
+        this.closeSubscribers = ArrayFactory.newArray(NotNullConsumer.class);
+        this.packetLengthHeaderSize = config.getPacketLengthHeaderSize();
+        this.packetIdHeaderSize = config.getPacketIdHeaderSize();
+        this.sequenceHeaderSize = config.isSequenceNumbers() ? SEQUENCE_HEADER_SIZE : 0;
+        this.maxDatagramSize = config.getMaxDatagramSize();
+        this.lastActivity = System.currentTimeMillis();
+        this.lastReadActivity = lastActivity;
+        this.lastWriteActivity = lastActivity;
+        this.metrics = config.getNetworkMetrics().forConnection(this);
+        this.metricsEnabled = metrics.isEnabled();
+    }
+
+    /**
+     * Handle a datagram which was received from the peer.
+     *
+     * @param buffer the buffer with the datagram.
+     */
+    protected void handleDatagram(@NotNull ByteBuffer buffer) {
+
+        lastReadActivity = lastActivity = System.currentTimeMillis();
+
+        if (metricsEnabled) {
+            metrics.onReceivedBytes(buffer.remaining());
+        }
+
+        if (sequenceHeaderSize > 0) {
+
+            if (buffer.remaining() < sequenceHeaderSize) {
+                return;
+            }
+
+            var sequence = buffer.getInt();
+
+            // the difference handles overflow of sequence numbers
+            if (sequenceReceived && sequence - lastReceivedSequence <= 0) {
+                staleDatagrams++;
+                return;
+            }
+
+            lastReceivedSequence = sequence;
+            sequenceReceived = true;
+        }
+
+        var headerSize = packetLengthHeaderSize + packetIdHeaderSize;
+
+        while (buffer.remaining() >= headerSize) {
+
+            var startPosition = buffer.position();
+            var packetLength = readHeader(buffer, packetLengthHeaderSize);
+
+            if (packetLength < headerSize || packetLength > buffer.limit() - startPosition) {
+                LOGGER.warning(this, packetLength, (con, length) -> "Received wrong packet length " + length +
+                    " from " + con.getRemoteAddress());
+                return;
+            }
+
+            var packetId = readHeader(buffer, packetIdHeaderSize);
+
+            R packet;
+            try {
+                packet = network.getPacketRegistry().newInstance(packetId);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning(e);
+                buffer.position(startPosition + packetLength);
+                continue;
+            }
+
+            if (packet.read(this, buffer, packetLength - headerSize)) {
+                notifySubscribers(packet);
+            } else {
+                ReusableReadablePacket.releaseIfReusable(packet);
+            }
+
+            buffer.position(startPosition + packetLength);
+        }
+    }
+
+    /**
+     * Notify subscribers about the received packet and release the packet after it if it's reusable.
+     *
+     * @param packet the received packet.
+     */
+    protected void notifySubscribers(@NotNull R packet) {
+        try {
+            subscribers.forEachR(this, packet, BiConsumer::accept);
+        } finally {
+            ReusableReadablePacket.releaseIfReusable(packet);
+        }
+    }
+
+    @Override
+    public void send(@NotNull W packet) {
+        sendImpl(packet);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> sendWithFeedback(@NotNull W packet) {
+
+        var asyncResult = new CompletableFuture<Boolean>();
+
+        sendImpl(new WritablePacketWithFeedback<>(asyncResult, packet));
+
+        return asyncResult;
+    }
+
+    protected void sendImpl(@NotNull WritablePacket packet) {
+
+        if (isClosed()) {
+            onSentPacket(packet, Boolean.FALSE);
+            return;
+        }
+
+        pendingPackets.add(packet);
+
+        writeDatagrams();
+    }
+
+    /**
+     * Write all pending packets by the sender which takes the writing flag, senders of packets which are added
+     * during writing couldn't take the flag, so the writer checks write requests after releasing the flag.
+     */
+    protected void writeDatagrams() {
+
+        var requests = writeRequests.incrementAndGet();
+
+        while (writing.compareAndSet(false, true)) {
+
+            // the flag isn't released after closing, so buffers are released only once
+            if (isClosed()) {
+                releaseBuffers();
+                return;
+            }
+
+            try {
+                writePendingPackets();
+            } catch (Exception e) {
+                LOGGER.error(e);
+            } finally {
+                writing.set(false);
+            }
+
+            var currentRequests = writeRequests.get();
+
+            if (currentRequests == requests) {
+                return;
+            }
+
+            requests = currentRequests;
+        }
+    }
+
+    protected void writePendingPackets() {
+
+        var datagram = datagramBuffer;
+        var packetBuffer = this.packetBuffer;
+
+        if (datagram == null || packetBuffer == null) {
+            datagram = datagramBuffer = network.getBufferAllocator().takeBuffer(maxDatagramSize);
+            packetBuffer = this.packetBuffer = network.getBufferAllocator().takeBuffer(maxDatagramSize);
+        }
+
+        // an allocator can return a bigger buffer, so datagrams are limited by the max size explicitly
+        datagram.clear().limit(maxDatagramSize).position(sequenceHeaderSize);
+
+        for (var packet = pendingPackets.poll(); packet != null; packet = pendingPackets.poll()) {
+
+            boolean serialized;
+            try {
+                serialized = serialize(packet, packetBuffer);
+            } catch (Exception e) {
+                LOGGER.error(new RuntimeException("Failed writing packet: " + packet, e));
+                serialized = false;
+            }
+
+            if (!serialized) {
+                onSentPacket(packet, Boolean.FALSE);
+                continue;
+            }
+
+            if (packetBuffer.remaining() > datagram.remaining()) {
+                writeDatagram(datagram);
+                datagram.clear().limit(maxDatagramSize).position(sequenceHeaderSize);
+            }
+
+            datagram.put(packetBuffer);
+            datagramPackets.add(packet);
+        }
+
+        if (!datagramPackets.isEmpty()) {
+            writeDatagram(datagram);
+        }
+    }
+
+    /**
+     * Serialize the packet with its headers to the buffer.
+     *
+     * @param packet the packet.
+     * @param buffer the buffer.
+     * @return true if the packet was serialized and it fits to a datagram.
+     */
+    protected boolean serialize(@NotNull WritablePacket packet, @NotNull ByteBuffer buffer) {
+
+        while (packet instanceof WritablePacketWrapper) {
+            packet = ((WritablePacketWrapper<?, ?>) packet).getPacket();
+        }
+
+        var headerSize = packetLengthHeaderSize + packetIdHeaderSize;
+        var expectedLength = packet.getExpectedLength();
+        var maxPacketSize = maxDatagramSize - sequenceHeaderSize;
+
+        if (expectedLength != -1 && expectedLength + headerSize > maxPacketSize) {
+            LOGGER.warning(packet, pck -> "Packet " + pck + " is too big to send it by datagram");
+            return false;
+        }
+
+        buffer.clear()
+            .limit(maxPacketSize)
+            .position(headerSize);
+
+        if (!packet.write(buffer)) {
+            return false;
+        }
+
+        buffer.flip();
+
+        writeHeader(buffer, 0, buffer.limit(), packetLengthHeaderSize);
+        writeHeader(buffer, packetLengthHeaderSize, ((IdBasedWritablePacket) packet).getPacketId(), packetIdHeaderSize);
+
+        return true;
+    }
+
+    protected void writeDatagram(@NotNull ByteBuffer datagram) {
+
+        if (sequenceHeaderSize > 0) {
+            datagram.putInt(0, sendSequence.incrementAndGet());
+        }
+
+        datagram.flip();
+
+        var result = Boolean.TRUE;
+        try {
+
+            var sentBytes = network.getChannel().send(datagram, peerAddress);
+
+            lastWriteActivity = lastActivity = System.currentTimeMillis();
+
+            if (metricsEnabled) {
+                metrics.onSentBytes(sentBytes);
+            }
+
+        } catch (IOException e) {
+            LOGGER.warning(this, e, (con, ex) -> "Cannot send datagram to " + con.getRemoteAddress() + ": " +
+                ex.getMessage());
+            result = Boolean.FALSE;
+        }
+
+        for (var packet : datagramPackets) {
+            onSentPacket(packet, result);
+        }
+
+        datagramPackets.clear();
+    }
+
+    protected void onSentPacket(@NotNull WritablePacket packet, @NotNull Boolean result) {
+        if (packet instanceof WritablePacketWithFeedback) {
+            ((WritablePacketWithFeedback<?>) packet).getAttachment().complete(result);
+        }
+    }
+
+    protected void releaseBuffers() {
+
+        var datagram = datagramBuffer;
+        var packetBuffer = this.packetBuffer;
+
+        if (datagram != null) {
+            datagramBuffer = null;
+            network.getBufferAllocator().putBuffer(datagram);
+        }
+
+        if (packetBuffer != null) {
+            this.packetBuffer = null;
+            network.getBufferAllocator().putBuffer(packetBuffer);
+        }
+
+        for (var packet = pendingPackets.poll(); packet != null; packet = pendingPackets.poll()) {
+            onSentPacket(packet, Boolean.FALSE);
+        }
+    }
+
+    protected int readHeader(@NotNull ByteBuffer buffer, int headerSize) {
+        switch (headerSize) {
+            case 1:
+                return buffer.get() & 0xFF;
+            case 2:
+                return buffer.getShort() & 0xFFFF;
+            case 4:
+                return buffer.getInt();
+            default:
+                throw new IllegalStateException("Wrong packet's header size: " + headerSize);
+        }
+    }
+
+    protected void writeHeader(@NotNull ByteBuffer buffer, int position, int value, int headerSize) {
+        switch (headerSize) {
+            case 1:
+                buffer.put(position, (byte) value);
+                break;
+            case 2:
+                buffer.putShort(position, (short) value);
+                break;
+            case 4:
+                buffer.putInt(position, value);
+                break;
+            default:
+                throw new IllegalStateException("Wrong packet's header size: " + headerSize);
+        }
+    }
+
+    @Override
+    public void onClose(@NotNull NotNullConsumer<? super Connection<R, W>> consumer) {
+
+        synchronized (closeSubscribers) {
+            if (!isClosed()) {
+                closeSubscribers.add(consumer);
+                return;
+            }
+        }
+
+        consumer.accept(this);
+    }
+
+    @Override
+    public void close() {
+
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        network.removeConnection(this);
+
+        // takes the writing flag to release buffers if nobody writes now
+        writeDatagrams();
+
+        Array<NotNullConsumer<? super Connection<R, W>>> subscribers = ArrayFactory.newArray(NotNullConsumer.class);
+
+        synchronized (closeSubscribers) {
+            subscribers.addAll(closeSubscribers);
+            closeSubscribers.clear();
+        }
+
+        subscribers.forEachR(this, NotNullConsumer::accept);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * A datagram connection doesn't have pending packets limits, so it's always writable.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isWritable() {
+        return true;
+    }
+
+    @Override
+    public @NotNull Flux<Boolean> writabilityChanges() {
+        return Flux.never();
+    }
+
+    @Override
+    public @Nullable PacketCompressor getPacketCompressor() {
+        return null;
+    }
+
+    @Override
+    public boolean isCompressionEnabled() {
+        return false;
+    }
+
+    @Override
+    public void setCompressionEnabled(boolean enabled) {
+    }
+
+    @Override
+    public @Nullable NetworkCryptor getCryptor() {
+        return null;
+    }
+
+    @Override
+    public void setCryptor(@Nullable NetworkCryptor cryptor) {
+        throw new UnsupportedOperationException("Datagram connections don't support cryptors");
+    }
+
+    @Override
+    public void onIdle(@NotNull NotNullConsumer<IdleState> consumer) {
+        idleSubscribers.add(consumer);
+    }
+
+    @Override
+    public @NotNull Flux<IdleState> idleEvents() {
+        return Flux.create(this::registerFluxOnIdleEvents);
+    }
+
+    protected void registerFluxOnIdleEvents(@NotNull FluxSink<IdleState> sink) {
+
+        NotNullConsumer<IdleState> listener = sink::next;
+
+        onIdle(listener);
+
+        sink.onDispose(() -> idleSubscribers.remove(listener));
+    }
+
+    protected void handleIdle(@NotNull IdleState state) {
+        idleSubscribers.forEachR(state, NotNullConsumer::accept);
+    }
+
+    @Override
+    public void onReceive(@NotNull NotNullBiConsumer<? super Connection<R, W>, ? super R> consumer) {
+        subscribers.add(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A reusable packet is retained while it's buffered by the stream and released after it's emitted to the
+     * subscriber or discarded.
+     */
+    @Override
+    public @NotNull Flux<ReceivedPacketEvent<? extends Connection<R, W>, ? extends R>> receivedEvents() {
+        var events = Flux.create(this::registerFluxOnReceivedEvents);
+        return NetworkUtils.doAfterNext(events, event -> ReusableReadablePacket.releaseIfReusable(event.packet))
+            .doOnDiscard(ReceivedPacketEvent.class, event -> ReusableReadablePacket.releaseIfReusable(event.packet));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A reusable packet is retained while it's buffered by the stream and released after it's emitted to the
+     * subscriber or discarded.
+     */
+    @Override
+    public @NotNull Flux<? extends R> receivedPackets() {
+        var packets = Flux.<R>create(this::registerFluxOnReceivedPackets);
+        return NetworkUtils.doAfterNext(packets, ReusableReadablePacket::releaseIfReusable)
+            .doOnDiscard(ReusableReadablePacket.class, ReusableReadablePacket::release);
+    }
+
+    protected void registerFluxOnReceivedEvents(
+        @NotNull FluxSink<ReceivedPacketEvent<? extends Connection<R, W>, ? extends R>> sink
+    ) {
+
+        NotNullBiConsumer<Connection<R, W>, R> listener = (connection, packet) -> {
+            ReusableReadablePacket.retainIfReusable(packet);
+            sink.next(new ReceivedPacketEvent<>(connection, packet));
+        };
+
+        onReceive(listener);
+
+        sink.onDispose(() -> subscribers.remove(listener));
+    }
+
+    protected void registerFluxOnReceivedPackets(@NotNull FluxSink<? super R> sink) {
+
+        NotNullBiConsumer<Connection<R, W>, R> listener = (connection, packet) -> {
+            ReusableReadablePacket.retainIfReusable(packet);
+            sink.next(packet);
+        };
+
+        onReceive(listener);
+
+        sink.onDispose(() -> subscribers.remove(listener));
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultDatagramConnection{" + "peerAddress=" + peerAddress + ", closed=" + closed.get() + "}";
+    }
+}
@@ -0,0 +1,326 @@
+package com.ss.rlib.network.datagram.impl;
+
+import com.ss.rlib.common.util.Utils;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.IdleState;
+import com.ss.rlib.network.datagram.DatagramConnection;
+import com.ss.rlib.network.datagram.DatagramNetwork;
+import com.ss.rlib.network.datagram.DatagramNetworkConfig;
+import com.ss.rlib.network.impl.HashedWheelTimer;
+import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.IdBasedWritablePacket;
+import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The default implementation of {@link DatagramNetwork}. One blocking datagram channel is shared by all peers,
+ * datagrams are received by one thread of the network and are sent by threads of senders.
+ *
+ * @param <R> the readable packet's type.
+ * @param <W> the writable packet's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class DefaultDatagramNetwork<R extends IdBasedReadablePacket<R>, W extends IdBasedWritablePacket> implements
+    DatagramNetwork<R, W> {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(DefaultDatagramNetwork.class);
+
+    /**
+     * The max size of UDP payload, a received datagram is never truncated regardless of the peer's config.
+     */
+    private static final int MAX_DATAGRAM_SIZE = 65507;
+
+    private static final int WHEEL_SIZE = 512;
+
+    protected final @Getter @NotNull DatagramNetworkConfig config;
+    protected final @Getter @NotNull BufferAllocator bufferAllocator;
+    protected final @Getter @NotNull ReadablePacketRegistry<R> packetRegistry;
+    protected final @Getter @NotNull DatagramChannel channel;
+
+    protected final @NotNull Map<InetSocketAddress, DefaultDatagramConnection<R, W>> connections;
+    protected final @NotNull Array<Consumer<? super DatagramConnection<R, W>>> subscribers;
+    protected final @Nullable HashedWheelTimer idleTimer;
+    protected final @NotNull LongAdder rejectedDatagrams;
+
+    protected volatile @Nullable Thread receiveThread;
+
+    public DefaultDatagramNetwork(
+        @NotNull DatagramNetworkConfig config,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull ReadablePacketRegistry<R> packetRegistry
+    ) {
+        this.config = config;
+        this.bufferAllocator = bufferAllocator;
+        this.packetRegistry = packetRegistry;
+        this.channel = Utils.uncheckedGet(DatagramChannel::open);
+        this.connections = new ConcurrentHashMap<>();
+        this.subscribers = ArrayFactory.newCopyOnModifyArray(Consumer.class);
+        this.rejectedDatagrams = new LongAdder();
+        this.idleTimer = config.getPeerIdleTimeout() > 0 ? new HashedWheelTimer(
+            config.getThreadGroupName() + "-IdleWatcher",
+            config.getIdleTimerTickDuration(),
+            TimeUnit.MILLISECONDS,
+            WHEEL_SIZE
+        ) : null;
+
+        if (config.getSocketSendBufferSize() > 0) {
+            Utils.unchecked(channel, ch ->
+                ch.setOption(StandardSocketOptions.SO_SNDBUF, config.getSocketSendBufferSize()));
+        }
+
+        if (config.getSocketReceiveBufferSize() > 0) {
+            Utils.unchecked(channel, ch ->
+                ch.setOption(StandardSocketOptions.SO_RCVBUF, config.getSocketReceiveBufferSize()));
+        }
+
+        LOGGER.info(config, conf -> "Datagram network configuration: {\n" +
+            "  groupName: \"" + conf.getThreadGroupName() + "\",\n" +
+            "  maxDatagramSize: " + conf.getMaxDatagramSize() + ",\n" +
+            "  packetLengthHeaderSize: " + conf.getPacketLengthHeaderSize() + ",\n" +
+            "  packetIdHeaderSize: " + conf.getPacketIdHeaderSize() + ",\n" +
+            "  sequenceNumbers: " + conf.isSequenceNumbers() + ",\n" +
+            "  maxPeers: " + conf.getMaxPeers() + ",\n" +
+            "  peerIdleTimeout: " + conf.getPeerIdleTimeout() + "\n" +
+            "}");
+    }
+
+    @Override
+    public @NotNull InetSocketAddress start() {
+        return start(new InetSocketAddress(0));
+    }
+
+    @Override
+    public synchronized @NotNull InetSocketAddress start(@NotNull InetSocketAddress address) {
+
+        if (receiveThread != null) {
+            throw new IllegalStateException("The datagram network is already started");
+        }
+
+        Utils.unchecked(channel, address, DatagramChannel::bind);
+
+        var localAddress = (InetSocketAddress) Utils.uncheckedGet(channel, DatagramChannel::getLocalAddress);
+
+        var thread = new Thread(this::receiveDatagrams, config.getThreadGroupName() + "-Receiver");
+        thread.setDaemon(true);
+        thread.start();
+
+        receiveThread = thread;
+
+        LOGGER.info(localAddress, adr -> "Started datagram socket on address: " + adr);
+
+        return localAddress;
+    }
+
+    /**
+     * Receive datagrams until the channel is closed.
+     */
+    protected void receiveDatagrams() {
+
+        var buffer = bufferAllocator.takeBuffer(MAX_DATAGRAM_SIZE);
+        try {
+
+            while (channel.isOpen()) {
+
+                buffer.clear();
+
+                InetSocketAddress peerAddress;
+                try {
+                    peerAddress = (InetSocketAddress) channel.receive(buffer);
+                } catch (ClosedChannelException e) {
+                    break;
+                } catch (IOException e) {
+                    LOGGER.warning(e);
+                    continue;
+                }
+
+                if (peerAddress == null) {
+                    continue;
+                }
+
+                buffer.flip();
+
+                try {
+
+                    var connection = getOrAccept(peerAddress);
+
+                    if (connection != null) {
+                        connection.handleDatagram(buffer);
+                    }
+
+                } catch (Exception e) {
+                    LOGGER.error(e);
+                }
+            }
+
+        } finally {
+            bufferAllocator.putBuffer(buffer);
+        }
+    }
+
+    /**
+     * Get a connection of the peer or accept a new one if the max count of peers isn't reached.
+     *
+     * @param peerAddress the peer's address.
+     * @return the peer's connection or null if the peer was rejected.
+     */
+    protected @Nullable DefaultDatagramConnection<R, W> getOrAccept(@NotNull InetSocketAddress peerAddress) {
+
+        var connection = connections.get(peerAddress);
+
+        if (connection != null) {
+            return connection;
+        }
+
+        var maxPeers = config.getMaxPeers();
+
+        // only the receiver thread accepts new peers, so the count can't be exceeded by accepting
+        if (maxPeers >= 0 && connections.size() >= maxPeers) {
+            rejectedDatagrams.increment();
+            LOGGER.debug(peerAddress, adr -> "Reject a datagram of new peer " + adr + " because of the limit of peers");
+            return null;
+        }
+
+        var newConnection = new DefaultDatagramConnection<>(this, peerAddress);
+
+        connection = connections.putIfAbsent(peerAddress, newConnection);
+
+        if (connection != null) {
+            return connection;
+        }
+
+        LOGGER.debug(newConnection, conn -> "Accepted new peer: " + conn.getRemoteAddress());
+
+        config.getNetworkMetrics().onAcceptedConnection();
+
+        watch(newConnection);
+
+        // subscribers should be able to handle the first datagram of the peer
+        subscribers.forEachR(newConnection, Consumer::accept);
+
+        return newConnection;
+    }
+
+    @Override
+    public @NotNull DatagramConnection<R, W> connect(@NotNull InetSocketAddress peerAddress) {
+
+        var connection = connections.get(peerAddress);
+
+        if (connection != null) {
+            return connection;
+        }
+
+        var newConnection = new DefaultDatagramConnection<>(this, peerAddress);
+
+        connection = connections.putIfAbsent(peerAddress, newConnection);
+
+        return connection != null ? connection : newConnection;
+    }
+
+    protected void watch(@NotNull DefaultDatagramConnection<R, W> connection) {
+        if (idleTimer != null) {
+            scheduleIdleCheck(idleTimer, connection, config.getPeerIdleTimeout());
+        }
+    }
+
+    protected void scheduleIdleCheck(
+        @NotNull HashedWheelTimer timer,
+        @NotNull DefaultDatagramConnection<R, W> connection,
+        long delay
+    ) {
+        if (!timer.isStopped()) {
+            timer.newTimeout(() -> checkIdle(timer, connection), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    protected void checkIdle(@NotNull HashedWheelTimer timer, @NotNull DefaultDatagramConnection<R, W> connection) {
+
+        if (connection.isClosed()) {
+            return;
+        }
+
+        var remaining = connection.getLastReadActivity() + config.getPeerIdleTimeout() - System.currentTimeMillis();
+
+        if (remaining > 0) {
+            scheduleIdleCheck(timer, connection, remaining);
+            return;
+        }
+
+        LOGGER.debug(connection, conn -> "Close idle peer: " + conn.getRemoteAddress());
+
+        connection.handleIdle(IdleState.READ_IDLE);
+        connection.close();
+    }
+
+    protected void removeConnection(@NotNull DefaultDatagramConnection<R, W> connection) {
+        connections.remove(connection.getPeerAddress(), connection);
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public long getRejectedDatagrams() {
+        return rejectedDatagrams.sum();
+    }
+
+    @Override
+    public void onAccept(@NotNull Consumer<? super DatagramConnection<R, W>> consumer) {
+        subscribers.add(consumer);
+    }
+
+    @Override
+    public @NotNull Flux<DatagramConnection<R, W>> accepted() {
+        return Flux.create(this::registerFluxOnAccepted);
+    }
+
+    protected void registerFluxOnAccepted(@NotNull FluxSink<DatagramConnection<R, W>> sink) {
+
+        Consumer<? super DatagramConnection<R, W>> listener = sink::next;
+
+        onAccept(listener);
+
+        sink.onDispose(() -> subscribers.remove(listener));
+    }
+
+    @Override
+    public void shutdown() {
+
+        Utils.unchecked(channel, DatagramChannel::close);
+
+        if (idleTimer != null) {
+            idleTimer.stop();
+        }
+
+        for (var connection : connections.values()) {
+            connection.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultDatagramNetwork{" + "channel=" + channel + ", connections=" + connections.size() + "}";
+    }
+}
@@ -2,20 +2,31 @@ package com.ss.rlib.network.impl;
 
 import static com.ss.rlib.common.util.Utils.unchecked;
 import com.ss.rlib.common.function.NotNullBiConsumer;
+import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
-import com.ss.rlib.common.util.linkedlist.LinkedList;
-import com.ss.rlib.common.util.linkedlist.LinkedListFactory;
 import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.IdleState;
 import com.ss.rlib.network.Network;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkCryptor;
+import com.ss.rlib.network.PacketCompressor;
+import com.ss.rlib.network.PacketDispatchMode;
+import com.ss.rlib.network.PendingPacketsOverflowPolicy;
+import com.ss.rlib.network.UnwritableSendPolicy;
 import com.ss.rlib.network.UnsafeConnection;
+import com.ss.rlib.network.capture.TrafficRecorder;
+import com.ss.rlib.network.metrics.NetworkMetrics;
 import com.ss.rlib.network.packet.PacketReader;
 import com.ss.rlib.network.packet.PacketWriter;
 import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.packet.ReusableReadablePacket;
 import com.ss.rlib.network.packet.WritablePacket;
+import com.ss.rlib.network.packet.impl.SSLWritablePacket;
+import com.ss.rlib.network.packet.impl.SharedSerializedPacket;
 import com.ss.rlib.network.packet.impl.WritablePacketWrapper;
 import com.ss.rlib.network.util.NetworkUtils;
 import lombok.Getter;
@@ -27,8 +38,12 @@ import reactor.core.publisher.FluxSink;
 import java.nio.channels.AsynchronousChannel;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 
 /**
@@ -41,6 +56,10 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
 
     private static final Logger LOGGER = LoggerManager.getLogger(AbstractConnection.class);
 
+    private static final Executor VIRTUAL_THREAD_EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+        .name("PacketHandler-", 0)
+        .factory());
+
     private static class WritablePacketWithFeedback<W extends WritablePacket> extends
         WritablePacketWrapper<CompletableFuture<Boolean>, W> {
 
@@ -49,22 +68,91 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
         }
     }
 
+    private static class TimedWritablePacket extends WritablePacketWrapper<Long, WritablePacket> {
+
+        public TimedWritablePacket(@NotNull Long queuedTime, @NotNull WritablePacket packet) {
+            super(queuedTime, packet);
+        }
+    }
+
     protected final @Getter @NotNull String remoteAddress;
 
     protected final @NotNull Network<? extends Connection<R, W>> network;
     protected final @NotNull BufferAllocator bufferAllocator;
     protected final @NotNull AsynchronousSocketChannel channel;
-    protected final @NotNull LinkedList<WritablePacket> pendingPackets;
-    protected final @NotNull StampedLock lock;
+    protected final @NotNull PendingPacketQueue pendingPackets;
+    protected final @NotNull PendingPacketQueue waitingForWritablePackets;
+    protected final @NotNull PendingPacketsOverflowPolicy pendingPacketsOverflowPolicy;
+    protected final @NotNull UnwritableSendPolicy unwritableSendPolicy;
 
     protected final @NotNull AtomicBoolean isWriting;
     protected final @NotNull AtomicBoolean closed;
+    protected final @NotNull AtomicBoolean writable;
+    protected final @NotNull AtomicLong pendingBytes;
+
+    /**
+     * The changes of writable state which weren't delivered to subscribers yet in order of changing.
+     */
+    protected final @NotNull ConcurrentLinkedQueue<Boolean> undeliveredWritabilityChanges;
+
+    /**
+     * The flag of a thread which delivers changes of writable state to subscribers.
+     */
+    protected final @NotNull AtomicBoolean notifyingWritability;
 
     protected final @NotNull Array<NotNullBiConsumer<? super Connection<R, W>, ? super R>> subscribers;
+    protected final @NotNull Array<NotNullConsumer<Boolean>> writabilitySubscribers;
+    protected final @NotNull Array<NotNullConsumer<IdleState>> idleSubscribers;
+    protected final @NotNull Array<NotNullConsumer<? super Connection<R, W>>> closeSubscribers;
+
+    protected final @Getter @NotNull NetworkMetrics metrics;
+
+    /**
+     * The recorder of raw bytes or null if traffic isn't captured.
+     */
+    protected final @Getter @Nullable TrafficRecorder trafficRecorder;
 
+    /**
+     * The executor to call handlers of received packets or null if they are called by network threads.
+     */
+    protected final @Nullable Executor packetHandlerExecutor;
+
+    /**
+     * The count of received packets which were dispatched to the executor of handlers and aren't handled yet.
+     */
+    protected final @NotNull AtomicInteger dispatchedPackets;
+
+    /**
+     * The flag of pausing reading of this connection because of too many dispatched packets.
+     */
+    protected final @NotNull AtomicBoolean dispatchPaused;
+
+    /**
+     * The compressor of packets or null if compression is disabled.
+     */
+    protected final @Getter @Nullable PacketCompressor packetCompressor;
+
+    /**
+     * The max count of packets which are read by one pass of the packet reader over buffered data.
+     */
     protected final int maxPacketsByRead;
+    protected final int maxDispatchedPackets;
+    protected final int maxPacketsByWrite;
+    protected final int maxBytesByWrite;
+    protected final boolean inPlaceReading;
+    protected final int maxPendingPackets;
+    protected final int pendingPacketsHighWatermark;
+    protected final int pendingPacketsLowWatermark;
+    protected final int pendingBytesHighWatermark;
+    protected final int pendingBytesLowWatermark;
+    protected final int receivePrefetch;
+    protected final boolean metricsEnabled;
 
     protected volatile @Getter long lastActivity;
+    protected volatile @Getter long lastReadActivity;
+    protected volatile @Getter long lastWriteActivity;
+    protected volatile @Getter boolean compressionEnabled;
+    protected volatile @Getter @Nullable NetworkCryptor cryptor;
 
     public AbstractConnection(
         @NotNull Network<? extends Connection<R, W>> network,
@@ -72,16 +160,83 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
         @NotNull BufferAllocator bufferAllocator,
         int maxPacketsByRead
     ) {
+        var config = network.getConfig();
+
         this.bufferAllocator = bufferAllocator;
         this.maxPacketsByRead = maxPacketsByRead;
-        this.lock = new StampedLock();
+        this.maxDispatchedPackets = config.getMaxDispatchedPackets();
+        this.maxPacketsByWrite = config.getMaxPacketsByWrite();
+        this.maxBytesByWrite = config.getMaxBytesByWrite();
+        this.inPlaceReading = config.isInPlaceReading();
+        this.maxPendingPackets = config.getMaxPendingPackets();
+        this.pendingPacketsOverflowPolicy = config.getPendingPacketsOverflowPolicy();
+        this.pendingPacketsHighWatermark = config.getPendingPacketsHighWatermark();
+        this.pendingPacketsLowWatermark = config.getPendingPacketsLowWatermark() < 0 ?
+            pendingPacketsHighWatermark / 2 : config.getPendingPacketsLowWatermark();
+        this.pendingBytesHighWatermark = config.getPendingBytesHighWatermark();
+        this.pendingBytesLowWatermark = config.getPendingBytesLowWatermark() < 0 ?
+            pendingBytesHighWatermark / 2 : config.getPendingBytesLowWatermark();
+        this.unwritableSendPolicy = config.getUnwritableSendPolicy();
+        this.receivePrefetch = Math.max(config.getReceivePrefetch(), 1);
         this.channel = channel;
-        this.pendingPackets = LinkedListFactory.newLinkedList(WritablePacket.class);
+        this.pendingPackets = new PendingPacketQueue();
+        this.waitingForWritablePackets = new PendingPacketQueue();
         this.network = network;
         this.isWriting = new AtomicBoolean(false);
         this.closed = new AtomicBoolean(false);
+        this.writable = new AtomicBoolean(true);
+        this.pendingBytes = new AtomicLong();
+        this.undeliveredWritabilityChanges = new ConcurrentLinkedQueue<>();
+        this.notifyingWritability = new AtomicBoolean(false);
         this.subscribers = ArrayFactory.newCopyOnModifyArray(NotNullBiConsumer.class);
+        this.writabilitySubscribers = ArrayFactory.newCopyOnModifyArray(NotNullConsumer.class);
+        this.idleSubscribers = ArrayFactory.newCopyOnModifyArray(NotNullConsumer.class);
+        this.closeSubscribers = ArrayFactory.newArray(NotNullConsumer.class);
+        this.lastActivity = System.currentTimeMillis();
+        this.lastReadActivity = lastActivity;
+        this.lastWriteActivity = lastActivity;
         this.remoteAddress = String.valueOf(NetworkUtils.getRemoteAddress(channel));
+        this.metrics = config.getNetworkMetrics().forConnection(this);
+        this.metricsEnabled = metrics.isEnabled();
+        this.trafficRecorder = createTrafficRecorder(config);
+        this.packetHandlerExecutor = config.getPacketDispatchMode() == PacketDispatchMode.VIRTUAL_THREAD ?
+            new SerialExecutor(VIRTUAL_THREAD_EXECUTOR) : null;
+        this.dispatchedPackets = new AtomicInteger();
+        this.dispatchPaused = new AtomicBoolean(false);
+        this.packetCompressor = createPacketCompressor(config);
+    }
+
+    /**
+     * Create a compressor of packets of this connection.
+     *
+     * @param config the network config.
+     * @return the compressor or null if compression is disabled.
+     * @since 9.10.0
+     */
+    protected @Nullable PacketCompressor createPacketCompressor(@NotNull NetworkConfig config) {
+        return config.getCompressionThreshold() < 0 ? null : new DeflatePacketCompressor(config);
+    }
+
+    /**
+     * Create a recorder of raw bytes of this connection.
+     *
+     * @param config the network config.
+     * @return the recorder or null if traffic isn't captured.
+     * @since 9.10.0
+     */
+    protected @Nullable TrafficRecorder createTrafficRecorder(@NotNull NetworkConfig config) {
+        var trafficCapture = config.getTrafficCapture();
+        return trafficCapture == null ? null : trafficCapture.forConnection(this);
+    }
+
+    @Override
+    public void setCompressionEnabled(boolean enabled) {
+        this.compressionEnabled = enabled && packetCompressor != null;
+    }
+
+    @Override
+    public void setCryptor(@Nullable NetworkCryptor cryptor) {
+        this.cryptor = cryptor;
     }
 
     @Override
@@ -97,7 +252,61 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
             packet,
             (ch, pck) -> "Handle received packet: " + pck + " from: " + NetworkUtils.getRemoteAddress(ch)
         );
-        subscribers.forEachR(this, packet, BiConsumer::accept);
+
+        if (packetHandlerExecutor == null) {
+            notifySubscribers(packet);
+        } else if (maxDispatchedPackets <= 0) {
+            packetHandlerExecutor.execute(() -> notifySubscribers(packet));
+        } else {
+            dispatchReceivedPacket(packetHandlerExecutor, packet);
+        }
+    }
+
+    /**
+     * Dispatch the received packet to the executor of handlers, reading is paused while there are max count
+     * of not handled packets, so slow handlers don't grow the executor's queue without limit.
+     *
+     * @param executor the executor of handlers.
+     * @param packet   the received packet.
+     * @since 9.10.0
+     */
+    protected void dispatchReceivedPacket(@NotNull Executor executor, @NotNull R packet) {
+
+        if (dispatchedPackets.incrementAndGet() >= maxDispatchedPackets && dispatchPaused.compareAndSet(false, true)) {
+
+            getPacketReader().pauseRead();
+
+            // handlers could complete packets before pausing
+            resumeDispatchedReading();
+        }
+
+        executor.execute(() -> {
+            try {
+                notifySubscribers(packet);
+            } finally {
+                dispatchedPackets.decrementAndGet();
+                resumeDispatchedReading();
+            }
+        });
+    }
+
+    private void resumeDispatchedReading() {
+        if (dispatchedPackets.get() <= maxDispatchedPackets / 2 && dispatchPaused.compareAndSet(true, false)) {
+            getPacketReader().resumeRead();
+        }
+    }
+
+    /**
+     * Notify subscribers about the received packet and release the packet after it if it's reusable.
+     *
+     * @param packet the received packet.
+     */
+    protected void notifySubscribers(@NotNull R packet) {
+        try {
+            subscribers.forEachR(this, packet, BiConsumer::accept);
+        } finally {
+            ReusableReadablePacket.releaseIfReusable(packet);
+        }
     }
 
     @Override
@@ -106,53 +315,312 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
         getPacketReader().startRead();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Packets are requested by {@link NetworkConfig#getReceivePrefetch()} and reading from the socket is
+     * paused while the stream has no demand. A reusable packet is retained while it's buffered by the stream
+     * and released after it's emitted to the subscriber or discarded.
+     */
     @Override
     public @NotNull Flux<ReceivedPacketEvent<? extends Connection<R, W>, ? extends R>> receivedEvents() {
-        return Flux.create(this::registerFluxOnReceivedEvents);
+        var events = Flux.create(this::registerFluxOnReceivedEvents)
+            .limitRate(receivePrefetch);
+
+        return NetworkUtils.doAfterNext(events, event -> ReusableReadablePacket.releaseIfReusable(event.packet))
+            .doOnDiscard(ReceivedPacketEvent.class, event -> ReusableReadablePacket.releaseIfReusable(event.packet));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Packets are requested by {@link NetworkConfig#getReceivePrefetch()} and reading from the socket is
+     * paused while the stream has no demand. A reusable packet is retained while it's buffered by the stream
+     * and released after it's emitted to the subscriber or discarded.
+     */
     @Override
     public @NotNull Flux<? extends R> receivedPackets() {
-        return Flux.create(this::registerFluxOnReceivedPackets);
+        var packets = Flux.<R>create(this::registerFluxOnReceivedPackets)
+            .limitRate(receivePrefetch);
+
+        return NetworkUtils.doAfterNext(packets, ReusableReadablePacket::releaseIfReusable)
+            .doOnDiscard(ReusableReadablePacket.class, ReusableReadablePacket::release);
     }
 
     protected void registerFluxOnReceivedEvents(
         @NotNull FluxSink<ReceivedPacketEvent<? extends Connection<R, W>, ? extends R>> sink
     ) {
+        registerDemandDrivenListener(sink, (connection, packet) ->
+            sink.next(new ReceivedPacketEvent<>(connection, packet)));
+    }
+
+    protected void registerFluxOnReceivedPackets(@NotNull FluxSink<? super R> sink) {
+        registerDemandDrivenListener(sink, (connection, packet) -> sink.next(packet));
+    }
+
+    /**
+     * Subscribe the emitter of the sink to received packets. Reading is paused when the sink has no demand
+     * after emitting a packet, packets which are already received are still emitted to the sink's buffer.
+     * Reading is resumed by a next request or by disposing of the sink. A reusable packet is retained before
+     * emitting, so the stream should release it after using.
+     *
+     * @param sink    the sink.
+     * @param emitter the emitter of received packets to the sink.
+     * @since 9.10.0
+     */
+    protected void registerDemandDrivenListener(
+        @NotNull FluxSink<?> sink,
+        @NotNull NotNullBiConsumer<Connection<R, W>, R> emitter
+    ) {
+
+        var packetReader = getPacketReader();
+        var paused = new AtomicBoolean(false);
+
+        NotNullBiConsumer<Connection<R, W>, R> listener = (connection, packet) -> {
+
+            ReusableReadablePacket.retainIfReusable(packet);
+            emitter.accept(connection, packet);
+
+            if (sink.requestedFromDownstream() > 0 || !paused.compareAndSet(false, true)) {
+                return;
+            }
+
+            packetReader.pauseRead();
+
+            // the sink could be requested before pausing
+            if (sink.requestedFromDownstream() > 0 && paused.compareAndSet(true, false)) {
+                packetReader.resumeRead();
+            }
+        };
 
-        NotNullBiConsumer<Connection<R, W>, R> listener =
-            (connection, packet) -> sink.next(new ReceivedPacketEvent<>(connection, packet));
+        Runnable resume = () -> {
+            if (paused.compareAndSet(true, false)) {
+                packetReader.resumeRead();
+            }
+        };
+
+        sink.onRequest(requested -> resume.run());
+        sink.onDispose(() -> {
+            subscribers.remove(listener);
+            resume.run();
+        });
 
         onReceive(listener);
+    }
 
-        sink.onDispose(() -> subscribers.remove(listener));
+    @Override
+    public boolean isWritable() {
+        return writable.get();
     }
 
-    protected void registerFluxOnReceivedPackets(@NotNull FluxSink<? super R> sink) {
+    @Override
+    public @NotNull Flux<Boolean> writabilityChanges() {
+        return Flux.create(this::registerFluxOnWritabilityChanges);
+    }
 
-        NotNullBiConsumer<Connection<R, W>, R> listener = (connection, packet) -> sink.next(packet);
+    protected void registerFluxOnWritabilityChanges(@NotNull FluxSink<Boolean> sink) {
 
-        onReceive(listener);
+        NotNullConsumer<Boolean> listener = sink::next;
+
+        writabilitySubscribers.add(listener);
+
+        sink.onDispose(() -> writabilitySubscribers.remove(listener));
+    }
+
+    @Override
+    public void onIdle(@NotNull NotNullConsumer<IdleState> consumer) {
+        idleSubscribers.add(consumer);
+    }
+
+    @Override
+    public @NotNull Flux<IdleState> idleEvents() {
+        return Flux.create(this::registerFluxOnIdleEvents);
+    }
+
+    protected void registerFluxOnIdleEvents(@NotNull FluxSink<IdleState> sink) {
+
+        NotNullConsumer<IdleState> listener = sink::next;
+
+        onIdle(listener);
+
+        sink.onDispose(() -> idleSubscribers.remove(listener));
+    }
 
-        sink.onDispose(() -> subscribers.remove(listener));
+    @Override
+    public void handleIdle(@NotNull IdleState state) {
+        LOGGER.debug(this, state, (con, value) -> "Connection " + con.getRemoteAddress() + " is idle: " + value);
+        idleSubscribers.forEachR(state, NotNullConsumer::accept);
     }
 
     protected @Nullable WritablePacket nextPacketToWrite() {
-        long stamp = lock.writeLock();
-        try {
-            return pendingPackets.poll();
-        } finally {
-            lock.unlockWrite(stamp);
+
+        var packet = pendingPackets.poll();
+
+        if (packet != null) {
+            onPacketDequeued(packet);
         }
+
+        return packet;
+    }
+
+    /**
+     * Handle a packet which was added to pending packets.
+     *
+     * @param packet the added packet.
+     */
+    protected void onPacketQueued(@NotNull WritablePacket packet) {
+
+        if (metricsEnabled) {
+            metrics.onPacketQueued();
+        }
+
+        var length = packet.getExpectedLength();
+
+        if (length > 0) {
+            pendingBytes.addAndGet(length);
+        }
+
+        if (writable.get() && isAboveHighWatermark() && changeWritableState(false)) {
+            // the writer could take all pending packets before we changed the state
+            if (isBelowLowWatermark()) {
+                updateWritableState();
+            }
+        }
+    }
+
+    /**
+     * Handle a packet which was removed from pending packets.
+     *
+     * @param packet the removed packet.
+     */
+    protected void onPacketDequeued(@NotNull WritablePacket packet) {
+
+        if (metricsEnabled) {
+            metrics.onPacketDequeued();
+        }
+
+        var length = packet.getExpectedLength();
+
+        if (length > 0) {
+            pendingBytes.addAndGet(-length);
+        }
+
+        updateWritableState();
+    }
+
+    protected void updateWritableState() {
+        if (!writable.get() && isBelowLowWatermark() && changeWritableState(true)) {
+            sendWaitingForWritablePackets();
+        }
+    }
+
+    /**
+     * Change the writable state and notify subscribers about it. Changes are queued under the lock, so
+     * subscribers receive changes from different threads in the same order as they were, but subscribers
+     * are notified outside the lock by one thread at a time.
+     *
+     * @param value the new writable state.
+     * @return true if the state was changed.
+     */
+    protected boolean changeWritableState(boolean value) {
+
+        synchronized (undeliveredWritabilityChanges) {
+
+            if (!writable.compareAndSet(!value, value)) {
+                return false;
+            }
+
+            undeliveredWritabilityChanges.add(value);
+        }
+
+        deliverWritabilityChanges();
+        return true;
+    }
+
+    /**
+     * Deliver queued changes of writable state to subscribers if no other thread is delivering them, a change
+     * which is queued while another thread is finishing delivering is delivered by the current thread.
+     */
+    protected void deliverWritabilityChanges() {
+        while (!undeliveredWritabilityChanges.isEmpty() && notifyingWritability.compareAndSet(false, true)) {
+            try {
+                var changes = undeliveredWritabilityChanges;
+                for (var value = changes.poll(); value != null; value = changes.poll()) {
+                    notifyWritabilityChanged(value);
+                }
+            } finally {
+                notifyingWritability.set(false);
+            }
+        }
+    }
+
+    protected boolean isAboveHighWatermark() {
+        return (pendingPacketsHighWatermark > 0 && pendingPackets.size() >= pendingPacketsHighWatermark) ||
+            (pendingBytesHighWatermark > 0 && pendingBytes.get() >= pendingBytesHighWatermark);
+    }
+
+    protected boolean isBelowLowWatermark() {
+        return (pendingPacketsHighWatermark <= 0 || pendingPackets.size() <= pendingPacketsLowWatermark) &&
+            (pendingBytesHighWatermark <= 0 || pendingBytes.get() <= pendingBytesLowWatermark);
+    }
+
+    protected void notifyWritabilityChanged(@NotNull Boolean writable) {
+        LOGGER.debug(this, writable, (con, value) -> "Connection " + con.getRemoteAddress() + " writable: " + value);
+        writabilitySubscribers.forEachR(writable, NotNullConsumer::accept);
+    }
+
+    /**
+     * Send packets which wait for writable state of this connection while it's still writable.
+     */
+    protected void sendWaitingForWritablePackets() {
+        while (isWritable() && !isClosed()) {
+
+            var packet = waitingForWritablePackets.poll();
+
+            if (packet == null) {
+                return;
+            }
+
+            sendImpl(packet);
+        }
+    }
+
+    @Override
+    public void onClose(@NotNull NotNullConsumer<? super Connection<R, W>> consumer) {
+
+        synchronized (closeSubscribers) {
+            if (!isClosed()) {
+                closeSubscribers.add(consumer);
+                return;
+            }
+        }
+
+        consumer.accept(this);
     }
 
     @Override
     public void close() {
         if (closed.compareAndSet(false, true)) {
             doClose();
+            notifyClosed();
         }
     }
 
+    /**
+     * Notify subscribers about closing of this connection, each subscriber is notified only once.
+     */
+    protected void notifyClosed() {
+
+        Array<NotNullConsumer<? super Connection<R, W>>> subscribers = ArrayFactory.newArray(NotNullConsumer.class);
+
+        synchronized (closeSubscribers) {
+            subscribers.addAll(closeSubscribers);
+            closeSubscribers.clear();
+        }
+
+        subscribers.forEachR(this, NotNullConsumer::accept);
+    }
+
     /**
      * Does the process of closing this connection.
      */
@@ -164,8 +632,18 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
 
         clearWaitPackets();
 
+        waitingForWritablePackets.drain(packet -> onSentPacket(packet, Boolean.FALSE));
+
         getPacketReader().close();
         getPacketWriter().close();
+
+        if (packetCompressor != null) {
+            packetCompressor.close();
+        }
+
+        if (trafficRecorder != null) {
+            trafficRecorder.close();
+        }
     }
 
     /**
@@ -175,6 +653,22 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
         this.lastActivity = System.currentTimeMillis();
     }
 
+    /**
+     * Update the time of last read activity.
+     */
+    protected void updateLastReadActivity() {
+        updateLastActivity();
+        this.lastReadActivity = lastActivity;
+    }
+
+    /**
+     * Update the time of last write activity.
+     */
+    protected void updateLastWriteActivity() {
+        updateLastActivity();
+        this.lastWriteActivity = lastActivity;
+    }
+
     @Override
     public boolean isClosed() {
         return closed.get();
@@ -183,8 +677,28 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
     protected void onWrittenPacket(@NotNull WritablePacket packet) { }
 
     protected void onSentPacket(@NotNull WritablePacket packet, @NotNull Boolean result) {
+
+        TimedWritablePacket timedPacket = null;
+
+        if (packet instanceof TimedWritablePacket) {
+            timedPacket = (TimedWritablePacket) packet;
+            packet = timedPacket.getPacket();
+        }
+
         if (packet instanceof WritablePacketWithFeedback) {
-            ((WritablePacketWithFeedback<W>) packet).getAttachment().complete(result);
+            var packetWithFeedback = (WritablePacketWithFeedback<W>) packet;
+            packetWithFeedback.getAttachment().complete(result);
+            packet = packetWithFeedback.getPacket();
+        }
+
+        if (packet instanceof SharedSerializedPacket) {
+            var sharedPacket = (SharedSerializedPacket) packet;
+            sharedPacket.release();
+            packet = sharedPacket.getPacket();
+        }
+
+        if (timedPacket != null && result) {
+            metrics.onSentPacket(packet, System.nanoTime() - timedPacket.getAttachment());
         }
     }
 
@@ -196,33 +710,91 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
     protected void sendImpl(@NotNull WritablePacket packet) {
 
         if (isClosed()) {
+            onSentPacket(packet, Boolean.FALSE);
             return;
         }
 
-        long stamp = lock.writeLock();
-        try {
+        // service packets of ssl handshake are not measured and should be kept as is for packet writers
+        if (metricsEnabled && !(packet instanceof SSLWritablePacket)) {
+            packet = new TimedWritablePacket(System.nanoTime(), packet);
+        }
+
+        if (maxPendingPackets <= 0) {
             pendingPackets.add(packet);
-        } finally {
-            lock.unlockWrite(stamp);
+        } else {
+            while (!pendingPackets.add(packet, maxPendingPackets)) {
+                if (!handlePendingPacketsOverflow(packet)) {
+                    return;
+                }
+            }
+        }
+
+        onPacketQueued(packet);
+
+        // the connection could be closed before the packet was stored, so its closing couldn't drain it
+        if (isClosed()) {
+            clearWaitPackets();
+            return;
         }
 
         getPacketWriter().writeNextPacket();
     }
 
-    protected void queueAtFirst(@NotNull WritablePacket packet) {
-        long stamp = lock.writeLock();
-        try {
-            pendingPackets.addFirst(packet);
-        } finally {
-            lock.unlockWrite(stamp);
+    /**
+     * Handle a new packet to send when this connection already has max count of pending packets.
+     *
+     * @param packet the new packet.
+     * @return true if the new packet should be still added to pending packets.
+     */
+    protected boolean handlePendingPacketsOverflow(@NotNull WritablePacket packet) {
+
+        LOGGER.debug(this, con -> "Connection " + con.getRemoteAddress() + " has too many pending packets, " +
+            "apply policy: " + con.pendingPacketsOverflowPolicy);
+
+        switch (pendingPacketsOverflowPolicy) {
+            case DROP_OLDEST:
+                var oldest = pendingPackets.pollOldest();
+                if (oldest != null) {
+                    onPacketDequeued(oldest);
+                    onSentPacket(oldest, Boolean.FALSE);
+                }
+                return true;
+            case CLOSE_CONNECTION:
+                onSentPacket(packet, Boolean.FALSE);
+                close();
+                return false;
+            default:
+                onSentPacket(packet, Boolean.FALSE);
+                return false;
         }
     }
 
+    protected void queueAtFirst(@NotNull WritablePacket packet) {
+        pendingPackets.addFirst(packet);
+        onPacketQueued(packet);
+    }
+
     @Override
     public @NotNull CompletableFuture<Boolean> sendWithFeedback(@NotNull W packet) {
 
         var asyncResult = new CompletableFuture<Boolean>();
 
+        switch (unwritableSendPolicy) {
+            case FAIL:
+                if (!isWritable()) {
+                    return CompletableFuture.completedFuture(Boolean.FALSE);
+                }
+                break;
+            case WAIT:
+                if (!isWritable() || !waitingForWritablePackets.isEmpty()) {
+                    waitingForWritablePackets.add(new WritablePacketWithFeedback<>(asyncResult, packet));
+                    // the connection could become writable before we added the packet
+                    sendWaitingForWritablePackets();
+                    return isClosed() ? CompletableFuture.completedFuture(Boolean.FALSE) : asyncResult;
+                }
+                break;
+        }
+
         sendImpl(new WritablePacketWithFeedback<>(asyncResult, packet));
 
         if (isClosed()) {
@@ -236,20 +808,9 @@ public abstract class AbstractConnection<R extends ReadablePacket, W extends Wri
      * Clear waited packets.
      */
     protected void clearWaitPackets() {
-        long stamp = lock.writeLock();
-        try {
-            doClearWaitPackets();
-        } finally {
-            lock.unlockWrite(stamp);
-        }
-    }
-
-    protected void doClearWaitPackets() {
-
-        for (var pendingPacket : pendingPackets) {
-            onSentPacket(pendingPacket, Boolean.FALSE);
-        }
-
-        pendingPackets.clear();
+        pendingPackets.drain(packet -> {
+            onPacketDequeued(packet);
+            onSentPacket(packet, Boolean.FALSE);
+        });
     }
 }
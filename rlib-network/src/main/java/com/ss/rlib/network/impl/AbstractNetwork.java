@@ -5,6 +5,7 @@ import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.Connection;
 import com.ss.rlib.network.Network;
 import com.ss.rlib.network.NetworkConfig;
+import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.channels.AsynchronousSocketChannel;
@@ -19,7 +20,7 @@ public abstract class AbstractNetwork<C extends Connection<?, ?>> implements Net
 
     protected static final Logger LOGGER = LoggerManager.getLogger(AbstractNetwork.class);
 
-    protected final @NotNull NetworkConfig config;
+    protected final @Getter @NotNull NetworkConfig config;
     protected final @NotNull BiFunction<Network<C>, AsynchronousSocketChannel, C> channelToConnection;
 
     protected AbstractNetwork(
@@ -3,20 +3,40 @@ package com.ss.rlib.network.impl;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
 import com.ss.rlib.network.Network;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkCryptor;
+import com.ss.rlib.network.PacketCompressor;
 import com.ss.rlib.network.packet.ReadablePacket;
 import com.ss.rlib.network.packet.WritablePacket;
+import com.ss.rlib.network.packet.impl.AbstractSSLPacketReader;
+import com.ss.rlib.network.util.NetworkUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
 import javax.net.ssl.SSLException;
+import java.net.InetSocketAddress;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractSSLConnection<R extends ReadablePacket, W extends WritablePacket> extends
     AbstractConnection<R, W> {
 
     protected final @NotNull SSLEngine sslEngine;
 
+    /**
+     * The executor of delegated tasks of SSL engine or null to run them by network threads.
+     */
+    protected final @Nullable Executor sslTaskExecutor;
+
+    /**
+     * The time in nanoseconds when SSL handshake was started or -1 when it was finished.
+     */
+    protected final @NotNull AtomicLong handshakeStartTime;
+
     public AbstractSSLConnection(
         @NotNull Network<? extends Connection<R, W>> network,
         @NotNull AsynchronousSocketChannel channel,
@@ -26,18 +46,86 @@ public abstract class AbstractSSLConnection<R extends ReadablePacket, W extends
         boolean clientMode
     ) {
         super(network, channel, bufferAllocator, maxPacketsByRead);
-        this.sslEngine = sslContext.createSSLEngine();
+        this.sslEngine = createSslEngine(sslContext, clientMode);
         this.sslEngine.setUseClientMode(clientMode);
+        this.sslTaskExecutor = network.getConfig().getSslTaskExecutor();
         try {
+            this.handshakeStartTime = new AtomicLong(System.nanoTime());
             this.sslEngine.beginHandshake();
         } catch (SSLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Create an SSL engine, engines of clients are created with addresses of servers to resume cached sessions.
+     *
+     * @param sslContext the SSL context.
+     * @param clientMode true if the engine is for a client.
+     * @return the new SSL engine.
+     * @since 9.10.0
+     */
+    protected @NotNull SSLEngine createSslEngine(@NotNull SSLContext sslContext, boolean clientMode) {
+
+        var remoteAddress = NetworkUtils.getRemoteAddress(channel);
+
+        if (clientMode && remoteAddress instanceof InetSocketAddress) {
+            var address = (InetSocketAddress) remoteAddress;
+            return sslContext.createSSLEngine(address.getHostString(), address.getPort());
+        }
+
+        return sslContext.createSSLEngine();
+    }
+
+    @Override
+    protected @Nullable PacketCompressor createPacketCompressor(@NotNull NetworkConfig config) {
+        // SSL packet readers and writers don't support compression
+        return null;
+    }
+
+    @Override
+    public void setCryptor(@Nullable NetworkCryptor cryptor) {
+        throw new UnsupportedOperationException("SSL connections are encrypted by SSL engine");
+    }
+
+    @Override
+    protected void updateLastActivity() {
+        super.updateLastActivity();
+
+        if (metricsEnabled && handshakeStartTime.get() != -1 &&
+            sslEngine.getHandshakeStatus() == HandshakeStatus.NOT_HANDSHAKING) {
+
+            // the activity can be updated by reading and writing at the same time
+            var startTime = handshakeStartTime.getAndSet(-1);
+
+            if (startTime != -1) {
+                metrics.onSslHandshakeFinished(System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    @Override
+    protected void onWrittenPacket(@NotNull WritablePacket packet) {
+        super.onWrittenPacket(packet);
+        notifyReaderAboutWrite();
+    }
+
     @Override
     protected void sendImpl(@NotNull WritablePacket packet) {
         super.sendImpl(packet);
+        notifyReaderAboutWrite();
         getPacketReader().startRead();
     }
+
+    /**
+     * Notify the reader which can wait for wrapping of handshake data to continue unwrapping of received data.
+     */
+    private void notifyReaderAboutWrite() {
+
+        var packetReader = getPacketReader();
+
+        if (packetReader instanceof AbstractSSLPacketReader) {
+            ((AbstractSSLPacketReader<?, ?>) packetReader).onWrite();
+        }
+    }
 }
@@ -0,0 +1,217 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.network.NetworkCryptor;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.ChaCha20ParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * The implementation of {@link NetworkCryptor} by JDK's ChaCha20 stream cipher. Every direction of a connection
+ * has its own key which is derived from the shared secret of the connection, so a client and a server should
+ * create their cryptors by {@link #newClientCryptor(byte[], int)} and {@link #newServerCryptor(byte[], int)} with
+ * the same secret. The stream of every direction continues through all packets and its key is rotated after
+ * every rotation interval of packets, so the both sides of the connection rotate their keys at the same packets
+ * without any negotiation. The cryptor doesn't authenticate packets, so it protects data from reading, but not
+ * from changing.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@ToString(of = "rotationInterval")
+public class ChaCha20NetworkCryptor implements NetworkCryptor {
+
+    /**
+     * The size of secrets and keys.
+     */
+    public static final int KEY_SIZE = 32;
+
+    private static final int NONCE_SIZE = 12;
+
+    private static final byte[] CLIENT_TO_SERVER = "client-to-server".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SERVER_TO_CLIENT = "server-to-client".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ROTATION = "rotation".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Create a cryptor for a client side of a connection.
+     *
+     * @param secret           the shared secret of the connection.
+     * @param rotationInterval the count of packets to rotate keys or 0 to not rotate them.
+     * @return the new cryptor.
+     */
+    public static @NotNull ChaCha20NetworkCryptor newClientCryptor(@NotNull byte[] secret, int rotationInterval) {
+        return new ChaCha20NetworkCryptor(
+            hash(CLIENT_TO_SERVER, secret),
+            hash(SERVER_TO_CLIENT, secret),
+            rotationInterval
+        );
+    }
+
+    /**
+     * Create a cryptor for a server side of a connection.
+     *
+     * @param secret           the shared secret of the connection.
+     * @param rotationInterval the count of packets to rotate keys or 0 to not rotate them.
+     * @return the new cryptor.
+     */
+    public static @NotNull ChaCha20NetworkCryptor newServerCryptor(@NotNull byte[] secret, int rotationInterval) {
+        return new ChaCha20NetworkCryptor(
+            hash(SERVER_TO_CLIENT, secret),
+            hash(CLIENT_TO_SERVER, secret),
+            rotationInterval
+        );
+    }
+
+    private static @NotNull byte[] hash(@NotNull byte[] label, @NotNull byte[] data) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(label);
+            return digest.digest(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final @NotNull CipherStream encryption;
+    private final @NotNull CipherStream decryption;
+
+    private final int rotationInterval;
+
+    public ChaCha20NetworkCryptor(@NotNull byte[] encryptionKey, @NotNull byte[] decryptionKey, int rotationInterval) {
+
+        if (encryptionKey.length != KEY_SIZE || decryptionKey.length != KEY_SIZE) {
+            throw new IllegalArgumentException("Keys should have " + KEY_SIZE + " bytes");
+        } else if (rotationInterval < 0) {
+            throw new IllegalArgumentException("Negative rotation interval " + rotationInterval);
+        }
+
+        this.encryption = new CipherStream(encryptionKey.clone(), rotationInterval);
+        this.decryption = new CipherStream(decryptionKey.clone(), rotationInterval);
+        this.rotationInterval = rotationInterval;
+    }
+
+    @Override
+    public void encrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        encryption.nextPacket();
+        encryption.update(buffer, offset, length);
+    }
+
+    @Override
+    public void decrypt(@NotNull ByteBuffer buffer, int offset, int length) {
+        decryption.nextPacket();
+        decryption.update(buffer, offset, length);
+    }
+
+    @Override
+    public @Nullable ByteBuffer encrypt(@NotNull ByteBuffer data, int length, @NotNull ByteBuffer toStore) {
+        encryption.nextPacket();
+        return encryption.update(data, length, toStore);
+    }
+
+    @Override
+    public @Nullable ByteBuffer decrypt(@NotNull ByteBuffer data, int length, @NotNull ByteBuffer toStore) {
+        decryption.nextPacket();
+        return decryption.update(data, length, toStore);
+    }
+
+    private static class CipherStream {
+
+        private final @NotNull Cipher cipher;
+        private final @NotNull byte[] nonce;
+
+        private final int rotationInterval;
+
+        private @NotNull byte[] key;
+
+        private long packets;
+        private int generation;
+
+        private CipherStream(@NotNull byte[] key, int rotationInterval) {
+            try {
+                this.cipher = Cipher.getInstance("ChaCha20");
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            this.nonce = new byte[NONCE_SIZE];
+            this.rotationInterval = rotationInterval;
+            this.key = key;
+            init();
+        }
+
+        private void init() {
+
+            nonce[0] = (byte) generation;
+            nonce[1] = (byte) (generation >>> 8);
+            nonce[2] = (byte) (generation >>> 16);
+            nonce[3] = (byte) (generation >>> 24);
+
+            try {
+                cipher.init(
+                    Cipher.ENCRYPT_MODE,
+                    new SecretKeySpec(key, "ChaCha20"),
+                    new ChaCha20ParameterSpec(nonce, 0)
+                );
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void nextPacket() {
+
+            if (rotationInterval > 0 && packets > 0 && packets % rotationInterval == 0) {
+                key = hash(ROTATION, key);
+                generation++;
+                init();
+            }
+
+            packets++;
+        }
+
+        private void update(@NotNull ByteBuffer buffer, int offset, int length) {
+
+            if (length < 1) {
+                return;
+            }
+
+            try {
+
+                if (buffer.hasArray()) {
+                    var array = buffer.array();
+                    var arrayOffset = buffer.arrayOffset() + offset;
+                    cipher.update(array, arrayOffset, length, array, arrayOffset);
+                } else {
+                    // the cipher doesn't accept the same buffer as input and output, but accepts their views
+                    var input = buffer.duplicate().limit(offset + length).position(offset);
+                    cipher.update(input, input.duplicate());
+                }
+
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private @NotNull ByteBuffer update(@NotNull ByteBuffer data, int length, @NotNull ByteBuffer toStore) {
+
+            var input = data.duplicate();
+            input.limit(input.position() + length);
+
+            try {
+                cipher.update(input, toStore);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+
+            data.position(data.position() + length);
+
+            return toStore.flip();
+        }
+    }
+}
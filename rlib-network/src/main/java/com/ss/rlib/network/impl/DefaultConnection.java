@@ -2,6 +2,7 @@ package com.ss.rlib.network.impl;
 
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
 import com.ss.rlib.network.Network;
 import com.ss.rlib.network.packet.impl.DefaultReadablePacket;
 import com.ss.rlib.network.packet.impl.DefaultWritablePacket;
@@ -23,4 +24,17 @@ public class DefaultConnection extends IdBasedPacketConnection<DefaultReadablePa
     ) {
         super(network, channel, bufferAllocator, packetRegistry, 100, 2, 2);
     }
+
+    /**
+     * @since 9.10.0
+     */
+    public DefaultConnection(
+        @NotNull Network<? extends Connection<DefaultReadablePacket, DefaultWritablePacket>> network,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull ReadablePacketRegistry<DefaultReadablePacket> packetRegistry,
+        @NotNull FrameCodec frameCodec
+    ) {
+        super(network, channel, bufferAllocator, packetRegistry, 100, frameCodec);
+    }
 }
@@ -0,0 +1,183 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.common.util.ClassUtils;
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.ConnectionGroup;
+import com.ss.rlib.network.packet.ChunkedWritablePacket;
+import com.ss.rlib.network.packet.ReusableWritablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import com.ss.rlib.network.packet.impl.AbstractPacketWriter;
+import com.ss.rlib.network.packet.impl.SharedSerializedPacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default implementation of a connection group which serializes a broadcasted packet once per
+ * serialization format of packet writers. Packets which are known to be smaller than the threshold of shared
+ * serialization are serialized by every connection, because taking views of shared data and counting their
+ * references cost more than serializing of small packets.
+ *
+ * @param <W> the writable packet's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class DefaultConnectionGroup<W extends WritablePacket> implements ConnectionGroup<W> {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(DefaultConnectionGroup.class);
+
+    /**
+     * The default min expected length of packets to serialize them once for all connections.
+     */
+    public static final int DEFAULT_SHARED_SERIALIZATION_THRESHOLD = 512;
+
+    private final @NotNull Set<Connection<?, ? super W>> connections;
+
+    /**
+     * The min expected length of packets to serialize them once, packets with unknown length are always
+     * serialized once.
+     */
+    private final int sharedSerializationThreshold;
+
+    public DefaultConnectionGroup() {
+        this(DEFAULT_SHARED_SERIALIZATION_THRESHOLD);
+    }
+
+    public DefaultConnectionGroup(int sharedSerializationThreshold) {
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.sharedSerializationThreshold = sharedSerializationThreshold;
+    }
+
+    @Override
+    public boolean add(@NotNull Connection<?, ? super W> connection) {
+        return !connection.isClosed() && connections.add(connection);
+    }
+
+    @Override
+    public boolean remove(@NotNull Connection<?, ? super W> connection) {
+        return connections.remove(connection);
+    }
+
+    @Override
+    public boolean contains(@NotNull Connection<?, ? super W> connection) {
+        return connections.contains(connection);
+    }
+
+    @Override
+    public int size() {
+        return connections.size();
+    }
+
+    @Override
+    public void broadcast(@NotNull W packet) {
+
+        if (packet instanceof ChunkedWritablePacket) {
+            throw new IllegalArgumentException("Chunked packet " + packet + " can't be broadcasted");
+        }
+
+        var expectedLength = packet.getExpectedLength();
+
+        if (expectedLength != -1 && expectedLength < sharedSerializationThreshold) {
+            broadcastPerConnection(packet);
+            return;
+        }
+
+        // usually all connections of a group have the same format, so there is only one shared packet
+        Map<Object, SharedSerializedPacket> sharedPackets = new HashMap<>(2);
+
+        try {
+
+            for (var connection : connections) {
+
+                if (connection.isClosed()) {
+                    connections.remove(connection);
+                    continue;
+                }
+
+                var writer = connection instanceof AbstractConnection ?
+                    ((AbstractConnection<?, ?>) connection).getPacketWriter() : null;
+
+                if (!(writer instanceof AbstractPacketWriter)) {
+                    connection.send(packet);
+                    continue;
+                }
+
+                AbstractPacketWriter<? super W, ?> packetWriter = ClassUtils.unsafeNNCast(writer);
+
+                var format = packetWriter.getSerializationFormat();
+                var sharedPacket = sharedPackets.get(format);
+
+                if (sharedPacket == null && !sharedPackets.containsKey(format)) {
+                    sharedPacket = serializeShared(packetWriter, packet);
+                    sharedPackets.put(format, sharedPacket);
+                }
+
+                // the packet can't be serialized by this format, so writers would fail to serialize it too
+                if (sharedPacket == null) {
+                    continue;
+                }
+
+                sharedPacket.retain();
+
+                ((AbstractConnection<?, ?>) connection).sendImpl(sharedPacket);
+            }
+
+        } finally {
+            for (var sharedPacket : sharedPackets.values()) {
+                if (sharedPacket != null) {
+                    sharedPacket.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Send the packet to every connection as usual, so it's serialized by each connection.
+     *
+     * @param packet the packet.
+     */
+    protected void broadcastPerConnection(@NotNull W packet) {
+        for (var connection : connections) {
+            if (connection.isClosed()) {
+                connections.remove(connection);
+            } else {
+                connection.send(packet);
+            }
+        }
+    }
+
+    protected @Nullable SharedSerializedPacket serializeShared(
+        @NotNull AbstractPacketWriter<? super W, ?> packetWriter,
+        @NotNull W packet
+    ) {
+
+        // a reusable packet can be written only while it has not completed sends
+        if (packet instanceof ReusableWritablePacket) {
+            ((ReusableWritablePacket) packet).increaseSends();
+        }
+
+        var sharedPacket = packetWriter.serializeShared(packet);
+
+        if (sharedPacket == null) {
+
+            LOGGER.warning(packet, pck -> "Cannot serialize packet " + pck + " to broadcast it");
+
+            if (packet instanceof ReusableWritablePacket) {
+                ((ReusableWritablePacket) packet).complete();
+            }
+        }
+
+        return sharedPacket;
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultConnectionGroup{" + "size=" + connections.size() + "}";
+    }
+}
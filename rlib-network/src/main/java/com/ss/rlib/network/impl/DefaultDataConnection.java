@@ -2,6 +2,7 @@ package com.ss.rlib.network.impl;
 
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
 import com.ss.rlib.network.Network;
 import com.ss.rlib.network.packet.PacketReader;
 import com.ss.rlib.network.packet.PacketWriter;
@@ -25,7 +26,7 @@ public abstract class DefaultDataConnection<R extends ReadablePacket, W extends
     private final @NotNull PacketReader packetReader;
     private final @NotNull PacketWriter packetWriter;
 
-    private final int packetLengthHeaderSize;
+    private final @NotNull FrameCodec frameCodec;
 
     public DefaultDataConnection(
         @NotNull Network<? extends Connection<R, W>> network,
@@ -33,9 +34,22 @@ public abstract class DefaultDataConnection<R extends ReadablePacket, W extends
         @NotNull BufferAllocator bufferAllocator,
         int maxPacketsByRead,
         int packetLengthHeaderSize
+    ) {
+        this(network, channel, bufferAllocator, maxPacketsByRead, FrameCodec.fixed(packetLengthHeaderSize, 0));
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public DefaultDataConnection(
+        @NotNull Network<? extends Connection<R, W>> network,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        int maxPacketsByRead,
+        @NotNull FrameCodec frameCodec
     ) {
         super(network, channel, bufferAllocator, maxPacketsByRead);
-        this.packetLengthHeaderSize = packetLengthHeaderSize;
+        this.frameCodec = frameCodec;
         this.packetReader = createPacketReader();
         this.packetWriter = createPacketWriter();
     }
@@ -45,11 +59,12 @@ public abstract class DefaultDataConnection<R extends ReadablePacket, W extends
             this,
             channel,
             bufferAllocator,
-            this::updateLastActivity,
+            this::updateLastReadActivity,
             this::handleReceivedPacket,
             value -> createReadablePacket(),
-            packetLengthHeaderSize,
-            maxPacketsByRead
+            frameCodec,
+            maxPacketsByRead,
+            inPlaceReading
         );
     }
 
@@ -58,11 +73,13 @@ public abstract class DefaultDataConnection<R extends ReadablePacket, W extends
             this,
             channel,
             bufferAllocator,
-            this::updateLastActivity,
+            this::updateLastWriteActivity,
             this::nextPacketToWrite,
             this::onWrittenPacket,
             this::onSentPacket,
-            packetLengthHeaderSize
+            frameCodec,
+            maxPacketsByWrite,
+            maxBytesByWrite
         );
     }
 
@@ -48,13 +48,14 @@ public abstract class DefaultDataSSLConnection<R extends ReadablePacket, W exten
             this,
             channel,
             bufferAllocator,
-            this::updateLastActivity,
+            this::updateLastReadActivity,
             this::handleReceivedPacket,
             value -> createReadablePacket(),
             sslEngine,
             this::sendImpl,
             packetLengthHeaderSize,
-            maxPacketsByRead
+            maxPacketsByRead,
+            sslTaskExecutor
         );
     }
 
@@ -63,14 +64,17 @@ public abstract class DefaultDataSSLConnection<R extends ReadablePacket, W exten
             this,
             channel,
             bufferAllocator,
-            this::updateLastActivity,
+            this::updateLastWriteActivity,
             this::nextPacketToWrite,
             this::onWrittenPacket,
             this::onSentPacket,
             sslEngine,
             this::sendImpl,
             this::queueAtFirst,
-            packetLengthHeaderSize
+            packetLengthHeaderSize,
+            sslTaskExecutor,
+            maxPacketsByWrite,
+            maxBytesByWrite
         );
     }
 
@@ -0,0 +1,114 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.PacketCompressor;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The implementation of {@link PacketCompressor} by JDK's deflate which reuses its deflater and inflater for
+ * all packets. Every packet is compressed separately to be decompressed independently of other packets,
+ * so the preset dictionary is applied to every packet.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@ToString(of = {"threshold", "level", "maxDecompressedSize"})
+public class DeflatePacketCompressor implements PacketCompressor {
+
+    private final @NotNull Deflater deflater;
+    private final @NotNull Inflater inflater;
+    private final @Nullable byte[] dictionary;
+
+    private final @Getter int threshold;
+    private final @Getter int maxDecompressedSize;
+    private final int level;
+
+    public DeflatePacketCompressor(@NotNull NetworkConfig config) {
+        this(
+            config.getCompressionThreshold(),
+            config.getCompressionLevel(),
+            config.getMaxDecompressedPacketSize(),
+            config.getCompressionDictionary()
+        );
+    }
+
+    public DeflatePacketCompressor(int threshold, int level, int maxDecompressedSize, @Nullable byte[] dictionary) {
+        this.deflater = new Deflater(level);
+        this.inflater = new Inflater();
+        this.dictionary = dictionary;
+        this.threshold = threshold;
+        this.level = level;
+        this.maxDecompressedSize = maxDecompressedSize;
+    }
+
+    @Override
+    public int compress(@NotNull ByteBuffer source, @NotNull ByteBuffer destination) {
+
+        var deflater = this.deflater;
+        deflater.reset();
+
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+
+        deflater.setInput(source);
+        deflater.finish();
+
+        var startPosition = destination.position();
+
+        while (!deflater.finished()) {
+
+            if (!destination.hasRemaining()) {
+                return -1;
+            }
+
+            deflater.deflate(destination);
+        }
+
+        return destination.position() - startPosition;
+    }
+
+    @Override
+    public void decompress(@NotNull ByteBuffer source, @NotNull ByteBuffer destination) {
+
+        var inflater = this.inflater;
+        inflater.reset();
+        inflater.setInput(source);
+
+        try {
+
+            while (destination.hasRemaining()) {
+
+                if (inflater.inflate(destination) > 0) {
+                    continue;
+                } else if (inflater.needsDictionary() && dictionary != null) {
+                    inflater.setDictionary(dictionary);
+                } else {
+                    break;
+                }
+            }
+
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Found broken compressed data in buffer " + source, e);
+        }
+
+        if (destination.hasRemaining()) {
+            throw new IllegalStateException("Not enough compressed data in buffer " + source + " to fill " +
+                destination);
+        }
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+        inflater.end();
+    }
+}
@@ -0,0 +1,337 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The timer to run a lot of approximated timeouts by one thread. Timeouts are placed to buckets of a wheel by
+ * their deadlines and each tick of the timer processes only one bucket, so costs of a tick don't depend on
+ * a count of scheduled timeouts. Tasks of timeouts are executed by the timer's thread so they should be fast.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class HashedWheelTimer {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(HashedWheelTimer.class);
+
+    private static final int MAX_TRANSFERRED_TIMEOUTS_BY_TICK = 100_000;
+
+    private static final int STATE_WAITING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    /**
+     * The scheduled timeout.
+     */
+    public interface Timeout {
+
+        /**
+         * Cancel this timeout if it isn't expired yet.
+         *
+         * @return true if this timeout was cancelled.
+         */
+        boolean cancel();
+
+        /**
+         * Check a cancelled state of this timeout.
+         *
+         * @return true if this timeout was cancelled.
+         */
+        boolean isCancelled();
+
+        /**
+         * Check an expired state of this timeout.
+         *
+         * @return true if a task of this timeout was executed.
+         */
+        boolean isExpired();
+    }
+
+    private static class WheelTimeout implements Timeout {
+
+        private final @NotNull Runnable task;
+        private final @NotNull AtomicInteger state;
+
+        /**
+         * The deadline in nanos from the start time of the timer.
+         */
+        private final long deadline;
+
+        private @Nullable WheelTimeout next;
+        private @Nullable WheelTimeout prev;
+
+        private long remainingRounds;
+
+        private WheelTimeout(@NotNull Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+            this.state = new AtomicInteger(STATE_WAITING);
+        }
+
+        @Override
+        public boolean cancel() {
+            // a cancelled timeout is removed from its bucket when the timer visits it
+            return state.compareAndSet(STATE_WAITING, STATE_CANCELLED);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+
+        private void expire() {
+
+            if (!state.compareAndSet(STATE_WAITING, STATE_EXPIRED)) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable e) {
+                LOGGER.warning(e);
+            }
+        }
+    }
+
+    /**
+     * The bucket of the wheel, it's used only by the timer's thread.
+     */
+    private static class Bucket {
+
+        private @Nullable WheelTimeout head;
+        private @Nullable WheelTimeout tail;
+
+        private void add(@NotNull WheelTimeout timeout) {
+
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private @Nullable WheelTimeout remove(@NotNull WheelTimeout timeout) {
+
+            var next = timeout.next;
+
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+
+            if (timeout == head) {
+                head = next;
+            }
+
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+
+            timeout.prev = null;
+            timeout.next = null;
+
+            return next;
+        }
+
+        private void expireTimeouts() {
+
+            var timeout = head;
+
+            while (timeout != null) {
+
+                if (timeout.isCancelled()) {
+                    timeout = remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    var next = remove(timeout);
+                    timeout.expire();
+                    timeout = next;
+                } else {
+                    timeout.remainingRounds--;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+
+    private final @NotNull Bucket[] wheel;
+    private final @NotNull Queue<WheelTimeout> newTimeouts;
+    private final @NotNull AtomicBoolean stopped;
+    private final @NotNull Thread thread;
+
+    private final long tickDuration;
+    private final long startTime;
+    private final int mask;
+
+    private long tick;
+
+    /**
+     * Create and start a new timer.
+     *
+     * @param threadName   the name of the timer's thread.
+     * @param tickDuration the duration of one tick.
+     * @param unit         the time unit of the duration.
+     * @param wheelSize    the size of the wheel, it's rounded to a power of two.
+     */
+    public HashedWheelTimer(@NotNull String threadName, long tickDuration, @NotNull TimeUnit unit, int wheelSize) {
+
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration should be positive: " + tickDuration);
+        } else if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size should be in range 1..2^30: " + wheelSize);
+        }
+
+        var normalizedSize = Integer.highestOneBit(wheelSize);
+
+        if (normalizedSize < wheelSize) {
+            normalizedSize <<= 1;
+        }
+
+        this.wheel = new Bucket[normalizedSize];
+
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+
+        this.mask = wheel.length - 1;
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.newTimeouts = new ConcurrentLinkedQueue<>();
+        this.stopped = new AtomicBoolean(false);
+        this.startTime = System.nanoTime();
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Schedule a task to run after the delay. The task is executed on the first tick after the delay.
+     *
+     * @param task  the task.
+     * @param delay the delay.
+     * @param unit  the time unit of the delay.
+     * @return the scheduled timeout.
+     */
+    public @NotNull Timeout newTimeout(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+
+        if (stopped.get()) {
+            throw new IllegalStateException("The timer is already stopped");
+        }
+
+        var deadline = System.nanoTime() + unit.toNanos(Math.max(delay, 0)) - startTime;
+        var timeout = new WheelTimeout(task, deadline);
+
+        newTimeouts.add(timeout);
+
+        return timeout;
+    }
+
+    /**
+     * Stop this timer, not expired timeouts are cancelled.
+     */
+    public void stop() {
+        if (stopped.compareAndSet(false, true)) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Check a stopped state of this timer.
+     *
+     * @return true if this timer is stopped.
+     */
+    public boolean isStopped() {
+        return stopped.get();
+    }
+
+    private void run() {
+
+        while (!stopped.get()) {
+
+            if (!waitForNextTick()) {
+                continue;
+            }
+
+            transferNewTimeouts();
+
+            wheel[(int) (tick & mask)].expireTimeouts();
+
+            tick++;
+        }
+
+        for (var bucket : wheel) {
+            for (var timeout = bucket.head; timeout != null; timeout = bucket.remove(timeout)) {
+                timeout.cancel();
+            }
+        }
+
+        for (var timeout = newTimeouts.poll(); timeout != null; timeout = newTimeouts.poll()) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Wait for the deadline of the next tick.
+     *
+     * @return false if the timer was stopped.
+     */
+    private boolean waitForNextTick() {
+
+        var deadline = tickDuration * (tick + 1);
+
+        while (true) {
+
+            var sleepTime = deadline - (System.nanoTime() - startTime);
+
+            if (sleepTime <= 0) {
+                return true;
+            }
+
+            LockSupport.parkNanos(this, sleepTime);
+
+            if (stopped.get()) {
+                return false;
+            }
+        }
+    }
+
+    private void transferNewTimeouts() {
+        for (int i = 0; i < MAX_TRANSFERRED_TIMEOUTS_BY_TICK; i++) {
+
+            var timeout = newTimeouts.poll();
+
+            if (timeout == null) {
+                return;
+            } else if (timeout.isCancelled()) {
+                continue;
+            }
+
+            var calculatedTicks = timeout.deadline / tickDuration;
+
+            timeout.remainingRounds = (calculatedTicks - tick) / wheel.length;
+
+            // the deadline is already in the past, so it should be expired by the current tick
+            var ticks = Math.max(calculatedTicks, tick);
+
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+}
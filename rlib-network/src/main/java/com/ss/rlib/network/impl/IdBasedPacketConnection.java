@@ -2,6 +2,7 @@ package com.ss.rlib.network.impl;
 
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
 import com.ss.rlib.network.Network;
 import com.ss.rlib.network.packet.IdBasedReadablePacket;
 import com.ss.rlib.network.packet.IdBasedWritablePacket;
@@ -26,9 +27,7 @@ public class IdBasedPacketConnection<R extends IdBasedReadablePacket<R>, W exten
     private final @NotNull PacketReader packetReader;
     private final @NotNull PacketWriter packetWriter;
     private final @NotNull ReadablePacketRegistry<R> packetRegistry;
-
-    private final int packetLengthHeaderSize;
-    private final int packetIdHeaderSize;
+    private final @NotNull FrameCodec frameCodec;
 
     public IdBasedPacketConnection(
         @NotNull Network<? extends Connection<R, W>> network,
@@ -38,11 +37,31 @@ public class IdBasedPacketConnection<R extends IdBasedReadablePacket<R>, W exten
         int maxPacketsByRead,
         int packetLengthHeaderSize,
         int packetIdHeaderSize
+    ) {
+        this(
+            network,
+            channel,
+            bufferAllocator,
+            packetRegistry,
+            maxPacketsByRead,
+            FrameCodec.fixed(packetLengthHeaderSize, packetIdHeaderSize)
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public IdBasedPacketConnection(
+        @NotNull Network<? extends Connection<R, W>> network,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull ReadablePacketRegistry<R> packetRegistry,
+        int maxPacketsByRead,
+        @NotNull FrameCodec frameCodec
     ) {
         super(network, channel, bufferAllocator, maxPacketsByRead);
         this.packetRegistry = packetRegistry;
-        this.packetLengthHeaderSize = packetLengthHeaderSize;
-        this.packetIdHeaderSize = packetIdHeaderSize;
+        this.frameCodec = frameCodec;
         this.packetReader = createPacketReader();
         this.packetWriter = createPacketWriter();
     }
@@ -52,12 +71,12 @@ public class IdBasedPacketConnection<R extends IdBasedReadablePacket<R>, W exten
             this,
             channel,
             bufferAllocator,
-            this::updateLastActivity,
+            this::updateLastReadActivity,
             this::handleReceivedPacket,
-            packetLengthHeaderSize,
+            frameCodec,
             maxPacketsByRead,
-            packetIdHeaderSize,
-            packetRegistry
+            packetRegistry,
+            inPlaceReading
         );
     }
 
@@ -66,12 +85,13 @@ public class IdBasedPacketConnection<R extends IdBasedReadablePacket<R>, W exten
             this,
             channel,
             bufferAllocator,
-            this::updateLastActivity,
+            this::updateLastWriteActivity,
             this::nextPacketToWrite,
             this::onWrittenPacket,
             this::onSentPacket,
-            packetLengthHeaderSize,
-            packetIdHeaderSize
+            frameCodec,
+            maxPacketsByWrite,
+            maxBytesByWrite
         );
     }
 }
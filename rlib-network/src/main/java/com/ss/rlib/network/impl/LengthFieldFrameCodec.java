@@ -0,0 +1,124 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.network.FrameCodec;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The implementation of {@link FrameCodec} with the fixed size length field after other bytes of the header.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@ToString
+@EqualsAndHashCode
+public class LengthFieldFrameCodec implements FrameCodec {
+
+    private final int lengthFieldOffset;
+    private final int lengthFieldSize;
+    private final int lengthAdjustment;
+    private final int idHeaderSize;
+    private final int headerSize;
+
+    public LengthFieldFrameCodec(int lengthFieldOffset, int lengthFieldSize, int lengthAdjustment, int idHeaderSize) {
+
+        if (lengthFieldOffset < 0) {
+            throw new IllegalArgumentException("Wrong length field offset: " + lengthFieldOffset);
+        } else if (lengthFieldSize != 1 && lengthFieldSize != 2 && lengthFieldSize != 4) {
+            throw new IllegalArgumentException("Wrong length field size: " + lengthFieldSize);
+        } else if (idHeaderSize != 0 && idHeaderSize != 1 && idHeaderSize != 2 && idHeaderSize != 4) {
+            throw new IllegalArgumentException("Wrong packet's id header size: " + idHeaderSize);
+        }
+
+        this.lengthFieldOffset = lengthFieldOffset;
+        this.lengthFieldSize = lengthFieldSize;
+        this.lengthAdjustment = lengthAdjustment;
+        this.idHeaderSize = idHeaderSize;
+        this.headerSize = lengthFieldOffset + lengthFieldSize;
+    }
+
+    @Override
+    public int getMaxHeaderSize() {
+        return headerSize;
+    }
+
+    @Override
+    public boolean hasHeader(@NotNull ByteBuffer buffer) {
+        return buffer.remaining() >= headerSize;
+    }
+
+    @Override
+    public int readFrameLength(@NotNull ByteBuffer buffer) {
+        buffer.position(buffer.position() + lengthFieldOffset);
+        return read(buffer, lengthFieldSize) + lengthAdjustment + headerSize;
+    }
+
+    @Override
+    public int getHeaderSize(@NotNull ByteBuffer buffer, int position) {
+        return headerSize;
+    }
+
+    @Override
+    public int writeHeader(@NotNull ByteBuffer buffer, int bodyPosition) {
+
+        var position = bodyPosition - headerSize;
+
+        for (int i = position; i < position + lengthFieldOffset; i++) {
+            buffer.put(i, (byte) 0);
+        }
+
+        var lengthPosition = position + lengthFieldOffset;
+        var value = buffer.limit() - bodyPosition - lengthAdjustment;
+
+        switch (lengthFieldSize) {
+            case 1:
+                buffer.put(lengthPosition, (byte) value);
+                break;
+            case 2:
+                buffer.putShort(lengthPosition, (short) value);
+                break;
+            default:
+                buffer.putInt(lengthPosition, value);
+        }
+
+        return position;
+    }
+
+    @Override
+    public int readPacketId(@NotNull ByteBuffer buffer) {
+        return read(buffer, idHeaderSize);
+    }
+
+    @Override
+    public void writePacketId(@NotNull ByteBuffer buffer, int packetId) {
+        switch (idHeaderSize) {
+            case 1:
+                buffer.put((byte) packetId);
+                break;
+            case 2:
+                buffer.putShort((short) packetId);
+                break;
+            case 4:
+                buffer.putInt(packetId);
+                break;
+            default:
+                throw new IllegalStateException("Wrong packet's header size: " + idHeaderSize);
+        }
+    }
+
+    private static int read(@NotNull ByteBuffer buffer, int size) {
+        switch (size) {
+            case 1:
+                return buffer.get() & 0xFF;
+            case 2:
+                return buffer.getShort() & 0xFFFF;
+            case 4:
+                return buffer.getInt();
+            default:
+                throw new IllegalStateException("Wrong packet's header size: " + size);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.network.packet.WritablePacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * The multi-producer/single-consumer queue of packets which are waiting to be written to a channel.
+ * Producers are lock-free and don't block each other, packets are stored in linked array segments, so
+ * a segment is allocated only once per {@link #SEGMENT_SIZE} packets. The queue has a separated priority
+ * lane for packets which should be written before all other packets. The consumer's side is guarded by
+ * a light spin lock, because besides a packet writer it can be accessed by closing a connection.
+ * <p>
+ * Polling is relaxed: a packet whose producer has taken its index, but hasn't stored it yet, isn't
+ * visible and polling returns null until it's stored, so a producer should request writing after adding
+ * a packet to be sure that the packet will be polled.
+ *
+ * @author JavaSaBr
+ */
+public class PendingPacketQueue {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    private static final class Segment {
+
+        private final long id;
+        private final @NotNull AtomicReferenceArray<WritablePacket> packets;
+        private final @NotNull AtomicReference<Segment> next;
+
+        private Segment(long id) {
+            this.id = id;
+            this.packets = new AtomicReferenceArray<>(SEGMENT_SIZE);
+            this.next = new AtomicReference<>();
+        }
+    }
+
+    private static final class PriorityNode {
+
+        private final @NotNull WritablePacket packet;
+        private final @Nullable PriorityNode next;
+
+        private PriorityNode(@NotNull WritablePacket packet, @Nullable PriorityNode next) {
+            this.packet = packet;
+            this.next = next;
+        }
+    }
+
+    /**
+     * The index of the next packet to add.
+     */
+    private final @NotNull AtomicLong producerIndex;
+
+    /**
+     * The hint to the last segment, it's never ahead of a segment of any not yet added packet.
+     */
+    private final @NotNull AtomicReference<Segment> tail;
+
+    /**
+     * The stack of packets from the priority lane.
+     */
+    private final @NotNull AtomicReference<PriorityNode> priority;
+
+    private final @NotNull AtomicBoolean consumerLock;
+
+    /**
+     * The index of the next packet to poll, it's changed only by a consumer.
+     */
+    private volatile long consumerIndex;
+
+    /**
+     * The segment of the next packet to poll, it's accessed only by a consumer.
+     */
+    private @NotNull Segment head;
+
+    public PendingPacketQueue() {
+        var first = new Segment(0);
+        this.producerIndex = new AtomicLong();
+        this.tail = new AtomicReference<>(first);
+        this.priority = new AtomicReference<>();
+        this.consumerLock = new AtomicBoolean();
+        this.head = first;
+    }
+
+    /**
+     * Add the packet to the end of this queue.
+     *
+     * @param packet the packet.
+     */
+    public void add(@NotNull WritablePacket packet) {
+        // the tail should be read before taking an index to be sure that it isn't ahead of the index's segment
+        var segment = tail.get();
+        store(segment, producerIndex.getAndIncrement(), packet);
+    }
+
+    /**
+     * Add the packet to the end of this queue if the main lane has less than the max count of packets,
+     * the count is checked atomically with taking an index, so concurrent producers can't exceed it.
+     *
+     * @param packet  the packet.
+     * @param maxSize the max count of packets in the main lane.
+     * @return true if the packet was added.
+     * @since 9.10.0
+     */
+    public boolean add(@NotNull WritablePacket packet, int maxSize) {
+
+        var segment = tail.get();
+        long index;
+
+        do {
+
+            index = producerIndex.get();
+
+            if (index - consumerIndex >= maxSize) {
+                return false;
+            }
+
+        } while (!producerIndex.compareAndSet(index, index + 1));
+
+        store(segment, index, packet);
+        return true;
+    }
+
+    private void store(@NotNull Segment segment, long index, @NotNull WritablePacket packet) {
+
+        var segmentId = index / SEGMENT_SIZE;
+
+        while (segment.id < segmentId) {
+
+            var next = segment.next.get();
+
+            if (next == null) {
+                var newSegment = new Segment(segment.id + 1);
+                next = segment.next.compareAndSet(null, newSegment) ? newSegment : segment.next.get();
+            }
+
+            segment = next;
+        }
+
+        var currentTail = tail.get();
+
+        while (currentTail.id < segment.id && !tail.compareAndSet(currentTail, segment)) {
+            currentTail = tail.get();
+        }
+
+        segment.packets.set((int) (index % SEGMENT_SIZE), packet);
+    }
+
+    /**
+     * Add the packet to the priority lane, the last added packet to the lane will be polled first.
+     *
+     * @param packet the packet.
+     */
+    public void addFirst(@NotNull WritablePacket packet) {
+
+        PriorityNode current;
+
+        do {
+            current = priority.get();
+        } while (!priority.compareAndSet(current, new PriorityNode(packet, current)));
+    }
+
+    /**
+     * Poll a next packet from the priority lane or the main lane.
+     *
+     * @return the next packet or null if there are no stored packets.
+     */
+    public @Nullable WritablePacket poll() {
+        lockConsumer();
+        try {
+
+            var packet = pollPriority();
+
+            if (packet == null) {
+                packet = pollMain();
+            }
+
+            return packet;
+
+        } finally {
+            consumerLock.set(false);
+        }
+    }
+
+    /**
+     * Poll the oldest packet from the main lane.
+     *
+     * @return the oldest packet or null.
+     */
+    public @Nullable WritablePacket pollOldest() {
+        lockConsumer();
+        try {
+            return pollMain();
+        } finally {
+            consumerLock.set(false);
+        }
+    }
+
+    /**
+     * Poll all stored packets from this queue.
+     *
+     * @param consumer the consumer of polled packets.
+     */
+    public void drain(@NotNull Consumer<WritablePacket> consumer) {
+        for (var packet = poll(); packet != null; packet = poll()) {
+            consumer.accept(packet);
+        }
+    }
+
+    /**
+     * Get an approximate count of packets in the main lane of this queue.
+     *
+     * @return the count of packets.
+     */
+    public int size() {
+        return (int) Math.max(producerIndex.get() - consumerIndex, 0);
+    }
+
+    /**
+     * Return true if this queue is empty.
+     *
+     * @return true if this queue is empty.
+     */
+    public boolean isEmpty() {
+        return priority.get() == null && producerIndex.get() <= consumerIndex;
+    }
+
+    private void lockConsumer() {
+        while (!consumerLock.compareAndSet(false, true)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private @Nullable WritablePacket pollPriority() {
+
+        var node = priority.get();
+
+        // only a consumer removes nodes, so we can't fail here by ABA
+        while (node != null && !priority.compareAndSet(node, node.next)) {
+            node = priority.get();
+        }
+
+        return node == null ? null : node.packet;
+    }
+
+    private @Nullable WritablePacket pollMain() {
+
+        var index = consumerIndex;
+
+        if (index >= producerIndex.get()) {
+            return null;
+        }
+
+        var segment = head;
+
+        if (segment.id < index / SEGMENT_SIZE) {
+
+            var next = segment.next.get();
+
+            // a producer of this index hasn't created the next segment yet, it will request writing after it
+            if (next == null) {
+                return null;
+            }
+
+            head = segment = next;
+        }
+
+        var slot = (int) (index % SEGMENT_SIZE);
+        var packet = segment.packets.get(slot);
+
+        // a producer has already taken the index, but hasn't stored the packet yet
+        if (packet == null) {
+            return null;
+        }
+
+        segment.packets.lazySet(slot, null);
+        consumerIndex = index + 1;
+
+        return packet;
+    }
+}
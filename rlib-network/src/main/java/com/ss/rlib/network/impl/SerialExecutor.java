@@ -0,0 +1,62 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The executor which runs tasks one by one in order of submitting using threads of another executor.
+ * A thread of the delegate executor is taken only while there are tasks to run.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class SerialExecutor implements Executor {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(SerialExecutor.class);
+
+    private final @NotNull Executor delegate;
+    private final @NotNull Queue<Runnable> tasks;
+    private final @NotNull AtomicBoolean scheduled;
+
+    public SerialExecutor(@NotNull Executor delegate) {
+        this.delegate = delegate;
+        this.tasks = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable task) {
+
+        tasks.add(task);
+
+        if (scheduled.compareAndSet(false, true)) {
+            delegate.execute(this::runTasks);
+        }
+    }
+
+    private void runTasks() {
+        while (true) {
+
+            for (var task = tasks.poll(); task != null; task = tasks.poll()) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    LOGGER.error(e);
+                }
+            }
+
+            scheduled.set(false);
+
+            // a new task could be added after the last poll but before resetting the flag
+            if (tasks.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+}
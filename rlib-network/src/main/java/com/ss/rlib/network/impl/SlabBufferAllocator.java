@@ -0,0 +1,525 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.common.util.pools.Pool;
+import com.ss.rlib.common.util.pools.PoolFactory;
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.NetworkConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The buffer allocator which reuses buffers by power-of-two size classes. Each platform thread has a small
+ * cache of buffers in front of shared pools of size classes, buffers of a cache are returned to the shared
+ * pools after its thread is died. Virtual threads use the shared pools directly. Direct buffers are sliced
+ * from big direct chunks to reduce count of direct memory allocations. Buffers which are bigger than the max
+ * size class are not reused at all. Leak detection weakly references taken buffers and reports buffers which are
+ * collected without returning to the allocator, with sampled places where they were taken.
+ *
+ * @author JavaSaBr
+ */
+public class SlabBufferAllocator implements BufferAllocator {
+
+    protected static final Logger LOGGER = LoggerManager.getLogger(SlabBufferAllocator.class);
+
+    public static final int MIN_SIZE_CLASS = 256;
+    public static final int MAX_SIZE_CLASS = 4 * 1024 * 1024;
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_THREAD_CACHE_SIZE = 8;
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 64 * 1024 * 1024;
+    public static final int DEFAULT_LEAK_SAMPLING_INTERVAL = 16;
+
+    private static final int MIN_SIZE_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE_CLASS);
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_SIZE_CLASS) - MIN_SIZE_CLASS_SHIFT + 1;
+
+    /**
+     * The cleaner to return buffers of thread caches to shared pools after their threads are died.
+     */
+    private static final Cleaner THREAD_CACHE_CLEANER = Cleaner.create();
+
+    private static final class ThreadCache {
+
+        private final @NotNull ByteBuffer[][] buffers;
+        private final @NotNull int[] sizes;
+
+        private ThreadCache(int cacheSize) {
+            this.buffers = new ByteBuffer[SIZE_CLASSES][cacheSize];
+            this.sizes = new int[SIZE_CLASSES];
+        }
+
+        private @Nullable ByteBuffer take(int sizeClass) {
+
+            var size = sizes[sizeClass];
+
+            if (size < 1) {
+                return null;
+            }
+
+            var cached = buffers[sizeClass];
+            var buffer = cached[--size];
+
+            cached[size] = null;
+            sizes[sizeClass] = size;
+
+            return buffer;
+        }
+
+        private boolean put(int sizeClass, @NotNull ByteBuffer buffer) {
+
+            var cached = buffers[sizeClass];
+            var size = sizes[sizeClass];
+
+            if (size >= cached.length) {
+                return false;
+            }
+
+            cached[size] = buffer;
+            sizes[sizeClass] = size + 1;
+
+            return true;
+        }
+
+        private void drainTo(@NotNull Pool<ByteBuffer>[] pools) {
+            for (int sizeClass = 0; sizeClass < SIZE_CLASSES; sizeClass++) {
+                for (var buffer = take(sizeClass); buffer != null; buffer = take(sizeClass)) {
+                    pools[sizeClass].put(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * The weak reference to a taken buffer, it's equal to another reference to the same buffer, so a returned
+     * buffer is found by a new reference to it.
+     */
+    protected static final class TakenBuffer extends WeakReference<ByteBuffer> {
+
+        private final @NotNull String description;
+        private final @Nullable Throwable place;
+        private final int hash;
+
+        private TakenBuffer(@NotNull ByteBuffer buffer) {
+            super(buffer);
+            this.description = "";
+            this.place = null;
+            this.hash = System.identityHashCode(buffer);
+        }
+
+        private TakenBuffer(
+            @NotNull ByteBuffer buffer,
+            @NotNull ReferenceQueue<ByteBuffer> queue,
+            boolean sampled
+        ) {
+            super(buffer, queue);
+            this.description = buffer.toString();
+            this.place = sampled ? new Throwable("The buffer " + description + " was collected without returning " +
+                "to the allocator, it was taken here") : null;
+            this.hash = System.identityHashCode(buffer);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object object) {
+
+            if (object == this) {
+                return true;
+            } else if (!(object instanceof TakenBuffer)) {
+                return false;
+            }
+
+            var buffer = get();
+
+            return buffer != null && buffer == ((TakenBuffer) object).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    protected final @NotNull NetworkConfig config;
+    protected final @NotNull Pool<ByteBuffer>[] pools;
+    protected final @NotNull ThreadLocal<ThreadCache> threadCache;
+
+    /**
+     * The weak references to buffers which were taken from this allocator and weren't returned yet.
+     */
+    protected final @Nullable Set<TakenBuffer> takenBuffers;
+
+    /**
+     * The queue of references to taken buffers which were collected.
+     */
+    protected final @NotNull ReferenceQueue<ByteBuffer> collectedBuffers;
+
+    protected final @NotNull LongAdder allocations;
+    protected final @NotNull LongAdder hits;
+    protected final @NotNull LongAdder misses;
+    protected final @NotNull LongAdder drops;
+    protected final @NotNull LongAdder leaks;
+    protected final @NotNull AtomicLong retainedBytes;
+
+    protected final long maxRetainedBytes;
+    protected final int leakSamplingInterval;
+    protected final int threadCacheSize;
+    protected final int chunkSize;
+
+    protected @Nullable ByteBuffer directChunk;
+
+    public SlabBufferAllocator(@NotNull NetworkConfig config) {
+        this(config, DEFAULT_MAX_RETAINED_BYTES, DEFAULT_THREAD_CACHE_SIZE, DEFAULT_CHUNK_SIZE, false);
+    }
+
+    /**
+     * Create a new slab allocator.
+     *
+     * @param config           the network config.
+     * @param maxRetainedBytes the max count of bytes in buffers which can be retained to reuse.
+     * @param threadCacheSize  the max count of buffers of each size class in a thread's cache.
+     * @param chunkSize        the size of direct chunks to slice direct buffers.
+     * @param leakDetection    true if need to track buffers which were never returned to this allocator.
+     */
+    public SlabBufferAllocator(
+        @NotNull NetworkConfig config,
+        long maxRetainedBytes,
+        int threadCacheSize,
+        int chunkSize,
+        boolean leakDetection
+    ) {
+        this(config, maxRetainedBytes, threadCacheSize, chunkSize, leakDetection ? DEFAULT_LEAK_SAMPLING_INTERVAL : 0);
+    }
+
+    /**
+     * Create a new slab allocator.
+     *
+     * @param config               the network config.
+     * @param maxRetainedBytes     the max count of bytes in buffers which can be retained to reuse.
+     * @param threadCacheSize      the max count of buffers of each size class in a thread's cache.
+     * @param chunkSize            the size of direct chunks to slice direct buffers.
+     * @param leakSamplingInterval the average count of taken buffers by one buffer which has the place where it
+     *                             was taken in a report of its leak, or 0 to disable leak detection.
+     * @since 9.10.0
+     */
+    @SuppressWarnings("unchecked")
+    public SlabBufferAllocator(
+        @NotNull NetworkConfig config,
+        long maxRetainedBytes,
+        int threadCacheSize,
+        int chunkSize,
+        int leakSamplingInterval
+    ) {
+        this.config = config;
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.threadCacheSize = threadCacheSize;
+        this.chunkSize = chunkSize;
+        this.pools = new Pool[SIZE_CLASSES];
+        this.threadCache = ThreadLocal.withInitial(this::newThreadCache);
+        this.leakSamplingInterval = leakSamplingInterval;
+        this.takenBuffers = leakSamplingInterval > 0 ? ConcurrentHashMap.newKeySet() : null;
+        this.collectedBuffers = new ReferenceQueue<>();
+        this.leaks = new LongAdder();
+        this.allocations = new LongAdder();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.drops = new LongAdder();
+        this.retainedBytes = new AtomicLong();
+
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            pools[i] = PoolFactory.newConcurrentStampedLockPool(ByteBuffer.class);
+        }
+    }
+
+    @Override
+    public @NotNull ByteBuffer takeReadBuffer() {
+        return takeBuffer(config.getReadBufferSize());
+    }
+
+    @Override
+    public @NotNull ByteBuffer takePendingBuffer() {
+        return takeBuffer(config.getPendingBufferSize());
+    }
+
+    @Override
+    public @NotNull ByteBuffer takeWriteBuffer() {
+        return takeBuffer(config.getWriteBufferSize());
+    }
+
+    @Override
+    public @NotNull ByteBuffer takeBuffer(int bufferSize) {
+
+        allocations.increment();
+
+        var sizeClass = sizeClassOf(bufferSize);
+
+        ByteBuffer buffer = null;
+
+        if (sizeClass != -1) {
+
+            // virtual threads don't own caches, because they are too many and their caches are rarely reused
+            if (!Thread.currentThread().isVirtual()) {
+                buffer = threadCache.get().take(sizeClass);
+            }
+
+            if (buffer == null) {
+                buffer = pools[sizeClass].take();
+            }
+        }
+
+        if (buffer != null) {
+            hits.increment();
+            retainedBytes.addAndGet(-buffer.capacity());
+        } else {
+            misses.increment();
+            buffer = allocate(sizeClass == -1 ? bufferSize : sizeOf(sizeClass));
+        }
+
+        if (takenBuffers != null) {
+            reportLeaks();
+            takenBuffers.add(new TakenBuffer(buffer, collectedBuffers,
+                ThreadLocalRandom.current().nextInt(leakSamplingInterval) == 0));
+        }
+
+        return buffer.clear();
+    }
+
+    @Override
+    public @NotNull SlabBufferAllocator putReadBuffer(@NotNull ByteBuffer buffer) {
+        return putBuffer(buffer);
+    }
+
+    @Override
+    public @NotNull SlabBufferAllocator putPendingBuffer(@NotNull ByteBuffer buffer) {
+        return putBuffer(buffer);
+    }
+
+    @Override
+    public @NotNull SlabBufferAllocator putWriteBuffer(@NotNull ByteBuffer buffer) {
+        return putBuffer(buffer);
+    }
+
+    @Override
+    public @NotNull SlabBufferAllocator putBuffer(@NotNull ByteBuffer buffer) {
+
+        if (takenBuffers != null) {
+            takenBuffers.remove(new TakenBuffer(buffer));
+        }
+
+        var capacity = buffer.capacity();
+        var sizeClass = sizeClassOf(capacity);
+
+        // we can reuse only buffers with exact size of a size class
+        if (sizeClass == -1 || sizeOf(sizeClass) != capacity ||
+            buffer.isReadOnly() || buffer.isDirect() != config.isDirectByteBuffer()) {
+            drops.increment();
+            return this;
+        }
+
+        if (retainedBytes.addAndGet(capacity) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-capacity);
+            drops.increment();
+            LOGGER.debug(buffer, buf -> "Drop the buffer " + buf + " because of the limit of retained bytes");
+            return this;
+        }
+
+        buffer.clear()
+            .order(config.getByteOrder());
+
+        if (Thread.currentThread().isVirtual() || !threadCache.get().put(sizeClass, buffer)) {
+            pools[sizeClass].put(buffer);
+        }
+
+        return this;
+    }
+
+    /**
+     * Create a cache of buffers for the current thread, its buffers are still counted as retained bytes, so
+     * they are returned to the shared pools after the thread is died.
+     *
+     * @return the new cache.
+     */
+    private @NotNull ThreadCache newThreadCache() {
+
+        var cache = new ThreadCache(threadCacheSize);
+        var pools = this.pools;
+
+        THREAD_CACHE_CLEANER.register(Thread.currentThread(), () -> cache.drainTo(pools));
+
+        return cache;
+    }
+
+    protected @NotNull ByteBuffer allocate(int bufferSize) {
+
+        LOGGER.debug(bufferSize, size -> "Allocate a new buffer with size: " + size);
+
+        ByteBuffer buffer;
+
+        if (!config.isDirectByteBuffer()) {
+            buffer = ByteBuffer.allocate(bufferSize);
+        } else if (bufferSize <= chunkSize / 8) {
+            buffer = sliceDirectChunk(bufferSize);
+        } else {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        return buffer.order(config.getByteOrder());
+    }
+
+    protected synchronized @NotNull ByteBuffer sliceDirectChunk(int bufferSize) {
+
+        var chunk = directChunk;
+
+        // the rest of the previous chunk is not used anymore, but it's less than 1/8 of the chunk
+        if (chunk == null || chunk.remaining() < bufferSize) {
+            LOGGER.debug(chunkSize, size -> "Allocate a new direct chunk with size: " + size);
+            directChunk = chunk = ByteBuffer.allocateDirect(chunkSize);
+        }
+
+        var position = chunk.position();
+        var buffer = chunk.slice(position, bufferSize);
+
+        chunk.position(position + bufferSize);
+
+        return buffer;
+    }
+
+    /**
+     * Log buffers which were collected without returning to this allocator since the previous check, it's also
+     * checked by taking buffers. It works only if leak detection is enabled.
+     *
+     * @return count of found leaked buffers.
+     */
+    public int reportLeaks() {
+
+        if (takenBuffers == null) {
+            return 0;
+        }
+
+        int found = 0;
+
+        for (var ref = collectedBuffers.poll(); ref != null; ref = collectedBuffers.poll()) {
+
+            var takenBuffer = (TakenBuffer) ref;
+
+            // a returned buffer is removed from taken buffers before it's collected
+            if (!takenBuffers.remove(takenBuffer)) {
+                continue;
+            }
+
+            found++;
+
+            if (takenBuffer.place != null) {
+                LOGGER.warning(takenBuffer.place);
+            } else {
+                LOGGER.warning(takenBuffer.description, desc -> "The buffer " + desc + " was collected without " +
+                    "returning to the allocator, the place where it was taken wasn't sampled");
+            }
+        }
+
+        leaks.add(found);
+
+        return found;
+    }
+
+    /**
+     * Get count of buffers which were taken from this allocator and weren't returned yet.
+     * It works only if leak detection is enabled.
+     *
+     * @return count of not returned buffers.
+     */
+    public int getNotReturnedBuffers() {
+        return takenBuffers == null ? 0 : takenBuffers.size();
+    }
+
+    /**
+     * Get count of found buffers which were collected without returning to this allocator.
+     * It works only if leak detection is enabled.
+     *
+     * @return count of leaked buffers.
+     */
+    public long getLeaks() {
+        return leaks.sum();
+    }
+
+    /**
+     * Get count of requested buffers.
+     *
+     * @return count of requested buffers.
+     */
+    public long getAllocations() {
+        return allocations.sum();
+    }
+
+    /**
+     * Get count of requested buffers which were reused.
+     *
+     * @return count of reused buffers.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get count of requested buffers which were newly allocated.
+     *
+     * @return count of newly allocated buffers.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get count of returned buffers which were not retained to reuse.
+     *
+     * @return count of dropped buffers.
+     */
+    public long getDrops() {
+        return drops.sum();
+    }
+
+    /**
+     * Get count of bytes in buffers which are retained to reuse.
+     *
+     * @return count of retained bytes.
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    /**
+     * Get an index of the size class which is enough to store the buffer size.
+     *
+     * @param bufferSize the buffer size.
+     * @return the index of size class or -1 if the size is bigger than max size class.
+     */
+    protected static int sizeClassOf(int bufferSize) {
+
+        if (bufferSize > MAX_SIZE_CLASS) {
+            return -1;
+        } else if (bufferSize <= MIN_SIZE_CLASS) {
+            return 0;
+        }
+
+        return 32 - Integer.numberOfLeadingZeros(bufferSize - 1) - MIN_SIZE_CLASS_SHIFT;
+    }
+
+    protected static int sizeOf(int sizeClass) {
+        return MIN_SIZE_CLASS << sizeClass;
+    }
+
+    @Override
+    public String toString() {
+        return "SlabBufferAllocator(allocations=" + getAllocations() + ", hits=" + getHits() +
+            ", misses=" + getMisses() + ", drops=" + getDrops() + ", retainedBytes=" + getRetainedBytes() + ")";
+    }
+}
@@ -2,6 +2,7 @@ package com.ss.rlib.network.impl;
 
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
 import com.ss.rlib.network.Network;
 import com.ss.rlib.network.packet.impl.StringReadablePacket;
 import com.ss.rlib.network.packet.impl.StringWritablePacket;
@@ -22,6 +23,18 @@ public class StringDataConnection extends DefaultDataConnection<StringReadablePa
         super(network, channel, bufferAllocator, 100, 2);
     }
 
+    /**
+     * @since 9.10.0
+     */
+    public StringDataConnection(
+        @NotNull Network<? extends Connection<StringReadablePacket, StringWritablePacket>> network,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull FrameCodec frameCodec
+    ) {
+        super(network, channel, bufferAllocator, 100, frameCodec);
+    }
+
     @Override
     protected @NotNull StringReadablePacket createReadablePacket() {
         return new StringReadablePacket();
@@ -0,0 +1,83 @@
+package com.ss.rlib.network.impl;
+
+import com.ss.rlib.network.FrameCodec;
+import com.ss.rlib.network.util.EncodingUtils;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The implementation of {@link FrameCodec} with the length of the frame's body and the packet's id encoded
+ * as unsigned varints.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@ToString
+@EqualsAndHashCode
+public class VarIntFrameCodec implements FrameCodec {
+
+    public static final VarIntFrameCodec INSTANCE = new VarIntFrameCodec();
+
+    private static final int MAX_HEADER_SIZE = 5;
+
+    @Override
+    public int getMaxHeaderSize() {
+        return MAX_HEADER_SIZE;
+    }
+
+    @Override
+    public boolean hasHeader(@NotNull ByteBuffer buffer) {
+        // broken headers are read to fail reading
+        return buffer.remaining() >= MAX_HEADER_SIZE || getHeaderSize(buffer, buffer.position()) != -1;
+    }
+
+    @Override
+    public int readFrameLength(@NotNull ByteBuffer buffer) {
+        var position = buffer.position();
+        var bodyLength = EncodingUtils.readVarInt(buffer);
+        return bodyLength + buffer.position() - position;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the size of the frame's header or -1 if the header isn't full in the buffer.
+     */
+    @Override
+    public int getHeaderSize(@NotNull ByteBuffer buffer, int position) {
+
+        var end = Math.min(buffer.limit(), position + MAX_HEADER_SIZE);
+
+        for (int i = position; i < end; i++) {
+            if (buffer.get(i) >= 0) {
+                return i - position + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int writeHeader(@NotNull ByteBuffer buffer, int bodyPosition) {
+
+        var bodyLength = buffer.limit() - bodyPosition;
+        var position = bodyPosition - EncodingUtils.varIntSize(bodyLength);
+
+        EncodingUtils.writeVarInt(buffer.position(position), bodyLength);
+
+        return position;
+    }
+
+    @Override
+    public int readPacketId(@NotNull ByteBuffer buffer) {
+        return EncodingUtils.readVarInt(buffer);
+    }
+
+    @Override
+    public void writePacketId(@NotNull ByteBuffer buffer, int packetId) {
+        EncodingUtils.writeVarInt(buffer, packetId);
+    }
+}
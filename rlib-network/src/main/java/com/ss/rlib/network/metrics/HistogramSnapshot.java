@@ -0,0 +1,122 @@
+package com.ss.rlib.network.metrics;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The snapshot of a histogram with log-linear buckets, each power of two range is split to
+ * {@link #SUB_BUCKETS} linear buckets, so a relative error of values is not more than 12.5%.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class HistogramSnapshot {
+
+    public static final int SUB_BUCKETS = 8;
+    public static final int BUCKETS = 61 * SUB_BUCKETS;
+
+    public static final @NotNull HistogramSnapshot EMPTY = new HistogramSnapshot(new long[BUCKETS], 0, 0);
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    /**
+     * Get an index of a bucket for the value.
+     *
+     * @param value the not negative value.
+     * @return the bucket's index.
+     */
+    public static int bucketOf(long value) {
+
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+
+        var exponent = 63 - Long.numberOfLeadingZeros(value);
+        var subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the max value which can be stored in the bucket.
+     *
+     * @param bucket the bucket's index.
+     * @return the max value of the bucket.
+     */
+    public static long maxValueOf(int bucket) {
+
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        var shift = bucket / SUB_BUCKETS - 1;
+        var lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    private final @NotNull long[] counts;
+
+    @Getter
+    private final long count;
+    @Getter
+    private final long sum;
+    @Getter
+    private final long max;
+
+    public HistogramSnapshot(@NotNull long[] counts, long sum, long max) {
+
+        var count = 0L;
+
+        for (var bucketCount : counts) {
+            count += bucketCount;
+        }
+
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Get the mean of recorded values.
+     *
+     * @return the mean or 0 if there are no values.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Get a value which is not less than the percentage of recorded values.
+     *
+     * @param percentile the percentile from 0 to 100.
+     * @return the value or 0 if there are no values.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        if (count == 0) {
+            return 0;
+        }
+
+        var required = Math.max((long) Math.ceil(count * Math.min(percentile, 100D) / 100D), 1);
+        var seen = 0L;
+
+        for (int i = 0; i < counts.length; i++) {
+
+            seen += counts[i];
+
+            if (seen >= required) {
+                return Math.min(maxValueOf(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot(count=" + count + ", mean=" + getMean() + ", p50=" + getValueAtPercentile(50) +
+            ", p99=" + getValueAtPercentile(99) + ", max=" + max + ")";
+    }
+}
@@ -0,0 +1,138 @@
+package com.ss.rlib.network.metrics;
+
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement collecting metrics of a network and its connections.
+ * All methods are called from network threads, so implementations should be thread-safe and cheap.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface NetworkMetrics {
+
+    /**
+     * The metrics which don't collect anything, networks skip measuring when these metrics are used.
+     */
+    @NotNull NetworkMetrics NOOP = new NetworkMetrics() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Return true if these metrics collect anything.
+     *
+     * @return true if these metrics collect anything.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Get metrics for the new connection of the network, the connection's metrics should be also
+     * collected to these metrics.
+     *
+     * @param connection the new connection.
+     * @return the connection's metrics.
+     */
+    default @NotNull NetworkMetrics forConnection(@NotNull Connection<?, ?> connection) {
+        return this;
+    }
+
+    /**
+     * Handle received bytes from a channel.
+     *
+     * @param bytes the count of received bytes.
+     */
+    default void onReceivedBytes(int bytes) {}
+
+    /**
+     * Handle sent bytes to a channel.
+     *
+     * @param bytes the count of sent bytes.
+     */
+    default void onSentBytes(long bytes) {}
+
+    /**
+     * Handle a received packet which was read and handled.
+     *
+     * @param packet     the received packet.
+     * @param handleTime the time in nanoseconds from receiving data of the packet to finishing its handling.
+     */
+    default void onReceivedPacket(@NotNull ReadablePacket packet, long handleTime) {}
+
+    /**
+     * Handle a packet which was sent to a channel.
+     *
+     * @param packet    the sent packet.
+     * @param writeTime the time in nanoseconds from adding the packet to a queue to finishing its writing
+     *                  or -1 if the time is unknown.
+     */
+    default void onSentPacket(@NotNull WritablePacket packet, long writeTime) {}
+
+    /**
+     * Handle a packet which was added to a queue of pending packets.
+     */
+    default void onPacketQueued() {}
+
+    /**
+     * Handle a packet which was removed from a queue of pending packets.
+     */
+    default void onPacketDequeued() {}
+
+    /**
+     * Handle received data which doesn't contain a full packet, so the packet waits for next data.
+     */
+    default void onPartialRead() {}
+
+    /**
+     * Handle allocation of a temp buffer for a big packet.
+     *
+     * @param bufferSize the size of allocated buffer.
+     */
+    default void onTempBufferAllocated(int bufferSize) {}
+
+    /**
+     * Handle a packet which was compressed before sending.
+     *
+     * @param size           the size of packet's data.
+     * @param compressedSize the size of compressed packet's data.
+     * @since 9.10.0
+     */
+    default void onCompressedPacket(int size, int compressedSize) {}
+
+    /**
+     * Handle a finished SSL handshake.
+     *
+     * @param duration the duration of the handshake in nanoseconds.
+     */
+    default void onSslHandshakeFinished(long duration) {}
+
+    /**
+     * Handle a finished delegated task of SSL engine.
+     *
+     * @param duration the duration of the task in nanoseconds.
+     * @since 9.10.0
+     */
+    default void onSslDelegatedTask(long duration) {}
+
+    /**
+     * Handle a new accepted connection by a server network.
+     */
+    default void onAcceptedConnection() {}
+
+    /**
+     * Get a snapshot of current values of these metrics.
+     *
+     * @return the snapshot.
+     */
+    default @NotNull NetworkMetricsSnapshot snapshot() {
+        return NetworkMetricsSnapshot.EMPTY;
+    }
+}
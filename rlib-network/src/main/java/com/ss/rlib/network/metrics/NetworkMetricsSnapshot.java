@@ -0,0 +1,83 @@
+package com.ss.rlib.network.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * The snapshot of values of network metrics, all times are in nanoseconds.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@Getter
+@Builder
+@ToString
+public class NetworkMetricsSnapshot {
+
+    public static final @NotNull NetworkMetricsSnapshot EMPTY = NetworkMetricsSnapshot.builder().build();
+
+    private final long receivedBytes;
+    private final long sentBytes;
+    private final long receivedPackets;
+    private final long sentPackets;
+    private final long pendingPackets;
+    private final long partialReads;
+    private final long tempBufferAllocations;
+    private final long compressedPackets;
+
+    /**
+     * The count of bytes which weren't sent thanks to compression of packets.
+     */
+    private final long compressionSavedBytes;
+    private final long acceptedConnections;
+
+    /**
+     * The count of finished SSL handshakes.
+     */
+    private final long sslHandshakes;
+
+    /**
+     * The count of finished delegated tasks of SSL engines.
+     */
+    private final long sslDelegatedTasks;
+
+    /**
+     * Counts of received packets by packet ids, only id based packets are counted.
+     */
+    @Builder.Default
+    private final @NotNull Map<Integer, Long> receivedPacketsById = Map.of();
+
+    /**
+     * Counts of sent packets by packet ids, only id based packets are counted.
+     */
+    @Builder.Default
+    private final @NotNull Map<Integer, Long> sentPacketsById = Map.of();
+
+    /**
+     * Times from adding packets to queues to finishing their writing.
+     */
+    @Builder.Default
+    private final @NotNull HistogramSnapshot writeTime = HistogramSnapshot.EMPTY;
+
+    /**
+     * Times from receiving data of packets to finishing their handling.
+     */
+    @Builder.Default
+    private final @NotNull HistogramSnapshot handleTime = HistogramSnapshot.EMPTY;
+
+    /**
+     * Durations of SSL handshakes.
+     */
+    @Builder.Default
+    private final @NotNull HistogramSnapshot sslHandshakeDuration = HistogramSnapshot.EMPTY;
+
+    /**
+     * Durations of delegated tasks of SSL engines.
+     */
+    @Builder.Default
+    private final @NotNull HistogramSnapshot sslDelegatedTaskDuration = HistogramSnapshot.EMPTY;
+}
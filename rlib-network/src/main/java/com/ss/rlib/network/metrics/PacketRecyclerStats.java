@@ -0,0 +1,55 @@
+package com.ss.rlib.network.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The snapshot of statistics of a packet recycler.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@Getter
+@Builder
+@ToString
+public class PacketRecyclerStats {
+
+    public static final @NotNull PacketRecyclerStats EMPTY = PacketRecyclerStats.builder().build();
+
+    /**
+     * The count of packets which were taken from the recycler's pools.
+     */
+    private final long hits;
+
+    /**
+     * The count of packets which were created because the recycler's pools were empty.
+     */
+    private final long misses;
+
+    /**
+     * The count of packets which were stored to the recycler's pools and their return queues.
+     */
+    private final long recycled;
+
+    /**
+     * The count of packets which were dropped because the recycler's pools or their return queues were full.
+     */
+    private final long dropped;
+
+    /**
+     * The count of packets which are retained by the recycler's pools and their return queues.
+     */
+    private final long retained;
+
+    /**
+     * Get a ratio of taken packets which were reused.
+     *
+     * @return the hit ratio from 0 to 1.
+     */
+    public double getHitRatio() {
+        var taken = hits + misses;
+        return taken == 0 ? 0 : (double) hits / taken;
+    }
+}
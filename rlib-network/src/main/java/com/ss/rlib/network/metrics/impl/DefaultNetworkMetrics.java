@@ -0,0 +1,276 @@
+package com.ss.rlib.network.metrics.impl;
+
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.metrics.HistogramSnapshot;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.metrics.NetworkMetricsSnapshot;
+import com.ss.rlib.network.packet.IdBasedPacket;
+import com.ss.rlib.network.packet.Packet;
+import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The default implementation of {@link NetworkMetrics} based on {@link LongAdder} counters. Metrics of
+ * connections have only own counters, counts by packet ids and histograms are collected only by metrics
+ * of a network to keep connections light.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class DefaultNetworkMetrics implements NetworkMetrics {
+
+    protected final @Nullable DefaultNetworkMetrics parent;
+
+    protected final @NotNull LongAdder receivedBytes;
+    protected final @NotNull LongAdder sentBytes;
+    protected final @NotNull LongAdder receivedPackets;
+    protected final @NotNull LongAdder sentPackets;
+    protected final @NotNull LongAdder pendingPackets;
+    protected final @NotNull LongAdder partialReads;
+    protected final @NotNull LongAdder tempBufferAllocations;
+    protected final @NotNull LongAdder compressedPackets;
+    protected final @NotNull LongAdder compressionSavedBytes;
+    protected final @NotNull LongAdder acceptedConnections;
+    protected final @NotNull LongAdder sslHandshakes;
+    protected final @NotNull LongAdder sslDelegatedTasks;
+
+    protected final @Nullable Map<Integer, LongAdder> receivedPacketsById;
+    protected final @Nullable Map<Integer, LongAdder> sentPacketsById;
+    protected final @Nullable Histogram writeTime;
+    protected final @Nullable Histogram handleTime;
+    protected final @Nullable Histogram sslHandshakeDuration;
+    protected final @Nullable Histogram sslDelegatedTaskDuration;
+
+    public DefaultNetworkMetrics() {
+        this(null);
+    }
+
+    protected DefaultNetworkMetrics(@Nullable DefaultNetworkMetrics parent) {
+        this.parent = parent;
+        this.receivedBytes = new LongAdder();
+        this.sentBytes = new LongAdder();
+        this.receivedPackets = new LongAdder();
+        this.sentPackets = new LongAdder();
+        this.pendingPackets = new LongAdder();
+        this.partialReads = new LongAdder();
+        this.tempBufferAllocations = new LongAdder();
+        this.compressedPackets = new LongAdder();
+        this.compressionSavedBytes = new LongAdder();
+        this.acceptedConnections = new LongAdder();
+        this.sslHandshakes = new LongAdder();
+        this.sslDelegatedTasks = new LongAdder();
+
+        if (parent == null) {
+            this.receivedPacketsById = new ConcurrentHashMap<>();
+            this.sentPacketsById = new ConcurrentHashMap<>();
+            this.writeTime = new Histogram();
+            this.handleTime = new Histogram();
+            this.sslHandshakeDuration = new Histogram();
+            this.sslDelegatedTaskDuration = new Histogram();
+        } else {
+            this.receivedPacketsById = null;
+            this.sentPacketsById = null;
+            this.writeTime = null;
+            this.handleTime = null;
+            this.sslHandshakeDuration = null;
+            this.sslDelegatedTaskDuration = null;
+        }
+    }
+
+    @Override
+    public @NotNull NetworkMetrics forConnection(@NotNull Connection<?, ?> connection) {
+        return new DefaultNetworkMetrics(this);
+    }
+
+    @Override
+    public void onReceivedBytes(int bytes) {
+
+        receivedBytes.add(bytes);
+
+        if (parent != null) {
+            parent.onReceivedBytes(bytes);
+        }
+    }
+
+    @Override
+    public void onSentBytes(long bytes) {
+
+        sentBytes.add(bytes);
+
+        if (parent != null) {
+            parent.onSentBytes(bytes);
+        }
+    }
+
+    @Override
+    public void onReceivedPacket(@NotNull ReadablePacket packet, long handleTime) {
+
+        receivedPackets.increment();
+
+        if (parent != null) {
+            parent.onReceivedPacket(packet, handleTime);
+        } else {
+            incrementById(receivedPacketsById, packet);
+            record(this.handleTime, handleTime);
+        }
+    }
+
+    @Override
+    public void onSentPacket(@NotNull WritablePacket packet, long writeTime) {
+
+        sentPackets.increment();
+
+        if (parent != null) {
+            parent.onSentPacket(packet, writeTime);
+        } else {
+            incrementById(sentPacketsById, packet);
+            record(this.writeTime, writeTime);
+        }
+    }
+
+    @Override
+    public void onPacketQueued() {
+
+        pendingPackets.increment();
+
+        if (parent != null) {
+            parent.onPacketQueued();
+        }
+    }
+
+    @Override
+    public void onPacketDequeued() {
+
+        pendingPackets.decrement();
+
+        if (parent != null) {
+            parent.onPacketDequeued();
+        }
+    }
+
+    @Override
+    public void onPartialRead() {
+
+        partialReads.increment();
+
+        if (parent != null) {
+            parent.onPartialRead();
+        }
+    }
+
+    @Override
+    public void onTempBufferAllocated(int bufferSize) {
+
+        tempBufferAllocations.increment();
+
+        if (parent != null) {
+            parent.onTempBufferAllocated(bufferSize);
+        }
+    }
+
+    @Override
+    public void onCompressedPacket(int size, int compressedSize) {
+
+        compressedPackets.increment();
+        compressionSavedBytes.add(size - compressedSize);
+
+        if (parent != null) {
+            parent.onCompressedPacket(size, compressedSize);
+        }
+    }
+
+    @Override
+    public void onSslHandshakeFinished(long duration) {
+
+        sslHandshakes.increment();
+
+        if (parent != null) {
+            parent.onSslHandshakeFinished(duration);
+        } else {
+            record(sslHandshakeDuration, duration);
+        }
+    }
+
+    @Override
+    public void onSslDelegatedTask(long duration) {
+
+        sslDelegatedTasks.increment();
+
+        if (parent != null) {
+            parent.onSslDelegatedTask(duration);
+        } else {
+            record(sslDelegatedTaskDuration, duration);
+        }
+    }
+
+    @Override
+    public void onAcceptedConnection() {
+
+        acceptedConnections.increment();
+
+        if (parent != null) {
+            parent.onAcceptedConnection();
+        }
+    }
+
+    @Override
+    public @NotNull NetworkMetricsSnapshot snapshot() {
+        return NetworkMetricsSnapshot.builder()
+            .receivedBytes(receivedBytes.sum())
+            .sentBytes(sentBytes.sum())
+            .receivedPackets(receivedPackets.sum())
+            .sentPackets(sentPackets.sum())
+            .pendingPackets(pendingPackets.sum())
+            .partialReads(partialReads.sum())
+            .tempBufferAllocations(tempBufferAllocations.sum())
+            .compressedPackets(compressedPackets.sum())
+            .compressionSavedBytes(compressionSavedBytes.sum())
+            .acceptedConnections(acceptedConnections.sum())
+            .sslHandshakes(sslHandshakes.sum())
+            .sslDelegatedTasks(sslDelegatedTasks.sum())
+            .receivedPacketsById(snapshot(receivedPacketsById))
+            .sentPacketsById(snapshot(sentPacketsById))
+            .writeTime(snapshot(writeTime))
+            .handleTime(snapshot(handleTime))
+            .sslHandshakeDuration(snapshot(sslHandshakeDuration))
+            .sslDelegatedTaskDuration(snapshot(sslDelegatedTaskDuration))
+            .build();
+    }
+
+    protected void incrementById(@Nullable Map<Integer, LongAdder> counters, @NotNull Packet packet) {
+        if (counters != null && packet instanceof IdBasedPacket) {
+            counters.computeIfAbsent(((IdBasedPacket) packet).getPacketId(), id -> new LongAdder())
+                .increment();
+        }
+    }
+
+    protected void record(@Nullable Histogram histogram, long value) {
+        if (histogram != null) {
+            histogram.record(value);
+        }
+    }
+
+    protected @NotNull Map<Integer, Long> snapshot(@Nullable Map<Integer, LongAdder> counters) {
+
+        if (counters == null) {
+            return Map.of();
+        }
+
+        var result = new HashMap<Integer, Long>();
+
+        counters.forEach((id, counter) -> result.put(id, counter.sum()));
+
+        return Map.copyOf(result);
+    }
+
+    protected @NotNull HistogramSnapshot snapshot(@Nullable Histogram histogram) {
+        return histogram == null ? HistogramSnapshot.EMPTY : histogram.snapshot();
+    }
+}
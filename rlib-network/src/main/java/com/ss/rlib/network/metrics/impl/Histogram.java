@@ -0,0 +1,62 @@
+package com.ss.rlib.network.metrics.impl;
+
+import com.ss.rlib.network.metrics.HistogramSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The concurrent histogram with log-linear buckets which are described in {@link HistogramSnapshot}.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class Histogram {
+
+    private final @NotNull AtomicLongArray counts;
+    private final @NotNull LongAdder sum;
+    private final @NotNull AtomicLong max;
+
+    public Histogram() {
+        this.counts = new AtomicLongArray(HistogramSnapshot.BUCKETS);
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record the value, negative values are ignored.
+     *
+     * @param value the value.
+     */
+    public void record(long value) {
+
+        if (value < 0) {
+            return;
+        }
+
+        counts.incrementAndGet(HistogramSnapshot.bucketOf(value));
+        sum.add(value);
+
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Take a snapshot of this histogram.
+     *
+     * @return the snapshot.
+     */
+    public @NotNull HistogramSnapshot snapshot() {
+
+        var values = new long[counts.length()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counts.get(i);
+        }
+
+        return new HistogramSnapshot(values, sum.sum(), max.get());
+    }
+}
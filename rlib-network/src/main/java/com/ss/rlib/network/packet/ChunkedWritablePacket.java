@@ -0,0 +1,37 @@
+package com.ss.rlib.network.packet;
+
+/**
+ * The interface to implement a writable packet which writes its data by chunks. Each chunk is serialized to
+ * a write buffer as a separated packet, so big data is sent without buffers of the data's size. Next chunks
+ * are interleaved with other packets of the connection, but not with chunks of other chunked packets, and
+ * the packet is sent when its last chunk is written.
+ * Chunked packets keep the state of writing, so they can't be sent by several connections.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface ChunkedWritablePacket extends WritablePacket {
+
+    /**
+     * The flag of the first chunk, its data starts with the total length of the packet's data.
+     */
+    int FIRST_CHUNK = 1;
+
+    /**
+     * The flag of the last chunk.
+     */
+    int LAST_CHUNK = 2;
+
+    /**
+     * The flag of the last chunk which is written after a failed reading of the packet's data, it contains
+     * data which was read before the failure, or no data if the chunk itself failed to be written.
+     */
+    int ABORTED = 4;
+
+    /**
+     * Return true if the last chunk of this packet is written.
+     *
+     * @return true if the last chunk of this packet is written.
+     */
+    boolean isLastChunkWritten();
+}
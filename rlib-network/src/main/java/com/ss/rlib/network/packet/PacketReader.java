@@ -10,6 +10,23 @@ public interface PacketReader {
      */
     void startRead();
 
+    /**
+     * Pause receiving new data after handling already received data, every pause should be followed by
+     * {@link #resumeRead()}. Receiving is paused while at least one pause isn't resumed.
+     *
+     * @since 9.10.0
+     */
+    default void pauseRead() {
+    }
+
+    /**
+     * Resume receiving new data which was paused by {@link #pauseRead()}.
+     *
+     * @since 9.10.0
+     */
+    default void resumeRead() {
+    }
+
     /**
      * Close all used resources.
      */
@@ -0,0 +1,65 @@
+package com.ss.rlib.network.packet;
+
+import com.ss.rlib.common.util.pools.Pool;
+import com.ss.rlib.common.util.pools.Reusable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a reusable readable packet. A connection releases a received packet after all its
+ * subscribers have handled it, so a subscriber which uses the packet later should retain it and release it
+ * after using. Streams of received packets retain a packet while it's buffered and release it after emitting it
+ * to their subscribers. The packet is cleaned by {@link #free()} and stored to its pool when it's released by all.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public interface ReusableReadablePacket extends ReadablePacket, Reusable {
+
+    /**
+     * Take a new reference to the packet if it's reusable.
+     *
+     * @param packet the packet.
+     */
+    static void retainIfReusable(@NotNull ReadablePacket packet) {
+        if (packet instanceof ReusableReadablePacket) {
+            ((ReusableReadablePacket) packet).retain();
+        }
+    }
+
+    /**
+     * Release a reference to the packet if it's reusable.
+     *
+     * @param packet the packet.
+     */
+    static void releaseIfReusable(@NotNull ReadablePacket packet) {
+        if (packet instanceof ReusableReadablePacket) {
+            ((ReusableReadablePacket) packet).release();
+        }
+    }
+
+    /**
+     * Take a new reference to this packet.
+     */
+    void retain();
+
+    /**
+     * Take the first reference to this packet which is just created or taken from its pool, so the packet isn't
+     * shared with other threads yet.
+     */
+    default void retainFirst() {
+        retain();
+    }
+
+    /**
+     * Release a reference to this packet and store it to its pool if it was the last reference.
+     */
+    @Override
+    void release();
+
+    /**
+     * Set the pool.
+     *
+     * @param pool the pool to store released packet.
+     */
+    void setPool(@NotNull Pool<ReusableReadablePacket> pool);
+}
@@ -1,6 +1,8 @@
 package com.ss.rlib.network.packet;
 
 import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.util.EncodedString;
+import com.ss.rlib.network.util.EncodingUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.BufferOverflowException;
@@ -123,6 +125,80 @@ public interface WritablePacket extends Packet {
         }
     }
 
+    /**
+     * Write the unsigned int by 1-5 bytes, negative values take 5 bytes.
+     *
+     * @param buffer the buffer.
+     * @param value  the value.
+     * @since 9.10.0
+     */
+    default void writeVarInt(@NotNull ByteBuffer buffer, int value) {
+        EncodingUtils.writeVarInt(buffer, value);
+    }
+
+    /**
+     * Write the signed int by 1-5 bytes using zigzag encoding, values with small absolute values take less bytes.
+     *
+     * @param buffer the buffer.
+     * @param value  the value.
+     * @since 9.10.0
+     */
+    default void writeSignedVarInt(@NotNull ByteBuffer buffer, int value) {
+        EncodingUtils.writeVarInt(buffer, EncodingUtils.encodeZigZag(value));
+    }
+
+    /**
+     * Write the unsigned long by 1-10 bytes, negative values take 10 bytes.
+     *
+     * @param buffer the buffer.
+     * @param value  the value.
+     * @since 9.10.0
+     */
+    default void writeVarLong(@NotNull ByteBuffer buffer, long value) {
+        EncodingUtils.writeVarLong(buffer, value);
+    }
+
+    /**
+     * Write the signed long by 1-10 bytes using zigzag encoding, values with small absolute values take less bytes.
+     *
+     * @param buffer the buffer.
+     * @param value  the value.
+     * @since 9.10.0
+     */
+    default void writeSignedVarLong(@NotNull ByteBuffer buffer, long value) {
+        EncodingUtils.writeVarLong(buffer, EncodingUtils.encodeZigZag(value));
+    }
+
+    /**
+     * Write the string encoded to UTF-8 with varint count of encoded bytes.
+     *
+     * @param buffer the buffer.
+     * @param string the string for writing.
+     * @since 9.10.0
+     */
+    default void writeUtf8String(@NotNull ByteBuffer buffer, @NotNull String string) {
+        try {
+            EncodingUtils.writeUtf8(buffer, string);
+        } catch (BufferOverflowException ex) {
+            LoggerManager.getLogger(WritablePacket.class)
+                .error("Cannot write a string to buffer because the string is too long." +
+                    " String length: " + string.length() + ", buffer: " + buffer);
+            throw ex;
+        }
+    }
+
+    /**
+     * Write the already encoded string, it's written in the same format as
+     * {@link #writeUtf8String(ByteBuffer, String)} does it.
+     *
+     * @param buffer the buffer.
+     * @param string the encoded string.
+     * @since 9.10.0
+     */
+    default void writeUtf8String(@NotNull ByteBuffer buffer, @NotNull EncodedString string) {
+        string.write(buffer);
+    }
+
     /**
      * Write a data buffer to packet buffer.
      *
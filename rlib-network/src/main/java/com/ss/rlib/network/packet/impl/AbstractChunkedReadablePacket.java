@@ -0,0 +1,71 @@
+package com.ss.rlib.network.packet.impl;
+
+import static com.ss.rlib.network.packet.ChunkedWritablePacket.*;
+import com.ss.rlib.network.impl.DefaultConnection;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The base implementation of a readable chunk of {@link AbstractChunkedWritablePacket}. Data of each chunk
+ * is passed to {@link #readChunk(DefaultConnection, ByteBuffer)} while reading, so the receiver doesn't need
+ * buffers of the total data's size.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public abstract class AbstractChunkedReadablePacket extends DefaultReadablePacket {
+
+    protected int flags;
+
+    /**
+     * The total length of data, it's known only in the first chunk.
+     */
+    protected long dataLength = -1;
+
+    @Override
+    protected void readImpl(@NotNull DefaultConnection connection, @NotNull ByteBuffer buffer) {
+
+        flags = readByte(buffer);
+
+        if (isFirstChunk()) {
+            dataLength = readLong(buffer);
+        }
+
+        readChunk(connection, buffer);
+    }
+
+    /**
+     * Read data of this chunk, the buffer isn't available after returning from this method.
+     *
+     * @param connection the network connection.
+     * @param buffer     the buffer with data of this chunk from its position to its limit.
+     */
+    protected abstract void readChunk(@NotNull DefaultConnection connection, @NotNull ByteBuffer buffer);
+
+    public boolean isFirstChunk() {
+        return (flags & FIRST_CHUNK) != 0;
+    }
+
+    public boolean isLastChunk() {
+        return (flags & LAST_CHUNK) != 0;
+    }
+
+    /**
+     * Return true if the sender failed reading data, so this last chunk completes not all data.
+     *
+     * @return true if the sending was aborted.
+     */
+    public boolean isAborted() {
+        return (flags & ABORTED) != 0;
+    }
+
+    /**
+     * Get the total length of data if it's the first chunk.
+     *
+     * @return the total length of data or -1.
+     */
+    public long getDataLength() {
+        return dataLength;
+    }
+}
@@ -0,0 +1,132 @@
+package com.ss.rlib.network.packet.impl;
+
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.packet.ChunkedWritablePacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The base implementation of {@link ChunkedWritablePacket}. Each chunk is written as the byte of flags,
+ * the long total length of data in the first chunk and the next part of data which fits to the write buffer.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public abstract class AbstractChunkedWritablePacket extends DefaultWritablePacket implements ChunkedWritablePacket {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(AbstractChunkedWritablePacket.class);
+
+    /**
+     * The total length of data.
+     */
+    protected final long dataLength;
+
+    /**
+     * The count of already written bytes of data.
+     */
+    protected long writtenBytes;
+
+    protected boolean started;
+    protected boolean lastChunkWritten;
+
+    protected AbstractChunkedWritablePacket(long dataLength) {
+        this.dataLength = dataLength;
+    }
+
+    @Override
+    public boolean isLastChunkWritten() {
+        return lastChunkWritten;
+    }
+
+    @Override
+    public boolean write(@NotNull ByteBuffer buffer) {
+
+        var position = buffer.position();
+        var limit = buffer.limit();
+        var firstChunk = !started;
+
+        if (super.write(buffer)) {
+            return true;
+        }
+
+        // the chunk is replaced by the aborted last chunk without data, so the receiver finishes reading
+        lastChunkWritten = true;
+
+        try {
+
+            buffer.limit(limit).position(position);
+
+            if (firstChunk) {
+                writeByte(buffer, FIRST_CHUNK | LAST_CHUNK | ABORTED);
+                writeLong(buffer, dataLength);
+            } else {
+                writeByte(buffer, LAST_CHUNK | ABORTED);
+            }
+
+            return true;
+
+        } catch (Exception e) {
+            handleException(buffer, e);
+            return false;
+        }
+    }
+
+    @Override
+    protected void writeImpl(@NotNull ByteBuffer buffer) {
+
+        var flagsPosition = buffer.position();
+        var flags = started ? 0 : FIRST_CHUNK;
+
+        writeByte(buffer, 0);
+
+        if (!started) {
+            writeLong(buffer, dataLength);
+            started = true;
+        }
+
+        var dataPosition = buffer.position();
+        var limit = buffer.limit();
+        var chunkSize = (int) Math.min(buffer.remaining(), dataLength - writtenBytes);
+
+        try {
+
+            buffer.limit(dataPosition + chunkSize);
+
+            writeChunk(buffer, writtenBytes);
+
+            if (buffer.hasRemaining()) {
+                throw new IOException("Data was ended after " + (writtenBytes + buffer.position() - dataPosition) +
+                    " bytes of " + dataLength);
+            }
+
+        } catch (IOException e) {
+            // the last chunk contains data which was read before the failure
+            LOGGER.warning(e);
+            flags |= ABORTED | LAST_CHUNK;
+        } finally {
+            writtenBytes += buffer.position() - dataPosition;
+            buffer.limit(limit);
+        }
+
+        if (writtenBytes >= dataLength) {
+            flags |= LAST_CHUNK;
+        }
+
+        lastChunkWritten = (flags & LAST_CHUNK) != 0;
+
+        buffer.put(flagsPosition, (byte) flags);
+    }
+
+    /**
+     * Write a next part of data to the buffer up to its limit, the part isn't completed if an exception
+     * is thrown, so data which is already written to the buffer is sent by the aborted last chunk.
+     *
+     * @param buffer the buffer.
+     * @param offset the offset of the part in data.
+     * @throws IOException if data can't be read.
+     */
+    protected abstract void writeChunk(@NotNull ByteBuffer buffer, long offset) throws IOException;
+}
@@ -26,9 +26,9 @@ public abstract class AbstractPacket implements Packet {
     protected void handleException(@NotNull ByteBuffer buffer, @NotNull Exception exception) {
         LOGGER.warning(exception);
 
-        if (buffer.isDirect()) {
+        if (!buffer.hasArray()) {
             var array = new byte[buffer.limit()];
-            buffer.get(array, 0, buffer.limit());
+            buffer.get(0, array, 0, buffer.limit());
             LOGGER.warning(getName() + " -> buffer: " + buffer + "\n" + hexDump(array, array.length));
         } else {
             LOGGER.warning(getName() + " -> buffer: " + buffer + "\n" + hexDump(buffer.array(), buffer.limit()));
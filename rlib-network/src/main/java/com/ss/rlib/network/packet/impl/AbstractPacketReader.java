@@ -8,8 +8,12 @@ import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.PacketCompressor;
+import com.ss.rlib.network.capture.TrafficRecorder;
+import com.ss.rlib.network.metrics.NetworkMetrics;
 import com.ss.rlib.network.packet.PacketReader;
 import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.util.EncodingUtils;
 import com.ss.rlib.network.util.NetworkUtils;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -22,6 +26,7 @@ import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.CompletionHandler;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -49,21 +54,60 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
 
     protected final @NotNull AtomicBoolean isReading = new AtomicBoolean(false);
 
+    /**
+     * The count of not resumed pauses of reading.
+     */
+    protected final @NotNull AtomicInteger readPauses = new AtomicInteger();
+
     protected final @NotNull C connection;
     protected final @NotNull AsynchronousSocketChannel channel;
     protected final @NotNull BufferAllocator bufferAllocator;
 
     protected final @NotNull ByteBuffer readBuffer;
+    protected final @NotNull ByteBuffer readOnlyReadBuffer;
     protected final @NotNull ByteBuffer pendingBuffer;
 
     protected final @NotNull Runnable updateActivityFunction;
     protected final @NotNull Consumer<? super R> readPacketHandler;
+    protected final @NotNull NetworkMetrics metrics;
+
+    /**
+     * The recorder of received bytes or null if traffic isn't captured.
+     */
+    protected final @Nullable TrafficRecorder trafficRecorder;
+
+    /**
+     * The compressor of packets or null if compression is disabled.
+     */
+    protected final @Nullable PacketCompressor compressor;
+
+    /**
+     * The buffer to decompress data of received packets.
+     */
+    protected @Nullable ByteBuffer decompressBuffer;
 
     @Getter(AccessLevel.PROTECTED)
     @Setter(AccessLevel.PROTECTED)
     protected volatile @Nullable ByteBuffer tempPendingBuffer;
 
+    /**
+     * The max count of packets which are read by one pass over buffered data. It doesn't limit packets
+     * which are read by one completion of reading from the channel: while a pass reaches it, the next pass
+     * reads the rest of already received data.
+     */
     protected final int maxPacketsByRead;
+    protected final boolean inPlaceReading;
+    protected final boolean metricsEnabled;
+
+    /**
+     * True if the read buffer has a size which is requested by a subclass instead of the configured size.
+     */
+    private final boolean sizedReadBuffer;
+
+    /**
+     * The time in nanoseconds when the last data was received.
+     */
+    protected long receivedTime;
 
     protected AbstractPacketReader(
         @NotNull C connection,
@@ -72,25 +116,97 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
         @NotNull Runnable updateActivityFunction,
         @NotNull NotNullConsumer<? super R> readPacketHandler,
         int maxPacketsByRead
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            maxPacketsByRead,
+            false
+        );
+    }
+
+    protected AbstractPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<? super R> readPacketHandler,
+        int maxPacketsByRead,
+        boolean inPlaceReading
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            maxPacketsByRead,
+            inPlaceReading,
+            -1
+        );
+    }
+
+    /**
+     * @param readBufferSize the size of the read buffer or -1 to take a read buffer of the configured size.
+     * @since 9.10.0
+     */
+    protected AbstractPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<? super R> readPacketHandler,
+        int maxPacketsByRead,
+        boolean inPlaceReading,
+        int readBufferSize
     ) {
         this.connection = connection;
         this.channel = channel;
         this.bufferAllocator = bufferAllocator;
-        this.readBuffer = bufferAllocator.takeReadBuffer();
+        this.sizedReadBuffer = readBufferSize > 0;
+        this.readBuffer = sizedReadBuffer ? bufferAllocator.takeBuffer(readBufferSize) :
+            bufferAllocator.takeReadBuffer();
+        this.readOnlyReadBuffer = readBuffer.asReadOnlyBuffer().order(readBuffer.order());
         this.pendingBuffer = bufferAllocator.takePendingBuffer();
         this.updateActivityFunction = updateActivityFunction;
         this.readPacketHandler = readPacketHandler;
         this.maxPacketsByRead = maxPacketsByRead;
+        this.inPlaceReading = inPlaceReading;
+        this.metrics = connection.getMetrics();
+        this.metricsEnabled = metrics.isEnabled();
+        this.trafficRecorder = connection.getTrafficRecorder();
+        this.compressor = connection.getPacketCompressor();
     }
 
     protected @NotNull ByteBuffer getBufferToReadFromChannel() {
+        return inPlaceReading ? getBufferToReadInPlace() : readBuffer;
+    }
+
+    /**
+     * Get a buffer to append next data of packets which are read in place, it's the temp buffer if we are
+     * receiving a big packet or the read buffer.
+     *
+     * @return the buffer to append next data.
+     * @since 9.10.0
+     */
+    protected @NotNull ByteBuffer getBufferToReadInPlace() {
+
+        var tempPendingBuffer = getTempPendingBuffer();
+
+        if (tempPendingBuffer != null) {
+            return tempPendingBuffer;
+        }
+
         return readBuffer;
     }
 
     @Override
     public void startRead() {
 
-        if (!isReading.compareAndSet(false, true)) {
+        if (readPauses.get() > 0 || !isReading.compareAndSet(false, true)) {
             return;
         }
 
@@ -101,6 +217,23 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
         channel.read(buffer, buffer, readHandler);
     }
 
+    @Override
+    public void pauseRead() {
+        readPauses.incrementAndGet();
+    }
+
+    /**
+     * Resume reading, if reading was paused between reads, the last resume starts waiting for new data.
+     * The reading flag is released before checking pauses by {@link #continueReading()}, so one of them
+     * starts reading.
+     */
+    @Override
+    public void resumeRead() {
+        if (readPauses.decrementAndGet() <= 0 && !connection.isClosed()) {
+            startRead();
+        }
+    }
+
     /**
      * Read packets from the buffer with received data.
      *
@@ -108,7 +241,178 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
      * @return count of read packets.
      */
     protected int readPackets(@NotNull ByteBuffer receivedBuffer) {
-        return readPackets(receivedBuffer, pendingBuffer);
+
+        if (!inPlaceReading) {
+            return readAllPackets(receivedBuffer, pendingBuffer);
+        }
+
+        return readAllPacketsInPlace(receivedBuffer);
+    }
+
+    /**
+     * Read packets in place of the buffer with received data and continue reading while the limit of packets
+     * by one read is reached, because packets over the limit stay in the buffer, but they can be already
+     * fully received.
+     *
+     * @param receivedBuffer the buffer with received data.
+     * @return count of read packets.
+     * @since 9.10.0
+     */
+    protected int readAllPacketsInPlace(@NotNull ByteBuffer receivedBuffer) {
+
+        var readPackets = readPacketsInPlace(receivedBuffer);
+        var total = readPackets;
+
+        while (readPackets >= getMaxPacketsByRead()) {
+            readPackets = readPacketsInPlace(getBufferToReadInPlace().flip());
+            total += readPackets;
+        }
+
+        return total;
+    }
+
+    /**
+     * Read packets from the buffer with received data and continue reading pending data while the limit of
+     * packets by one read is reached, because not read packets can be already fully received and no new data
+     * will come to trigger reading them.
+     *
+     * @param receivedBuffer the buffer with received data.
+     * @param pendingBuffer  the buffer with pending data from prev. received buffer.
+     * @return count of read packets.
+     */
+    protected int readAllPackets(@NotNull ByteBuffer receivedBuffer, @NotNull ByteBuffer pendingBuffer) {
+
+        var readPackets = readPackets(receivedBuffer, pendingBuffer);
+        var total = readPackets;
+
+        while (readPackets >= getMaxPacketsByRead()) {
+            // the received buffer is already cleared, so only pending data will be read
+            readPackets = readPackets(receivedBuffer.flip(), pendingBuffer);
+            total += readPackets;
+        }
+
+        return total;
+    }
+
+    /**
+     * Read packets in place of the buffer with received data. Not read data of an incomplete packet stays
+     * in the buffer and next received data is appended to it, if the incomplete packet is bigger than
+     * the buffer, the data is moved once to a temp buffer which receives the rest of the packet and
+     * the beginning of next packets which are moved back to the read buffer after.
+     *
+     * @param receivedBuffer the buffer with received data.
+     * @return count of read packets.
+     */
+    protected int readPacketsInPlace(@NotNull ByteBuffer receivedBuffer) {
+
+        LOGGER.debug(receivedBuffer, buf -> "Start reading packets in place of received buffer " + buf);
+
+        var maxPacketsByRead = getMaxPacketsByRead();
+        var packetData = receivedBuffer == readBuffer ? readOnlyReadBuffer :
+            receivedBuffer.asReadOnlyBuffer().order(receivedBuffer.order());
+
+        var readPackets = 0;
+        var waitedPacketLength = -1;
+
+        while (canStartReadPacket(receivedBuffer) && readPackets < maxPacketsByRead) {
+
+            var startPosition = receivedBuffer.position();
+            var packetLength = readPacketLength(receivedBuffer);
+            var dataLength = getDataLength(packetLength, receivedBuffer.position() - startPosition, receivedBuffer);
+            var endPosition = startPosition + packetLength;
+
+            // if the packet isn't full presented in this buffer
+            if (packetLength == -1 || endPosition > receivedBuffer.limit()) {
+
+                receivedBuffer.position(startPosition);
+                waitedPacketLength = packetLength;
+
+                if (metricsEnabled) {
+                    metrics.onPartialRead();
+                }
+
+                break;
+            }
+
+            var cryptor = connection.getCryptor();
+
+            // the packet's length header isn't encrypted
+            if (cryptor != null) {
+                cryptor.decrypt(receivedBuffer, receivedBuffer.position(), endPosition - receivedBuffer.position());
+            }
+
+            var frameBuffer = receivedBuffer;
+
+            if (compressor != null) {
+                var bodyLength = endPosition - receivedBuffer.position();
+                frameBuffer = decompress(receivedBuffer, endPosition);
+                dataLength = frameBuffer == receivedBuffer ? dataLength - 1 :
+                    dataLength - bodyLength + frameBuffer.remaining();
+            }
+
+            R packet = createPacketFor(frameBuffer, startPosition, packetLength, dataLength);
+
+            if (packet != null) {
+
+                LOGGER.debug(packet, pck -> "Created instance of packet to read data: " + pck);
+
+                if (frameBuffer == receivedBuffer) {
+
+                    // packet's data is available as a read-only view of the received buffer
+                    packetData
+                        .limit(endPosition)
+                        .position(receivedBuffer.position());
+
+                    frameBuffer = packetData;
+                }
+
+                readAndHandlePacket(frameBuffer, frameBuffer.remaining(), packet);
+                LOGGER.debug(packet, pck -> "Finished reading data of packet: " + pck);
+                readPackets++;
+
+            } else {
+                LOGGER.warning("Cannot create any instance of packet to read data");
+            }
+
+            receivedBuffer.position(endPosition);
+        }
+
+        if (receivedBuffer == readBuffer) {
+
+            if (!receivedBuffer.hasRemaining()) {
+                receivedBuffer.clear();
+            } else if (waitedPacketLength > receivedBuffer.capacity()) {
+                allocTempBuffers(receivedBuffer, waitedPacketLength);
+                receivedBuffer.clear();
+            } else {
+                receivedBuffer.compact();
+            }
+
+        } else if (!receivedBuffer.hasRemaining()) {
+            freeTempBuffers();
+        } else if (waitedPacketLength <= readBuffer.capacity() && receivedBuffer.remaining() <= readBuffer.capacity()) {
+
+            readBuffer
+                .clear()
+                .put(receivedBuffer);
+
+            LOGGER.debug(readBuffer, buf -> "Moved pending data from temp buffer back to read buffer: " + buf);
+
+            freeTempBuffers();
+
+        } else if (waitedPacketLength > receivedBuffer.capacity()) {
+            reAllocTempBuffers(receivedBuffer, waitedPacketLength);
+        } else {
+            receivedBuffer.compact();
+        }
+
+        LOGGER.debug(
+            channel,
+            readPackets,
+            (ch, count) -> "Read " + count + " packets in place of received buffer of " + getRemoteAddress(ch) + "."
+        );
+
+        return readPackets;
     }
 
     /**
@@ -211,6 +515,10 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
 
                 bufferToRead.position(positionBeforeRead);
 
+                if (metricsEnabled) {
+                    metrics.onPartialRead();
+                }
+
                 // if we read the received buffer we need to put
                 // not read data to the pending buffer or big mapped byte buffer
                 if (bufferToRead == receivedBuffer) {
@@ -274,11 +582,33 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
                 return readPackets;
             }
 
-            R packet = createPacketFor(bufferToRead, positionBeforeRead, packetLength, dataLength);
+            var cryptor = connection.getCryptor();
+
+            // the packet's length header isn't encrypted
+            if (cryptor != null) {
+                cryptor.decrypt(bufferToRead, bufferToRead.position(), endPosition - bufferToRead.position());
+            }
+
+            var frameBuffer = bufferToRead;
+
+            if (compressor != null) {
+                var bodyLength = endPosition - bufferToRead.position();
+                frameBuffer = decompress(bufferToRead, endPosition);
+                dataLength = frameBuffer == bufferToRead ? dataLength - 1 :
+                    dataLength - bodyLength + frameBuffer.remaining();
+            }
+
+            R packet = createPacketFor(frameBuffer, positionBeforeRead, packetLength, dataLength);
 
             if (packet != null) {
+
                 LOGGER.debug(packet, pck -> "Created instance of packet to read data: " + pck);
-                readAndHandlePacket(bufferToRead, dataLength, packet);
+
+                // headers of the packet's body, such as the packet's id, are already read
+                dataLength = frameBuffer == bufferToRead ? endPosition - frameBuffer.position() :
+                    frameBuffer.remaining();
+
+                readAndHandlePacket(frameBuffer, dataLength, packet);
                 LOGGER.debug(packet, pck -> "Finished reading data of packet: " + pck);
                 readPackets++;
             } else {
@@ -315,12 +645,76 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
 
     protected void readAndHandlePacket(@NotNull ByteBuffer bufferToRead, int dataLength, @NotNull R packet) {
         if (packet.read(connection, bufferToRead, dataLength)) {
+
             readPacketHandler.accept(packet);
+
+            if (metricsEnabled) {
+                metrics.onReceivedPacket(packet, System.nanoTime() - receivedTime);
+            }
+
         } else {
             LOGGER.error("Packet " + packet + " was read incorrectly");
         }
     }
 
+    /**
+     * Read the compression flag of the packet and decompress the packet's data if it was compressed.
+     *
+     * @param buffer      the buffer with received data.
+     * @param endPosition the end position of the packet in the buffer.
+     * @return the same buffer if the packet's data wasn't compressed or the buffer with decompressed data.
+     * @throws IllegalStateException if the packet's data is broken.
+     * @since 9.10.0
+     */
+    protected @NotNull ByteBuffer decompress(@NotNull ByteBuffer buffer, int endPosition) {
+
+        var compressor = notNull(this.compressor);
+        var flag = buffer.get();
+
+        if (flag == PacketCompressor.NOT_COMPRESSED) {
+            return buffer;
+        } else if (flag != PacketCompressor.COMPRESSED) {
+            throw new IllegalStateException("Found unknown compression flag " + flag + " in buffer " + buffer);
+        }
+
+        var length = EncodingUtils.readVarInt(buffer);
+
+        if (length < 0 || length > compressor.getMaxDecompressedSize()) {
+            throw new IllegalStateException("Found too big compressed packet " + length + " in buffer " + buffer);
+        }
+
+        var decompressBuffer = this.decompressBuffer;
+
+        if (decompressBuffer == null || decompressBuffer.capacity() < length) {
+
+            if (decompressBuffer != null) {
+                bufferAllocator.putBuffer(decompressBuffer);
+            }
+
+            decompressBuffer = bufferAllocator.takeBuffer(Math.max(length, readBuffer.capacity()));
+
+            if (metricsEnabled) {
+                metrics.onTempBufferAllocated(decompressBuffer.capacity());
+            }
+
+            this.decompressBuffer = decompressBuffer;
+        }
+
+        var limit = buffer.limit();
+
+        decompressBuffer
+            .clear()
+            .limit(length);
+
+        try {
+            compressor.decompress(buffer.limit(endPosition), decompressBuffer);
+        } finally {
+            buffer.limit(limit);
+        }
+
+        return decompressBuffer.flip();
+    }
+
     /**
      * Check buffer's data.
      *
@@ -362,6 +756,10 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
 
         var newReadTempBuffer = bufferAllocator.takeBuffer(packetLength + readBuffer.capacity());
 
+        if (metricsEnabled) {
+            metrics.onTempBufferAllocated(newReadTempBuffer.capacity());
+        }
+
         LOGGER.debug(
             sourceBuffer,
             newReadTempBuffer,
@@ -385,6 +783,10 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
 
         var readTempBuffer = bufferAllocator.takeBuffer(packetLength + readBuffer.capacity());
 
+        if (metricsEnabled) {
+            metrics.onTempBufferAllocated(readTempBuffer.capacity());
+        }
+
         LOGGER.debug(
             sourceBuffer,
             readTempBuffer,
@@ -426,6 +828,15 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
             (bytes, ch) -> "Received " + bytes + " bytes from channel \"" + NetworkUtils.getRemoteAddress(ch) + "\""
         );
 
+        if (metricsEnabled) {
+            receivedTime = System.nanoTime();
+            metrics.onReceivedBytes(receivedBytes);
+        }
+
+        if (trafficRecorder != null) {
+            trafficRecorder.onReceived(readingBuffer, readingBuffer.position() - receivedBytes, receivedBytes);
+        }
+
         readingBuffer.flip();
         try {
             readPackets(readingBuffer);
@@ -433,6 +844,54 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
             LOGGER.error(e);
         }
 
+        continueReading();
+    }
+
+    /**
+     * Read packets from the data which wasn't received from the channel, such as replayed data of a capture.
+     * The data is delivered by parts with size of free space of the reader's buffer like the channel does it,
+     * so packets are read as if the data was received from the channel.
+     *
+     * @param data the data.
+     * @return count of read packets.
+     * @since 9.10.0
+     */
+    public int receive(@NotNull ByteBuffer data) {
+
+        var readPackets = 0;
+
+        while (data.hasRemaining()) {
+
+            var buffer = getBufferToReadFromChannel();
+            var length = Math.min(buffer.remaining(), data.remaining());
+
+            if (length == 0) {
+                throw new IllegalStateException("The reader's buffer has no space for received data");
+            }
+
+            buffer.put(buffer.position(), data, data.position(), length)
+                .position(buffer.position() + length)
+                .flip();
+
+            data.position(data.position() + length);
+
+            if (metricsEnabled) {
+                receivedTime = System.nanoTime();
+                metrics.onReceivedBytes(length);
+            }
+
+            readPackets += Math.max(readPackets(buffer), 0);
+        }
+
+        return readPackets;
+    }
+
+    /**
+     * Release the reading flag after handling received data and start waiting for new data.
+     *
+     * @since 9.10.0
+     */
+    protected void continueReading() {
         if (isReading.compareAndSet(true, false)) {
             startRead();
         }
@@ -454,9 +913,12 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
     }
 
     /**
-     * Get the how many packets can be read by the one method call {@link #readPackets(ByteBuffer, ByteBuffer)}}.
+     * Get the how many packets can be read by the one method call {@link #readPackets(ByteBuffer, ByteBuffer)}},
+     * it's a size of one pass over buffered data, not a limit of packets by one read from the channel, because
+     * passes are repeated while they read this count of packets.
      *
      * @return the how many packets can be read.
+     * @see #readAllPackets(ByteBuffer, ByteBuffer)
      */
     protected int getMaxPacketsByRead() {
         return maxPacketsByRead;
@@ -478,8 +940,8 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
     /**
      * Create a packet to read received data.
      *
-     * @param buffer              the buffer with received data.
-     * @param startPacketPosition the start position of the packet in the buffer.
+     * @param buffer              the buffer with received data or decompressed packet's data.
+     * @param startPacketPosition the start position of the packet in the buffer with received data.
      * @param packetLength        the length of packet.
      * @param dataLength          length of packet's data.
      * @return the readable packet.
@@ -494,10 +956,21 @@ public abstract class AbstractPacketReader<R extends ReadablePacket, C extends C
     @Override
     public void close() {
 
-        bufferAllocator
-            .putReadBuffer(readBuffer)
-            .putPendingBuffer(pendingBuffer);
+        if (sizedReadBuffer) {
+            bufferAllocator.putBuffer(readBuffer);
+        } else {
+            bufferAllocator.putReadBuffer(readBuffer);
+        }
+
+        bufferAllocator.putPendingBuffer(pendingBuffer);
 
         freeTempBuffers();
+
+        var decompressBuffer = this.decompressBuffer;
+
+        if (decompressBuffer != null) {
+            this.decompressBuffer = null;
+            bufferAllocator.putBuffer(decompressBuffer);
+        }
     }
 }
@@ -1,15 +1,24 @@
 package com.ss.rlib.network.packet.impl;
 
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import static com.ss.rlib.network.util.NetworkUtils.*;
 import com.ss.rlib.common.function.NotNullBiConsumer;
 import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.common.function.NullableSupplier;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
 import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.NetworkCryptor;
+import com.ss.rlib.network.PacketCompressor;
+import com.ss.rlib.network.capture.TrafficRecorder;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.packet.ChunkedWritablePacket;
 import com.ss.rlib.network.packet.PacketWriter;
 import com.ss.rlib.network.packet.WritablePacket;
+import com.ss.rlib.network.util.EncodingUtils;
 import com.ss.rlib.network.util.NetworkUtils;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
@@ -18,7 +27,10 @@ import org.jetbrains.annotations.Nullable;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.CompletionHandler;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author JavaSaBr
@@ -42,23 +54,87 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
         }
     };
 
+    private final CompletionHandler<Long, Array<WritablePacket>> batchWriteHandler = new CompletionHandler<>() {
+
+        @Override
+        public void completed(@NotNull Long result, @NotNull Array<WritablePacket> packets) {
+            handleSuccessfulBatchWriting(result, packets);
+        }
+
+        @Override
+        public void failed(@NotNull Throwable exc, @NotNull Array<WritablePacket> packets) {
+            handleFailedBatchWriting(exc, packets);
+        }
+    };
+
+    /**
+     * The max count of queued packets which are written between two chunks of a chunked packet.
+     *
+     * @since 9.10.0
+     */
+    protected static final int MAX_PACKETS_BETWEEN_CHUNKS = 8;
+
     protected final @NotNull AtomicBoolean isWriting = new AtomicBoolean();
 
+    /**
+     * The count of requests to write next packets, it's used to find requests which were missed while
+     * the writing flag was taken.
+     */
+    protected final @NotNull AtomicInteger writeRequests = new AtomicInteger();
+    protected final @NotNull Array<WritablePacket> writingBatch = ArrayFactory.newArray(WritablePacket.class);
+    protected final @NotNull ByteBuffer[] writingBuffers = {EMPTY_BUFFER, EMPTY_BUFFER};
+
+    /**
+     * The chunked packets which were polled while another chunked packet has not written chunks,
+     * they are accessed only by a holder of the writing flag.
+     */
+    protected final @NotNull Array<WritablePacket> waitingChunkedPackets = ArrayFactory.newArray(WritablePacket.class);
+
     protected final @NotNull C connection;
     protected final @NotNull AsynchronousSocketChannel channel;
     protected final @NotNull BufferAllocator bufferAllocator;
     protected final @NotNull ByteBuffer firstWriteBuffer;
     protected final @NotNull ByteBuffer secondWriteBuffer;
+    protected final @Nullable ByteBuffer batchWriteBuffer;
 
     protected volatile @Nullable ByteBuffer firstWriteTempBuffer;
     protected volatile @Nullable ByteBuffer secondWriteTempBuffer;
 
     protected volatile @NotNull ByteBuffer writingBuffer = EMPTY_BUFFER;
 
+    /**
+     * The chunked packet which has not written chunks, they are interleaved with other packets.
+     */
+    protected volatile @Nullable WritablePacket chunkedPacket;
+
+    /**
+     * The count of packets which were written after the last chunk of the chunked packet.
+     */
+    protected int packetsAfterChunk;
+
     protected final @NotNull Runnable updateActivityFunction;
     protected final @NotNull NullableSupplier<WritablePacket> nextWritePacketSupplier;
     protected final @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler;
     protected final @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler;
+    protected final @NotNull NetworkMetrics metrics;
+
+    /**
+     * The recorder of written bytes or null if traffic isn't captured.
+     */
+    protected final @Nullable TrafficRecorder trafficRecorder;
+
+    /**
+     * The compressor of packets or null if compression is disabled.
+     */
+    protected final @Nullable PacketCompressor compressor;
+
+    protected final int maxPacketsByWrite;
+    protected final boolean metricsEnabled;
+
+    /**
+     * The size of the compression flag of packets, it's 0 if compression is disabled.
+     */
+    protected final int compressionHeaderSize;
 
     public AbstractPacketWriter(
         @NotNull C connection,
@@ -68,6 +144,30 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
         @NotNull NullableSupplier<WritablePacket> packetProvider,
         @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
         @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            packetProvider,
+            writtenPacketHandler,
+            sentPacketHandler,
+            1,
+            0
+        );
+    }
+
+    public AbstractPacketWriter(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NullableSupplier<WritablePacket> packetProvider,
+        @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
+        @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
+        int maxPacketsByWrite,
+        int maxBytesByWrite
     ) {
         this.connection = connection;
         this.channel = channel;
@@ -78,23 +178,100 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
         this.nextWritePacketSupplier = packetProvider;
         this.writtenPacketHandler = writtenPacketHandler;
         this.sentPacketHandler = sentPacketHandler;
+        this.maxPacketsByWrite = Math.max(maxPacketsByWrite, 1);
+        this.batchWriteBuffer = this.maxPacketsByWrite > 1 ? bufferAllocator.takeBuffer(maxBytesByWrite) : null;
+        this.metrics = connection.getMetrics();
+        this.metricsEnabled = metrics.isEnabled();
+        this.trafficRecorder = connection.getTrafficRecorder();
+        this.compressor = connection.getPacketCompressor();
+        this.compressionHeaderSize = compressor == null ? 0 : 1;
     }
 
     @Override
     public void writeNextPacket() {
 
+        var requests = writeRequests.incrementAndGet();
+
         if (connection.isClosed() || !isWriting.compareAndSet(false, true)) {
             return;
         }
 
-        var waitPacket = nextWritePacketSupplier.get();
+        var waitPacket = nextPacket();
 
         if (waitPacket == null) {
-            isWriting.set(false);
+            finishWriting(requests);
             return;
         }
 
-        var resultBuffer = serialize(waitPacket);
+        var batchWriteBuffer = this.batchWriteBuffer;
+
+        if (batchWriteBuffer != null) {
+            writeBatch(waitPacket, batchWriteBuffer, requests);
+        } else {
+            writePacket(waitPacket);
+        }
+    }
+
+    /**
+     * Get a next packet to write. Next chunks of the chunked packet are interleaved with queued packets,
+     * a chunk is written after each {@link #MAX_PACKETS_BETWEEN_CHUNKS} queued packets, so sending of big data
+     * doesn't block other packets of the connection until its last chunk.
+     *
+     * @return the next packet to write or null.
+     * @since 9.10.0
+     */
+    protected @Nullable WritablePacket nextPacket() {
+
+        var chunkedPacket = this.chunkedPacket;
+
+        if (chunkedPacket == null) {
+            var waitingPacket = waitingChunkedPackets.poll();
+            return waitingPacket != null ? waitingPacket : nextWritePacketSupplier.get();
+        }
+
+        while (packetsAfterChunk < MAX_PACKETS_BETWEEN_CHUNKS) {
+
+            var packet = nextWritePacketSupplier.get();
+
+            if (packet == null) {
+                break;
+            } else if (!isChunked(packet)) {
+                packetsAfterChunk++;
+                return packet;
+            }
+
+            // the receiver can't separate chunks of different packets, so they wait for the last chunk
+            waitingChunkedPackets.add(packet);
+        }
+
+        packetsAfterChunk = 0;
+        return chunkedPacket;
+    }
+
+    private static boolean isChunked(@NotNull WritablePacket packet) {
+
+        while (packet instanceof WritablePacketWrapper) {
+            packet = ((WritablePacketWrapper<?, ?>) packet).getPacket();
+        }
+
+        return packet instanceof ChunkedWritablePacket;
+    }
+
+    /**
+     * Serialize the packet and write it to the channel.
+     *
+     * @param packet the packet to write.
+     * @since 9.10.0
+     */
+    protected void writePacket(@NotNull WritablePacket packet) {
+
+        var resultBuffer = serialize(packet);
+
+        // the packet isn't written until its last chunk is written
+        if (packet == chunkedPacket) {
+            writeChunk(packet, resultBuffer);
+            return;
+        }
 
         if (resultBuffer.limit() != 0) {
             writingBuffer = resultBuffer;
@@ -105,21 +282,196 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
                 (ch, buf) -> "Write to channel \"" + getRemoteAddress(ch) + "\" data:\n" + hexDump(buf)
             );
 
-            channel.write(resultBuffer, waitPacket, writeHandler);
-        } else {
-            isWriting.set(false);
+            recordSent(resultBuffer);
+
+            channel.write(resultBuffer, packet, writeHandler);
+            writtenPacketHandler.accept(packet);
+            return;
+        }
+
+        writtenPacketHandler.accept(packet);
+
+        // senders of packets which were added during serializing couldn't take the writing flag
+        isWriting.set(false);
+        writeNextPacket();
+    }
+
+    /**
+     * Write the not last chunk of the chunked packet to the channel.
+     *
+     * @param packet       the chunked packet.
+     * @param resultBuffer the buffer with the serialized chunk.
+     * @since 9.10.0
+     */
+    protected void writeChunk(@NotNull WritablePacket packet, @NotNull ByteBuffer resultBuffer) {
+
+        writingBuffer = resultBuffer;
+
+        LOGGER.debug(
+            channel,
+            resultBuffer,
+            (ch, buf) -> "Write chunk to channel \"" + getRemoteAddress(ch) + "\" data:\n" + hexDump(buf)
+        );
+
+        recordSent(resultBuffer);
+
+        channel.write(resultBuffer, packet, writeHandler);
+    }
+
+    /**
+     * Release the writing flag when there are no packets to write and check that no one packet was added
+     * between polling and releasing the flag, because its sender couldn't take the flag to write it.
+     *
+     * @param requests the count of write requests before polling.
+     */
+    protected void finishWriting(int requests) {
+
+        isWriting.set(false);
+
+        if (writeRequests.get() != requests) {
+            writeNextPacket();
         }
+    }
+
+    /**
+     * Serialize the packet and next waiting packets to the batch buffer and write them to the channel
+     * by one gathering write operation. A packet which doesn't fit to the batch buffer closes the batch
+     * and is written as the second part of the gathering write.
+     *
+     * @param firstPacket the first packet to write.
+     * @param batchBuffer the batch buffer.
+     * @param requests    the count of write requests before polling the first packet.
+     */
+    protected void writeBatch(@NotNull WritablePacket firstPacket, @NotNull ByteBuffer batchBuffer, int requests) {
+
+        var batch = writingBatch;
+        var buffers = writingBuffers;
+
+        batchBuffer.clear();
+
+        buffers[0] = batchBuffer;
+        buffers[1] = EMPTY_BUFFER;
+
+        var packet = firstPacket;
+
+        while (packet != null) {
+
+            var resultBuffer = serializeToBatch(packet);
+
+            // the chunked packet is added to the batch by its last chunk
+            var hasNextChunks = packet == chunkedPacket;
 
-        writtenPacketHandler.accept(waitPacket);
+            if (!hasNextChunks) {
+                writtenPacketHandler.accept(packet);
+            }
+
+            if (resultBuffer.limit() != 0) {
+
+                if (!hasNextChunks) {
+                    batch.add(packet);
+                }
+
+                if (resultBuffer.remaining() > batchBuffer.remaining()) {
+                    buffers[1] = resultBuffer;
+                    break;
+                }
+
+                batchBuffer.put(resultBuffer);
+
+                // the packet's data is already in the batch buffer, so temp buffers can be released now
+                if (firstWriteTempBuffer != null) {
+                    clearTempBuffers();
+                }
+            }
+
+            if (batch.size() >= maxPacketsByWrite) {
+                break;
+            }
+
+            packet = nextPacket();
+        }
+
+        batchBuffer.flip();
+
+        if (!batchBuffer.hasRemaining() && !buffers[1].hasRemaining()) {
+            finishWriting(requests);
+            return;
+        }
+
+        writeBatchBuffers(batch, buffers);
+    }
+
+    /**
+     * Serialize the packet to write it as a part of the batch of packets.
+     *
+     * @param packet the packet.
+     * @return the buffer with the serialized packet.
+     * @since 9.10.0
+     */
+    protected @NotNull ByteBuffer serializeToBatch(@NotNull WritablePacket packet) {
+        return serialize(packet);
+    }
+
+    /**
+     * Write the buffers of the batch of packets to the channel by one gathering write operation.
+     *
+     * @param batch   the batch of packets.
+     * @param buffers the batch buffer and the buffer of a packet which didn't fit to the batch buffer.
+     * @since 9.10.0
+     */
+    protected void writeBatchBuffers(@NotNull Array<WritablePacket> batch, @NotNull ByteBuffer[] buffers) {
+
+        LOGGER.debug(
+            channel,
+            batch,
+            (ch, packets) -> "Write " + packets.size() + " packets to channel \"" + getRemoteAddress(ch) + "\""
+        );
+
+        for (var buffer : buffers) {
+            recordSent(buffer);
+        }
+
+        channel.write(buffers, 0, buffers.length, 0L, TimeUnit.MILLISECONDS, batch, batchWriteHandler);
+    }
+
+    /**
+     * Record the remaining bytes of the buffer which are written to the channel if traffic is captured.
+     *
+     * @param buffer the buffer to write.
+     * @since 9.10.0
+     */
+    protected void recordSent(@NotNull ByteBuffer buffer) {
+        if (trafficRecorder != null) {
+            trafficRecorder.onSent(buffer, buffer.position(), buffer.remaining());
+        }
     }
 
     protected @NotNull ByteBuffer serialize(@NotNull WritablePacket packet) {
 
-        if (packet instanceof WritablePacketWrapper) {
+        var sentPacket = packet;
+
+        while (packet instanceof WritablePacketWrapper) {
             packet = ((WritablePacketWrapper<?, ?>) packet).getPacket();
         }
 
-        W resultPacket = (W) packet;
+        var cryptor = connection.getCryptor();
+
+        if (packet instanceof SharedSerializedPacket) {
+            var dataView = ((SharedSerializedPacket) packet).newDataView();
+            // shared data can't be encrypted in place, because other connections use it as well
+            return cryptor == null ? dataView : encrypt(cryptor, copyToWriteBuffer(dataView));
+        }
+
+        var resultBuffer = serializeToWriteBuffers((W) packet);
+
+        if (packet instanceof ChunkedWritablePacket) {
+            chunkedPacket = ((ChunkedWritablePacket) packet).isLastChunkWritten() ? null : sentPacket;
+        }
+
+        return cryptor == null ? resultBuffer : encrypt(cryptor, resultBuffer);
+    }
+
+    private @NotNull ByteBuffer serializeToWriteBuffers(@NotNull W packet) {
 
         var expectedLength = packet.getExpectedLength();
         var totalSize = expectedLength == -1 ? -1 : getTotalSize(packet, expectedLength);
@@ -128,12 +480,123 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
         if (expectedLength != -1 && totalSize > firstWriteBuffer.capacity()) {
             var first = bufferAllocator.takeBuffer(totalSize);
             var second = bufferAllocator.takeBuffer(totalSize);
+            if (metricsEnabled) {
+                metrics.onTempBufferAllocated(first.capacity());
+                metrics.onTempBufferAllocated(second.capacity());
+            }
             firstWriteTempBuffer = first;
             secondWriteTempBuffer = second;
-            return serialize(resultPacket, expectedLength, totalSize, first, second);
+            return serialize(packet, expectedLength, totalSize, first, second);
         } else {
-            return serialize(resultPacket, expectedLength, totalSize, firstWriteBuffer, secondWriteBuffer);
+            return serialize(packet, expectedLength, totalSize, firstWriteBuffer, secondWriteBuffer);
+        }
+    }
+
+    /**
+     * Copy the data to the first write buffer or to a temp buffer if the data is too big for it.
+     *
+     * @param data the data.
+     * @return the buffer with the copied data.
+     */
+    private @NotNull ByteBuffer copyToWriteBuffer(@NotNull ByteBuffer data) {
+
+        var buffer = firstWriteBuffer;
+
+        if (data.remaining() > buffer.capacity()) {
+            buffer = bufferAllocator.takeBuffer(data.remaining());
+            if (metricsEnabled) {
+                metrics.onTempBufferAllocated(buffer.capacity());
+            }
+            firstWriteTempBuffer = buffer;
+        }
+
+        return buffer
+            .clear()
+            .put(data)
+            .flip();
+    }
+
+    /**
+     * Encrypt the serialized packet in place after its not encrypted header.
+     *
+     * @param cryptor the connection's cryptor.
+     * @param buffer  the buffer with the serialized packet.
+     * @return the same buffer.
+     * @since 9.10.0
+     */
+    protected @NotNull ByteBuffer encrypt(@NotNull NetworkCryptor cryptor, @NotNull ByteBuffer buffer) {
+
+        var headerSize = getNotEncryptedHeaderSize(buffer);
+        var limit = buffer.limit();
+
+        if (limit > headerSize) {
+            cryptor.encrypt(buffer, buffer.position() + headerSize, limit - buffer.position() - headerSize);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Get a size of the header of serialized packets which isn't encrypted, readers need it to find packets.
+     *
+     * @return the size of the not encrypted header.
+     * @since 9.10.0
+     */
+    protected int getNotEncryptedHeaderSize() {
+        return 0;
+    }
+
+    /**
+     * Get a size of the not encrypted header of the serialized packet from the buffer's position.
+     *
+     * @param buffer the buffer with the serialized packet.
+     * @return the size of the not encrypted header.
+     * @since 9.10.0
+     */
+    protected int getNotEncryptedHeaderSize(@NotNull ByteBuffer buffer) {
+        return getNotEncryptedHeaderSize();
+    }
+
+    /**
+     * Get a format of serialized packets, packets which are serialized by writers with equal formats can be
+     * shared between them.
+     *
+     * @return the format of serialized packets.
+     * @since 9.10.0
+     */
+    public @NotNull Object getSerializationFormat() {
+        return List.of(getClass(), firstWriteBuffer.order(), compressionHeaderSize);
+    }
+
+    /**
+     * Serialize the packet to a new buffer to share it between writers of the same serialization format,
+     * it doesn't use buffers of this writer, so it can be called by any thread.
+     *
+     * @param packet the packet.
+     * @return the shared serialized packet or null if the packet wasn't serialized.
+     * @throws IllegalArgumentException if the packet is a {@link ChunkedWritablePacket}, only its first chunk
+     * would be serialized.
+     * @since 9.10.0
+     */
+    public @Nullable SharedSerializedPacket serializeShared(@NotNull W packet) {
+
+        if (packet instanceof ChunkedWritablePacket) {
+            throw new IllegalArgumentException("Chunked packet " + packet + " can't be shared");
+        }
+
+        var expectedLength = packet.getExpectedLength();
+        var totalSize = expectedLength == -1 ? -1 : getTotalSize(packet, expectedLength);
+        var buffer = bufferAllocator.takeBuffer(Math.max(totalSize, firstWriteBuffer.capacity()));
+
+        // the second buffer isn't used to serialize packets which can be shared
+        var result = serialize(packet, expectedLength, totalSize, buffer, buffer);
+
+        if (result.limit() == 0) {
+            bufferAllocator.putBuffer(buffer);
+            return null;
         }
+
+        return new SharedSerializedPacket(packet, result, bufferAllocator);
     }
 
     /**
@@ -256,6 +719,59 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
         return firstBuffer.position(0);
     }
 
+    /**
+     * Write the compression flag and compress the packet's data after it to the second buffer if the data is
+     * big enough and compressed data is smaller. Packets which are serialized to share them between writers
+     * aren't compressed, because compressors aren't shared.
+     *
+     * @param flagPosition the position of the compression flag.
+     * @param firstBuffer  the first byte buffer with the serialized packet.
+     * @param secondBuffer the second byte buffer.
+     * @return the buffer with the compressed or not compressed packet.
+     * @since 9.10.0
+     */
+    protected @NotNull ByteBuffer compress(
+        int flagPosition,
+        @NotNull ByteBuffer firstBuffer,
+        @NotNull ByteBuffer secondBuffer
+    ) {
+
+        var compressor = notNull(this.compressor);
+        var dataPosition = flagPosition + 1;
+        var dataLength = firstBuffer.limit() - dataPosition;
+        var compressedPosition = dataPosition + EncodingUtils.varIntSize(dataLength);
+
+        if (firstBuffer == secondBuffer || dataLength < compressor.getThreshold() ||
+            compressedPosition >= firstBuffer.limit() || !connection.isCompressionEnabled()) {
+            return firstBuffer.put(flagPosition, PacketCompressor.NOT_COMPRESSED);
+        }
+
+        // compressed data should be smaller than not compressed
+        secondBuffer
+            .clear()
+            .limit(firstBuffer.limit() - 1)
+            .position(compressedPosition);
+
+        var compressedLength = compressor.compress(firstBuffer.position(dataPosition), secondBuffer);
+
+        if (compressedLength == -1) {
+            return firstBuffer.put(flagPosition, PacketCompressor.NOT_COMPRESSED);
+        }
+
+        if (metricsEnabled) {
+            metrics.onCompressedPacket(dataLength, compressedLength + compressedPosition - dataPosition);
+        }
+
+        secondBuffer
+            .limit(compressedPosition + compressedLength)
+            .put(flagPosition, PacketCompressor.COMPRESSED)
+            .position(dataPosition);
+
+        EncodingUtils.writeVarInt(secondBuffer, dataLength);
+
+        return secondBuffer;
+    }
+
     protected @NotNull ByteBuffer writeHeader(@NotNull ByteBuffer buffer, int position, int value, int headerSize) {
         try {
 
@@ -311,11 +827,20 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
         updateActivityFunction.run();
 
         if (result == -1) {
+
+            if (packet == chunkedPacket) {
+                chunkedPacket = null;
+            }
+
             sentPacketHandler.accept(packet, Boolean.FALSE);
             connection.close();
             return;
         }
 
+        if (metricsEnabled) {
+            metrics.onSentBytes(result);
+        }
+
         var writingBuffer = this.writingBuffer;
 
         if (writingBuffer.remaining() > 0) {
@@ -331,7 +856,9 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
             LOGGER.debug(result, bytes -> "Done writing " + bytes + " bytes");
         }
 
-        sentPacketHandler.accept(packet, Boolean.TRUE);
+        if (packet != chunkedPacket) {
+            sentPacketHandler.accept(packet, Boolean.TRUE);
+        }
 
         if (isWriting.compareAndSet(true, false)) {
 
@@ -344,6 +871,80 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
         }
     }
 
+    /**
+     * Handle successful wrote data of the batch of packets.
+     *
+     * @param result  the count of wrote bytes.
+     * @param packets the batch of packets.
+     */
+    protected void handleSuccessfulBatchWriting(@NotNull Long result, @NotNull Array<WritablePacket> packets) {
+        updateActivityFunction.run();
+
+        if (result == -1) {
+            completeBatch(packets, Boolean.FALSE);
+            connection.close();
+            return;
+        }
+
+        if (metricsEnabled) {
+            metrics.onSentBytes(result);
+        }
+
+        var buffers = writingBuffers;
+
+        if (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+            LOGGER.debug(
+                channel,
+                ch -> "Batch was not consumed fully, try to write else to channel " + NetworkUtils.getRemoteAddress(ch)
+            );
+            channel.write(buffers, 0, buffers.length, 0L, TimeUnit.MILLISECONDS, packets, batchWriteHandler);
+            return;
+        } else {
+            LOGGER.debug(result, bytes -> "Done writing " + bytes + " bytes");
+        }
+
+        completeBatch(packets, Boolean.TRUE);
+
+        if (isWriting.compareAndSet(true, false)) {
+
+            // if we have temp buffers, we can remove it after finishing writing a batch
+            if (firstWriteTempBuffer != null) {
+                clearTempBuffers();
+            }
+
+            writeNextPacket();
+        }
+    }
+
+    /**
+     * Handle the exception during writing the batch of packets.
+     *
+     * @param exception the exception.
+     * @param packets   the batch of packets.
+     */
+    protected void handleFailedBatchWriting(@NotNull Throwable exception, @NotNull Array<WritablePacket> packets) {
+        LOGGER.error(new RuntimeException("Failed writing " + packets.size() + " packets", exception));
+
+        completeBatch(packets, Boolean.FALSE);
+        failChunkedPacket();
+
+        if (!connection.isClosed()) {
+            if (isWriting.compareAndSet(true, false)) {
+                writeNextPacket();
+            }
+        }
+    }
+
+    protected void completeBatch(@NotNull Array<WritablePacket> packets, @NotNull Boolean result) {
+
+        for (var packet : packets) {
+            sentPacketHandler.accept(packet, result);
+        }
+
+        packets.clear();
+        writingBuffers[1] = EMPTY_BUFFER;
+    }
+
     /**
      * Handle the exception during writing the packet.
      *
@@ -353,6 +954,11 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
     protected void handleFailedWriting(@NotNull Throwable exception, @NotNull WritablePacket packet) {
         LOGGER.error(new RuntimeException("Failed writing packet: " + packet, exception));
 
+        // next chunks can't be read by the receiver after a lost chunk
+        if (packet == chunkedPacket) {
+            failChunkedPacket();
+        }
+
         if (!connection.isClosed()) {
             if (isWriting.compareAndSet(true, false)) {
                 writeNextPacket();
@@ -367,11 +973,35 @@ public abstract class AbstractPacketWriter<W extends WritablePacket, C extends C
             .putWriteBuffer(firstWriteBuffer)
             .putWriteBuffer(secondWriteBuffer);
 
+        if (batchWriteBuffer != null) {
+            bufferAllocator.putBuffer(batchWriteBuffer);
+        }
+
         clearTempBuffers();
+        failChunkedPacket();
+
+        for (var packet = waitingChunkedPackets.poll(); packet != null; packet = waitingChunkedPackets.poll()) {
+            sentPacketHandler.accept(packet, Boolean.FALSE);
+        }
 
         writingBuffer = EMPTY_BUFFER;
     }
 
+    /**
+     * Notify about failed sending of the chunked packet which has not written chunks.
+     *
+     * @since 9.10.0
+     */
+    protected void failChunkedPacket() {
+
+        var chunkedPacket = this.chunkedPacket;
+
+        if (chunkedPacket != null) {
+            this.chunkedPacket = null;
+            sentPacketHandler.accept(chunkedPacket, Boolean.FALSE);
+        }
+    }
+
     protected void clearTempBuffers() {
 
         var secondWriteTempBuffer = this.secondWriteTempBuffer;
@@ -3,6 +3,7 @@ package com.ss.rlib.network.packet.impl;
 import com.ss.rlib.common.util.ClassUtils;
 import com.ss.rlib.network.Connection;
 import com.ss.rlib.network.packet.ReadablePacket;
+import com.ss.rlib.network.util.EncodingUtils;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
@@ -159,4 +160,59 @@ public abstract class AbstractReadablePacket<C extends Connection<?, ?>> extends
             throw ex;
         }
     }
+
+    /**
+     * Read an unsigned int which was written by 1-5 bytes.
+     *
+     * @param buffer the buffer to read.
+     * @return the read value.
+     * @since 9.10.0
+     */
+    protected int readVarInt(@NotNull ByteBuffer buffer) {
+        return EncodingUtils.readVarInt(buffer);
+    }
+
+    /**
+     * Read a signed int which was written by 1-5 bytes using zigzag encoding.
+     *
+     * @param buffer the buffer to read.
+     * @return the read value.
+     * @since 9.10.0
+     */
+    protected int readSignedVarInt(@NotNull ByteBuffer buffer) {
+        return EncodingUtils.decodeZigZag(EncodingUtils.readVarInt(buffer));
+    }
+
+    /**
+     * Read an unsigned long which was written by 1-10 bytes.
+     *
+     * @param buffer the buffer to read.
+     * @return the read value.
+     * @since 9.10.0
+     */
+    protected long readVarLong(@NotNull ByteBuffer buffer) {
+        return EncodingUtils.readVarLong(buffer);
+    }
+
+    /**
+     * Read a signed long which was written by 1-10 bytes using zigzag encoding.
+     *
+     * @param buffer the buffer to read.
+     * @return the read value.
+     * @since 9.10.0
+     */
+    protected long readSignedVarLong(@NotNull ByteBuffer buffer) {
+        return EncodingUtils.decodeZigZag(EncodingUtils.readVarLong(buffer));
+    }
+
+    /**
+     * Read a string which was encoded to UTF-8 with varint count of encoded bytes.
+     *
+     * @param buffer the buffer to read.
+     * @return the read string from the buffer.
+     * @since 9.10.0
+     */
+    protected @NotNull String readUtf8String(@NotNull ByteBuffer buffer) {
+        return EncodingUtils.readUtf8(buffer);
+    }
 }
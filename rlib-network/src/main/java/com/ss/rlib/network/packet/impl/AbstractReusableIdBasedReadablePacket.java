@@ -0,0 +1,77 @@
+package com.ss.rlib.network.packet.impl;
+
+import com.ss.rlib.common.util.pools.Pool;
+import com.ss.rlib.logger.api.Logger;
+import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.packet.ReusableReadablePacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The reusable implementation of {@link AbstractIdBasedReadablePacket} using the counter of references to
+ * control the life cycle of this packet. Implementations should clean their fields in {@link #free()}.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public abstract class AbstractReusableIdBasedReadablePacket<C extends Connection<?, ?>,
+    S extends AbstractReusableIdBasedReadablePacket<C, S>> extends AbstractIdBasedReadablePacket<C, S> implements
+    ReusableReadablePacket {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(AbstractReusableIdBasedReadablePacket.class);
+
+    protected final @NotNull AtomicInteger references;
+
+    /**
+     * The pool to store this packet after using.
+     */
+    protected volatile @Nullable Pool<ReusableReadablePacket> pool;
+
+    public AbstractReusableIdBasedReadablePacket() {
+        this.references = new AtomicInteger();
+    }
+
+    @Override
+    public void retain() {
+        references.incrementAndGet();
+    }
+
+    @Override
+    public void retainFirst() {
+        // no one else has a reference to the packet, so the atomic increment isn't needed
+        references.setRelease(1);
+    }
+
+    @Override
+    public void release() {
+
+        var result = references.decrementAndGet();
+
+        if (result > 0) {
+            return;
+        } else if (result < 0) {
+            LOGGER.warning(this, pck -> "Attempt to release already released packet " + pck);
+            references.set(0);
+            return;
+        }
+
+        var pool = this.pool;
+
+        if (pool != null) {
+            pool.put(this);
+        }
+    }
+
+    @Override
+    public final void setPool(@NotNull Pool<ReusableReadablePacket> pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String toString() {
+        return "AbstractReusableIdBasedReadablePacket{" + "references=" + references + "} " + super.toString();
+    }
+}
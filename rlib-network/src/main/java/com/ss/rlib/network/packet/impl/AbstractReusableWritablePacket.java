@@ -4,32 +4,32 @@ import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import com.ss.rlib.common.concurrent.atomic.AtomicInteger;
 import com.ss.rlib.common.util.ClassUtils;
 import com.ss.rlib.common.util.pools.Pool;
-import com.ss.rlib.common.util.pools.PoolFactory;
 import com.ss.rlib.network.packet.ReusableWritablePacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * The reusable implementation of {@link AbstractWritablePacket} using the counter to control the life cycle of
- * this packet.
+ * this packet. Completed packets are stored to the {@link PacketRecycler} unless a pool is set to them.
  *
  * @author JavaSaBr
  */
 public abstract class AbstractReusableWritablePacket extends AbstractWritablePacket implements ReusableWritablePacket {
 
-    protected static final ThreadLocal<Map<Class<? super ReusableWritablePacket>, Pool<ReusableWritablePacket>>>
-        LOCAL_POOLS = ThreadLocal.withInitial(HashMap::new);
-
     protected final AtomicInteger counter;
 
     /**
-     * The pool to store this packet after using.
+     * The pool to store this packet after using, if it's null the packet is stored to the recycler.
      */
     protected volatile @Nullable Pool<ReusableWritablePacket> pool;
+
+    /**
+     * The recycler's pool of a thread which took this packet.
+     */
+    volatile @Nullable ThreadOwnedPool<AbstractReusableWritablePacket> recyclerPool;
+
     protected volatile int barrier;
 
     protected int barrierSink;
@@ -115,38 +115,12 @@ public abstract class AbstractReusableWritablePacket extends AbstractWritablePac
     }
 
     /**
-     * Get thread local pool.
+     * Get the recycler to store used packet.
      *
-     * @return thread local pool.
+     * @return the recycler to store used packet.
      */
-    protected @NotNull Pool<ReusableWritablePacket> getThreadLocalPool() {
-        Class<ReusableWritablePacket> packetClass = ClassUtils.unsafeNNCast(getClass());
-        return LOCAL_POOLS.get().computeIfAbsent(packetClass, PoolFactory::newConcurrentStampedLockReusablePool);
-    }
-
-    @Override
-    public void reuse() {
-        this.pool = getThreadLocalPool();
-    }
-
-    /**
-     * Get the pool to store used packet.
-     *
-     * @return the pool to store used packet.
-     */
-    protected @NotNull Pool<ReusableWritablePacket> getPool() {
-
-        Pool<ReusableWritablePacket> local = this.pool;
-
-        if (local != null) {
-            return local;
-        }
-
-        this.pool = getThreadLocalPool();
-
-        local = this.pool;
-
-        return notNull(local);
+    protected @NotNull PacketRecycler getRecycler() {
+        return PacketRecycler.getDefault();
     }
 
     /**
@@ -155,7 +129,15 @@ public abstract class AbstractReusableWritablePacket extends AbstractWritablePac
     protected void completeImpl() {
         notifyStartedStoring();
         try {
-            getPool().put(this);
+
+            var pool = this.pool;
+
+            if (pool != null) {
+                pool.put(this);
+            } else {
+                getRecycler().recycle(this);
+            }
+
         } finally {
             notifyFinishedStoring();
         }
@@ -169,7 +151,12 @@ public abstract class AbstractReusableWritablePacket extends AbstractWritablePac
      */
     public <T extends ReusableWritablePacket> @NotNull T newInstance() {
 
-        Pool<ReusableWritablePacket> pool = getPool();
+        var pool = this.pool;
+
+        if (pool == null) {
+            return ClassUtils.unsafeNNCast(getRecycler().take(getClass()));
+        }
+
         ReusableWritablePacket result = pool.take(getClass(), ClassUtils::newInstance);
         result.setPool(pool);
 
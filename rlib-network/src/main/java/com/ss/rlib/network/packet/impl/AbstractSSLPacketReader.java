@@ -1,5 +1,6 @@
 package com.ss.rlib.network.packet.impl;
 
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import static com.ss.rlib.network.util.NetworkUtils.hexDump;
 import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.logger.api.Logger;
@@ -10,6 +11,7 @@ import com.ss.rlib.network.packet.ReadablePacket;
 import com.ss.rlib.network.packet.WritablePacket;
 import com.ss.rlib.network.util.NetworkUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.crypto.BadPaddingException;
 import javax.net.ssl.SSLEngine;
@@ -19,6 +21,9 @@ import javax.net.ssl.SSLException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @param <R> the readable packet's type.
@@ -38,8 +43,28 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
     protected final @NotNull SSLEngine sslEngine;
     protected final @NotNull NotNullConsumer<WritablePacket> packetWriter;
 
+    /**
+     * The executor of delegated tasks of SSL engine or null to run them by network threads.
+     */
+    protected final @Nullable Executor sslTaskExecutor;
+
+    /**
+     * The count of parties which should finish their work to resume suspended reading: the thread which
+     * suspended reading and the writer or the executor which does the awaited step of handshake.
+     */
+    protected final @NotNull AtomicInteger suspensionParties;
+
+    /**
+     * The flag of waiting for wrapping of handshake data by the writer to resume suspended reading.
+     */
+    protected final @NotNull AtomicBoolean awaitingWrap;
+
     protected volatile @NotNull ByteBuffer sslNetworkBuffer;
-    protected volatile @NotNull ByteBuffer sslDataBuffer;
+
+    /**
+     * The buffer with received data which can be unwrapped only after the awaited step of handshake.
+     */
+    protected volatile @Nullable ByteBuffer suspendedBuffer;
 
     protected AbstractSSLPacketReader(
         @NotNull C connection,
@@ -51,11 +76,47 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
         @NotNull NotNullConsumer<WritablePacket> packetWriter,
         int maxPacketsByRead
     ) {
-        super(connection, channel, bufferAllocator, updateActivityFunction, readPacketHandler, maxPacketsByRead);
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            sslEngine,
+            packetWriter,
+            maxPacketsByRead,
+            null
+        );
+    }
+
+    protected AbstractSSLPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<? super R> readPacketHandler,
+        @NotNull SSLEngine sslEngine,
+        @NotNull NotNullConsumer<WritablePacket> packetWriter,
+        int maxPacketsByRead,
+        @Nullable Executor sslTaskExecutor
+    ) {
+        super(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            maxPacketsByRead,
+            true,
+            // records are decrypted directly after not read data of an incomplete packet
+            sslEngine.getSession().getApplicationBufferSize() * 2
+        );
         this.sslEngine = sslEngine;
-        this.sslDataBuffer = bufferAllocator.takeBuffer(sslEngine.getSession().getApplicationBufferSize());
         this.sslNetworkBuffer = bufferAllocator.takeBuffer(sslEngine.getSession().getPacketBufferSize());
         this.packetWriter = packetWriter;
+        this.sslTaskExecutor = sslTaskExecutor;
+        this.suspensionParties = new AtomicInteger();
+        this.awaitingWrap = new AtomicBoolean();
     }
 
     @Override
@@ -67,7 +128,15 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
     protected void handleReceivedData(@NotNull Integer receivedBytes, @NotNull ByteBuffer readingBuffer) {
 
         if (receivedBytes == -1) {
-            doHandshake(readingBuffer, -1);
+
+            var handshakeStatus = sslEngine.getHandshakeStatus();
+
+            if (handshakeStatus == HandshakeStatus.FINISHED || handshakeStatus == HandshakeStatus.NOT_HANDSHAKING) {
+                connection.close();
+            } else {
+                doHandshake(readingBuffer, -1);
+            }
+
             return;
         }
 
@@ -140,9 +209,14 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
                         case BUFFER_OVERFLOW:
                             throw new IllegalStateException("Unexpected ssl engine result");
                         case BUFFER_UNDERFLOW:
-                            LOGGER.debug("Increase ssl network buffer");
-                            increaseNetworkBuffer();
-                            break;
+                            // the rest of the record will be received with next data
+                            if (receivedBuffer.capacity() < sslEngine.getSession().getPacketBufferSize()) {
+                                LOGGER.debug("Increase ssl network buffer");
+                                increaseNetworkBuffer();
+                            } else {
+                                receivedBuffer.compact();
+                            }
+                            return SKIP_READ_PACKETS;
                         case CLOSED:
                             if (sslEngine.isOutboundDone()) {
                                 return SKIP_READ_PACKETS;
@@ -157,19 +231,33 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
                     break;
                 }
                 case NEED_WRAP:
+
+                    // received data can't be unwrapped before wrapping, e.g. application data after
+                    // the client's finished message of TLS 1.3 handshake when the server sends session tickets
+                    if (receivedBuffer.hasRemaining() && receivedBytes != -1) {
+                        suspendReading(receivedBuffer, true);
+                        LOGGER.debug("Send command to wrap data and suspend reading");
+                        packetWriter.accept(SSLWritablePacket.getInstance());
+                        return SKIP_READ_PACKETS;
+                    }
+
                     LOGGER.debug("Send command to wrap data");
                     packetWriter.accept(SSLWritablePacket.getInstance());
                     sslNetworkBuffer.clear();
                     return SKIP_READ_PACKETS;
                 case NEED_TASK:
 
-                    Runnable task;
+                    var sslTaskExecutor = this.sslTaskExecutor;
 
-                    while ((task = sslEngine.getDelegatedTask()) != null) {
-                        LOGGER.debug(task, t -> "Execute SSL Engine's task: " + t.getClass());
-                        task.run();
+                    if (sslTaskExecutor != null && receivedBytes != -1) {
+                        suspendReading(receivedBuffer, false);
+                        LOGGER.debug("Execute SSL Engine's tasks by the executor and suspend reading");
+                        sslTaskExecutor.execute(this::runDelegatedTasks);
+                        return SKIP_READ_PACKETS;
                     }
 
+                    NetworkUtils.runDelegatedTasks(sslEngine, metrics);
+
                     handshakeStatus = sslEngine.getHandshakeStatus();
 
                     LOGGER.debug(handshakeStatus, status -> "Handshake status: " + status + " after engine tasks");
@@ -185,12 +273,12 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
             }
         }
 
-        if (!receivedBuffer.hasRemaining()) {
+        // the writer can wait for finishing of handshake to write queued packets
+        if (handshakeStatus == HandshakeStatus.FINISHED) {
+            packetWriter.accept(SSLWritablePacket.getInstance());
+        }
 
-            // if buffer is empty and status is FINISHED then we can notify writer
-            if (handshakeStatus == HandshakeStatus.FINISHED) {
-                packetWriter.accept(SSLWritablePacket.getInstance());
-            }
+        if (!receivedBuffer.hasRemaining()) {
 
             receivedBuffer.clear();
 
@@ -200,40 +288,64 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
         return decryptAndRead(receivedBuffer);
     }
 
+    /**
+     * Decrypt received records directly to the buffer of packets which are read in place, so decrypted data
+     * of an incomplete packet isn't copied to be continued by data of next records.
+     *
+     * @param receivedBuffer the buffer with received records.
+     * @return count of read packets.
+     */
     protected int decryptAndRead(@NotNull ByteBuffer receivedBuffer) {
 
         int total = 0;
 
         while (receivedBuffer.hasRemaining()) {
 
+            var dataBuffer = getBufferToDecrypt();
+
             SSLEngineResult result;
             try {
                 LOGGER.debug(receivedBuffer, buf -> "Try to decrypt data:\n" + hexDump(buf));
-                result = sslEngine.unwrap(receivedBuffer, sslDataBuffer.clear());
+                result = sslEngine.unwrap(receivedBuffer, dataBuffer);
             } catch (SSLException e) {
-                var handshakeStatus = sslEngine.getHandshakeStatus();
                 throw new IllegalStateException(e);
             }
 
             switch (result.getStatus()) {
                 case OK:
-                    sslDataBuffer.flip();
-                    LOGGER.debug(sslDataBuffer, buf -> "Decrypted data:\n" + hexDump(buf));
-                    total += readPackets(sslDataBuffer, pendingBuffer);
+
+                    // post handshake messages don't have data of packets
+                    if (result.bytesProduced() > 0) {
+                        dataBuffer.flip();
+                        LOGGER.debug(dataBuffer, buf -> "Decrypted data:\n" + hexDump(buf));
+                        total += readAllPacketsInPlace(dataBuffer);
+                    }
+
+                    var handshakeStatus = result.getHandshakeStatus();
+
+                    // post handshake messages of TLS 1.3 can require steps of handshake
+                    if (handshakeStatus != HandshakeStatus.FINISHED &&
+                        handshakeStatus != HandshakeStatus.NOT_HANDSHAKING) {
+                        var readPackets = doHandshake(receivedBuffer, receivedBuffer.limit());
+                        return readPackets == SKIP_READ_PACKETS ? total : total + readPackets;
+                    }
+
                     break;
                 case BUFFER_OVERFLOW:
-                    increaseDataBuffer();
-                    return decryptAndRead(receivedBuffer);
+                    // the next buffer to decrypt will have enough space for the current size of records
+                    break;
                 case CLOSED:
                     closeConnection();
                     return SKIP_READ_PACKETS;
-                default:
-
-                    if (receivedBuffer.position() > 0) {
+                case BUFFER_UNDERFLOW:
+                    // the rest of the record will be received with next data
+                    if (receivedBuffer.capacity() < sslEngine.getSession().getPacketBufferSize()) {
+                        increaseNetworkBuffer();
+                    } else {
                         receivedBuffer.compact();
-                        return total;
                     }
-
+                    return total;
+                default:
                     throw new IllegalStateException("Invalid SSL status: " + result.getStatus());
             }
         }
@@ -243,6 +355,91 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
         return total;
     }
 
+    /**
+     * Suspend reading until the awaited step of handshake, the reading flag isn't released to not receive new
+     * data before unwrapping already received data.
+     *
+     * @param receivedBuffer the buffer with received data which isn't unwrapped yet.
+     * @param awaitWrap      true if the awaited step is wrapping of handshake data by the writer.
+     * @since 9.10.0
+     */
+    protected void suspendReading(@NotNull ByteBuffer receivedBuffer, boolean awaitWrap) {
+        suspensionParties.set(2);
+        awaitingWrap.set(awaitWrap);
+        suspendedBuffer = receivedBuffer;
+    }
+
+    @Override
+    protected void continueReading() {
+        if (suspendedBuffer == null) {
+            super.continueReading();
+        } else {
+            onHandshakeStepDone();
+        }
+    }
+
+    /**
+     * Handle a written packet or a write request to resume reading which waits for wrapping of handshake data.
+     * The writer can wrap handshake data by any packet, so the state of SSL engine is checked instead of
+     * written packets.
+     *
+     * @since 9.10.0
+     */
+    public void onWrite() {
+
+        if (suspendedBuffer == null || sslEngine.getHandshakeStatus() == HandshakeStatus.NEED_WRAP) {
+            return;
+        }
+
+        if (awaitingWrap.compareAndSet(true, false)) {
+            onHandshakeStepDone();
+        }
+    }
+
+    /**
+     * Handle a done step of handshake by the writer or by the executor of delegated tasks to resume suspended
+     * reading. Reading is resumed by the last of the parties, so it's resumed after the thread which suspended
+     * it finished handling of received data.
+     *
+     * @since 9.10.0
+     */
+    protected void onHandshakeStepDone() {
+        if (suspensionParties.getAndUpdate(parties -> parties > 0 ? parties - 1 : 0) == 1) {
+            resumeReading();
+        }
+    }
+
+    protected void resumeReading() {
+
+        var receivedBuffer = notNull(suspendedBuffer);
+        suspendedBuffer = null;
+
+        if (connection.isClosed()) {
+            return;
+        }
+
+        LOGGER.debug(receivedBuffer, buf -> "Resume reading of received buffer " + buf);
+
+        try {
+            readPackets(receivedBuffer);
+        } catch (Exception e) {
+            LOGGER.error(e);
+        }
+
+        continueReading();
+    }
+
+    protected void runDelegatedTasks() {
+
+        try {
+            NetworkUtils.runDelegatedTasks(sslEngine, metrics);
+        } catch (Exception e) {
+            LOGGER.error(e);
+        }
+
+        onHandshakeStepDone();
+    }
+
     private void increaseNetworkBuffer() {
         sslNetworkBuffer = NetworkUtils.increasePacketBuffer(
             sslNetworkBuffer,
@@ -251,12 +448,37 @@ public abstract class AbstractSSLPacketReader<R extends ReadablePacket, C extend
         );
     }
 
-    private void increaseDataBuffer() {
-        sslDataBuffer = NetworkUtils.increaseApplicationBuffer(
-            sslDataBuffer,
-            bufferAllocator,
-            sslEngine
-        );
+    /**
+     * Get a buffer to decrypt a next record after not read data of an incomplete packet, if the buffer
+     * doesn't have enough space for the record, the not read data is moved to a bigger temp buffer.
+     *
+     * @return the buffer to decrypt a next record.
+     */
+    protected @NotNull ByteBuffer getBufferToDecrypt() {
+
+        var buffer = getBufferToReadInPlace();
+        var recordSize = sslEngine.getSession().getApplicationBufferSize();
+
+        if (buffer.remaining() >= recordSize) {
+            return buffer;
+        }
+
+        buffer.flip();
+
+        if (buffer == readBuffer) {
+            allocTempBuffers(buffer, buffer.remaining() + recordSize);
+            buffer.clear();
+        } else {
+            reAllocTempBuffers(buffer, buffer.remaining() + recordSize);
+        }
+
+        return notNull(getTempPendingBuffer());
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        bufferAllocator.putBuffer(sslNetworkBuffer);
     }
 
     protected void closeConnection() {
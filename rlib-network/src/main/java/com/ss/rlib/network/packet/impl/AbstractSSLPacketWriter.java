@@ -5,6 +5,7 @@ import static com.ss.rlib.network.util.NetworkUtils.hexDump;
 import com.ss.rlib.common.function.NotNullBiConsumer;
 import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.common.function.NullableSupplier;
+import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.BufferAllocator;
@@ -21,6 +22,7 @@ import javax.net.ssl.SSLException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.Executor;
 
 public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extends Connection<?, W>> extends
     AbstractPacketWriter<W, C> {
@@ -35,6 +37,16 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
     protected final @NotNull NotNullConsumer<WritablePacket> packetWriter;
     protected final @NotNull NotNullConsumer<WritablePacket> queueAtFirst;
 
+    /**
+     * The executor of delegated tasks of SSL engine or null to run them by network threads.
+     */
+    protected final @Nullable Executor sslTaskExecutor;
+
+    /**
+     * The array to wrap data of one packet by SSL engine without allocation.
+     */
+    private final @NotNull ByteBuffer[] wrapSources = new ByteBuffer[1];
+
     protected volatile @NotNull ByteBuffer sslNetworkBuffer;
 
     public AbstractSSLPacketWriter(
@@ -48,6 +60,38 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
         @NotNull SSLEngine sslEngine,
         @NotNull NotNullConsumer<WritablePacket> packetWriter,
         @NotNull NotNullConsumer<WritablePacket> queueAtFirst
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            packetProvider,
+            writtenPacketHandler,
+            sentPacketHandler,
+            sslEngine,
+            packetWriter,
+            queueAtFirst,
+            null,
+            1,
+            0
+        );
+    }
+
+    public AbstractSSLPacketWriter(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NullableSupplier<WritablePacket> packetProvider,
+        @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
+        @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
+        @NotNull SSLEngine sslEngine,
+        @NotNull NotNullConsumer<WritablePacket> packetWriter,
+        @NotNull NotNullConsumer<WritablePacket> queueAtFirst,
+        @Nullable Executor sslTaskExecutor,
+        int maxPacketsByWrite,
+        int maxBytesByWrite
     ) {
         super(
             connection,
@@ -56,11 +100,14 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
             updateActivityFunction,
             packetProvider,
             writtenPacketHandler,
-            sentPacketHandler
+            sentPacketHandler,
+            maxPacketsByWrite,
+            maxBytesByWrite
         );
         this.sslEngine = sslEngine;
         this.packetWriter = packetWriter;
         this.queueAtFirst = queueAtFirst;
+        this.sslTaskExecutor = sslTaskExecutor;
         this.sslNetworkBuffer = bufferAllocator.takeBuffer(sslEngine.getSession().getPacketBufferSize());
     }
 
@@ -72,17 +119,55 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
         switch (status) {
             case NEED_UNWRAP:
                 return;
+            case NEED_TASK:
+                // the writer is called again after finishing delegated tasks by the executor
+                if (sslTaskExecutor != null) {
+                    return;
+                }
         }
 
         super.writeNextPacket();
     }
 
     @Override
-    protected @NotNull ByteBuffer serialize(@NotNull WritablePacket packet) {
+    protected void writeBatch(@NotNull WritablePacket firstPacket, @NotNull ByteBuffer batchBuffer, int requests) {
 
-        var status = sslEngine.getHandshakeStatus();
+        // packets can't be batched during handshake, because they are returned to the queue
+        if (isHandshakeFinished()) {
+            super.writeBatch(firstPacket, batchBuffer, requests);
+        } else {
+            writePacket(firstPacket);
+        }
+    }
+
+    @Override
+    protected @NotNull ByteBuffer serializeToBatch(@NotNull WritablePacket packet) {
+
+        if (packet instanceof SSLWritablePacket) {
+            return EMPTY_BUFFER;
+        }
+
+        // packets of the batch are wrapped together before writing
+        return super.serialize(packet);
+    }
+
+    @Override
+    protected void writeBatchBuffers(@NotNull Array<WritablePacket> batch, @NotNull ByteBuffer[] buffers) {
 
-        if (status == HandshakeStatus.FINISHED || status == HandshakeStatus.NOT_HANDSHAKING) {
+        var dataSize = buffers[0].remaining() + buffers[1].remaining();
+
+        LOGGER.debug(batch, dataSize, (packets, size) -> "Try to encrypt " + packets.size() + " packets: " + size);
+
+        buffers[0] = wrap(buffers, dataSize);
+        buffers[1] = EMPTY_BUFFER;
+
+        super.writeBatchBuffers(batch, buffers);
+    }
+
+    @Override
+    protected @NotNull ByteBuffer serialize(@NotNull WritablePacket packet) {
+
+        if (isHandshakeFinished()) {
 
             if (packet instanceof SSLWritablePacket) {
                 return EMPTY_BUFFER;
@@ -92,34 +177,69 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
 
             LOGGER.debug(dataBuffer, buff -> "Try to encrypt data:\n" + hexDump(buff));
 
+            var sources = wrapSources;
+            sources[0] = dataBuffer;
+            try {
+                return wrap(sources, dataBuffer.remaining());
+            } finally {
+                sources[0] = null;
+            }
+        }
+
+        var bufferToWrite = doHandshake(packet);
+
+        if (bufferToWrite != null) {
+            return bufferToWrite;
+        }
+
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Wrap all data of the sources to the network buffer, the buffer is sized once by the count of SSL records
+     * which are needed for the data.
+     *
+     * @param sources  the buffers with data to wrap.
+     * @param dataSize the size of the data.
+     * @return the network buffer with wrapped data or an empty buffer if SSL engine was closed.
+     * @since 9.10.0
+     */
+    protected @NotNull ByteBuffer wrap(@NotNull ByteBuffer[] sources, int dataSize) {
+
+        var session = sslEngine.getSession();
+        var records = Math.max((dataSize + session.getApplicationBufferSize() - 1) / session.getApplicationBufferSize(), 1);
+        var networkBuffer = ensureNetworkBufferSize(records * session.getPacketBufferSize()).clear();
+
+        while (hasRemaining(sources)) {
+
             SSLEngineResult result;
             try {
-                result = sslEngine.wrap(dataBuffer, sslNetworkBuffer.clear());
+                result = sslEngine.wrap(sources, networkBuffer);
             } catch (SSLException e) {
                 throw new RuntimeException(e);
             }
 
             switch (result.getStatus()) {
-                case BUFFER_UNDERFLOW:
-                    increaseNetworkBuffer();
-                    break;
                 case BUFFER_OVERFLOW:
-                    throw new IllegalStateException("Unexpected ssl engine result");
-                case OK:
-                    return sslNetworkBuffer.flip();
+                    networkBuffer = increaseNetworkBuffer(networkBuffer);
+                    break;
                 case CLOSED:
                     closeConnection();
                     return EMPTY_BUFFER;
+                case OK:
+                    if (result.getHandshakeStatus() == HandshakeStatus.NEED_TASK) {
+                        NetworkUtils.runDelegatedTasks(sslEngine, metrics);
+                    } else if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+                        throw new IllegalStateException("SSL engine doesn't wrap data, handshake status: " +
+                            result.getHandshakeStatus());
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected ssl engine result: " + result.getStatus());
             }
         }
 
-        var bufferToWrite = doHandshake(packet);
-
-        if (bufferToWrite != null) {
-            return bufferToWrite;
-        }
-
-        throw new IllegalStateException();
+        return networkBuffer.flip();
     }
 
     protected @Nullable ByteBuffer doHandshake(@NotNull WritablePacket packet) {
@@ -167,7 +287,7 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
 
                             return sslNetworkBuffer;
                         case BUFFER_OVERFLOW:
-                            sslNetworkBuffer = NetworkUtils.enlargePacketBuffer(bufferAllocator, sslEngine);
+                            increaseNetworkBuffer(sslNetworkBuffer);
                             break;
                         case BUFFER_UNDERFLOW:
                             throw new IllegalStateException("Unexpected ssl engine result");
@@ -184,15 +304,21 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
                     }
                     break;
                 case NEED_TASK:
-                    Runnable task;
-                    while ((task = sslEngine.getDelegatedTask()) != null) {
-                        LOGGER.debug(task, t -> "Execute SSL Engine's task: " + t.getClass());
-                        task.run();
+
+                    var sslTaskExecutor = this.sslTaskExecutor;
+
+                    if (sslTaskExecutor != null) {
+                        LOGGER.debug("Execute SSL Engine's tasks by the executor");
+                        sslTaskExecutor.execute(this::runDelegatedTasks);
+                        return EMPTY_BUFFER;
                     }
+
+                    NetworkUtils.runDelegatedTasks(sslEngine, metrics);
                     handshakeStatus = sslEngine.getHandshakeStatus();
                     break;
                 case NEED_UNWRAP:
-                    break;
+                    // the reader notifies the writer after unwrapping of received data
+                    return EMPTY_BUFFER;
                 default:
                     throw new IllegalStateException("Invalid SSL status: " + handshakeStatus);
             }
@@ -201,12 +327,66 @@ public abstract class AbstractSSLPacketWriter<W extends WritablePacket, C extend
         return EMPTY_BUFFER;
     }
 
-    private void increaseNetworkBuffer() {
-        sslNetworkBuffer = NetworkUtils.increasePacketBuffer(
-            sslNetworkBuffer,
-            bufferAllocator,
-            sslEngine
-        );
+    protected void runDelegatedTasks() {
+
+        try {
+            NetworkUtils.runDelegatedTasks(sslEngine, metrics);
+        } catch (Exception e) {
+            LOGGER.error(e);
+        }
+
+        packetWriter.accept(SSLWritablePacket.getInstance());
+    }
+
+    protected boolean isHandshakeFinished() {
+        var status = sslEngine.getHandshakeStatus();
+        return status == HandshakeStatus.FINISHED || status == HandshakeStatus.NOT_HANDSHAKING;
+    }
+
+    private @NotNull ByteBuffer ensureNetworkBufferSize(int size) {
+
+        var current = sslNetworkBuffer;
+
+        if (current.capacity() >= size) {
+            return current;
+        }
+
+        bufferAllocator.putBuffer(current);
+
+        return sslNetworkBuffer = bufferAllocator.takeBuffer(size);
+    }
+
+    /**
+     * Replace the network buffer by a buffer which has space for one more SSL record with keeping of wrapped data.
+     *
+     * @param current the current network buffer in write mode.
+     * @return the new network buffer in write mode.
+     */
+    private @NotNull ByteBuffer increaseNetworkBuffer(@NotNull ByteBuffer current) {
+
+        var newBuffer = bufferAllocator.takeBuffer(current.position() + sslEngine.getSession().getPacketBufferSize());
+        newBuffer.put(current.flip());
+
+        bufferAllocator.putBuffer(current);
+
+        return sslNetworkBuffer = newBuffer;
+    }
+
+    private static boolean hasRemaining(@NotNull ByteBuffer[] buffers) {
+
+        for (var buffer : buffers) {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        bufferAllocator.putBuffer(sslNetworkBuffer);
     }
 
     protected void closeConnection() {
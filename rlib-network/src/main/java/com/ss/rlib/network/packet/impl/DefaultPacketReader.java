@@ -3,6 +3,7 @@ package com.ss.rlib.network.packet.impl;
 import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
 import com.ss.rlib.network.packet.ReadablePacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -20,7 +21,7 @@ public class DefaultPacketReader<R extends ReadablePacket, C extends Connection<
     AbstractPacketReader<R, C> {
 
     private final IntFunction<R> readPacketFactory;
-    private final int packetLengthHeaderSize;
+    private final FrameCodec frameCodec;
 
     public DefaultPacketReader(
         @NotNull C connection,
@@ -31,6 +32,60 @@ public class DefaultPacketReader<R extends ReadablePacket, C extends Connection<
         @NotNull IntFunction<R> readPacketFactory,
         int packetLengthHeaderSize,
         int maxPacketsByRead
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            readPacketFactory,
+            packetLengthHeaderSize,
+            maxPacketsByRead,
+            false
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public DefaultPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<R> readPacketHandler,
+        @NotNull IntFunction<R> readPacketFactory,
+        int packetLengthHeaderSize,
+        int maxPacketsByRead,
+        boolean inPlaceReading
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            readPacketFactory,
+            FrameCodec.fixed(packetLengthHeaderSize, 0),
+            maxPacketsByRead,
+            inPlaceReading
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public DefaultPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<R> readPacketHandler,
+        @NotNull IntFunction<R> readPacketFactory,
+        @NotNull FrameCodec frameCodec,
+        int maxPacketsByRead,
+        boolean inPlaceReading
     ) {
         super(
             connection,
@@ -38,20 +93,21 @@ public class DefaultPacketReader<R extends ReadablePacket, C extends Connection<
             bufferAllocator,
             updateActivityFunction,
             readPacketHandler,
-            maxPacketsByRead
+            maxPacketsByRead,
+            inPlaceReading
         );
         this.readPacketFactory = readPacketFactory;
-        this.packetLengthHeaderSize = packetLengthHeaderSize;
+        this.frameCodec = frameCodec;
     }
 
     @Override
     protected boolean canStartReadPacket(@NotNull ByteBuffer buffer) {
-        return buffer.remaining() >= packetLengthHeaderSize;
+        return frameCodec.hasHeader(buffer);
     }
 
     @Override
     protected int readPacketLength(@NotNull ByteBuffer buffer) {
-        return readHeader(buffer, packetLengthHeaderSize);
+        return frameCodec.readFrameLength(buffer);
     }
 
     @Override
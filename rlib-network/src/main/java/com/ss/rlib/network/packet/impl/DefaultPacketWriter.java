@@ -5,12 +5,15 @@ import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.common.function.NullableSupplier;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
+import com.ss.rlib.network.NetworkConfig;
 import com.ss.rlib.network.packet.WritablePacket;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -21,6 +24,11 @@ import java.util.function.Supplier;
 public class DefaultPacketWriter<W extends WritablePacket, C extends Connection<?, W>> extends
     AbstractPacketWriter<W, C> {
 
+    protected final @NotNull FrameCodec frameCodec;
+
+    /**
+     * The max size of frame headers which is reserved before packets' bodies.
+     */
     protected final int packetLengthHeaderSize;
 
     public DefaultPacketWriter(
@@ -32,6 +40,64 @@ public class DefaultPacketWriter<W extends WritablePacket, C extends Connection<
         @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
         @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
         int packetLengthHeaderSize
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            nextWritePacketSupplier,
+            writtenPacketHandler,
+            sentPacketHandler,
+            packetLengthHeaderSize,
+            NetworkConfig.DEFAULT_CLIENT.getMaxPacketsByWrite(),
+            NetworkConfig.DEFAULT_CLIENT.getMaxBytesByWrite()
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public DefaultPacketWriter(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NullableSupplier<WritablePacket> nextWritePacketSupplier,
+        @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
+        @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
+        int packetLengthHeaderSize,
+        int maxPacketsByWrite,
+        int maxBytesByWrite
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            nextWritePacketSupplier,
+            writtenPacketHandler,
+            sentPacketHandler,
+            FrameCodec.fixed(packetLengthHeaderSize, 0),
+            maxPacketsByWrite,
+            maxBytesByWrite
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public DefaultPacketWriter(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NullableSupplier<WritablePacket> nextWritePacketSupplier,
+        @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
+        @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
+        @NotNull FrameCodec frameCodec,
+        int maxPacketsByWrite,
+        int maxBytesByWrite
     ) {
         super(
             connection,
@@ -40,14 +106,32 @@ public class DefaultPacketWriter<W extends WritablePacket, C extends Connection<
             updateActivityFunction,
             nextWritePacketSupplier,
             writtenPacketHandler,
-            sentPacketHandler
+            sentPacketHandler,
+            maxPacketsByWrite,
+            maxBytesByWrite
         );
-        this.packetLengthHeaderSize = packetLengthHeaderSize;
+        this.frameCodec = frameCodec;
+        this.packetLengthHeaderSize = frameCodec.getMaxHeaderSize();
+    }
+
+    @Override
+    public @NotNull Object getSerializationFormat() {
+        return List.of(super.getSerializationFormat(), frameCodec);
     }
 
     @Override
     protected int getTotalSize(@NotNull WritablePacket packet, int expectedLength) {
-        return expectedLength + packetLengthHeaderSize;
+        return expectedLength + packetLengthHeaderSize + compressionHeaderSize;
+    }
+
+    @Override
+    protected int getNotEncryptedHeaderSize() {
+        return packetLengthHeaderSize;
+    }
+
+    @Override
+    protected int getNotEncryptedHeaderSize(@NotNull ByteBuffer buffer) {
+        return frameCodec.getHeaderSize(buffer, buffer.position());
     }
 
     @Override
@@ -58,7 +142,7 @@ public class DefaultPacketWriter<W extends WritablePacket, C extends Connection<
         @NotNull ByteBuffer firstBuffer,
         @NotNull ByteBuffer secondBuffer
     ) {
-        firstBuffer.clear().position(packetLengthHeaderSize);
+        firstBuffer.clear().position(packetLengthHeaderSize + compressionHeaderSize);
         return true;
     }
 
@@ -70,10 +154,11 @@ public class DefaultPacketWriter<W extends WritablePacket, C extends Connection<
         @NotNull ByteBuffer firstBuffer,
         @NotNull ByteBuffer secondBuffer
     ) {
-        return writePacketLength(firstBuffer, firstBuffer.limit()).position(0);
-    }
 
-    protected @NotNull ByteBuffer writePacketLength(@NotNull ByteBuffer buffer, int packetLength) {
-        return writeHeader(buffer, 0, packetLength, packetLengthHeaderSize);
+        var resultBuffer = compressor == null ? firstBuffer :
+            compress(packetLengthHeaderSize, firstBuffer, secondBuffer);
+
+        // the header is written right before the body, so the frame can start after the reserved space
+        return resultBuffer.position(frameCodec.writeHeader(resultBuffer, packetLengthHeaderSize));
     }
 }
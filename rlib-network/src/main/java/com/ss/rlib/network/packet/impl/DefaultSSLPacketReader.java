@@ -11,6 +11,7 @@ import org.jetbrains.annotations.Nullable;
 import javax.net.ssl.SSLEngine;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.Executor;
 import java.util.function.IntFunction;
 
 /**
@@ -35,6 +36,34 @@ public class DefaultSSLPacketReader<R extends ReadablePacket, C extends Connecti
         @NotNull NotNullConsumer<WritablePacket> packetWriter,
         int packetLengthHeaderSize,
         int maxPacketsByRead
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            readPacketFactory,
+            sslEngine,
+            packetWriter,
+            packetLengthHeaderSize,
+            maxPacketsByRead,
+            null
+        );
+    }
+
+    public DefaultSSLPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<R> readPacketHandler,
+        @NotNull IntFunction<R> readPacketFactory,
+        @NotNull SSLEngine sslEngine,
+        @NotNull NotNullConsumer<WritablePacket> packetWriter,
+        int packetLengthHeaderSize,
+        int maxPacketsByRead,
+        @Nullable Executor sslTaskExecutor
     ) {
         super(
             connection,
@@ -44,7 +73,8 @@ public class DefaultSSLPacketReader<R extends ReadablePacket, C extends Connecti
             readPacketHandler,
             sslEngine,
             packetWriter,
-            maxPacketsByRead
+            maxPacketsByRead,
+            sslTaskExecutor
         );
         this.readPacketFactory = readPacketFactory;
         this.packetLengthHeaderSize = packetLengthHeaderSize;
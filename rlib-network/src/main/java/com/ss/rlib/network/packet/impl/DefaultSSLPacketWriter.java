@@ -7,10 +7,13 @@ import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
 import com.ss.rlib.network.packet.WritablePacket;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.net.ssl.SSLEngine;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * @author JavaSaBr
@@ -32,6 +35,40 @@ public class DefaultSSLPacketWriter<W extends WritablePacket, C extends Connecti
         @NotNull NotNullConsumer<WritablePacket> packetWriter,
         @NotNull NotNullConsumer<WritablePacket> queueAtFirst,
         int packetLengthHeaderSize
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            nextWritePacketSupplier,
+            writtenPacketHandler,
+            sentPacketHandler,
+            sslEngine,
+            packetWriter,
+            queueAtFirst,
+            packetLengthHeaderSize,
+            null,
+            1,
+            0
+        );
+    }
+
+    public DefaultSSLPacketWriter(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NullableSupplier<WritablePacket> nextWritePacketSupplier,
+        @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
+        @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
+        @NotNull SSLEngine sslEngine,
+        @NotNull NotNullConsumer<WritablePacket> packetWriter,
+        @NotNull NotNullConsumer<WritablePacket> queueAtFirst,
+        int packetLengthHeaderSize,
+        @Nullable Executor sslTaskExecutor,
+        int maxPacketsByWrite,
+        int maxBytesByWrite
     ) {
         super(
             connection,
@@ -43,11 +80,19 @@ public class DefaultSSLPacketWriter<W extends WritablePacket, C extends Connecti
             sentPacketHandler,
             sslEngine,
             packetWriter,
-            queueAtFirst
+            queueAtFirst,
+            sslTaskExecutor,
+            maxPacketsByWrite,
+            maxBytesByWrite
         );
         this.packetLengthHeaderSize = packetLengthHeaderSize;
     }
 
+    @Override
+    public @NotNull Object getSerializationFormat() {
+        return List.of(super.getSerializationFormat(), packetLengthHeaderSize);
+    }
+
     @Override
     protected int getTotalSize(@NotNull WritablePacket packet, int expectedLength) {
         return expectedLength + packetLengthHeaderSize;
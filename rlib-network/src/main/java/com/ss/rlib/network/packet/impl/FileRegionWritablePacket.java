@@ -0,0 +1,48 @@
+package com.ss.rlib.network.packet.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The chunked packet to send a region of a file, the region is read to write buffers by chunks. The file channel
+ * isn't closed by the packet. Subclasses should be described by {@link com.ss.rlib.network.annotation.PacketDescription}.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class FileRegionWritablePacket extends AbstractChunkedWritablePacket {
+
+    protected final @NotNull FileChannel fileChannel;
+
+    /**
+     * The position of the region in the file.
+     */
+    protected final long position;
+
+    public FileRegionWritablePacket(@NotNull FileChannel fileChannel, long position, long count) {
+        super(count);
+        this.fileChannel = fileChannel;
+        this.position = position;
+    }
+
+    @Override
+    protected void writeChunk(@NotNull ByteBuffer buffer, long offset) throws IOException {
+
+        var filePosition = position + offset;
+
+        while (buffer.hasRemaining()) {
+
+            var read = fileChannel.read(buffer, filePosition);
+
+            if (read < 0) {
+                throw new EOFException("The file was ended at the position " + filePosition);
+            }
+
+            filePosition += read;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ss.rlib.network.packet.impl;
 import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
 import com.ss.rlib.network.packet.IdBasedReadablePacket;
 import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
 import org.jetbrains.annotations.NotNull;
@@ -20,8 +21,7 @@ public class IdBasedPacketReader<R extends IdBasedReadablePacket<R>, C extends C
     AbstractPacketReader<R, C> {
 
     private final ReadablePacketRegistry<R> packetRegistry;
-    private final int packetLengthHeaderSize;
-    private final int packetIdHeaderSize;
+    private final FrameCodec frameCodec;
 
     public IdBasedPacketReader(
         @NotNull C connection,
@@ -33,6 +33,62 @@ public class IdBasedPacketReader<R extends IdBasedReadablePacket<R>, C extends C
         int maxPacketsByRead,
         int packetIdHeaderSize,
         @NotNull ReadablePacketRegistry<R> packetRegistry
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            packetLengthHeaderSize,
+            maxPacketsByRead,
+            packetIdHeaderSize,
+            packetRegistry,
+            false
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public IdBasedPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<R> readPacketHandler,
+        int packetLengthHeaderSize,
+        int maxPacketsByRead,
+        int packetIdHeaderSize,
+        @NotNull ReadablePacketRegistry<R> packetRegistry,
+        boolean inPlaceReading
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            readPacketHandler,
+            FrameCodec.fixed(packetLengthHeaderSize, packetIdHeaderSize),
+            maxPacketsByRead,
+            packetRegistry,
+            inPlaceReading
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public IdBasedPacketReader(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NotNullConsumer<R> readPacketHandler,
+        @NotNull FrameCodec frameCodec,
+        int maxPacketsByRead,
+        @NotNull ReadablePacketRegistry<R> packetRegistry,
+        boolean inPlaceReading
     ) {
         super(
             connection,
@@ -40,21 +96,21 @@ public class IdBasedPacketReader<R extends IdBasedReadablePacket<R>, C extends C
             bufferAllocator,
             updateActivityFunction,
             readPacketHandler,
-            maxPacketsByRead
+            maxPacketsByRead,
+            inPlaceReading
         );
-        this.packetLengthHeaderSize = packetLengthHeaderSize;
-        this.packetIdHeaderSize = packetIdHeaderSize;
+        this.frameCodec = frameCodec;
         this.packetRegistry = packetRegistry;
     }
 
     @Override
     protected boolean canStartReadPacket(@NotNull ByteBuffer buffer) {
-        return buffer.remaining() > packetLengthHeaderSize;
+        return frameCodec.hasHeader(buffer);
     }
 
     @Override
     protected int readPacketLength(@NotNull ByteBuffer buffer) {
-        return readHeader(buffer, packetLengthHeaderSize);
+        return frameCodec.readFrameLength(buffer);
     }
 
     @Override
@@ -64,7 +120,6 @@ public class IdBasedPacketReader<R extends IdBasedReadablePacket<R>, C extends C
         int packetLength,
         int dataLength
     ) {
-        return packetRegistry.findById(readHeader(buffer, packetIdHeaderSize))
-            .newInstance();
+        return packetRegistry.newInstance(frameCodec.readPacketId(buffer));
     }
 }
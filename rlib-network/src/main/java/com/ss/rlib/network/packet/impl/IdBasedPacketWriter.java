@@ -5,6 +5,8 @@ import com.ss.rlib.common.function.NotNullConsumer;
 import com.ss.rlib.common.function.NullableSupplier;
 import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.FrameCodec;
+import com.ss.rlib.network.NetworkConfig;
 import com.ss.rlib.network.packet.IdBasedWritablePacket;
 import com.ss.rlib.network.packet.WritablePacket;
 import org.jetbrains.annotations.NotNull;
@@ -18,8 +20,6 @@ import java.nio.channels.AsynchronousSocketChannel;
 public class IdBasedPacketWriter<W extends IdBasedWritablePacket, C extends Connection<?, W>> extends
     DefaultPacketWriter<W, C> {
 
-    protected final int packetIdHeaderSize;
-
     public IdBasedPacketWriter(
         @NotNull C connection,
         @NotNull AsynchronousSocketChannel channel,
@@ -30,6 +30,66 @@ public class IdBasedPacketWriter<W extends IdBasedWritablePacket, C extends Conn
         @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
         int packetLengthHeaderSize,
         int packetIdHeaderSize
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            nextWritePacketSupplier,
+            writtenPacketHandler,
+            sentPacketHandler,
+            packetLengthHeaderSize,
+            packetIdHeaderSize,
+            NetworkConfig.DEFAULT_CLIENT.getMaxPacketsByWrite(),
+            NetworkConfig.DEFAULT_CLIENT.getMaxBytesByWrite()
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public IdBasedPacketWriter(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NullableSupplier<WritablePacket> nextWritePacketSupplier,
+        @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
+        @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
+        int packetLengthHeaderSize,
+        int packetIdHeaderSize,
+        int maxPacketsByWrite,
+        int maxBytesByWrite
+    ) {
+        this(
+            connection,
+            channel,
+            bufferAllocator,
+            updateActivityFunction,
+            nextWritePacketSupplier,
+            writtenPacketHandler,
+            sentPacketHandler,
+            FrameCodec.fixed(packetLengthHeaderSize, packetIdHeaderSize),
+            maxPacketsByWrite,
+            maxBytesByWrite
+        );
+    }
+
+    /**
+     * @since 9.10.0
+     */
+    public IdBasedPacketWriter(
+        @NotNull C connection,
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull BufferAllocator bufferAllocator,
+        @NotNull Runnable updateActivityFunction,
+        @NotNull NullableSupplier<WritablePacket> nextWritePacketSupplier,
+        @NotNull NotNullConsumer<WritablePacket> writtenPacketHandler,
+        @NotNull NotNullBiConsumer<WritablePacket, Boolean> sentPacketHandler,
+        @NotNull FrameCodec frameCodec,
+        int maxPacketsByWrite,
+        int maxBytesByWrite
     ) {
         super(
             connection,
@@ -39,9 +99,10 @@ public class IdBasedPacketWriter<W extends IdBasedWritablePacket, C extends Conn
             nextWritePacketSupplier,
             writtenPacketHandler,
             sentPacketHandler,
-            packetLengthHeaderSize
+            frameCodec,
+            maxPacketsByWrite,
+            maxBytesByWrite
         );
-        this.packetIdHeaderSize = packetIdHeaderSize;
     }
 
     @Override
@@ -52,7 +113,7 @@ public class IdBasedPacketWriter<W extends IdBasedWritablePacket, C extends Conn
         @NotNull ByteBuffer firstBuffer,
         @NotNull ByteBuffer secondBuffer
     ) {
-        writeHeader(firstBuffer, packet.getPacketId(), packetIdHeaderSize);
+        frameCodec.writePacketId(firstBuffer, packet.getPacketId());
         return super.onWrite(packet, expectedLength, totalSize, firstBuffer, secondBuffer);
     }
 }
@@ -0,0 +1,173 @@
+package com.ss.rlib.network.packet.impl;
+
+import com.ss.rlib.common.util.ClassUtils;
+import com.ss.rlib.network.metrics.PacketRecyclerStats;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The recycler of reusable packets which keeps released packets in {@link ThreadOwnedPool}s of threads which took
+ * them. A packet which is completed by another thread, usually by a network thread, is returned to the pool of
+ * its owner through a bounded cross-thread queue, so packets don't migrate from threads which produce them to
+ * network threads. Pools of a thread are stored in an array indexed by packet classes. Virtual threads don't own
+ * pools, they take new packets and return packets only to pools of platform threads.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class PacketRecycler {
+
+    public static final int DEFAULT_MAX_CAPACITY = 256;
+    public static final int DEFAULT_MAX_RETURN_CAPACITY = 64;
+
+    private static final AtomicInteger CLASS_INDEX = new AtomicInteger();
+
+    private static final ClassValue<Integer> CLASS_INDEXES = new ClassValue<>() {
+
+        @Override
+        protected @NotNull Integer computeValue(@NotNull Class<?> type) {
+            return CLASS_INDEX.getAndIncrement();
+        }
+    };
+
+    private static final PacketRecycler DEFAULT = new PacketRecycler(DEFAULT_MAX_CAPACITY, DEFAULT_MAX_RETURN_CAPACITY);
+
+    /**
+     * Get the default recycler which is used by reusable packets.
+     *
+     * @return the default recycler.
+     */
+    public static @NotNull PacketRecycler getDefault() {
+        return DEFAULT;
+    }
+
+    private final @NotNull ThreadLocal<ThreadOwnedPool<AbstractReusableWritablePacket>[]> localPools;
+
+    private final @NotNull LongAdder hits;
+    private final @NotNull LongAdder misses;
+    private final @NotNull LongAdder recycled;
+    private final @NotNull LongAdder dropped;
+    private final @NotNull LongAdder retained;
+
+    private final int maxCapacity;
+    private final int maxReturnCapacity;
+
+    public PacketRecycler(int maxCapacity, int maxReturnCapacity) {
+        this.localPools = ThreadLocal.withInitial(() ->
+            ClassUtils.unsafeNNCast(new ThreadOwnedPool[Math.max(CLASS_INDEX.get(), 8)]));
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.recycled = new LongAdder();
+        this.dropped = new LongAdder();
+        this.retained = new LongAdder();
+        this.maxCapacity = Math.max(maxCapacity, 1);
+        this.maxReturnCapacity = Math.max(maxReturnCapacity, 1);
+    }
+
+    /**
+     * Take a released packet of the type or create a new one.
+     *
+     * @param type the packet's type.
+     * @param <T>  the packet's type.
+     * @return the taken or created packet.
+     */
+    public <T extends AbstractReusableWritablePacket> @NotNull T take(@NotNull Class<? extends T> type) {
+
+        var thread = Thread.currentThread();
+
+        if (thread.isVirtual()) {
+            misses.increment();
+            return ClassUtils.newInstance(type);
+        }
+
+        var pool = getLocalPool(type);
+        var packet = pool.take();
+
+        if (packet != null) {
+            hits.increment();
+            retained.decrement();
+        } else {
+            misses.increment();
+            packet = ClassUtils.newInstance(type);
+        }
+
+        packet.recyclerPool = pool;
+
+        return ClassUtils.unsafeNNCast(packet);
+    }
+
+    /**
+     * Recycle the released packet, the packet is returned to the pool of a thread which took it or to the pool
+     * of the current thread if the packet wasn't taken from this recycler.
+     *
+     * @param packet the released packet.
+     */
+    public void recycle(@NotNull AbstractReusableWritablePacket packet) {
+
+        var pool = packet.recyclerPool;
+
+        if (pool == null) {
+
+            if (Thread.currentThread().isVirtual()) {
+                dropped.increment();
+                return;
+            }
+
+            pool = getLocalPool(packet.getClass());
+            packet.recyclerPool = pool;
+        }
+
+        if (pool.tryPut(packet)) {
+            recycled.increment();
+            retained.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private @NotNull ThreadOwnedPool<AbstractReusableWritablePacket> getLocalPool(@NotNull Class<?> type) {
+
+        int index = CLASS_INDEXES.get(type);
+
+        var pools = localPools.get();
+
+        if (index >= pools.length) {
+            pools = Arrays.copyOf(pools, Math.max(index + 1, pools.length * 2));
+            localPools.set(pools);
+        }
+
+        var pool = pools[index];
+
+        if (pool == null) {
+            pool = new ThreadOwnedPool<>(maxCapacity, maxReturnCapacity);
+            pools[index] = pool;
+        }
+
+        return pool;
+    }
+
+    /**
+     * Get a snapshot of statistics of this recycler, retained packets include packets of pools of finished
+     * threads until the pools are collected.
+     *
+     * @return the snapshot of statistics.
+     */
+    public @NotNull PacketRecyclerStats getStats() {
+        return PacketRecyclerStats.builder()
+            .hits(hits.sum())
+            .misses(misses.sum())
+            .recycled(recycled.sum())
+            .dropped(dropped.sum())
+            .retained(retained.sum())
+            .build();
+    }
+
+    @Override
+    public String toString() {
+        return "PacketRecycler{" + "maxCapacity=" + maxCapacity + ", maxReturnCapacity=" + maxReturnCapacity +
+            ", stats=" + getStats() + "}";
+    }
+}
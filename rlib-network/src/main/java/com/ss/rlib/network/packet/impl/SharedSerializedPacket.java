@@ -0,0 +1,112 @@
+package com.ss.rlib.network.packet.impl;
+
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.packet.ReusableWritablePacket;
+import com.ss.rlib.network.packet.WritablePacket;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The packet which is already serialized with all headers to a buffer which is shared between writers of
+ * the same serialization format, so every writer sends its own read-only view of the buffer instead of
+ * serializing the packet again. The buffer is returned to the allocator and a reusable source packet is
+ * completed when the last reference to this packet is released.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class SharedSerializedPacket implements WritablePacket {
+
+    /**
+     * The source packet.
+     */
+    private final @Getter @NotNull WritablePacket packet;
+
+    /**
+     * The buffer with serialized data in read mode.
+     */
+    private final @NotNull ByteBuffer data;
+
+    private final @NotNull BufferAllocator bufferAllocator;
+    private final @NotNull AtomicInteger references;
+
+    public SharedSerializedPacket(
+        @NotNull WritablePacket packet,
+        @NotNull ByteBuffer data,
+        @NotNull BufferAllocator bufferAllocator
+    ) {
+        this.packet = packet;
+        this.data = data;
+        this.bufferAllocator = bufferAllocator;
+        this.references = new AtomicInteger(1);
+    }
+
+    /**
+     * Get a new read-only view of serialized data.
+     *
+     * @return the new view of serialized data.
+     */
+    public @NotNull ByteBuffer newDataView() {
+        return data.asReadOnlyBuffer()
+            .order(data.order());
+    }
+
+    /**
+     * Take a new reference to this packet.
+     */
+    public void retain() {
+        references.incrementAndGet();
+    }
+
+    /**
+     * Release a reference to this packet.
+     */
+    public void release() {
+
+        if (references.decrementAndGet() != 0) {
+            return;
+        }
+
+        bufferAllocator.putBuffer(data);
+
+        if (packet instanceof ReusableWritablePacket) {
+            ((ReusableWritablePacket) packet).complete();
+        }
+    }
+
+    /**
+     * Copy serialized data with all headers to the buffer, packet writers usually send a view of the data
+     * without copying instead.
+     *
+     * @param buffer the buffer.
+     * @return false if the data doesn't fit to the buffer.
+     */
+    @Override
+    public boolean write(@NotNull ByteBuffer buffer) {
+
+        if (buffer.remaining() < data.remaining()) {
+            return false;
+        }
+
+        buffer.put(newDataView());
+        return true;
+    }
+
+    @Override
+    public int getExpectedLength() {
+        return data.remaining();
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "SharedSerializedPacket";
+    }
+
+    @Override
+    public String toString() {
+        return "SharedSerializedPacket{" + "packet=" + packet + ", references=" + references + "}";
+    }
+}
@@ -0,0 +1,189 @@
+package com.ss.rlib.network.packet.impl;
+
+import com.ss.rlib.common.util.ClassUtils;
+import com.ss.rlib.common.util.pools.Pool;
+import com.ss.rlib.common.util.pools.Reusable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The pool which is owned by one thread, only the owner takes objects from this pool. The owner stores objects
+ * to a stack without synchronization and other threads return objects through a bounded lock-free queue which
+ * is drained by the owner when the stack is empty. Objects are dropped when the stack or the queue is full.
+ *
+ * @param <E> the object's type.
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class ThreadOwnedPool<E extends Reusable> implements Pool<E> {
+
+    private final @NotNull WeakReference<Thread> owner;
+    private final @NotNull E[] elements;
+
+    /**
+     * The bounded queue to return objects by other threads.
+     */
+    private final @NotNull AtomicReferenceArray<E> returns;
+    private final @NotNull AtomicLong returnTail;
+
+    private final int returnMask;
+
+    private volatile long returnHead;
+
+    private int size;
+
+    /**
+     * Create a new pool which is owned by the current thread.
+     *
+     * @param maxCapacity       the max count of objects in the stack.
+     * @param maxReturnCapacity the max count of objects in the queue of other threads, it's rounded up to
+     *                          a power of 2.
+     */
+    public ThreadOwnedPool(int maxCapacity, int maxReturnCapacity) {
+        this.owner = new WeakReference<>(Thread.currentThread());
+        this.elements = ClassUtils.unsafeNNCast(new Reusable[Math.max(maxCapacity, 1)]);
+        this.returns = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(maxReturnCapacity, 1) * 2 - 1));
+        this.returnTail = new AtomicLong();
+        this.returnMask = returns.length() - 1;
+    }
+
+    /**
+     * Return true if the current thread is the owner of this pool.
+     *
+     * @return true if the current thread is the owner of this pool.
+     */
+    public boolean isOwnedByCurrentThread() {
+        return owner.get() == Thread.currentThread();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0 && returns.get((int) returnHead & returnMask) == null;
+    }
+
+    @Override
+    public void put(@NotNull E object) {
+        tryPut(object);
+    }
+
+    /**
+     * Put the object to this pool if it has space for it.
+     *
+     * @param object the object.
+     * @return true if the object was stored.
+     */
+    public boolean tryPut(@NotNull E object) {
+
+        object.free();
+
+        var thread = owner.get();
+
+        if (thread == Thread.currentThread()) {
+            return push(object);
+        } else {
+            return thread != null && offer(object);
+        }
+    }
+
+    /**
+     * Remove the object from this pool, it should be called only by the owner. Objects which are returned by
+     * other threads are moved to the stack before searching.
+     *
+     * @param object the object.
+     */
+    @Override
+    public void remove(@NotNull E object) {
+
+        drainReturns();
+
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[i] == object) {
+                elements[i] = elements[--size];
+                elements[size] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Take an object from this pool, it should be called only by the owner.
+     *
+     * @return taken object or null if this pool is empty.
+     */
+    @Override
+    public @Nullable E take() {
+
+        if (size == 0 && drainReturns() == 0) {
+            return null;
+        }
+
+        var object = elements[--size];
+        elements[size] = null;
+        object.reuse();
+
+        return object;
+    }
+
+    private boolean push(@NotNull E object) {
+
+        if (size == elements.length) {
+            return false;
+        }
+
+        elements[size++] = object;
+        return true;
+    }
+
+    private boolean offer(@NotNull E object) {
+
+        var capacity = returns.length();
+
+        while (true) {
+
+            var tail = returnTail.get();
+
+            if (tail - returnHead >= capacity) {
+                return false;
+            } else if (returnTail.compareAndSet(tail, tail + 1)) {
+                returns.setRelease((int) tail & returnMask, object);
+                return true;
+            }
+        }
+    }
+
+    private int drainReturns() {
+
+        var head = returnHead;
+        var drained = 0;
+
+        while (size < elements.length) {
+
+            var index = (int) head & returnMask;
+            var object = returns.getAcquire(index);
+
+            // the queue is empty or the next object is still being offered
+            if (object == null) {
+                break;
+            }
+
+            returns.setPlain(index, null);
+            elements[size++] = object;
+            head++;
+            drained++;
+        }
+
+        // the volatile write publishes released slots to other threads
+        returnHead = head;
+
+        return drained;
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadOwnedPool{" + "owner=" + owner.get() + ", size=" + size + "}";
+    }
+}
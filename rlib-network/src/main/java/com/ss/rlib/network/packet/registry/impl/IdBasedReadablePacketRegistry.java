@@ -1,23 +1,32 @@
 package com.ss.rlib.network.packet.registry.impl;
 
-import com.ss.rlib.common.util.ArrayUtils;
 import com.ss.rlib.common.util.ClassUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.annotation.PacketDescription;
 import com.ss.rlib.network.packet.IdBasedReadablePacket;
+import com.ss.rlib.network.packet.ReusableReadablePacket;
+import com.ss.rlib.network.packet.impl.ThreadOwnedPool;
 import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Arrays;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 /**
- * The id based implementation of readable packets registry.
+ * The id based implementation of readable packets registry. New instances of packets are created by generated
+ * factories and packets which implement {@link ReusableReadablePacket} are reused by pools of their ids, every
+ * network thread has own pool per id and released packets are returned to the pool which they were taken from.
+ * Pools of a thread are stored in an array indexed by packet ids, so taking a packet costs one thread local lookup.
  *
  * @author JavaSaBr
  */
@@ -25,20 +34,49 @@ public class IdBasedReadablePacketRegistry<R extends IdBasedReadablePacket<R>> i
 
     private static final Logger LOGGER = LoggerManager.getLogger(IdBasedReadablePacketRegistry.class);
 
+    @AllArgsConstructor
+    private static final class PacketType<R> {
+
+        /**
+         * The instance of the packet to find it by id.
+         */
+        private final @NotNull R packet;
+
+        /**
+         * The factory to create new instances of the packet.
+         */
+        private final @NotNull Supplier<? extends R> factory;
+
+        /**
+         * True if instances of the packet are reused by pools of threads.
+         */
+        private final boolean reusable;
+    }
+
+    public static final int DEFAULT_MAX_POOL_CAPACITY = 256;
+    public static final int DEFAULT_MAX_POOL_RETURN_CAPACITY = 256;
+
     /**
      * The packet's type in this registry.
      */
     private final Class<? extends R> type;
 
     /**
-     * The array of packet id to packet instance.
+     * The array of packet id to packet type.
      */
     @Getter(AccessLevel.PRIVATE)
     @Setter(AccessLevel.PRIVATE)
-    private volatile R[] idToPacket;
+    private volatile PacketType<R>[] idToPacket;
+
+    /**
+     * The pools of reusable packets of threads indexed by packet ids.
+     */
+    private final @NotNull ThreadLocal<ThreadOwnedPool<ReusableReadablePacket>[]> localPools;
 
     public IdBasedReadablePacketRegistry(@NotNull Class<? extends R> type) {
-        this.idToPacket = ArrayUtils.create(type, 0);
+        this.idToPacket = ClassUtils.unsafeNNCast(new PacketType[0]);
+        this.localPools = ThreadLocal.withInitial(() ->
+            ClassUtils.unsafeNNCast(new ThreadOwnedPool[getIdToPacket().length]));
         this.type = type;
     }
 
@@ -93,9 +131,8 @@ public class IdBasedReadablePacketRegistry<R extends IdBasedReadablePacket<R>> i
             .max()
             .orElseThrow(() -> new IllegalStateException("Not found any packet id"));
 
-        setIdToPacket(Arrays.copyOf(getIdToPacket(), maxId + 1));
-
-        var idToPacket = getIdToPacket();
+        // the new types are published only after filling the copy
+        var idToPacket = Arrays.copyOf(getIdToPacket(), Math.max(getIdToPacket().length, maxId + 1));
 
         for (int i = 0; i < length; i++) {
 
@@ -112,12 +149,57 @@ public class IdBasedReadablePacketRegistry<R extends IdBasedReadablePacket<R>> i
 
             if (idToPacket[id] != null) {
                 throw new IllegalArgumentException("Have found duplication by id " + id + ", existed packet is " +
-                        idToPacket[id].getClass() + ", new packet is " + cs);
+                        idToPacket[id].packet.getClass() + ", new packet is " + cs);
             }
 
-            idToPacket[id] = ClassUtils.newInstance(cs);
+            idToPacket[id] = newPacketType(cs);
         }
 
+        setIdToPacket(idToPacket);
+
+        return this;
+    }
+
+    /**
+     * Register classes of readable packets with their ids and the factory of new instances by id. It's used by
+     * registries which are generated by {@link com.ss.rlib.network.annotation.GeneratePacketRegistry}, so
+     * descriptions of packets aren't read by reflection.
+     *
+     * @param ids     the ids of the classes.
+     * @param classes the classes array.
+     * @param factory the factory of new instances by id.
+     * @return the reference to this registry.
+     * @throws IllegalArgumentException if found a wrong id or duplication by id.
+     * @since 9.10.0
+     */
+    public @NotNull IdBasedReadablePacketRegistry<R> register(
+        int @NotNull [] ids,
+        @NotNull Class<? extends R> @NotNull [] classes,
+        @NotNull IntFunction<? extends R> factory
+    ) {
+
+        var maxId = Arrays.stream(ids)
+            .max()
+            .orElseThrow(() -> new IllegalStateException("Not found any packet id"));
+
+        var idToPacket = Arrays.copyOf(getIdToPacket(), Math.max(getIdToPacket().length, maxId + 1));
+
+        for (int i = 0; i < ids.length; i++) {
+
+            var id = ids[i];
+
+            if (id < 0) {
+                throw new IllegalArgumentException("Class " + classes[i] + " has wrong packet id: " + id);
+            } else if (idToPacket[id] != null) {
+                throw new IllegalArgumentException("Have found duplication by id " + id + ", existed packet is " +
+                    idToPacket[id].packet.getClass() + ", new packet is " + classes[i]);
+            }
+
+            idToPacket[id] = newPacketType(classes[i], () -> factory.apply(id));
+        }
+
+        setIdToPacket(idToPacket);
+
         return this;
     }
 
@@ -130,7 +212,11 @@ public class IdBasedReadablePacketRegistry<R extends IdBasedReadablePacket<R>> i
      *                                  wrong id or some class is already presented with the same id.
      */
     public @NotNull IdBasedReadablePacketRegistry<R> register(@NotNull Class<? extends R> cs) {
-        return register(cs, () -> ClassUtils.newInstance(cs));
+        return registerWithFactory(cs);
+    }
+
+    private <P extends R> @NotNull IdBasedReadablePacketRegistry<R> registerWithFactory(@NotNull Class<P> cs) {
+        return register(cs, newFactory(cs));
     }
 
     /**
@@ -162,39 +248,132 @@ public class IdBasedReadablePacketRegistry<R extends IdBasedReadablePacket<R>> i
 
         var idToPacket = getIdToPacket();
 
-        if (id < idToPacket.length) {
-            if (idToPacket[id] != null) {
-                throw new IllegalArgumentException("Class " + idToPacket[id].getClass() +
-                    " is already has the same id: " + id);
-            } else {
-                idToPacket[id] = ClassUtils.newInstance(cs);
-                return this;
-            }
+        if (id < idToPacket.length && idToPacket[id] != null) {
+            throw new IllegalArgumentException("Class " + idToPacket[id].packet.getClass() +
+                " is already has the same id: " + id);
         }
 
-        idToPacket = Arrays.copyOf(getIdToPacket(), id + 1);
-        idToPacket[id] = factory.get();
+        // the new type is published only after filling the copy
+        idToPacket = Arrays.copyOf(idToPacket, Math.max(idToPacket.length, id + 1));
+        idToPacket[id] = newPacketType(cs, factory);
 
         setIdToPacket(idToPacket);
 
         return this;
     }
 
-    @Override
-    public @NotNull R findById(int id) {
+    /**
+     * Create a factory of new instances of the packet class, the factory calls the constructor without
+     * arguments directly or the packet's {@link IdBasedReadablePacket#newInstance()} if the packet overrides it.
+     *
+     * @param cs  the packet class.
+     * @param <P> the packet's type.
+     * @return the factory of new instances.
+     */
+    protected <P extends R> @NotNull Supplier<P> newFactory(@NotNull Class<P> cs) {
+        try {
+
+            if (cs.getMethod("newInstance").getDeclaringClass() != IdBasedReadablePacket.class) {
+                P packet = ClassUtils.newInstance(cs);
+                return () -> ClassUtils.unsafeNNCast(packet.newInstance());
+            }
+
+            var lookup = MethodHandles.privateLookupIn(cs, MethodHandles.lookup());
+            var callSite = LambdaMetafactory.metafactory(
+                lookup,
+                "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                lookup.findConstructor(cs, MethodType.methodType(void.class)),
+                MethodType.methodType(cs)
+            );
+
+            return ClassUtils.unsafeNNCast(callSite.getTarget().invoke());
+
+        } catch (Throwable e) {
+            LOGGER.warning(cs, e, (type, ex) -> "Cannot generate a factory of packet " + type +
+                ", reflection will be used: " + ex);
+            return () -> ClassUtils.newInstance(cs);
+        }
+    }
+
+    private <P extends R> @NotNull PacketType<R> newPacketType(@NotNull Class<P> cs) {
+        return newPacketType(cs, newFactory(cs));
+    }
+
+    private @NotNull PacketType<R> newPacketType(
+        @NotNull Class<? extends R> cs,
+        @NotNull Supplier<? extends R> factory
+    ) {
+
+        return new PacketType<>(factory.get(), factory, ReusableReadablePacket.class.isAssignableFrom(cs));
+    }
+
+    private @NotNull ThreadOwnedPool<ReusableReadablePacket> getLocalPool(int id) {
+
+        var pools = localPools.get();
+
+        if (id >= pools.length) {
+            pools = Arrays.copyOf(pools, Math.max(id + 1, getIdToPacket().length));
+            localPools.set(pools);
+        }
+
+        var pool = pools[id];
+
+        if (pool == null) {
+            pool = new ThreadOwnedPool<>(DEFAULT_MAX_POOL_CAPACITY, DEFAULT_MAX_POOL_RETURN_CAPACITY);
+            pools[id] = pool;
+        }
+
+        return pool;
+    }
 
-        R[] idToPacket = getIdToPacket();
+    private @NotNull PacketType<R> findPacketType(int id) {
+
+        PacketType<R>[] idToPacket = getIdToPacket();
 
         if (id < 0 || id >= idToPacket.length) {
             throw new IllegalArgumentException("Not found a packet for the id " + id);
         }
 
-        var packet = idToPacket[id];
+        var packetType = idToPacket[id];
 
-        if (packet == null) {
+        if (packetType == null) {
             throw new IllegalArgumentException("Not found a packet for the id " + id);
         }
 
-        return packet;
+        return packetType;
+    }
+
+    @Override
+    public @NotNull R findById(int id) {
+        return findPacketType(id).packet;
+    }
+
+    @Override
+    public @NotNull R newInstance(int id) {
+
+        var packetType = findPacketType(id);
+
+        if (!packetType.reusable) {
+            return packetType.factory.get();
+        }
+
+        // virtual threads don't own pools
+        var pool = Thread.currentThread().isVirtual() ? null : getLocalPool(id);
+        var packet = pool == null ? null : pool.take();
+
+        if (packet == null) {
+
+            packet = (ReusableReadablePacket) packetType.factory.get();
+
+            if (pool != null) {
+                packet.setPool(pool);
+            }
+        }
+
+        packet.retainFirst();
+
+        return ClassUtils.unsafeNNCast(packet);
     }
 }
@@ -0,0 +1,30 @@
+package com.ss.rlib.network.server;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The snapshot of metrics of an acceptor of a server network.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AcceptorMetrics {
+
+    /**
+     * The index of the acceptor.
+     */
+    private final int index;
+
+    /**
+     * The count of network threads of the acceptor's channel group.
+     */
+    private final int threads;
+
+    private final long acceptedConnections;
+    private final long failedAccepts;
+}
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 import reactor.core.publisher.Flux;
 
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -44,4 +45,12 @@ public interface ServerNetwork<C extends Connection<?, ?>> extends Network<C> {
      * @return the stream of new accepted connections.
      */
     @NotNull Flux<? extends C> accepted();
+
+    /**
+     * Get metrics of acceptors of this server network.
+     *
+     * @return the list of metrics by acceptors.
+     * @since 9.10.0
+     */
+    @NotNull List<AcceptorMetrics> getAcceptorMetrics();
 }
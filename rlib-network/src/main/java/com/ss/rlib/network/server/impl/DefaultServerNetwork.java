@@ -12,19 +12,26 @@ import com.ss.rlib.network.Network;
 import com.ss.rlib.network.ServerNetworkConfig;
 import com.ss.rlib.network.UnsafeConnection;
 import com.ss.rlib.network.impl.AbstractNetwork;
+import com.ss.rlib.network.server.AcceptorMetrics;
 import com.ss.rlib.network.server.ServerNetwork;
 import com.ss.rlib.network.util.NetworkUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.channels.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
@@ -38,37 +45,78 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
 
     protected static final Logger LOGGER = LoggerManager.getLogger(DefaultServerNetwork.class);
 
-    private interface ServerCompletionHandler<C extends UnsafeConnection<?, ?>> extends
-        CompletionHandler<AsynchronousSocketChannel, DefaultServerNetwork<C>> {}
+    /**
+     * The acceptor with an own channel group and server socket.
+     */
+    protected static class Acceptor {
+
+        protected final int index;
+        protected final int threads;
+
+        protected final @NotNull AsynchronousChannelGroup group;
+        protected final @NotNull AsynchronousServerSocketChannel channel;
+        protected final @NotNull LongAdder acceptedConnections;
+        protected final @NotNull LongAdder failedAccepts;
+
+        protected Acceptor(int index, int threads, @NotNull AsynchronousChannelGroup group) {
+            this.index = index;
+            this.threads = threads;
+            this.group = group;
+            this.channel = uncheckedGet(group, AsynchronousServerSocketChannel::open);
+            this.acceptedConnections = new LongAdder();
+            this.failedAccepts = new LongAdder();
+        }
 
-    private final ServerCompletionHandler<C> acceptHandler = new ServerCompletionHandler<>() {
+        protected @NotNull AcceptorMetrics toMetrics() {
+            return new AcceptorMetrics(index, threads, acceptedConnections.sum(), failedAccepts.sum());
+        }
+    }
+
+    private final CompletionHandler<AsynchronousSocketChannel, Acceptor> acceptHandler = new CompletionHandler<>() {
 
         @Override
-        public void completed(@NotNull AsynchronousSocketChannel channel, @NotNull DefaultServerNetwork<C> network) {
-            var connection = network.channelToConnection.apply(DefaultServerNetwork.this, channel);
+        public void completed(@NotNull AsynchronousSocketChannel channel, @NotNull Acceptor acceptor) {
+
+            acceptor.acceptedConnections.increment();
+
+            // a next connection can be accepted by another thread of the group while this one is handled
+            acceptNext(acceptor);
+
+            try {
+                NetworkUtils.configureSocket(channel, config);
+            } catch (IOException e) {
+                LOGGER.warning(e);
+                Utils.unchecked(channel, AsynchronousChannel::close);
+                return;
+            }
+
+            var connection = channelToConnection.apply(DefaultServerNetwork.this, channel);
             LOGGER.debug(connection, conn -> "Accepted new connection: " + conn.getRemoteAddress());
-            network.onAccept(connection);
-            network.acceptNext();
+            config.getNetworkMetrics().onAcceptedConnection();
+            onAccept(connection);
         }
 
         @Override
-        public void failed(@NotNull Throwable exc, @NotNull DefaultServerNetwork<C> network) {
+        public void failed(@NotNull Throwable exc, @NotNull Acceptor acceptor) {
             if (exc instanceof AsynchronousCloseException) {
                 LOGGER.warning("Server network was closed");
             } else {
                 LOGGER.error("Got exception during accepting new connection:");
                 LOGGER.error(exc);
 
-                if (channel.isOpen()) {
-                    network.acceptNext();
+                acceptor.failedAccepts.increment();
+
+                if (acceptor.channel.isOpen()) {
+                    acceptNext(acceptor);
                 }
             }
         }
     };
 
-    protected final AsynchronousChannelGroup group;
-    protected final AsynchronousServerSocketChannel channel;
+    protected final @NotNull Acceptor[] acceptors;
+    protected final int acceptBacklog;
     protected final Array<Consumer<? super C>> subscribers;
+    protected final @Nullable IdleConnectionWatcher idleConnectionWatcher;
 
     public DefaultServerNetwork(
         @NotNull ServerNetworkConfig config,
@@ -77,8 +125,78 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
 
         super(config, channelToConnection);
 
+        var acceptorCount = config.getAcceptorCount() > 0 ?
+            config.getAcceptorCount() : Runtime.getRuntime().availableProcessors();
+
+        if (acceptorCount > 1 && !isReusePortSupported(config)) {
+            LOGGER.warning(acceptorCount, count -> "Cannot use " + count + " acceptors without SO_REUSEPORT, " +
+                "so only one acceptor will be used.");
+            acceptorCount = 1;
+        }
+
+        LOGGER.info(config, acceptorCount, (conf, count) -> "Server network configuration: {\n" +
+            "  minThreads: " + conf.getThreadGroupMinSize() + ",\n" +
+            "  maxThreads: " + conf.getThreadGroupMaxSize() + ",\n" +
+            "  priority: " + conf.getThreadPriority() + ",\n" +
+            "  groupName: \"" + conf.getThreadGroupName() + "\",\n" +
+            "  acceptors: " + count + ",\n" +
+            "  reusePort: " + conf.isReusePort() + ",\n" +
+            "  acceptBacklog: " + conf.getAcceptBacklog() + ",\n" +
+            "  tcpNoDelay: " + conf.isTcpNoDelay() + ",\n" +
+            "  readBufferSize: " + conf.getReadBufferSize() + ",\n" +
+            "  pendingBufferSize: " + conf.getPendingBufferSize() + ",\n" +
+            "  writeBufferSize: " + conf.getWriteBufferSize() + ",\n" +
+            "  readIdleTimeout: " + conf.getReadIdleTimeout() + ",\n" +
+            "  writeIdleTimeout: " + conf.getWriteIdleTimeout() + ",\n" +
+            "  allIdleTimeout: " + conf.getAllIdleTimeout() + "\n" +
+            "}");
+
+        this.acceptors = new Acceptor[acceptorCount];
+
+        for (int i = 0; i < acceptorCount; i++) {
+
+            var groupName = acceptorCount == 1 ? config.getThreadGroupName() : config.getThreadGroupName() + "-" + i;
+            var group = uncheckedGet(createExecutor(config, groupName), AsynchronousChannelGroup::withThreadPool);
+
+            acceptors[i] = new Acceptor(i, config.getThreadGroupMaxSize(), group);
+
+            if (config.isReusePort() && acceptorCount > 1) {
+                Utils.unchecked(acceptors[i].channel, ch -> ch.setOption(StandardSocketOptions.SO_REUSEPORT, true));
+            }
+
+            // accepted sockets inherit the receive buffer, it should be set before binding to use big TCP windows
+            if (config.getSocketReceiveBufferSize() > 0) {
+                Utils.unchecked(acceptors[i].channel, ch ->
+                    ch.setOption(StandardSocketOptions.SO_RCVBUF, config.getSocketReceiveBufferSize()));
+            }
+        }
+
+        this.acceptBacklog = config.getAcceptBacklog();
+
+        this.subscribers = ArrayFactory.newCopyOnModifyArray(Consumer.class);
+        this.idleConnectionWatcher = IdleConnectionWatcher.isEnabled(config) ? new IdleConnectionWatcher(config) : null;
+    }
+
+    private static boolean isReusePortSupported(@NotNull ServerNetworkConfig config) {
+
+        if (!config.isReusePort()) {
+            return false;
+        }
+
+        try (var channel = AsynchronousServerSocketChannel.open()) {
+            return channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static @NotNull ExecutorService createExecutor(
+        @NotNull ServerNetworkConfig config,
+        @NotNull String groupName
+    ) {
+
         var threadFactory = new GroupThreadFactory(
-            config.getThreadGroupName(),
+            groupName,
             config.getThreadConstructor(),
             config.getThreadPriority(),
             false
@@ -97,19 +215,7 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
         // activate the executor
         executor.submit(() -> {});
 
-        LOGGER.info(config, conf -> "Server network configuration: {\n" +
-            "  minThreads: " + conf.getThreadGroupMinSize() + ",\n" +
-            "  maxThreads: " + conf.getThreadGroupMaxSize() + ",\n" +
-            "  priority: " + conf.getThreadPriority() + ",\n" +
-            "  groupName: \"" + conf.getThreadGroupName() + "\",\n" +
-            "  readBufferSize: " + conf.getReadBufferSize() + ",\n" +
-            "  pendingBufferSize: " + conf.getPendingBufferSize() + ",\n" +
-            "  writeBufferSize: " + conf.getWriteBufferSize() + "\n" +
-            "}");
-
-        this.group = uncheckedGet(executor, AsynchronousChannelGroup::withThreadPool);
-        this.channel = uncheckedGet(group, AsynchronousServerSocketChannel::open);
-        this.subscribers = ArrayFactory.newCopyOnModifyArray(Consumer.class);
+        return executor;
     }
 
     @Override
@@ -121,12 +227,14 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
 
             address = new InetSocketAddress(NetworkUtils.getAvailablePort(1500));
             try {
-                channel.bind(address);
+                acceptors[0].channel.bind(address, acceptBacklog);
             } catch (IOException e) {
                 address = null;
             }
         }
 
+        bindOtherAcceptors(address);
+
         LOGGER.info(address, adr -> "Started server socket on address: " + adr);
 
         if (!subscribers.isEmpty()) {
@@ -138,7 +246,9 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
 
     @Override
     public <S extends ServerNetwork<C>> @NotNull S start(@NotNull InetSocketAddress serverAddress) {
-        Utils.unchecked(channel, serverAddress, AsynchronousServerSocketChannel::bind);
+        Utils.unchecked(acceptors[0].channel, serverAddress, this::bind);
+
+        bindOtherAcceptors(serverAddress);
 
         LOGGER.info(serverAddress, addr -> "Started server socket on address: " + addr);
 
@@ -149,10 +259,29 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
         return ClassUtils.unsafeNNCast(this);
     }
 
+    private void bindOtherAcceptors(@NotNull InetSocketAddress address) {
+        for (int i = 1; i < acceptors.length; i++) {
+            Utils.unchecked(acceptors[i].channel, address, this::bind);
+        }
+    }
+
+    private void bind(
+        @NotNull AsynchronousServerSocketChannel channel,
+        @NotNull InetSocketAddress address
+    ) throws IOException {
+        channel.bind(address, acceptBacklog);
+    }
+
     protected void acceptNext() {
-        if (channel.isOpen()) {
-            try { channel.accept(this, acceptHandler); }
-            catch (AcceptPendingException ignored) {}
+        for (var acceptor : acceptors) {
+            acceptNext(acceptor);
+        }
+    }
+
+    protected void acceptNext(@NotNull Acceptor acceptor) {
+        if (acceptor.channel.isOpen()) {
+            try { acceptor.channel.accept(acceptor, acceptHandler); }
+            catch (AcceptPendingException | NotYetBoundException ignored) {}
         } else {
             LOGGER.warning("Cannot accept a next connection because server channel is already closed");
         }
@@ -160,6 +289,11 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
 
     protected void onAccept(@NotNull C connection) {
         connection.onConnected();
+
+        if (idleConnectionWatcher != null) {
+            idleConnectionWatcher.watch(connection);
+        }
+
         subscribers.forEachR(connection, Consumer::accept);
     }
 
@@ -180,9 +314,28 @@ public final class DefaultServerNetwork<C extends UnsafeConnection<?, ?>> extend
         sink.onDispose(() -> subscribers.remove(listener));
     }
 
+    @Override
+    public @NotNull List<AcceptorMetrics> getAcceptorMetrics() {
+
+        var result = new ArrayList<AcceptorMetrics>(acceptors.length);
+
+        for (var acceptor : acceptors) {
+            result.add(acceptor.toMetrics());
+        }
+
+        return result;
+    }
+
     @Override
     public void shutdown() {
-        Utils.unchecked(channel, AsynchronousChannel::close);
-        group.shutdown();
+
+        for (var acceptor : acceptors) {
+            Utils.unchecked(acceptor.channel, AsynchronousChannel::close);
+            acceptor.group.shutdown();
+        }
+
+        if (idleConnectionWatcher != null) {
+            idleConnectionWatcher.stop();
+        }
     }
 }
@@ -0,0 +1,130 @@
+package com.ss.rlib.network.server.impl;
+
+import com.ss.rlib.network.IdleState;
+import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.UnsafeConnection;
+import com.ss.rlib.network.impl.HashedWheelTimer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The watcher of idle timeouts of server connections. All connections share one {@link HashedWheelTimer} and
+ * each connection has only one scheduled timeout by an idle state. Activity of a connection doesn't touch the
+ * timer, an expired timeout checks the last activity and is scheduled again to the remaining time.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class IdleConnectionWatcher {
+
+    private static final int WHEEL_SIZE = 512;
+
+    /**
+     * Check whether any idle timeout is enabled in the config.
+     *
+     * @param config the server network config.
+     * @return true if any idle timeout is enabled.
+     */
+    public static boolean isEnabled(@NotNull ServerNetworkConfig config) {
+        return config.getReadIdleTimeout() > 0 || config.getWriteIdleTimeout() > 0 || config.getAllIdleTimeout() > 0;
+    }
+
+    private final @NotNull HashedWheelTimer timer;
+
+    private final int readIdleTimeout;
+    private final int writeIdleTimeout;
+    private final int allIdleTimeout;
+    private final boolean closeIdleConnections;
+
+    public IdleConnectionWatcher(@NotNull ServerNetworkConfig config) {
+        this.readIdleTimeout = config.getReadIdleTimeout();
+        this.writeIdleTimeout = config.getWriteIdleTimeout();
+        this.allIdleTimeout = config.getAllIdleTimeout();
+        this.closeIdleConnections = config.isCloseIdleConnections();
+        this.timer = new HashedWheelTimer(
+            config.getThreadGroupName() + "-IdleWatcher",
+            config.getIdleTimerTickDuration(),
+            TimeUnit.MILLISECONDS,
+            WHEEL_SIZE
+        );
+    }
+
+    /**
+     * Start watching idle states of the connection until it is closed.
+     *
+     * @param connection the connection.
+     */
+    public void watch(@NotNull UnsafeConnection<?, ?> connection) {
+
+        if (readIdleTimeout > 0) {
+            schedule(connection, IdleState.READ_IDLE, readIdleTimeout);
+        }
+
+        if (writeIdleTimeout > 0) {
+            schedule(connection, IdleState.WRITE_IDLE, writeIdleTimeout);
+        }
+
+        if (allIdleTimeout > 0) {
+            schedule(connection, IdleState.ALL_IDLE, allIdleTimeout);
+        }
+    }
+
+    /**
+     * Stop watching all connections.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    protected void schedule(@NotNull UnsafeConnection<?, ?> connection, @NotNull IdleState state, long delay) {
+        if (!timer.isStopped()) {
+            timer.newTimeout(() -> check(connection, state), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    protected void check(@NotNull UnsafeConnection<?, ?> connection, @NotNull IdleState state) {
+
+        if (connection.isClosed()) {
+            return;
+        }
+
+        var timeout = getTimeout(state);
+        var remaining = getLastActivity(connection, state) + timeout - System.currentTimeMillis();
+
+        if (remaining > 0) {
+            schedule(connection, state, remaining);
+            return;
+        }
+
+        connection.handleIdle(state);
+
+        if (closeIdleConnections) {
+            connection.close();
+        } else {
+            schedule(connection, state, timeout);
+        }
+    }
+
+    protected int getTimeout(@NotNull IdleState state) {
+        switch (state) {
+            case READ_IDLE:
+                return readIdleTimeout;
+            case WRITE_IDLE:
+                return writeIdleTimeout;
+            default:
+                return allIdleTimeout;
+        }
+    }
+
+    protected long getLastActivity(@NotNull UnsafeConnection<?, ?> connection, @NotNull IdleState state) {
+        switch (state) {
+            case READ_IDLE:
+                return connection.getLastReadActivity();
+            case WRITE_IDLE:
+                return connection.getLastWriteActivity();
+            default:
+                return connection.getLastActivity();
+        }
+    }
+}
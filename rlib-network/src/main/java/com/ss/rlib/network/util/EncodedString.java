@@ -0,0 +1,99 @@
+package com.ss.rlib.network.util;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The string which is already encoded to UTF-8 with varint length in the same format as
+ * {@link EncodingUtils#writeUtf8(ByteBuffer, String)} does it, so frequently sent constants can be written by
+ * a bulk copy without encoding them again.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public final class EncodedString {
+
+    /**
+     * The max count of strings in the cache of {@link #cached(String)}.
+     */
+    public static final int MAX_CACHED_STRINGS = 1024;
+
+    private static final ConcurrentHashMap<String, EncodedString> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Encode the string.
+     *
+     * @param value the string.
+     * @return the encoded string.
+     */
+    public static @NotNull EncodedString of(@NotNull String value) {
+        return new EncodedString(value);
+    }
+
+    /**
+     * Get an encoded string from the cache or encode the string and put it to the cache if the cache isn't full.
+     *
+     * @param value the string.
+     * @return the encoded string.
+     */
+    public static @NotNull EncodedString cached(@NotNull String value) {
+
+        var encoded = CACHE.get(value);
+
+        if (encoded != null) {
+            return encoded;
+        } else if (CACHE.size() >= MAX_CACHED_STRINGS) {
+            return new EncodedString(value);
+        }
+
+        return CACHE.computeIfAbsent(value, EncodedString::new);
+    }
+
+    /**
+     * The source string.
+     */
+    private final @Getter @NotNull String value;
+
+    /**
+     * The encoded string with varint length.
+     */
+    private final @NotNull byte[] data;
+
+    private EncodedString(@NotNull String value) {
+
+        var buffer = ByteBuffer.allocate(EncodingUtils.MAX_VAR_INT_SIZE + EncodingUtils.utf8Length(value));
+
+        EncodingUtils.writeUtf8(buffer, value);
+
+        this.value = value;
+        this.data = new byte[buffer.position()];
+
+        buffer.get(0, data);
+    }
+
+    /**
+     * Get a count of bytes of this encoded string with its length.
+     *
+     * @return the count of bytes.
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Write this encoded string to the buffer.
+     *
+     * @param buffer the buffer.
+     */
+    public void write(@NotNull ByteBuffer buffer) {
+        buffer.put(data);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,310 @@
+package com.ss.rlib.network.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The utility methods to encode values to compact formats: unsigned varints which use 7 bits of every byte,
+ * zigzag encoded signed varints and UTF-8 strings with varint length of encoded bytes.
+ *
+ * @author JavaSaBr
+ * @since 9.10.0
+ */
+public class EncodingUtils {
+
+    /**
+     * The max count of bytes of encoded int.
+     */
+    public static final int MAX_VAR_INT_SIZE = 5;
+
+    /**
+     * The max count of bytes of encoded long.
+     */
+    public static final int MAX_VAR_LONG_SIZE = 10;
+
+    /**
+     * Encode the signed int to unsigned, values with small absolute values become small.
+     *
+     * @param value the signed value.
+     * @return the encoded value.
+     */
+    public static int encodeZigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Decode the signed int which was encoded by {@link #encodeZigZag(int)}.
+     *
+     * @param value the encoded value.
+     * @return the signed value.
+     */
+    public static int decodeZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Encode the signed long to unsigned, values with small absolute values become small.
+     *
+     * @param value the signed value.
+     * @return the encoded value.
+     */
+    public static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Decode the signed long which was encoded by {@link #encodeZigZag(long)}.
+     *
+     * @param value the encoded value.
+     * @return the signed value.
+     */
+    public static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Get a count of bytes of the encoded unsigned int.
+     *
+     * @param value the value.
+     * @return the count of bytes.
+     */
+    public static int varIntSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Get a count of bytes of the encoded unsigned long.
+     *
+     * @param value the value.
+     * @return the count of bytes.
+     */
+    public static int varLongSize(long value) {
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Write the unsigned int by 1-5 bytes, negative values take 5 bytes.
+     *
+     * @param buffer the buffer.
+     * @param value  the value.
+     */
+    public static void writeVarInt(@NotNull ByteBuffer buffer, int value) {
+
+        if ((value & ~0x7F) == 0) {
+            buffer.put((byte) value);
+            return;
+        }
+
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Read the unsigned int which was written by {@link #writeVarInt(ByteBuffer, int)}.
+     *
+     * @param buffer the buffer.
+     * @return the value.
+     * @throws IllegalStateException if the value is encoded by more than 5 bytes.
+     */
+    public static int readVarInt(@NotNull ByteBuffer buffer) {
+
+        int first = buffer.get();
+
+        if (first >= 0) {
+            return first;
+        }
+
+        var result = first & 0x7F;
+
+        for (int shift = 7; shift < 35; shift += 7) {
+
+            var value = buffer.get();
+            result |= (value & 0x7F) << shift;
+
+            if (value >= 0) {
+                return result;
+            }
+        }
+
+        throw new IllegalStateException("Found malformed varint in buffer " + buffer);
+    }
+
+    /**
+     * Write the unsigned long by 1-10 bytes, negative values take 10 bytes.
+     *
+     * @param buffer the buffer.
+     * @param value  the value.
+     */
+    public static void writeVarLong(@NotNull ByteBuffer buffer, long value) {
+
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Read the unsigned long which was written by {@link #writeVarLong(ByteBuffer, long)}.
+     *
+     * @param buffer the buffer.
+     * @return the value.
+     * @throws IllegalStateException if the value is encoded by more than 10 bytes.
+     */
+    public static long readVarLong(@NotNull ByteBuffer buffer) {
+
+        var result = 0L;
+
+        for (int shift = 0; shift < 70; shift += 7) {
+
+            var value = buffer.get();
+            result |= (long) (value & 0x7F) << shift;
+
+            if (value >= 0) {
+                return result;
+            }
+        }
+
+        throw new IllegalStateException("Found malformed varlong in buffer " + buffer);
+    }
+
+    /**
+     * Get a count of bytes of the string encoded to UTF-8, unpaired surrogates are encoded as '?'.
+     *
+     * @param string the string.
+     * @return the count of bytes.
+     */
+    public static int utf8Length(@NotNull String string) {
+
+        var length = string.length();
+        var result = length;
+
+        for (int i = 0; i < length; i++) {
+
+            var ch = string.charAt(i);
+
+            if (ch < 0x80) {
+                continue;
+            } else if (ch < 0x800) {
+                result += 1;
+            } else if (!Character.isSurrogate(ch)) {
+                result += 2;
+            } else if (isSurrogatePair(string, i, length)) {
+                // 4 bytes for 2 chars
+                result += 2;
+                i++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Write the string encoded to UTF-8 with varint count of encoded bytes before it.
+     *
+     * @param buffer the buffer.
+     * @param string the string.
+     * @throws BufferOverflowException if the buffer doesn't have enough space.
+     */
+    public static void writeUtf8(@NotNull ByteBuffer buffer, @NotNull String string) {
+
+        var encodedLength = utf8Length(string);
+
+        if (buffer.remaining() < varIntSize(encodedLength) + encodedLength) {
+            throw new BufferOverflowException();
+        }
+
+        writeVarInt(buffer, encodedLength);
+
+        var position = buffer.position();
+        var length = string.length();
+        var index = 0;
+
+        // fast path for ASCII prefix of the string
+        for (char ch; index < length && (ch = string.charAt(index)) < 0x80; index++) {
+            buffer.put(position + index, (byte) ch);
+        }
+
+        if (index < length) {
+            encodeUtf8(buffer, position + index, string, index);
+        }
+
+        buffer.position(position + encodedLength);
+    }
+
+    private static void encodeUtf8(@NotNull ByteBuffer buffer, int position, @NotNull String string, int index) {
+
+        for (int i = index, length = string.length(); i < length; i++) {
+
+            var ch = string.charAt(i);
+
+            if (ch < 0x80) {
+                buffer.put(position++, (byte) ch);
+            } else if (ch < 0x800) {
+                buffer.put(position++, (byte) (0xC0 | (ch >> 6)));
+                buffer.put(position++, (byte) (0x80 | (ch & 0x3F)));
+            } else if (!Character.isSurrogate(ch)) {
+                buffer.put(position++, (byte) (0xE0 | (ch >> 12)));
+                buffer.put(position++, (byte) (0x80 | ((ch >> 6) & 0x3F)));
+                buffer.put(position++, (byte) (0x80 | (ch & 0x3F)));
+            } else if (isSurrogatePair(string, i, length)) {
+                var codePoint = Character.toCodePoint(ch, string.charAt(++i));
+                buffer.put(position++, (byte) (0xF0 | (codePoint >> 18)));
+                buffer.put(position++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put(position++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put(position++, (byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                buffer.put(position++, (byte) '?');
+            }
+        }
+    }
+
+    private static boolean isSurrogatePair(@NotNull String string, int index, int length) {
+        return Character.isHighSurrogate(string.charAt(index)) && index + 1 < length &&
+            Character.isLowSurrogate(string.charAt(index + 1));
+    }
+
+    /**
+     * Read the string which was written by {@link #writeUtf8(ByteBuffer, String)}.
+     *
+     * @param buffer the buffer.
+     * @return the string.
+     * @throws IllegalStateException if the buffer doesn't contain all bytes of the string.
+     */
+    public static @NotNull String readUtf8(@NotNull ByteBuffer buffer) {
+
+        var length = readVarInt(buffer);
+
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Found too long string " + length + " from buffer " + buffer);
+        }
+
+        var position = buffer.position();
+
+        String result;
+
+        if (buffer.hasArray()) {
+            result = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        } else {
+            var bytes = new byte[length];
+            buffer.get(position, bytes);
+            result = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        buffer.position(position + length);
+
+        return result;
+    }
+
+    private EncodingUtils() {
+        throw new RuntimeException();
+    }
+}
@@ -1,10 +1,18 @@
 package com.ss.rlib.network.util;
 
+import com.ss.rlib.common.concurrent.GroupThreadFactory;
 import com.ss.rlib.common.util.Utils;
 import com.ss.rlib.common.util.array.ArrayFactory;
 import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.metrics.NetworkMetrics;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
 
 import javax.net.ssl.*;
 import java.io.IOException;
@@ -12,11 +20,19 @@ import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.security.KeyStore;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
 /**
@@ -26,6 +42,26 @@ public class NetworkUtils {
 
     public static final @NotNull ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
 
+    /**
+     * The protocol of created SSL contexts, it enables TLS 1.3 and TLS 1.2 for old peers.
+     *
+     * @since 9.10.0
+     */
+    public static final @NotNull String SSL_PROTOCOL = "TLS";
+
+    /**
+     * The capacity of the queue of the shared executor of delegated tasks of SSL engines by its thread.
+     */
+    public static final int SSL_TASK_QUEUE_CAPACITY_BY_THREAD = 64;
+
+    private static class SslTaskExecutorHolder {
+
+        private static final @NotNull ExecutorService INSTANCE = newSslTaskExecutor(
+            Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors() * SSL_TASK_QUEUE_CAPACITY_BY_THREAD
+        );
+    }
+
     public static class AllTrustManager implements X509TrustManager {
 
         public static final @NotNull X509Certificate[] EMPTY_CERTS = new X509Certificate[0];
@@ -42,6 +78,36 @@ public class NetworkUtils {
         return Utils.uncheckedGet(socketChannel, AsynchronousSocketChannel::getRemoteAddress);
     }
 
+    /**
+     * Apply socket options of the network config to the socket channel of a connection.
+     * SO_LINGER is applied only if the channel supports it.
+     *
+     * @param channel the socket channel.
+     * @param config  the network config.
+     * @throws IOException if some option cannot be applied.
+     * @since 9.10.0
+     */
+    public static void configureSocket(
+        @NotNull AsynchronousSocketChannel channel,
+        @NotNull NetworkConfig config
+    ) throws IOException {
+
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, config.isTcpNoDelay());
+        channel.setOption(StandardSocketOptions.SO_KEEPALIVE, config.isSocketKeepAlive());
+
+        if (config.getSocketSendBufferSize() > 0) {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, config.getSocketSendBufferSize());
+        }
+
+        if (config.getSocketReceiveBufferSize() > 0) {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, config.getSocketReceiveBufferSize());
+        }
+
+        if (config.getSocketLinger() >= 0 && channel.supportedOptions().contains(StandardSocketOptions.SO_LINGER)) {
+            channel.setOption(StandardSocketOptions.SO_LINGER, config.getSocketLinger());
+        }
+    }
+
     public static @NotNull SSLContext createSslContext(
         @NotNull InputStream keyStoreData,
         @NotNull String keyStorePassword
@@ -88,7 +154,7 @@ public class NetworkUtils {
                 trustManagers = tmf.getTrustManagers();
             }
 
-            var sslContext = SSLContext.getInstance("TLSv1.2");
+            var sslContext = SSLContext.getInstance(SSL_PROTOCOL);
             sslContext.init(keyManagers, trustManagers, new SecureRandom());
 
             return sslContext;
@@ -102,7 +168,7 @@ public class NetworkUtils {
 
         try {
 
-            var sslContext = SSLContext.getInstance("TLSv1.2");
+            var sslContext = SSLContext.getInstance(SSL_PROTOCOL);
             sslContext.init(null, ArrayFactory.toArray(new AllTrustManager()), new SecureRandom());
 
             return sslContext;
@@ -112,6 +178,151 @@ public class NetworkUtils {
         }
     }
 
+    /**
+     * Configure caches of SSL sessions of the SSL context, cached sessions let clients resume them by short
+     * handshakes without expensive key exchange. A client connection resumes a session only with the same
+     * server address.
+     *
+     * @param sslContext the SSL context.
+     * @param cacheSize  the max count of cached sessions or 0 to not limit it.
+     * @param timeout    the timeout of cached sessions in seconds or 0 to not limit it.
+     * @return the same SSL context.
+     * @since 9.10.0
+     */
+    public static @NotNull SSLContext configureSessionCache(
+        @NotNull SSLContext sslContext,
+        int cacheSize,
+        int timeout
+    ) {
+
+        for (var sessionContext : List.of(sslContext.getServerSessionContext(), sslContext.getClientSessionContext())) {
+            sessionContext.setSessionCacheSize(cacheSize);
+            sessionContext.setSessionTimeout(timeout);
+        }
+
+        return sslContext;
+    }
+
+    /**
+     * Create an executor of delegated tasks of SSL engines with the bounded queue of tasks, its threads are
+     * started on demand. When the queue is full, a task is run by the network thread which submits it, so
+     * a storm of handshakes slows down network threads instead of growing the queue.
+     *
+     * @param threads       the count of threads.
+     * @param queueCapacity the capacity of the queue of tasks.
+     * @return the new executor.
+     * @since 9.10.0
+     */
+    public static @NotNull ExecutorService newSslTaskExecutor(int threads, int queueCapacity) {
+
+        var threadFactory = new GroupThreadFactory("SslTaskExecutor", Thread::new, Thread.NORM_PRIORITY, true);
+        var executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            threadFactory,
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Get the shared executor of delegated tasks of SSL engines, it has a thread for each processor, its threads
+     * are started on demand and it runs tasks by network threads when it has
+     * {@link #SSL_TASK_QUEUE_CAPACITY_BY_THREAD} queued tasks by thread.
+     *
+     * @return the shared executor.
+     * @since 9.10.0
+     */
+    public static @NotNull Executor getSharedSslTaskExecutor() {
+        return SslTaskExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Run all delegated tasks of the SSL engine by the current thread.
+     *
+     * @param sslEngine the SSL engine.
+     * @param metrics   the metrics to record durations of the tasks.
+     * @since 9.10.0
+     */
+    public static void runDelegatedTasks(@NotNull SSLEngine sslEngine, @NotNull NetworkMetrics metrics) {
+
+        var metricsEnabled = metrics.isEnabled();
+
+        Runnable task;
+
+        while ((task = sslEngine.getDelegatedTask()) != null) {
+
+            var startTime = metricsEnabled ? System.nanoTime() : 0L;
+
+            task.run();
+
+            if (metricsEnabled) {
+                metrics.onSslDelegatedTask(System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    /**
+     * Call the consumer with each element of the stream after the element is handled by the subscriber of the
+     * stream. Subscriptions of the stream aren't fuseable, so elements are always passed through the consumer.
+     *
+     * @param flux     the stream.
+     * @param consumer the consumer.
+     * @param <T>      the type of elements.
+     * @return the stream which calls the consumer.
+     * @since 9.10.0
+     */
+    public static <T> @NotNull Flux<T> doAfterNext(@NotNull Flux<T> flux, @NotNull Consumer<? super T> consumer) {
+        return flux.transform(Operators.<T, T>lift((scannable, subscriber) -> new CoreSubscriber<>() {
+
+            @Override
+            public @NotNull Context currentContext() {
+                return subscriber.currentContext();
+            }
+
+            @Override
+            public void onSubscribe(@NotNull Subscription subscription) {
+                subscriber.onSubscribe(new Subscription() {
+
+                    @Override
+                    public void request(long count) {
+                        subscription.request(count);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(@NotNull T value) {
+                try {
+                    subscriber.onNext(value);
+                } finally {
+                    consumer.accept(value);
+                }
+            }
+
+            @Override
+            public void onError(@NotNull Throwable error) {
+                subscriber.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        }));
+    }
+
     /**
      * Prepare a string like 'HEX DUMP' by passed byte buffer.
      *
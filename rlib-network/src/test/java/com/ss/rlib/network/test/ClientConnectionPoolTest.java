@@ -0,0 +1,307 @@
+package com.ss.rlib.network.test;
+
+import static com.ss.rlib.network.NetworkFactory.newClientConnectionPool;
+import static com.ss.rlib.network.NetworkFactory.newStringDataClientNetwork;
+import static com.ss.rlib.network.NetworkFactory.newStringDataServerNetwork;
+import com.ss.rlib.network.Connection.ReceivedPacketEvent;
+import com.ss.rlib.network.client.ClientConnectionPool;
+import com.ss.rlib.network.client.ClientConnectionPoolConfig;
+import com.ss.rlib.network.client.ClientConnectionPoolConfig.SimpleClientConnectionPoolConfig;
+import com.ss.rlib.network.impl.StringDataConnection;
+import com.ss.rlib.network.packet.impl.StringReadablePacket;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The tests of client connection pools.
+ *
+ * @author JavaSaBr
+ */
+public class ClientConnectionPoolTest {
+
+    /**
+     * Get an id of a request from a message "id:data" or -1 if the message doesn't have an id.
+     */
+    private static long getRequestId(@NotNull StringReadablePacket packet) {
+
+        var data = packet.getData();
+        var index = data.indexOf(':');
+
+        return index < 0 ? -1 : Long.parseLong(data.substring(0, index));
+    }
+
+    private static @NotNull ClientConnectionPool<StringReadablePacket, StringWritablePacket, StringDataConnection>
+    newPool(@NotNull InetSocketAddress serverAddress, @NotNull ClientConnectionPoolConfig config) {
+        return newClientConnectionPool(
+            newStringDataClientNetwork(),
+            serverAddress,
+            ClientConnectionPoolTest::getRequestId,
+            config
+        );
+    }
+
+    @SneakyThrows
+    private static void waitFor(@NotNull BooleanSupplier condition) {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldBalanceSentPacketsBetweenConnections() {
+
+        var serverNetwork = newStringDataServerNetwork();
+        var serverAddress = serverNetwork.start();
+        var received = new CopyOnWriteArrayList<AtomicInteger>();
+        var allReceived = new CountDownLatch(30);
+
+        serverNetwork.onAccept(connection -> {
+            var counter = new AtomicInteger();
+            received.add(counter);
+            connection.onReceive((con, packet) -> {
+                counter.incrementAndGet();
+                allReceived.countDown();
+            });
+        });
+
+        var pool = newPool(serverAddress, SimpleClientConnectionPoolConfig.builder()
+            .poolSize(3)
+            .build());
+
+        try {
+
+            waitFor(() -> pool.getConnectedCount() == 3 && received.size() == 3);
+
+            for (int i = 0; i < 30; i++) {
+                pool.send(new StringWritablePacket("Message " + i));
+            }
+
+            Assertions.assertTrue(allReceived.await(5, TimeUnit.SECONDS));
+
+            for (var counter : received) {
+                Assertions.assertEquals(10, counter.get());
+            }
+
+        } finally {
+            pool.close();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCorrelateResponsesReceivedInAnotherOrder() {
+
+        var requestCount = 20;
+        var serverNetwork = newStringDataServerNetwork();
+        var serverAddress = serverNetwork.start();
+        var requests = new ArrayList<ReceivedPacketEvent<StringDataConnection, StringReadablePacket>>();
+
+        serverNetwork.onAccept(connection -> connection.onReceive((con, packet) -> {
+
+            var events = new ArrayList<ReceivedPacketEvent<StringDataConnection, StringReadablePacket>>();
+
+            synchronized (requests) {
+                requests.add(new ReceivedPacketEvent<>(connection, packet));
+                if (requests.size() == requestCount) {
+                    events.addAll(requests);
+                }
+            }
+
+            // all responses are sent in reverse order after receiving all requests with a message without id
+            Collections.reverse(events);
+
+            for (var event : events) {
+                event.connection.send(new StringWritablePacket("Not a response"));
+                event.connection.send(new StringWritablePacket(event.packet.getData() + " response"));
+            }
+        }));
+
+        var pool = newPool(serverAddress, SimpleClientConnectionPoolConfig.builder()
+            .poolSize(2)
+            .build());
+
+        try {
+
+            var responses = IntStream.range(0, requestCount)
+                .mapToObj(value -> pool.request(id -> new StringWritablePacket(id + ":request " + value)))
+                .collect(Collectors.toList());
+
+            for (int i = 0; i < requestCount; i++) {
+                var response = responses.get(i).get(5, TimeUnit.SECONDS);
+                Assertions.assertTrue(response.getData().endsWith(":request " + i + " response"), response.getData());
+            }
+
+        } finally {
+            pool.close();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFailRequestWithoutResponseByTimeout() {
+
+        var serverNetwork = newStringDataServerNetwork();
+        var serverAddress = serverNetwork.start();
+
+        var pool = newPool(serverAddress, SimpleClientConnectionPoolConfig.builder()
+            .poolSize(1)
+            .requestTimeout(100)
+            .build());
+
+        try {
+
+            var response = pool.request(id -> new StringWritablePacket(id + ":request"), 50);
+
+            var exception = Assertions.assertThrows(
+                ExecutionException.class,
+                () -> response.get(5, TimeUnit.SECONDS)
+            );
+
+            Assertions.assertTrue(exception.getCause() instanceof TimeoutException);
+
+            var mono = pool.requested(id -> new StringWritablePacket(id + ":request"));
+            var error = Assertions.assertThrows(RuntimeException.class, () -> mono.block(Duration.ofSeconds(5)));
+
+            Assertions.assertTrue(Exceptions.unwrap(error) instanceof TimeoutException);
+
+        } finally {
+            pool.close();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReconnectLostConnections() {
+
+        var serverNetwork = newStringDataServerNetwork();
+        var serverAddress = serverNetwork.start();
+        var accepted = new CopyOnWriteArrayList<StringDataConnection>();
+
+        serverNetwork.onAccept(connection -> {
+            accepted.add(connection);
+            connection.onReceive((con, packet) -> con.send(new StringWritablePacket(packet.getData() + " response")));
+        });
+
+        var pool = newPool(serverAddress, SimpleClientConnectionPoolConfig.builder()
+            .poolSize(2)
+            .reconnectInitialDelay(20)
+            .build());
+
+        try {
+
+            waitFor(() -> pool.getConnectedCount() == 2 && accepted.size() == 2);
+
+            accepted.forEach(StringDataConnection::close);
+
+            waitFor(() -> pool.getConnectedCount() == 2 && accepted.size() == 4);
+
+            var response = pool.request(id -> new StringWritablePacket(id + ":request"))
+                .get(5, TimeUnit.SECONDS);
+
+            Assertions.assertTrue(response.getData().endsWith(":request response"));
+
+        } finally {
+            pool.close();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFailNextConnectionWhenTooManyWaiters() {
+
+        InetSocketAddress serverAddress;
+
+        // the address without a server
+        try (var socket = new ServerSocket(0)) {
+            serverAddress = new InetSocketAddress("localhost", socket.getLocalPort());
+        }
+
+        var pool = newPool(serverAddress, SimpleClientConnectionPoolConfig.builder()
+            .poolSize(1)
+            .maxConnectionWaiters(2)
+            .build());
+
+        var first = pool.nextConnection();
+        var second = pool.nextConnection();
+        var third = pool.nextConnection();
+
+        Assertions.assertFalse(first.isDone());
+        Assertions.assertFalse(second.isDone());
+        Assertions.assertTrue(third.isCompletedExceptionally());
+
+        pool.close();
+
+        Assertions.assertTrue(first.isCompletedExceptionally());
+        Assertions.assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFailAllWaitersAddedConcurrentlyWithClose() {
+
+        InetSocketAddress serverAddress;
+
+        // the address without a server
+        try (var socket = new ServerSocket(0)) {
+            serverAddress = new InetSocketAddress("localhost", socket.getLocalPort());
+        }
+
+        for (int attempt = 0; attempt < 300; attempt++) {
+
+            var pool = newPool(serverAddress, SimpleClientConnectionPoolConfig.builder()
+                .poolSize(1)
+                .maxConnectionWaiters(0)
+                .build());
+
+            var waiters = new CopyOnWriteArrayList<CompletableFuture<StringDataConnection>>();
+            var started = new CountDownLatch(4);
+            var threads = new ArrayList<Thread>();
+
+            for (int i = 0; i < 4; i++) {
+                threads.add(Thread.startVirtualThread(() -> {
+                    started.countDown();
+                    for (int j = 0; j < 1000; j++) {
+                        waiters.add(pool.nextConnection());
+                    }
+                }));
+            }
+
+            started.await();
+            pool.close();
+
+            for (var thread : threads) {
+                thread.join();
+            }
+
+            for (var waiter : waiters) {
+                Assertions.assertTrue(waiter.isCompletedExceptionally());
+            }
+        }
+    }
+}
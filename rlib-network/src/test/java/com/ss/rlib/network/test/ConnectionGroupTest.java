@@ -0,0 +1,326 @@
+package com.ss.rlib.network.test;
+
+import static com.ss.rlib.network.NetworkFactory.newDefaultClientNetwork;
+import static com.ss.rlib.network.NetworkFactory.newDefaultServerNetwork;
+import static com.ss.rlib.network.NetworkFactory.newStringDataClientNetwork;
+import static com.ss.rlib.network.NetworkFactory.newStringDataServerNetwork;
+import com.ss.rlib.network.BufferAllocator;
+import com.ss.rlib.network.ConnectionGroup;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkFactory;
+import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.annotation.PacketDescription;
+import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.impl.StringDataConnection;
+import com.ss.rlib.network.packet.impl.AbstractChunkedWritablePacket;
+import com.ss.rlib.network.packet.impl.DefaultReadablePacket;
+import com.ss.rlib.network.packet.impl.DefaultWritablePacket;
+import com.ss.rlib.network.packet.impl.SharedSerializedPacket;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import com.ss.rlib.network.packet.registry.impl.IdBasedReadablePacketRegistry;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The tests of broadcasting packets to connection groups.
+ *
+ * @author JavaSaBr
+ */
+public class ConnectionGroupTest {
+
+    private static class CountingBufferAllocator extends DefaultBufferAllocator {
+
+        private final AtomicInteger takenBuffers = new AtomicInteger();
+
+        private CountingBufferAllocator() {
+            super(ServerNetworkConfig.DEFAULT_SERVER);
+        }
+
+        @Override
+        public @NotNull ByteBuffer takeBuffer(int bufferSize) {
+            takenBuffers.incrementAndGet();
+            return super.takeBuffer(bufferSize);
+        }
+
+        @Override
+        public @NotNull BufferAllocator putBuffer(@NotNull ByteBuffer buffer) {
+            takenBuffers.decrementAndGet();
+            return super.putBuffer(buffer);
+        }
+    }
+
+    private static class CountingPacket extends StringWritablePacket {
+
+        private final AtomicInteger writes;
+
+        private CountingPacket(@NotNull String data, @NotNull AtomicInteger writes) {
+            super(data);
+            this.writes = writes;
+        }
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            writes.incrementAndGet();
+            super.writeImpl(buffer);
+        }
+    }
+
+    @PacketDescription(id = 1)
+    private static class ChunkedPacket extends AbstractChunkedWritablePacket {
+
+        private ChunkedPacket(long dataLength) {
+            super(dataLength);
+        }
+
+        @Override
+        protected void writeChunk(@NotNull ByteBuffer buffer, long offset) {
+            while (buffer.hasRemaining()) {
+                buffer.put((byte) offset++);
+            }
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldBroadcastPacketSerializedOnce() {
+
+        var clientCount = 10;
+        var packetCount = 20;
+        var writes = new AtomicInteger();
+        var serverAllocator = new CountingBufferAllocator();
+        var serverNetwork = newStringDataServerNetwork(ServerNetworkConfig.DEFAULT_SERVER, serverAllocator);
+        var serverAddress = serverNetwork.start();
+
+        ConnectionGroup<StringWritablePacket> group = NetworkFactory.newConnectionGroup();
+
+        serverNetwork.onAccept(group::add);
+
+        var clientNetworks = new ArrayList<ClientNetwork<StringDataConnection>>();
+        var received = new ArrayList<List<String>>();
+        var allReceived = new CountDownLatch(clientCount * packetCount);
+
+        try {
+
+            for (int i = 0; i < clientCount; i++) {
+
+                var clientNetwork = newStringDataClientNetwork(NetworkConfig.DEFAULT_CLIENT);
+                var connection = clientNetwork.connect(serverAddress)
+                    .get(5, TimeUnit.SECONDS);
+
+                List<String> messages = new CopyOnWriteArrayList<>();
+
+                connection.onReceive((con, packet) -> {
+                    messages.add(packet.getData());
+                    allReceived.countDown();
+                });
+
+                clientNetworks.add(clientNetwork);
+                received.add(messages);
+            }
+
+            awaitTrue(() -> group.size() == clientCount, "All connections should be added to the group");
+
+            var takenBuffersBefore = serverAllocator.takenBuffers.get();
+
+            // the packets are bigger than the threshold of shared serialization
+            var expected = IntStream.range(0, packetCount)
+                .mapToObj(value -> "Broadcast message " + value + " " + "a".repeat(512))
+                .peek(message -> group.broadcast(new CountingPacket(message, writes)))
+                .collect(Collectors.toList());
+
+            Assertions.assertTrue(
+                allReceived.await(10, TimeUnit.SECONDS),
+                "Still wait for " + allReceived.getCount() + " packets..."
+            );
+
+            for (var messages : received) {
+                Assertions.assertEquals(expected, messages);
+            }
+
+            Assertions.assertEquals(packetCount, writes.get(), "Every packet should be serialized only once");
+
+            awaitTrue(
+                () -> serverAllocator.takenBuffers.get() == takenBuffersBefore,
+                "All shared buffers should be returned to the allocator"
+            );
+
+        } finally {
+            clientNetworks.forEach(ClientNetwork::shutdown);
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldSerializeSmallPacketsByEveryConnection() {
+
+        var clientCount = 3;
+        var packetCount = 5;
+        var writes = new AtomicInteger();
+        var serverNetwork = newStringDataServerNetwork();
+        var serverAddress = serverNetwork.start();
+
+        ConnectionGroup<StringWritablePacket> group = NetworkFactory.newConnectionGroup();
+
+        serverNetwork.onAccept(group::add);
+
+        var clientNetworks = new ArrayList<ClientNetwork<StringDataConnection>>();
+        var allReceived = new CountDownLatch(clientCount * packetCount);
+
+        try {
+
+            for (int i = 0; i < clientCount; i++) {
+
+                var clientNetwork = newStringDataClientNetwork(NetworkConfig.DEFAULT_CLIENT);
+
+                clientNetwork.connect(serverAddress)
+                    .get(5, TimeUnit.SECONDS)
+                    .onReceive((con, packet) -> allReceived.countDown());
+
+                clientNetworks.add(clientNetwork);
+            }
+
+            awaitTrue(() -> group.size() == clientCount, "All connections should be added to the group");
+
+            for (int i = 0; i < packetCount; i++) {
+                group.broadcast(new CountingPacket("Small message " + i, writes));
+            }
+
+            Assertions.assertTrue(
+                allReceived.await(10, TimeUnit.SECONDS),
+                "Still wait for " + allReceived.getCount() + " packets..."
+            );
+
+            Assertions.assertEquals(clientCount * packetCount, writes.get());
+
+        } finally {
+            clientNetworks.forEach(ClientNetwork::shutdown);
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldWriteSharedSerializedPacketByCopying() {
+
+        var allocator = new CountingBufferAllocator();
+        var data = allocator.takeBuffer(16)
+            .put(new byte[] {1, 2, 3, 4})
+            .flip();
+
+        var sharedPacket = new SharedSerializedPacket(new StringWritablePacket("Message"), data, allocator);
+        var buffer = ByteBuffer.allocate(8);
+
+        Assertions.assertTrue(sharedPacket.write(buffer));
+        Assertions.assertArrayEquals(new byte[] {1, 2, 3, 4}, Arrays.copyOf(buffer.array(), buffer.position()));
+        Assertions.assertFalse(sharedPacket.write(ByteBuffer.allocate(2)));
+        Assertions.assertEquals(4, data.remaining(), "Shared data shouldn't be consumed by writing");
+
+        sharedPacket.release();
+
+        Assertions.assertEquals(0, allocator.takenBuffers.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRemoveClosedConnections() {
+
+        var serverNetwork = newStringDataServerNetwork();
+        var serverAddress = serverNetwork.start();
+
+        ConnectionGroup<StringWritablePacket> group = NetworkFactory.newConnectionGroup();
+        List<StringDataConnection> serverConnections = new CopyOnWriteArrayList<>();
+
+        serverNetwork.onAccept(connection -> {
+            serverConnections.add(connection);
+            group.add(connection);
+        });
+
+        var firstClient = newStringDataClientNetwork();
+        var secondClient = newStringDataClientNetwork();
+
+        try {
+
+            firstClient.connect(serverAddress)
+                .get(5, TimeUnit.SECONDS);
+            secondClient.connect(serverAddress)
+                .get(5, TimeUnit.SECONDS);
+
+            awaitTrue(() -> group.size() == 2, "All connections should be added to the group");
+
+            var closed = serverConnections.get(0);
+            closed.close();
+
+            Assertions.assertFalse(group.add(closed), "Closed connection shouldn't be added");
+
+            group.broadcast(new StringWritablePacket("Message"));
+
+            Assertions.assertEquals(1, group.size());
+            Assertions.assertFalse(group.contains(closed));
+            Assertions.assertTrue(group.contains(serverConnections.get(1)));
+
+        } finally {
+            firstClient.shutdown();
+            secondClient.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRejectChunkedPackets() {
+
+        var packetRegistry = new IdBasedReadablePacketRegistry<>(DefaultReadablePacket.class);
+        var serverNetwork = newDefaultServerNetwork(packetRegistry);
+        var serverAddress = serverNetwork.start();
+        var clientNetwork = newDefaultClientNetwork(packetRegistry);
+
+        ConnectionGroup<DefaultWritablePacket> group = NetworkFactory.newConnectionGroup();
+
+        serverNetwork.onAccept(group::add);
+
+        try {
+
+            clientNetwork.connect(serverAddress)
+                .get(5, TimeUnit.SECONDS);
+
+            awaitTrue(() -> group.size() == 1, "The connection should be added to the group");
+
+            // only the first chunk would be serialized to share it
+            Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> group.broadcast(new ChunkedPacket(64 * 1024))
+            );
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @SneakyThrows
+    private static void awaitTrue(@NotNull BooleanSupplier condition, @NotNull String message) {
+
+        var deadline = System.currentTimeMillis() + 5000;
+
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertTrue(condition.getAsBoolean(), message);
+    }
+}
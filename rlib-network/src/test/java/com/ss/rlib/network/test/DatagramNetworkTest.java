@@ -0,0 +1,401 @@
+package com.ss.rlib.network.test;
+
+import static com.ss.rlib.network.NetworkFactory.newDatagramNetwork;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.IdleState;
+import com.ss.rlib.network.annotation.PacketDescription;
+import com.ss.rlib.network.datagram.DatagramConnection;
+import com.ss.rlib.network.datagram.DatagramNetwork;
+import com.ss.rlib.network.datagram.DatagramNetworkConfig;
+import com.ss.rlib.network.datagram.DatagramNetworkConfig.SimpleDatagramNetworkConfig;
+import com.ss.rlib.network.impl.SlabBufferAllocator;
+import com.ss.rlib.network.packet.impl.AbstractIdBasedReadablePacket;
+import com.ss.rlib.network.packet.impl.DefaultWritablePacket;
+import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The tests of datagram networks.
+ *
+ * @author JavaSaBr
+ */
+public class DatagramNetworkTest {
+
+    @PacketDescription(id = 1)
+    public static class ReadableMessage extends AbstractIdBasedReadablePacket<Connection<?, ?>, ReadableMessage> {
+
+        @Getter
+        private volatile String message;
+
+        @Override
+        protected void readImpl(@NotNull Connection<?, ?> connection, @NotNull ByteBuffer buffer) {
+            message = readString(buffer);
+        }
+    }
+
+    @RequiredArgsConstructor
+    @PacketDescription(id = 1)
+    public static class WritableMessage extends DefaultWritablePacket {
+
+        private final String message;
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            writeString(buffer, message);
+        }
+    }
+
+    /**
+     * The message which waits for the latch before writing its data.
+     */
+    @PacketDescription(id = 1)
+    public static class BlockingWritableMessage extends WritableMessage {
+
+        private final CountDownLatch startedWriting;
+        private final CountDownLatch continueWriting;
+
+        public BlockingWritableMessage(
+            @NotNull String message,
+            @NotNull CountDownLatch startedWriting,
+            @NotNull CountDownLatch continueWriting
+        ) {
+            super(message);
+            this.startedWriting = startedWriting;
+            this.continueWriting = continueWriting;
+        }
+
+        @Override
+        @SneakyThrows
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            startedWriting.countDown();
+            continueWriting.await(5, TimeUnit.SECONDS);
+            super.writeImpl(buffer);
+        }
+    }
+
+    private static @NotNull DatagramNetwork<ReadableMessage, WritableMessage> newNetwork(
+        @NotNull DatagramNetworkConfig config
+    ) {
+        return newDatagramNetwork(config, ReadablePacketRegistry.of(ReadableMessage.class, ReadableMessage.class));
+    }
+
+    private static @NotNull InetSocketAddress toLoopback(@NotNull InetSocketAddress address) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), address.getPort());
+    }
+
+    @SneakyThrows
+    private static void waitFor(@NotNull BooleanSupplier condition) {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldEchoPacketsBetweenPeers() {
+
+        var serverNetwork = newNetwork(DatagramNetworkConfig.DEFAULT);
+        var clientNetwork = newNetwork(DatagramNetworkConfig.DEFAULT);
+
+        try {
+
+            var serverAddress = toLoopback(serverNetwork.start());
+            clientNetwork.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            serverNetwork.onAccept(connection -> connection.onReceive((con, packet) ->
+                connection.send(new WritableMessage("Echo: " + packet.getMessage()))));
+
+            var received = new LinkedBlockingQueue<String>();
+            var connection = clientNetwork.connect(serverAddress);
+
+            connection.onReceive((con, packet) -> received.add(packet.getMessage()));
+
+            for (int i = 0; i < 20; i++) {
+
+                var message = "Message " + i;
+
+                Assertions.assertTrue(connection.sendWithFeedback(new WritableMessage(message))
+                    .get(5, TimeUnit.SECONDS));
+                Assertions.assertEquals("Echo: " + message, received.poll(5, TimeUnit.SECONDS));
+            }
+
+            Assertions.assertEquals(1, serverNetwork.getConnectionCount());
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldBatchPendingPacketsToOneDatagram() {
+
+        var clientNetwork = newNetwork(DatagramNetworkConfig.DEFAULT);
+
+        try (var peer = DatagramChannel.open()) {
+
+            peer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            var connection = clientNetwork.connect((InetSocketAddress) peer.getLocalAddress());
+            var startedWriting = new CountDownLatch(1);
+            var continueWriting = new CountDownLatch(1);
+
+            // the first packet keeps the writing flag until other packets are added to the connection
+            var firstPacket = new BlockingWritableMessage("First", startedWriting, continueWriting);
+
+            var firstResult = CompletableFuture.supplyAsync(() -> connection.sendWithFeedback(firstPacket))
+                .thenCompose(future -> future);
+
+            Assertions.assertTrue(startedWriting.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 5; i++) {
+                connection.send(new WritableMessage("Message " + i));
+            }
+
+            continueWriting.countDown();
+
+            Assertions.assertTrue(firstResult.get(5, TimeUnit.SECONDS));
+
+            var datagram = ByteBuffer.allocate(DatagramNetworkConfig.DEFAULT.getMaxDatagramSize());
+            peer.receive(datagram);
+            datagram.flip();
+
+            var packets = 0;
+
+            while (datagram.hasRemaining()) {
+                var start = datagram.position();
+                var length = datagram.getShort() & 0xFFFF;
+                Assertions.assertEquals(1, datagram.getShort());
+                datagram.position(start + length);
+                packets++;
+            }
+
+            Assertions.assertEquals(6, packets);
+
+        } finally {
+            clientNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldDropStaleDatagrams() {
+
+        var serverNetwork = newNetwork(SimpleDatagramNetworkConfig.builder()
+            .sequenceNumbers(true)
+            .build());
+
+        try (var peer = DatagramChannel.open()) {
+
+            var serverAddress = toLoopback(serverNetwork.start());
+            var received = new LinkedBlockingQueue<String>();
+            var connections = new LinkedBlockingQueue<DatagramConnection<ReadableMessage, WritableMessage>>();
+
+            serverNetwork.onAccept(connection -> {
+                connections.add(connection);
+                connection.onReceive((con, packet) -> received.add(packet.getMessage()));
+            });
+
+            for (int sequence : new int[] {5, 3, 5, 6}) {
+
+                var message = "Message " + sequence;
+                var datagram = ByteBuffer.allocate(64)
+                    .putInt(sequence)
+                    .putShort((short) (8 + message.length() * 2))
+                    .putShort((short) 1)
+                    .putInt(message.length());
+
+                for (int i = 0; i < message.length(); i++) {
+                    datagram.putChar(message.charAt(i));
+                }
+
+                peer.send(datagram.flip(), serverAddress);
+            }
+
+            Assertions.assertEquals("Message 5", received.poll(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("Message 6", received.poll(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, connections.take().getStaleDatagrams());
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFailFeedbackOfTooBigPacket() {
+
+        var clientNetwork = newNetwork(DatagramNetworkConfig.DEFAULT);
+
+        try (var peer = DatagramChannel.open()) {
+
+            peer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            var connection = clientNetwork.connect((InetSocketAddress) peer.getLocalAddress());
+            var maxDatagramSize = DatagramNetworkConfig.DEFAULT.getMaxDatagramSize();
+
+            Assertions.assertFalse(connection.sendWithFeedback(new WritableMessage("a".repeat(maxDatagramSize)))
+                .get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(connection.sendWithFeedback(new WritableMessage("small"))
+                .get(5, TimeUnit.SECONDS));
+
+        } finally {
+            clientNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotSendDatagramsBiggerThanMaxSizeWithSlabAllocator() {
+
+        var config = DatagramNetworkConfig.DEFAULT;
+        var maxDatagramSize = config.getMaxDatagramSize();
+
+        // the slab allocator returns buffers of the next size class which are bigger than the max datagram size
+        var clientNetwork = newDatagramNetwork(config, new SlabBufferAllocator(config),
+            ReadablePacketRegistry.of(ReadableMessage.class, ReadableMessage.class));
+
+        try (var peer = DatagramChannel.open()) {
+
+            peer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+            var connection = clientNetwork.connect((InetSocketAddress) peer.getLocalAddress());
+
+            Assertions.assertFalse(connection.sendWithFeedback(new WritableMessage("a".repeat(maxDatagramSize / 2)))
+                .get(5, TimeUnit.SECONDS));
+
+            var startedWriting = new CountDownLatch(1);
+            var continueWriting = new CountDownLatch(1);
+            var firstPacket = new BlockingWritableMessage("First", startedWriting, continueWriting);
+
+            var firstResult = CompletableFuture.supplyAsync(() -> connection.sendWithFeedback(firstPacket))
+                .thenCompose(future -> future);
+
+            Assertions.assertTrue(startedWriting.await(5, TimeUnit.SECONDS));
+
+            var packets = 30;
+            var lastResult = CompletableFuture.completedFuture(Boolean.TRUE);
+
+            for (int i = 0; i < packets; i++) {
+                lastResult = connection.sendWithFeedback(new WritableMessage("b".repeat(100)));
+            }
+
+            continueWriting.countDown();
+
+            Assertions.assertTrue(firstResult.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(lastResult.get(5, TimeUnit.SECONDS));
+
+            var datagram = ByteBuffer.allocate(maxDatagramSize * 4);
+            var receivedPackets = 0;
+
+            while (receivedPackets < packets + 1) {
+
+                datagram.clear();
+                peer.receive(datagram);
+                datagram.flip();
+
+                Assertions.assertTrue(datagram.remaining() <= maxDatagramSize,
+                    "Datagram size " + datagram.remaining() + " is bigger than " + maxDatagramSize);
+
+                while (datagram.hasRemaining()) {
+                    var start = datagram.position();
+                    datagram.position(start + (datagram.getShort() & 0xFFFF));
+                    receivedPackets++;
+                }
+            }
+
+        } finally {
+            clientNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCloseIdlePeers() {
+
+        var config = SimpleDatagramNetworkConfig.builder()
+            .peerIdleTimeout(100)
+            .idleTimerTickDuration(10)
+            .build();
+
+        var serverNetwork = newNetwork(config);
+        var clientNetwork = newNetwork(config);
+
+        try {
+
+            var serverAddress = toLoopback(serverNetwork.start());
+            var idleStates = new LinkedBlockingQueue<IdleState>();
+
+            serverNetwork.onAccept(connection -> connection.onIdle(idleStates::add));
+
+            clientNetwork.connect(serverAddress)
+                .send(new WritableMessage("Message"));
+
+            Assertions.assertEquals(IdleState.READ_IDLE, idleStates.poll(5, TimeUnit.SECONDS));
+
+            waitFor(() -> serverNetwork.getConnectionCount() == 0);
+
+            // connected peers are closed only by the user
+            Assertions.assertEquals(1, clientNetwork.getConnectionCount());
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRejectDatagramsOfNewPeersOverLimit() {
+
+        var serverNetwork = newNetwork(SimpleDatagramNetworkConfig.builder()
+            .maxPeers(1)
+            .build());
+        var firstClientNetwork = newNetwork(DatagramNetworkConfig.DEFAULT);
+        var secondClientNetwork = newNetwork(DatagramNetworkConfig.DEFAULT);
+
+        try {
+
+            var serverAddress = toLoopback(serverNetwork.start());
+            var received = new LinkedBlockingQueue<String>();
+
+            serverNetwork.onAccept(connection -> connection.onReceive((con, packet) ->
+                received.add(packet.getMessage())));
+
+            firstClientNetwork.connect(serverAddress)
+                .send(new WritableMessage("First"));
+
+            Assertions.assertEquals("First", received.poll(5, TimeUnit.SECONDS));
+
+            secondClientNetwork.connect(serverAddress)
+                .send(new WritableMessage("Second"));
+
+            waitFor(() -> serverNetwork.getRejectedDatagrams() == 1);
+
+            Assertions.assertEquals(1, serverNetwork.getConnectionCount());
+            Assertions.assertTrue(received.isEmpty());
+
+        } finally {
+            firstClientNetwork.shutdown();
+            secondClientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+}
@@ -7,26 +7,48 @@ import com.ss.rlib.common.util.ObjectUtils;
 import com.ss.rlib.common.util.StringUtils;
 import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerManager;
+import com.ss.rlib.network.BufferAllocator;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.Network;
 import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
 import com.ss.rlib.network.annotation.PacketDescription;
+import com.ss.rlib.network.client.ClientNetwork;
 import com.ss.rlib.network.impl.DefaultBufferAllocator;
 import com.ss.rlib.network.impl.DefaultConnection;
+import com.ss.rlib.network.impl.IdBasedPacketConnection;
+import com.ss.rlib.network.metrics.impl.DefaultNetworkMetrics;
+import com.ss.rlib.network.packet.impl.AbstractChunkedReadablePacket;
+import com.ss.rlib.network.packet.impl.AbstractReusableIdBasedReadablePacket;
 import com.ss.rlib.network.packet.impl.DefaultReadablePacket;
 import com.ss.rlib.network.packet.impl.DefaultWritablePacket;
+import com.ss.rlib.network.packet.impl.FileRegionWritablePacket;
 import com.ss.rlib.network.packet.impl.StringWritablePacket;
 import com.ss.rlib.network.packet.registry.ReadablePacketRegistry;
+import com.ss.rlib.network.packet.registry.impl.IdBasedReadablePacketRegistry;
+import com.ss.rlib.network.server.ServerNetwork;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.time.*;
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
@@ -92,6 +114,32 @@ public class DefaultNetworkTest extends BaseNetworkTest {
                 );
             }
         }
+
+        @PacketDescription(id = 5)
+        class FileRegion extends FileRegionWritablePacket {
+
+            public FileRegion(@NotNull FileChannel fileChannel, long position, long count) {
+                super(fileChannel, position, count);
+            }
+        }
+
+        @PacketDescription(id = 5)
+        class FailingFileRegion extends FileRegion {
+
+            public FailingFileRegion(@NotNull FileChannel fileChannel, long position, long count) {
+                super(fileChannel, position, count);
+            }
+
+            @Override
+            protected void writeChunk(@NotNull ByteBuffer buffer, long offset) throws IOException {
+
+                if (offset > 0) {
+                    throw new IllegalStateException("Failed writing chunk from " + offset);
+                }
+
+                super.writeChunk(buffer, offset);
+            }
+        }
     }
 
     // server packets
@@ -156,6 +204,65 @@ public class DefaultNetworkTest extends BaseNetworkTest {
                 writeInt(buffer, dateTime.getOffset().getTotalSeconds());
             }
         }
+
+        @PacketDescription(id = 5)
+        class FileRegionChunk extends AbstractChunkedReadablePacket {
+
+            @Getter
+            private volatile byte[] data;
+
+            @Override
+            protected void readChunk(@NotNull DefaultConnection connection, @NotNull ByteBuffer buffer) {
+                data = new byte[buffer.remaining()];
+                buffer.get(data);
+            }
+        }
+    }
+
+    // reusable packets
+    public static class ReusableConnection extends IdBasedPacketConnection<ReusableMessage, DefaultWritablePacket> {
+
+        public ReusableConnection(
+            @NotNull Network<? extends Connection<ReusableMessage, DefaultWritablePacket>> network,
+            @NotNull AsynchronousSocketChannel channel,
+            @NotNull BufferAllocator bufferAllocator,
+            @NotNull ReadablePacketRegistry<ReusableMessage> packetRegistry
+        ) {
+            super(network, channel, bufferAllocator, packetRegistry, 100, 2, 2);
+        }
+    }
+
+    @NoArgsConstructor
+    @PacketDescription(id = 1)
+    public static class ReusableMessage extends
+        AbstractReusableIdBasedReadablePacket<ReusableConnection, ReusableMessage> {
+
+        @Getter
+        private volatile int value;
+
+        @Override
+        protected void readImpl(@NotNull ReusableConnection connection, @NotNull ByteBuffer buffer) {
+            super.readImpl(connection, buffer);
+            value = readInt(buffer);
+        }
+
+        @Override
+        public void free() {
+            value = 0;
+        }
+    }
+
+    @RequiredArgsConstructor
+    @PacketDescription(id = 1)
+    public static class RequestValue extends DefaultWritablePacket {
+
+        private final int value;
+
+        @Override
+        protected void writeImpl(@NotNull ByteBuffer buffer) {
+            super.writeImpl(buffer);
+            writeInt(buffer, value);
+        }
     }
 
     @Test
@@ -271,4 +378,341 @@ public class DefaultNetworkTest extends BaseNetworkTest {
             Assertions.assertNull(wrongPacket, () -> "Wrong received packet: " + wrongPacket);
         }
     }
+
+    @Test
+    @SneakyThrows
+    void shouldSendFileRegionByChunksWithoutTempBuffers() {
+
+        var serverPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ServerPackets.FileRegionChunk.class
+        );
+        var clientPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ClientPackets.ResponseEchoMessage.class
+        );
+
+        var data = new byte[1024 * 1024];
+        ThreadLocalRandom.current().nextBytes(data);
+
+        var file = Files.write(Files.createTempFile("rlib-network", ".bin"), data);
+
+        try (var fileChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+             var testNetwork = buildDefaultNetwork(
+                 newAllocatorWithoutTempBuffers(DEFAULT_SERVER),
+                 serverPacketRegistry,
+                 newAllocatorWithoutTempBuffers(NetworkConfig.DEFAULT_CLIENT),
+                 clientPacketRegistry
+             )) {
+
+            var chunks = new LinkedBlockingQueue<ServerPackets.FileRegionChunk>();
+
+            testNetwork.serverToClient.onReceive((connection, packet) ->
+                chunks.add((ServerPackets.FileRegionChunk) packet));
+
+            var region = new ClientPackets.FileRegion(fileChannel, 100, data.length - 200);
+            var result = testNetwork.clientToServer.sendWithFeedback(region);
+            var received = new ByteArrayOutputStream();
+
+            var chunk = chunks.poll(5, TimeUnit.SECONDS);
+            var chunkCount = 1;
+
+            Assertions.assertNotNull(chunk);
+            Assertions.assertTrue(chunk.isFirstChunk());
+            Assertions.assertEquals(data.length - 200, chunk.getDataLength());
+
+            received.write(chunk.getData());
+
+            while (!chunk.isLastChunk()) {
+                chunk = chunks.poll(5, TimeUnit.SECONDS);
+                Assertions.assertNotNull(chunk);
+                Assertions.assertFalse(chunk.isFirstChunk());
+                received.write(chunk.getData());
+                chunkCount++;
+            }
+
+            Assertions.assertFalse(chunk.isAborted());
+            Assertions.assertTrue(result.get(5, TimeUnit.SECONDS));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(data, 100, data.length - 100), received.toByteArray());
+            Assertions.assertTrue(chunkCount >= data.length / NetworkConfig.DEFAULT_CLIENT.getWriteBufferSize());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldAbortFileRegionAfterEndOfFile() {
+
+        var serverPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ServerPackets.FileRegionChunk.class
+        );
+        var clientPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ClientPackets.ResponseEchoMessage.class
+        );
+
+        var data = new byte[10_000];
+        ThreadLocalRandom.current().nextBytes(data);
+
+        var file = Files.write(Files.createTempFile("rlib-network", ".bin"), data);
+
+        try (var fileChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+             var testNetwork = buildDefaultNetwork(serverPacketRegistry, clientPacketRegistry)) {
+
+            var chunks = new LinkedBlockingQueue<ServerPackets.FileRegionChunk>();
+
+            testNetwork.serverToClient.onReceive((connection, packet) ->
+                chunks.add((ServerPackets.FileRegionChunk) packet));
+
+            // the region is longer than the file
+            testNetwork.clientToServer.send(new ClientPackets.FileRegion(fileChannel, 0, data.length * 2));
+            testNetwork.clientToServer.send(new ClientPackets.FileRegion(fileChannel, 0, 10));
+
+            var received = new ByteArrayOutputStream();
+            var chunk = chunks.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(chunk);
+
+            received.write(chunk.getData());
+
+            while (!chunk.isLastChunk()) {
+                chunk = chunks.poll(5, TimeUnit.SECONDS);
+                Assertions.assertNotNull(chunk);
+                received.write(chunk.getData());
+            }
+
+            Assertions.assertTrue(chunk.isAborted());
+            Assertions.assertArrayEquals(data, received.toByteArray());
+
+            // next packets are written after the aborted one
+            chunk = chunks.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(chunk);
+            Assertions.assertTrue(chunk.isFirstChunk() && chunk.isLastChunk() && !chunk.isAborted());
+            Assertions.assertArrayEquals(Arrays.copyOf(data, 10), chunk.getData());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldInterleaveChunksWithOtherPackets() {
+
+        var serverPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ServerPackets.RequestEchoMessage.class,
+            ServerPackets.FileRegionChunk.class
+        );
+        var clientPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ClientPackets.ResponseEchoMessage.class
+        );
+
+        var data = new byte[1024 * 1024];
+        ThreadLocalRandom.current().nextBytes(data);
+
+        var file = Files.write(Files.createTempFile("rlib-network", ".bin"), data);
+
+        try (var fileChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+             var testNetwork = buildDefaultNetwork(serverPacketRegistry, clientPacketRegistry)) {
+
+            var packets = new LinkedBlockingQueue<DefaultReadablePacket>();
+
+            testNetwork.serverToClient.onReceive((connection, packet) -> packets.add(packet));
+
+            var region = new ClientPackets.FileRegion(fileChannel, 0, data.length);
+            var regionResult = testNetwork.clientToServer.sendWithFeedback(region);
+
+            testNetwork.clientToServer.send(new ClientPackets.RequestEchoMessage("Hello"));
+
+            var chunksBeforeMessage = 0;
+            var packet = packets.poll(5, TimeUnit.SECONDS);
+
+            while (packet instanceof ServerPackets.FileRegionChunk) {
+                Assertions.assertFalse(((ServerPackets.FileRegionChunk) packet).isLastChunk(),
+                    "The message wasn't sent before the last chunk");
+                chunksBeforeMessage++;
+                packet = packets.poll(5, TimeUnit.SECONDS);
+            }
+
+            Assertions.assertTrue(packet instanceof ServerPackets.RequestEchoMessage);
+            Assertions.assertTrue(chunksBeforeMessage > 0);
+            Assertions.assertTrue(regionResult.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldSendAbortedLastChunkAfterFailedChunk() {
+
+        var serverPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ServerPackets.FileRegionChunk.class
+        );
+        var clientPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ClientPackets.ResponseEchoMessage.class
+        );
+
+        var data = new byte[100_000];
+        ThreadLocalRandom.current().nextBytes(data);
+
+        var file = Files.write(Files.createTempFile("rlib-network", ".bin"), data);
+
+        try (var fileChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+             var testNetwork = buildDefaultNetwork(serverPacketRegistry, clientPacketRegistry)) {
+
+            var chunks = new LinkedBlockingQueue<ServerPackets.FileRegionChunk>();
+
+            testNetwork.serverToClient.onReceive((connection, packet) ->
+                chunks.add((ServerPackets.FileRegionChunk) packet));
+
+            testNetwork.clientToServer.send(new ClientPackets.FailingFileRegion(fileChannel, 0, data.length));
+
+            var chunk = chunks.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(chunk);
+            Assertions.assertTrue(chunk.isFirstChunk() && !chunk.isLastChunk());
+
+            chunk = chunks.poll(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(chunk);
+            Assertions.assertTrue(chunk.isLastChunk() && chunk.isAborted());
+            Assertions.assertEquals(0, chunk.getData().length);
+        }
+    }
+
+    private static @NotNull DefaultBufferAllocator newAllocatorWithoutTempBuffers(@NotNull NetworkConfig config) {
+        return new DefaultBufferAllocator(config) {
+
+            @Override
+            public @NotNull ByteBuffer takeBuffer(int bufferSize) {
+                throw new RuntimeException();
+            }
+        };
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldEchoCompressedMessages() {
+
+        var serverPacketRegistry = ReadablePacketRegistry.of(DefaultReadablePacket.class,
+            ServerPackets.RequestEchoMessage.class,
+            ServerPackets.RequestServerTime.class
+        );
+        var clientPacketRegistry = ReadablePacketRegistry.of(
+            DefaultReadablePacket.class,
+            ClientPackets.ResponseEchoMessage.class,
+            ClientPackets.ResponseServerTime.class
+        );
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .compressionThreshold(64)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .compressionThreshold(64)
+            .build();
+
+        int packetCount = 100;
+
+        try (var testNetwork = buildDefaultNetwork(
+            serverConfig,
+            new DefaultBufferAllocator(serverConfig),
+            serverPacketRegistry,
+            clientConfig,
+            new DefaultBufferAllocator(clientConfig),
+            clientPacketRegistry
+        )) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            clientToServer.setCompressionEnabled(true);
+            serverToClient.setCompressionEnabled(true);
+
+            var receivedMessages = new LinkedBlockingQueue<String>();
+
+            serverToClient.onReceive((connection, packet) -> packet.execute(serverToClient));
+            clientToServer.onReceive((connection, packet) ->
+                receivedMessages.add(((ClientPackets.ResponseEchoMessage) packet).getMessage()));
+
+            var messages = IntStream.range(0, packetCount)
+                .mapToObj(value -> "Message " + value + " ".repeat(value * 9))
+                .peek(message -> clientToServer.send(new ClientPackets.RequestEchoMessage(message)))
+                .collect(toList());
+
+            for (var message : messages) {
+                Assertions.assertEquals(
+                    "Echo: " + message,
+                    receivedMessages.poll(5, TimeUnit.SECONDS),
+                    "Wrong echo message"
+                );
+            }
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotReuseReusablePacketsBufferedForSlowSubscriber() {
+
+        var serverPacketRegistry = new IdBasedReadablePacketRegistry<>(ReusableMessage.class)
+            .register(ReusableMessage.class);
+        var clientPacketRegistry = new IdBasedReadablePacketRegistry<>(ReusableMessage.class)
+            .register(ReusableMessage.class);
+
+        var serverMetrics = new DefaultNetworkMetrics();
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .networkMetrics(serverMetrics)
+            .build();
+
+        ServerNetwork<ReusableConnection> serverNetwork = newServerNetwork(serverConfig, (network, channel) ->
+            new ReusableConnection(network, channel, new DefaultBufferAllocator(serverConfig), serverPacketRegistry));
+        var serverAddress = serverNetwork.start();
+
+        ClientNetwork<ReusableConnection> clientNetwork = newClientNetwork(NetworkConfig.DEFAULT_CLIENT,
+            (network, channel) -> new ReusableConnection(
+                network,
+                channel,
+                new DefaultBufferAllocator(NetworkConfig.DEFAULT_CLIENT),
+                clientPacketRegistry
+            ));
+
+        int packetCount = 100;
+
+        var receivedValues = new LinkedBlockingQueue<Integer>();
+        var prefetch = serverConfig.getReceivePrefetch();
+
+        // the subscriber doesn't request packets until all prefetched packets are buffered
+        var slowSubscriber = new BaseSubscriber<ReusableMessage>() {
+
+            @Override
+            protected void hookOnSubscribe(@NotNull Subscription subscription) {}
+
+            @Override
+            protected void hookOnNext(@NotNull ReusableMessage packet) {
+                receivedValues.add(packet.getValue());
+            }
+        };
+
+        // the stream is the only listener, so it gets all packets from the first one
+        serverNetwork.onAccept(connection -> connection.receivedPackets().subscribe(slowSubscriber));
+
+        try {
+
+            var clientToServer = clientNetwork.connect(serverAddress).join();
+
+            IntStream.rangeClosed(1, packetCount)
+                .forEach(value -> clientToServer.send(new RequestValue(value)));
+
+            var deadline = System.currentTimeMillis() + 5000;
+
+            while (serverMetrics.snapshot().getReceivedPackets() < prefetch && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertTrue(serverMetrics.snapshot().getReceivedPackets() >= prefetch,
+                "Prefetched packets should be buffered by the stream");
+
+            for (int value = 1; value <= packetCount; value++) {
+                slowSubscriber.request(1);
+                Assertions.assertEquals(value, receivedValues.poll(5, TimeUnit.SECONDS), "Wrong value of packet");
+            }
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
 }
@@ -0,0 +1,145 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.network.util.EncodedString;
+import com.ss.rlib.network.util.EncodingUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author JavaSaBr
+ */
+public class EncodingUtilsTest {
+
+    @Test
+    void shouldWriteAndReadVarInts() {
+        for (var value : new int[] {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE}) {
+            writeAndReadVarInt(value);
+        }
+    }
+
+    private void writeAndReadVarInt(int value) {
+
+        var buffer = ByteBuffer.allocate(EncodingUtils.MAX_VAR_INT_SIZE * 2);
+
+        EncodingUtils.writeVarInt(buffer, value);
+
+        Assertions.assertEquals(EncodingUtils.varIntSize(value), buffer.position());
+
+        EncodingUtils.writeVarInt(buffer, EncodingUtils.encodeZigZag(value));
+        buffer.flip();
+
+        Assertions.assertEquals(value, EncodingUtils.readVarInt(buffer));
+        Assertions.assertEquals(value, EncodingUtils.decodeZigZag(EncodingUtils.readVarInt(buffer)));
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldWriteAndReadVarLongs() {
+        for (var value : new long[] {0, 1, 127, 128, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE}) {
+            writeAndReadVarLong(value);
+        }
+    }
+
+    private void writeAndReadVarLong(long value) {
+
+        var buffer = ByteBuffer.allocate(EncodingUtils.MAX_VAR_LONG_SIZE * 2);
+
+        EncodingUtils.writeVarLong(buffer, value);
+
+        Assertions.assertEquals(EncodingUtils.varLongSize(value), buffer.position());
+
+        EncodingUtils.writeVarLong(buffer, EncodingUtils.encodeZigZag(value));
+        buffer.flip();
+
+        Assertions.assertEquals(value, EncodingUtils.readVarLong(buffer));
+        Assertions.assertEquals(value, EncodingUtils.decodeZigZag(EncodingUtils.readVarLong(buffer)));
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void shouldEncodeSmallSignedValuesByOneByte() {
+        Assertions.assertEquals(1, EncodingUtils.varIntSize(EncodingUtils.encodeZigZag(-64)));
+        Assertions.assertEquals(1, EncodingUtils.varIntSize(EncodingUtils.encodeZigZag(63)));
+        Assertions.assertEquals(1, EncodingUtils.varLongSize(EncodingUtils.encodeZigZag(-1L)));
+    }
+
+    @Test
+    void shouldNotReadMalformedVarInt() {
+
+        var buffer = ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, 1});
+
+        Assertions.assertThrows(IllegalStateException.class, () -> EncodingUtils.readVarInt(buffer));
+    }
+
+    @Test
+    void shouldWriteAndReadUtf8Strings() {
+        for (var value : new String[] {"", "Simple ASCII string", "Строка", "混合 text", "Emoji 😀 end", "Broken \uD800 pair"}) {
+            writeAndReadUtf8String(value);
+        }
+    }
+
+    private void writeAndReadUtf8String(@NotNull String value) {
+
+        var expected = new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        for (var buffer : new ByteBuffer[] {ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256)}) {
+
+            EncodingUtils.writeUtf8(buffer, value);
+
+            var length = value.getBytes(StandardCharsets.UTF_8).length;
+
+            Assertions.assertEquals(length, EncodingUtils.utf8Length(value));
+            Assertions.assertEquals(EncodingUtils.varIntSize(length) + length, buffer.position());
+
+            buffer.flip();
+
+            Assertions.assertEquals(expected, EncodingUtils.readUtf8(buffer));
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    void shouldNotWriteTooLongUtf8String() {
+
+        var buffer = ByteBuffer.allocate(8);
+
+        Assertions.assertThrows(BufferOverflowException.class, () -> EncodingUtils.writeUtf8(buffer, "Too long string"));
+        Assertions.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void shouldNotReadTruncatedUtf8String() {
+
+        var buffer = ByteBuffer.allocate(16);
+
+        EncodingUtils.writeUtf8(buffer, "Truncated");
+
+        buffer.flip().limit(5);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> EncodingUtils.readUtf8(buffer));
+    }
+
+    @Test
+    void shouldWriteEncodedStringsInSameFormat() {
+
+        var value = "Encoded é string";
+        var encoded = EncodedString.of(value);
+        var buffer = ByteBuffer.allocate(64);
+
+        encoded.write(buffer);
+        EncodingUtils.writeUtf8(buffer, value);
+
+        Assertions.assertEquals(encoded.size() * 2, buffer.position());
+
+        buffer.flip();
+
+        Assertions.assertEquals(value, EncodingUtils.readUtf8(buffer));
+        Assertions.assertEquals(value, EncodingUtils.readUtf8(buffer));
+        Assertions.assertSame(EncodedString.cached(value), EncodedString.cached(value));
+    }
+}
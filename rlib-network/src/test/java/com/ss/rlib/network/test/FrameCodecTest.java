@@ -0,0 +1,194 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.common.util.StringUtils;
+import com.ss.rlib.network.ConnectionGroup;
+import com.ss.rlib.network.FrameCodec;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkFactory;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.impl.ChaCha20NetworkCryptor;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.impl.StringDataConnection;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tests of formats of frames.
+ *
+ * @author JavaSaBr
+ */
+public class FrameCodecTest extends BaseNetworkTest {
+
+    @Test
+    void shouldWriteAndReadFrameHeaders() {
+
+        // the fixed codec keeps the format of length headers with the full length of frames
+        assertFrame(FrameCodec.fixed(2, 2), 10, new byte[] {0, 12});
+        assertFrame(FrameCodec.fixed(4, 2), 10, new byte[] {0, 0, 0, 14});
+
+        assertFrame(FrameCodec.varInt(), 10, new byte[] {10});
+        assertFrame(FrameCodec.varInt(), 300, new byte[] {(byte) 0xAC, 0x02});
+        assertFrame(FrameCodec.varInt(), 100_000, new byte[] {(byte) 0xA0, (byte) 0x8D, 0x06});
+
+        assertFrame(FrameCodec.lengthField(2, 2, 0, 2), 10, new byte[] {0, 0, 0, 10});
+        assertFrame(FrameCodec.lengthField(1, 1, -1, 0), 10, new byte[] {0, 11});
+    }
+
+    @Test
+    void shouldWriteAndReadPacketIds() {
+
+        var buffer = ByteBuffer.allocate(16);
+
+        FrameCodec.varInt().writePacketId(buffer, 5);
+        FrameCodec.varInt().writePacketId(buffer, 1000);
+        FrameCodec.fixed(2, 1).writePacketId(buffer, 200);
+
+        Assertions.assertEquals(4, buffer.position());
+
+        buffer.flip();
+
+        Assertions.assertEquals(5, FrameCodec.varInt().readPacketId(buffer));
+        Assertions.assertEquals(1000, FrameCodec.varInt().readPacketId(buffer));
+        Assertions.assertEquals(200, FrameCodec.fixed(2, 1).readPacketId(buffer));
+    }
+
+    @Test
+    void shouldWaitForFullVarIntHeader() {
+
+        var codec = FrameCodec.varInt();
+        var buffer = ByteBuffer.wrap(new byte[] {(byte) 0xAC});
+
+        Assertions.assertFalse(codec.hasHeader(buffer));
+        Assertions.assertTrue(codec.hasHeader(ByteBuffer.wrap(new byte[] {(byte) 0xAC, 0x02})));
+    }
+
+    @Test
+    void shouldSendPacketsWithVarIntFrames() {
+        sendPackets(FrameCodec.varInt(), false);
+        sendPackets(FrameCodec.varInt(), true);
+    }
+
+    @Test
+    void shouldSendPacketsWithLengthFieldFrames() {
+        sendPackets(FrameCodec.lengthField(1, 4, 0, 0), false);
+        sendPackets(FrameCodec.lengthField(1, 4, 0, 0), true);
+    }
+
+    private static void assertFrame(@NotNull FrameCodec codec, int bodyLength, byte @NotNull [] header) {
+
+        var bodyPosition = codec.getMaxHeaderSize();
+        var buffer = ByteBuffer.allocate(bodyPosition + bodyLength)
+            .position(bodyPosition);
+
+        var position = codec.writeHeader(buffer, bodyPosition);
+        var written = new byte[bodyPosition - position];
+
+        buffer.get(position, written);
+
+        Assertions.assertArrayEquals(header, written);
+        Assertions.assertEquals(header.length, codec.getHeaderSize(buffer, position));
+
+        buffer.position(position);
+
+        Assertions.assertTrue(codec.hasHeader(buffer));
+        Assertions.assertEquals(header.length + bodyLength, codec.readFrameLength(buffer));
+        Assertions.assertEquals(bodyPosition, buffer.position());
+    }
+
+    @SneakyThrows
+    private void sendPackets(@NotNull FrameCodec frameCodec, boolean inPlaceReading) {
+
+        int packetCount = 200;
+
+        var secret = new byte[ChaCha20NetworkCryptor.KEY_SIZE];
+
+        ThreadLocalRandom.current()
+            .nextBytes(secret);
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .compressionThreshold(128)
+            .inPlaceReading(inPlaceReading)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .compressionThreshold(128)
+            .inPlaceReading(inPlaceReading)
+            .maxPacketsByWrite(8)
+            .build();
+
+        var serverNetwork = NetworkFactory.newStringDataServerNetwork(
+            serverConfig,
+            new DefaultBufferAllocator(serverConfig),
+            frameCodec
+        );
+
+        var clientNetwork = NetworkFactory.newStringDataClientNetwork(
+            clientConfig,
+            new DefaultBufferAllocator(clientConfig),
+            frameCodec
+        );
+
+        var serverAddress = serverNetwork.start();
+        var serverToClientFuture = serverNetwork.accepted()
+            .next()
+            .toFuture();
+
+        try {
+
+            var clientToServer = clientNetwork.connect(serverAddress).get(5, TimeUnit.SECONDS);
+            var serverToClient = (StringDataConnection) serverToClientFuture.get(5, TimeUnit.SECONDS);
+
+            clientToServer.setCryptor(ChaCha20NetworkCryptor.newClientCryptor(secret, 16));
+            clientToServer.setCompressionEnabled(true);
+            serverToClient.setCryptor(ChaCha20NetworkCryptor.newServerCryptor(secret, 16));
+
+            // small packets are shared as well to check encryption of shared packets of all sizes
+            ConnectionGroup<StringWritablePacket> group = NetworkFactory.newConnectionGroup(0);
+            group.add(serverToClient);
+
+            var receivedByServer = new LinkedBlockingQueue<String>();
+            var receivedByClient = new LinkedBlockingQueue<String>();
+
+            serverToClient.onReceive((connection, packet) -> receivedByServer.add(packet.getData()));
+            clientToServer.onReceive((connection, packet) -> receivedByClient.add(packet.getData()));
+
+            var random = ThreadLocalRandom.current();
+            var messages = new ArrayList<String>();
+
+            for (int i = 0; i < packetCount; i++) {
+
+                // packets with more than 64KB of data don't fit to 2 bytes length headers
+                var message = i % 3 == 0 ? StringUtils.generate(random.nextInt(0, 100)) :
+                    i % 50 == 1 ? StringUtils.generate(40_000) :
+                    ("Message " + i + " ").repeat(random.nextInt(1, i % 20 == 0 ? 2000 : 20));
+
+                messages.add(message);
+                clientToServer.send(new StringWritablePacket(message));
+
+                if (i % 2 == 0) {
+                    group.broadcast(new StringWritablePacket(message));
+                } else {
+                    serverToClient.send(new StringWritablePacket(message));
+                }
+            }
+
+            for (var message : messages) {
+                Assertions.assertEquals(message, receivedByServer.poll(5, TimeUnit.SECONDS), "Wrong received packet");
+                Assertions.assertEquals(message, receivedByClient.poll(5, TimeUnit.SECONDS), "Wrong received packet");
+            }
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+}
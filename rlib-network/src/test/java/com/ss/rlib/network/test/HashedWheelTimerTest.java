@@ -0,0 +1,88 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.network.impl.HashedWheelTimer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author JavaSaBr
+ */
+public class HashedWheelTimerTest {
+
+    @Test
+    @SneakyThrows
+    void shouldExpireTimeoutAfterDelay() {
+
+        var timer = new HashedWheelTimer("TestTimer", 10, TimeUnit.MILLISECONDS, 8);
+        try {
+
+            var expired = new CountDownLatch(1);
+            var expiredTime = new AtomicLong();
+            var startTime = System.nanoTime();
+
+            // the delay is longer than the wheel to check rounds
+            var timeout = timer.newTimeout(() -> {
+                expiredTime.set(System.nanoTime());
+                expired.countDown();
+            }, 200, TimeUnit.MILLISECONDS);
+
+            Assertions.assertTrue(expired.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(timeout.isExpired());
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(expiredTime.get() - startTime) >= 200);
+
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotExpireCancelledTimeout() {
+
+        var timer = new HashedWheelTimer("TestTimer", 10, TimeUnit.MILLISECONDS, 8);
+        try {
+
+            var expired = new CountDownLatch(1);
+            var cancelledTask = new AtomicInteger();
+            var timeout = timer.newTimeout(cancelledTask::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+
+            timer.newTimeout(expired::countDown, 100, TimeUnit.MILLISECONDS);
+
+            Assertions.assertTrue(timeout.cancel());
+            Assertions.assertTrue(expired.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(timeout.isCancelled());
+            Assertions.assertFalse(timeout.cancel());
+            Assertions.assertEquals(0, cancelledTask.get());
+
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldExpireManyTimeouts() {
+
+        var count = 100_000;
+        var timer = new HashedWheelTimer("TestTimer", 5, TimeUnit.MILLISECONDS, 512);
+        try {
+
+            var expired = new CountDownLatch(count);
+
+            for (int i = 0; i < count; i++) {
+                timer.newTimeout(expired::countDown, i % 500, TimeUnit.MILLISECONDS);
+            }
+
+            Assertions.assertTrue(expired.await(10, TimeUnit.SECONDS), () -> "Still wait for " + expired.getCount());
+
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -3,13 +3,16 @@ package com.ss.rlib.network.test;
 import com.ss.rlib.common.util.ClassUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.network.annotation.GeneratePacketRegistry;
 import com.ss.rlib.network.annotation.PacketDescription;
 import com.ss.rlib.network.impl.DefaultConnection;
 import com.ss.rlib.network.packet.IdBasedReadablePacket;
 import com.ss.rlib.network.packet.impl.AbstractIdBasedReadablePacket;
+import com.ss.rlib.network.packet.impl.AbstractReusableIdBasedReadablePacket;
 import com.ss.rlib.network.packet.impl.DefaultReadablePacket;
 import com.ss.rlib.network.packet.registry.impl.IdBasedReadablePacketRegistry;
 import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -48,6 +51,7 @@ public class IdBasedReadablePacketRegistryTest {
     }
 
     @NoArgsConstructor
+    @GeneratePacketRegistry
     public static class PublicBase extends AbstractIdBasedReadablePacket<DefaultConnection, PublicBase> {
     }
 
@@ -61,6 +65,40 @@ public class IdBasedReadablePacketRegistryTest {
     public static class PublicImpl2 extends PublicBase {
     }
 
+    @NoArgsConstructor
+    @PacketDescription(id = 6)
+    public static class PublicImpl3 extends PublicBase {
+
+        private static final PublicImpl3 INSTANCE = new PublicImpl3();
+
+        @Override
+        public @NotNull PublicBase newInstance() {
+            return INSTANCE;
+        }
+    }
+
+    @NoArgsConstructor
+    @GeneratePacketRegistry(name = "GeneratedReusableRegistry")
+    public static class ReusableBase extends AbstractReusableIdBasedReadablePacket<DefaultConnection, ReusableBase> {
+    }
+
+    @NoArgsConstructor
+    @PacketDescription(id = 1)
+    public static class ReusableImpl1 extends ReusableBase {
+
+        private int value;
+
+        @Override
+        public void free() {
+            value = 0;
+        }
+    }
+
+    @NoArgsConstructor
+    @PacketDescription(id = 7)
+    public static class ReusableImpl2 extends ReusableBase {
+    }
+
     @Test
     Object shouldBeCreated() {
         return new IdBasedReadablePacketRegistry<>(IdBasedReadablePacket.class);
@@ -129,4 +167,107 @@ public class IdBasedReadablePacketRegistryTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> registry.findById(2));
         Assertions.assertTrue(registry.findById(5) instanceof PublicImpl2);
     }
+
+    @Test
+    void shouldCreateNewInstancesByFactories() {
+
+        var registry = new IdBasedReadablePacketRegistry<>(PrivateBase.class)
+            .register(PrivateImpl1.class);
+
+        var first = registry.newInstance(1);
+        var second = registry.newInstance(1);
+
+        Assertions.assertTrue(first instanceof PrivateImpl1);
+        Assertions.assertTrue(second instanceof PrivateImpl1);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertNotSame(registry.findById(1), first);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.newInstance(2));
+    }
+
+    @Test
+    void shouldUseOverriddenNewInstance() {
+
+        var registry = new IdBasedReadablePacketRegistry<>(PublicBase.class)
+            .register(PublicImpl1.class, PublicImpl3.class);
+
+        Assertions.assertSame(PublicImpl3.INSTANCE, registry.newInstance(6));
+        Assertions.assertNotSame(registry.newInstance(1), registry.newInstance(1));
+    }
+
+    @Test
+    void shouldCreatePacketsByGeneratedRegistry() {
+
+        var registry = PublicBaseRegistry.newRegistry();
+
+        Assertions.assertTrue(registry.findById(1) instanceof PublicImpl1);
+        Assertions.assertTrue(registry.findById(5) instanceof PublicImpl2);
+        Assertions.assertTrue(registry.newInstance(5) instanceof PublicImpl2);
+        Assertions.assertNotSame(registry.newInstance(1), registry.newInstance(1));
+        Assertions.assertSame(PublicImpl3.INSTANCE, registry.newInstance(6));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.findById(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.newInstance(7));
+    }
+
+    @Test
+    void shouldReuseReleasedPacketsOfGeneratedRegistry() {
+
+        var registry = GeneratedReusableRegistry.newRegistry();
+        var packet = (ReusableImpl1) registry.newInstance(1);
+
+        packet.release();
+
+        Assertions.assertSame(packet, registry.newInstance(1));
+    }
+
+    @Test
+    void shouldReuseReleasedPackets() {
+
+        var registry = new IdBasedReadablePacketRegistry<>(ReusableBase.class)
+            .register(ReusableImpl1.class);
+
+        var packet = (ReusableImpl1) registry.newInstance(1);
+        packet.value = 5;
+        packet.retain();
+        packet.release();
+
+        Assertions.assertNotSame(packet, registry.newInstance(1));
+
+        packet.release();
+
+        var reused = (ReusableImpl1) registry.newInstance(1);
+
+        Assertions.assertSame(packet, reused);
+        Assertions.assertEquals(0, reused.value);
+    }
+
+    @Test
+    void shouldReuseReleasedPacketsByTheirIds() {
+
+        var registry = new IdBasedReadablePacketRegistry<>(ReusableBase.class)
+            .register(ReusableImpl1.class);
+
+        var packet = registry.newInstance(1);
+
+        // the pools of the thread are already created for the registered ids
+        registry.register(ReusableImpl2.class);
+
+        var otherPacket = registry.newInstance(7);
+
+        packet.release();
+        otherPacket.release();
+
+        Assertions.assertSame(otherPacket, registry.newInstance(7));
+        Assertions.assertSame(packet, registry.newInstance(1));
+    }
+
+    @Test
+    void shouldNotPublishPacketsOfFailedRegistration() {
+
+        var registry = new IdBasedReadablePacketRegistry<>(DefaultReadablePacket.class)
+            .register(Impl1.class);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.register(Impl2.class, Impl1.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.findById(2));
+        Assertions.assertTrue(registry.findById(1) instanceof Impl1);
+    }
 }
@@ -0,0 +1,169 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.common.util.ObjectUtils;
+import com.ss.rlib.common.util.StringUtils;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.metrics.NetworkMetricsSnapshot;
+import com.ss.rlib.network.metrics.impl.DefaultNetworkMetrics;
+import com.ss.rlib.network.metrics.impl.Histogram;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import com.ss.rlib.network.util.NetworkUtils;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The tests of network metrics.
+ *
+ * @author JavaSaBr
+ */
+public class NetworkMetricsTest extends BaseNetworkTest {
+
+    @Test
+    void shouldCalculatePercentiles() {
+
+        var histogram = new Histogram();
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        var snapshot = histogram.snapshot();
+
+        Assertions.assertEquals(1000, snapshot.getCount());
+        Assertions.assertEquals(1000, snapshot.getMax());
+        Assertions.assertEquals(500.5, snapshot.getMean(), 0.001);
+        Assertions.assertEquals(500, snapshot.getValueAtPercentile(50), 500 * 0.125);
+        Assertions.assertEquals(990, snapshot.getValueAtPercentile(99), 990 * 0.125);
+        Assertions.assertEquals(1000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    void shouldCollectMetricsOfStringNetwork() {
+
+        int packetCount = 100;
+
+        var serverMetrics = new DefaultNetworkMetrics();
+        var clientMetrics = new DefaultNetworkMetrics();
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .networkMetrics(serverMetrics)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .networkMetrics(clientMetrics)
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            var pendingPacketsOnServer = serverToClient.receivedPackets()
+                .buffer(packetCount);
+
+            for (int i = 0; i < packetCount; i++) {
+                clientToServer.send(new StringWritablePacket(StringUtils.generate(i * 50)));
+            }
+
+            var receivedPackets = ObjectUtils.notNull(pendingPacketsOnServer.blockFirst(Duration.ofSeconds(5)));
+
+            Assertions.assertEquals(packetCount, receivedPackets.size());
+
+            var serverSnapshot = awaitSnapshot(
+                serverMetrics::snapshot,
+                snapshot -> snapshot.getReceivedPackets() == packetCount
+            );
+
+            Assertions.assertEquals(1, serverSnapshot.getAcceptedConnections());
+            Assertions.assertEquals(packetCount, serverSnapshot.getHandleTime().getCount());
+            Assertions.assertTrue(serverSnapshot.getReceivedBytes() > 0);
+            Assertions.assertTrue(serverSnapshot.getPartialReads() > 0);
+            Assertions.assertTrue(serverSnapshot.getTempBufferAllocations() > 0);
+
+            var clientSnapshot = awaitSnapshot(
+                clientMetrics::snapshot,
+                snapshot -> snapshot.getSentPackets() == packetCount
+            );
+
+            Assertions.assertEquals(serverSnapshot.getReceivedBytes(), clientSnapshot.getSentBytes());
+            Assertions.assertEquals(packetCount, clientSnapshot.getWriteTime().getCount());
+            Assertions.assertEquals(0, clientSnapshot.getPendingPackets());
+            Assertions.assertTrue(clientSnapshot.getReceivedPacketsById().isEmpty());
+
+            var connectionSnapshot = clientToServer.getMetrics().snapshot();
+
+            Assertions.assertEquals(packetCount, connectionSnapshot.getSentPackets());
+            Assertions.assertEquals(clientSnapshot.getSentBytes(), connectionSnapshot.getSentBytes());
+            Assertions.assertEquals(0, connectionSnapshot.getWriteTime().getCount());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCollectSslHandshakeDuration() {
+
+        var keystoreFile = NetworkMetricsTest.class.getResourceAsStream("/ssl/rlib_test_cert.p12");
+        var serverSSLContext = NetworkUtils.createSslContext(keystoreFile, "test");
+        var clientSSLContext = NetworkUtils.createAllTrustedClientSslContext();
+
+        var serverMetrics = new DefaultNetworkMetrics();
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .networkMetrics(serverMetrics)
+            .build();
+
+        try (var testNetwork = buildStringSSLNetwork(
+            serverConfig,
+            new DefaultBufferAllocator(serverConfig),
+            serverSSLContext,
+            NetworkConfig.DEFAULT_CLIENT,
+            new DefaultBufferAllocator(NetworkConfig.DEFAULT_CLIENT),
+            clientSSLContext
+        )) {
+
+            var pendingPacketsOnServer = testNetwork.serverToClient.receivedPackets()
+                .buffer(1);
+
+            testNetwork.clientToServer.send(new StringWritablePacket("Hello SSL"));
+
+            Assertions.assertNotNull(pendingPacketsOnServer.blockFirst(Duration.ofSeconds(5)));
+
+            var snapshot = awaitSnapshot(
+                serverMetrics::snapshot,
+                value -> value.getSslHandshakeDuration().getCount() == 1
+            );
+
+            Assertions.assertTrue(snapshot.getSslHandshakeDuration().getMax() > 0);
+        }
+    }
+
+    @SneakyThrows
+    private @NotNull NetworkMetricsSnapshot awaitSnapshot(
+        @NotNull Supplier<NetworkMetricsSnapshot> supplier,
+        @NotNull Predicate<NetworkMetricsSnapshot> condition
+    ) {
+
+        var deadline = System.currentTimeMillis() + 5000;
+        var snapshot = supplier.get();
+
+        while (!condition.test(snapshot) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            snapshot = supplier.get();
+        }
+
+        Assertions.assertTrue(condition.test(snapshot), () -> "Unexpected metrics: " + supplier.get());
+
+        return snapshot;
+    }
+}
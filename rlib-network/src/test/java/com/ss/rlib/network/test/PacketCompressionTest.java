@@ -0,0 +1,164 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.common.util.StringUtils;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.impl.DeflatePacketCompressor;
+import com.ss.rlib.network.impl.StringDataConnection;
+import com.ss.rlib.network.metrics.impl.DefaultNetworkMetrics;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tests of compression of packets.
+ *
+ * @author JavaSaBr
+ */
+public class PacketCompressionTest extends BaseNetworkTest {
+
+    private static final byte[] DICTIONARY = "{\"entity\":,\"position\":{\"x\":,\"y\":,\"z\":},\"state\":\"IDLE\"}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void shouldCompressAndDecompressDataWithDictionary() {
+
+        var data = "{\"entity\":15,\"position\":{\"x\":10,\"y\":20,\"z\":30},\"state\":\"IDLE\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+        var compressor = new DeflatePacketCompressor(0, 1, 1024, null);
+        var dictionaryCompressor = new DeflatePacketCompressor(0, 1, 1024, DICTIONARY);
+
+        var compressed = ByteBuffer.allocate(256);
+        var compressedLength = compressor.compress(ByteBuffer.wrap(data), compressed);
+        var dictionaryCompressed = ByteBuffer.allocate(256);
+        var dictionaryCompressedLength = dictionaryCompressor.compress(ByteBuffer.wrap(data), dictionaryCompressed);
+
+        Assertions.assertTrue(dictionaryCompressedLength < compressedLength);
+        Assertions.assertTrue(dictionaryCompressedLength < data.length);
+
+        for (int i = 0; i < 3; i++) {
+
+            var decompressed = ByteBuffer.allocate(data.length);
+
+            dictionaryCompressor.decompress(dictionaryCompressed.flip(), decompressed);
+
+            Assertions.assertArrayEquals(data, decompressed.array());
+        }
+
+        Assertions.assertThrows(
+            IllegalStateException.class,
+            () -> compressor.decompress(dictionaryCompressed.flip(), ByteBuffer.allocate(data.length))
+        );
+
+        compressor.close();
+        dictionaryCompressor.close();
+    }
+
+    @Test
+    void shouldNotCompressDataToBiggerSize() {
+
+        var data = new byte[512];
+
+        ThreadLocalRandom.current()
+            .nextBytes(data);
+
+        var compressor = new DeflatePacketCompressor(0, 1, 1024, null);
+
+        Assertions.assertEquals(-1, compressor.compress(ByteBuffer.wrap(data), ByteBuffer.allocate(data.length - 1)));
+
+        compressor.close();
+    }
+
+    @Test
+    void shouldSendCompressedPacketsAfterEnablingCompression() {
+        sendCompressedPackets(false);
+        sendCompressedPackets(true);
+    }
+
+    private void sendCompressedPackets(boolean inPlaceReading) {
+
+        int packetCount = 200;
+
+        var clientMetrics = new DefaultNetworkMetrics();
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .compressionThreshold(128)
+            .compressionDictionary(DICTIONARY)
+            .inPlaceReading(inPlaceReading)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .compressionThreshold(128)
+            .compressionDictionary(DICTIONARY)
+            .networkMetrics(clientMetrics)
+            .maxPacketsByWrite(8)
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            var receivedMessages = new LinkedBlockingQueue<String>();
+
+            serverToClient.onReceive((connection, packet) -> receivedMessages.add(packet.getData()));
+
+            Assertions.assertFalse(clientToServer.isCompressionEnabled());
+
+            sendAndReceive(clientToServer, receivedMessages, packetCount);
+
+            Assertions.assertEquals(0, clientMetrics.snapshot().getCompressedPackets());
+
+            clientToServer.setCompressionEnabled(true);
+
+            Assertions.assertTrue(clientToServer.isCompressionEnabled());
+
+            sendAndReceive(clientToServer, receivedMessages, packetCount);
+
+            var snapshot = clientMetrics.snapshot();
+
+            Assertions.assertTrue(snapshot.getCompressedPackets() > 0);
+            Assertions.assertTrue(snapshot.getCompressionSavedBytes() > 0);
+        }
+    }
+
+    @SneakyThrows
+    private void sendAndReceive(
+        @NotNull StringDataConnection clientToServer,
+        @NotNull BlockingQueue<String> receivedMessages,
+        int packetCount
+    ) {
+
+        var random = ThreadLocalRandom.current();
+        var messages = new ArrayList<String>();
+
+        for (int i = 0; i < packetCount; i++) {
+
+            var message = i % 3 == 0 ? StringUtils.generate(random.nextInt(0, 100)) :
+                "{\"entity\":" + i + ",\"position\":{\"x\":1,\"y\":2,\"z\":3},\"state\":\"IDLE\"}"
+                    .repeat(random.nextInt(1, i % 20 == 0 ? 300 : 20));
+
+            messages.add(message);
+            clientToServer.send(new StringWritablePacket(message));
+        }
+
+        for (var message : messages) {
+            Assertions.assertEquals(message, receivedMessages.poll(5, TimeUnit.SECONDS), "Wrong received packet");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.common.util.StringUtils;
+import com.ss.rlib.network.ConnectionGroup;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkFactory;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.impl.ChaCha20NetworkCryptor;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tests of encryption of packets by network cryptors.
+ *
+ * @author JavaSaBr
+ */
+public class PacketEncryptionTest extends BaseNetworkTest {
+
+    @Test
+    void shouldEncryptAndDecryptDataWithRotatedKeys() {
+
+        var secret = new byte[ChaCha20NetworkCryptor.KEY_SIZE];
+
+        ThreadLocalRandom.current()
+            .nextBytes(secret);
+
+        var client = ChaCha20NetworkCryptor.newClientCryptor(secret, 4);
+        var server = ChaCha20NetworkCryptor.newServerCryptor(secret, 4);
+        var notRotatingServer = ChaCha20NetworkCryptor.newServerCryptor(secret, 0);
+
+        for (int i = 0; i < 10; i++) {
+
+            var data = ("Packet " + i + " of the client").getBytes(StandardCharsets.UTF_8);
+            var heapBuffer = ByteBuffer.wrap(data.clone());
+            var directBuffer = ByteBuffer.allocateDirect(data.length + 2)
+                .put((byte) 1)
+                .put(data)
+                .put((byte) 2)
+                .flip();
+
+            client.encrypt(heapBuffer, 0, data.length);
+
+            Assertions.assertFalse(Arrays.equals(data, heapBuffer.array()));
+
+            var notRotatingData = heapBuffer.array().clone();
+
+            server.decrypt(heapBuffer, 0, data.length);
+            notRotatingServer.decrypt(ByteBuffer.wrap(notRotatingData), 0, data.length);
+
+            Assertions.assertArrayEquals(data, heapBuffer.array());
+            Assertions.assertEquals(i < 4, Arrays.equals(data, notRotatingData));
+
+            server.encrypt(directBuffer, 1, data.length);
+            client.decrypt(directBuffer, 1, data.length);
+
+            var decrypted = new byte[data.length];
+            directBuffer.get(1, decrypted);
+
+            Assertions.assertArrayEquals(data, decrypted);
+            Assertions.assertEquals(1, directBuffer.get(0));
+            Assertions.assertEquals(2, directBuffer.get(data.length + 1));
+        }
+    }
+
+    @Test
+    void shouldSendEncryptedPackets() {
+        sendEncryptedPackets(false);
+        sendEncryptedPackets(true);
+    }
+
+    @SneakyThrows
+    private void sendEncryptedPackets(boolean inPlaceReading) {
+
+        int packetCount = 200;
+
+        var secret = new byte[ChaCha20NetworkCryptor.KEY_SIZE];
+
+        ThreadLocalRandom.current()
+            .nextBytes(secret);
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .compressionThreshold(128)
+            .inPlaceReading(inPlaceReading)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .compressionThreshold(128)
+            .inPlaceReading(inPlaceReading)
+            .maxPacketsByWrite(8)
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            clientToServer.setCryptor(ChaCha20NetworkCryptor.newClientCryptor(secret, 16));
+            clientToServer.setCompressionEnabled(true);
+            serverToClient.setCryptor(ChaCha20NetworkCryptor.newServerCryptor(secret, 16));
+
+            // small packets are shared as well to check encryption of shared packets of all sizes
+            ConnectionGroup<StringWritablePacket> group = NetworkFactory.newConnectionGroup(0);
+            group.add(serverToClient);
+
+            var receivedByServer = new LinkedBlockingQueue<String>();
+            var receivedByClient = new LinkedBlockingQueue<String>();
+
+            serverToClient.onReceive((connection, packet) -> receivedByServer.add(packet.getData()));
+            clientToServer.onReceive((connection, packet) -> receivedByClient.add(packet.getData()));
+
+            var random = ThreadLocalRandom.current();
+            var messages = new ArrayList<String>();
+
+            for (int i = 0; i < packetCount; i++) {
+
+                var message = i % 3 == 0 ? StringUtils.generate(random.nextInt(0, 100)) :
+                    ("Message " + i + " ").repeat(random.nextInt(1, i % 20 == 0 ? 2000 : 20));
+
+                messages.add(message);
+                clientToServer.send(new StringWritablePacket(message));
+
+                // shared packets are encrypted by copies of them
+                if (i % 2 == 0) {
+                    group.broadcast(new StringWritablePacket(message));
+                } else {
+                    serverToClient.send(new StringWritablePacket(message));
+                }
+            }
+
+            for (var message : messages) {
+                Assertions.assertEquals(message, receivedByServer.poll(5, TimeUnit.SECONDS), "Wrong received packet");
+                Assertions.assertEquals(message, receivedByClient.poll(5, TimeUnit.SECONDS), "Wrong received packet");
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.network.packet.impl.AbstractReusableWritablePacket;
+import com.ss.rlib.network.packet.impl.PacketRecycler;
+import com.ss.rlib.network.packet.impl.ThreadOwnedPool;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author JavaSaBr
+ */
+public class PacketRecyclerTest {
+
+    public static class TestPacket extends AbstractReusableWritablePacket {
+
+        private static final PacketRecycler RECYCLER = new PacketRecycler(4, 2);
+
+        @Override
+        protected @NotNull PacketRecycler getRecycler() {
+            return RECYCLER;
+        }
+    }
+
+    public static class OtherTestPacket extends TestPacket {
+    }
+
+    @Test
+    void shouldReusePacketsOnSameThread() {
+
+        var recycler = new PacketRecycler(4, 2);
+        var packet = recycler.take(TestPacket.class);
+
+        recycler.recycle(packet);
+
+        Assertions.assertSame(packet, recycler.take(TestPacket.class));
+        Assertions.assertNotSame(packet, recycler.take(TestPacket.class));
+
+        var stats = recycler.getStats();
+
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(2, stats.getMisses());
+        Assertions.assertEquals(0, stats.getRetained());
+        Assertions.assertEquals(1D / 3, stats.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    void shouldSeparatePacketsByClasses() {
+
+        var recycler = new PacketRecycler(4, 2);
+        var packet = recycler.take(TestPacket.class);
+        var otherPacket = recycler.take(OtherTestPacket.class);
+
+        recycler.recycle(packet);
+        recycler.recycle(otherPacket);
+
+        Assertions.assertSame(otherPacket, recycler.take(OtherTestPacket.class));
+        Assertions.assertSame(packet, recycler.take(TestPacket.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReturnPacketsCompletedByOtherThreadToOwner() {
+
+        var recycler = new PacketRecycler(4, 2);
+        var executor = Executors.newSingleThreadExecutor();
+
+        try {
+
+            var packets = new TestPacket[] {
+                recycler.take(TestPacket.class),
+                recycler.take(TestPacket.class),
+                recycler.take(TestPacket.class)
+            };
+
+            CompletableFuture.runAsync(() -> {
+                for (var packet : packets) {
+                    recycler.recycle(packet);
+                }
+            }, executor).get(5, TimeUnit.SECONDS);
+
+            var stats = recycler.getStats();
+
+            // the return queue has capacity for only 2 packets
+            Assertions.assertEquals(2, stats.getRecycled());
+            Assertions.assertEquals(1, stats.getDropped());
+            Assertions.assertEquals(2, stats.getRetained());
+
+            var otherThreadPacket = CompletableFuture.supplyAsync(() -> recycler.take(TestPacket.class), executor)
+                .get(5, TimeUnit.SECONDS);
+
+            Assertions.assertNotSame(packets[0], otherThreadPacket);
+            Assertions.assertNotSame(packets[1], otherThreadPacket);
+
+            var first = recycler.take(TestPacket.class);
+            var second = recycler.take(TestPacket.class);
+
+            Assertions.assertTrue(first == packets[1] && second == packets[0]);
+            Assertions.assertEquals(0, recycler.getStats().getRetained());
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldDropPacketsWhenStackIsFull() {
+
+        var recycler = new PacketRecycler(2, 2);
+        var packets = new TestPacket[] {
+            recycler.take(TestPacket.class),
+            recycler.take(TestPacket.class),
+            recycler.take(TestPacket.class)
+        };
+
+        for (var packet : packets) {
+            recycler.recycle(packet);
+        }
+
+        var stats = recycler.getStats();
+
+        Assertions.assertEquals(2, stats.getRecycled());
+        Assertions.assertEquals(1, stats.getDropped());
+        Assertions.assertEquals(2, stats.getRetained());
+    }
+
+    @Test
+    void shouldRecycleCompletedPackets() {
+
+        var packet = TestPacket.RECYCLER.take(TestPacket.class);
+
+        packet.increaseSends(2);
+        packet.complete();
+
+        Assertions.assertNotSame(packet, packet.newInstance());
+
+        packet.complete();
+
+        Assertions.assertSame(packet, packet.newInstance());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRemovePacketsFromPool() {
+
+        var pool = new ThreadOwnedPool<TestPacket>(4, 2);
+        var first = new TestPacket();
+        var second = new TestPacket();
+        var returned = new TestPacket();
+
+        pool.put(first);
+        pool.put(second);
+
+        CompletableFuture.runAsync(() -> pool.put(returned)).get(5, TimeUnit.SECONDS);
+
+        pool.remove(first);
+        pool.remove(returned);
+
+        Assertions.assertSame(second, pool.take());
+        Assertions.assertNull(pool.take());
+    }
+}
@@ -0,0 +1,181 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.network.impl.PendingPacketQueue;
+import com.ss.rlib.network.packet.impl.AbstractWritablePacket;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * @author JavaSaBr
+ */
+public class PendingPacketQueueTest {
+
+    @AllArgsConstructor
+    private static class IndexedPacket extends AbstractWritablePacket {
+
+        private final int producer;
+        private final int index;
+    }
+
+    @Test
+    void shouldPollPacketsInOrder() {
+
+        var queue = new PendingPacketQueue();
+        var packets = IntStream.range(0, 1000)
+            .mapToObj(value -> new StringWritablePacket(String.valueOf(value)))
+            .toArray(StringWritablePacket[]::new);
+
+        Assertions.assertTrue(queue.isEmpty());
+
+        for (var packet : packets) {
+            queue.add(packet);
+        }
+
+        Assertions.assertEquals(packets.length, queue.size());
+
+        for (var packet : packets) {
+            Assertions.assertSame(packet, queue.poll());
+        }
+
+        Assertions.assertNull(queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void shouldPollPriorityPacketsFirst() {
+
+        var queue = new PendingPacketQueue();
+        var first = new StringWritablePacket("first");
+        var second = new StringWritablePacket("second");
+        var priority1 = new StringWritablePacket("priority1");
+        var priority2 = new StringWritablePacket("priority2");
+
+        queue.add(first);
+        queue.add(second);
+        queue.addFirst(priority1);
+        queue.addFirst(priority2);
+
+        Assertions.assertSame(priority2, queue.poll());
+        Assertions.assertSame(priority1, queue.poll());
+        Assertions.assertSame(first, queue.poll());
+        Assertions.assertSame(second, queue.poll());
+        Assertions.assertNull(queue.poll());
+    }
+
+    @Test
+    void shouldPollOldestPacketFromMainLane() {
+
+        var queue = new PendingPacketQueue();
+        var first = new StringWritablePacket("first");
+        var priority = new StringWritablePacket("priority");
+
+        queue.add(first);
+        queue.addFirst(priority);
+
+        Assertions.assertSame(first, queue.pollOldest());
+        Assertions.assertSame(priority, queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotExceedMaxSizeByConcurrentProducers() {
+
+        var queue = new PendingPacketQueue();
+        var producers = 8;
+        var maxSize = 100;
+        var added = new AtomicInteger();
+        var startLatch = new CountDownLatch(1);
+
+        var threads = IntStream.range(0, producers)
+            .mapToObj(producer -> new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (queue.add(new IndexedPacket(producer, i), maxSize)) {
+                        added.incrementAndGet();
+                    }
+                }
+            }))
+            .peek(Thread::start)
+            .toArray(Thread[]::new);
+
+        startLatch.countDown();
+
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(maxSize, added.get());
+        Assertions.assertEquals(maxSize, queue.size());
+        Assertions.assertNotNull(queue.poll());
+        Assertions.assertTrue(queue.add(new IndexedPacket(0, 0), maxSize));
+        Assertions.assertFalse(queue.add(new IndexedPacket(0, 1), maxSize));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldKeepOrderOfEachProducer() {
+
+        var queue = new PendingPacketQueue();
+        var producers = 8;
+        var packetsPerProducer = 100_000;
+        var startLatch = new CountDownLatch(1);
+
+        var threads = IntStream.range(0, producers)
+            .mapToObj(producer -> new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < packetsPerProducer; i++) {
+                    queue.add(new IndexedPacket(producer, i));
+                }
+            }))
+            .peek(Thread::start)
+            .toArray(Thread[]::new);
+
+        startLatch.countDown();
+
+        var lastIndexes = new int[producers];
+        var received = 0;
+        var expected = producers * packetsPerProducer;
+
+        while (received < expected) {
+
+            var packet = (IndexedPacket) queue.poll();
+
+            if (packet == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            Assertions.assertEquals(
+                lastIndexes[packet.producer],
+                packet.index,
+                "Wrong order of producer " + packet.producer
+            );
+
+            lastIndexes[packet.producer] = packet.index + 1;
+            received++;
+        }
+
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertNull(queue.poll());
+        Assertions.assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,223 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.impl.SlabBufferAllocator;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author JavaSaBr
+ */
+public class SlabBufferAllocatorTest {
+
+    private static final NetworkConfig DIRECT_CONFIG = new NetworkConfig() {
+
+        @Override
+        public @NotNull ByteOrder getByteOrder() {
+            return ByteOrder.LITTLE_ENDIAN;
+        }
+
+        @Override
+        public boolean isDirectByteBuffer() {
+            return true;
+        }
+    };
+
+    @Test
+    void shouldRoundBufferSizeToSizeClass() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT);
+
+        Assertions.assertEquals(256, allocator.takeBuffer(1).capacity());
+        Assertions.assertEquals(2048, allocator.takeBuffer(2048).capacity());
+        Assertions.assertEquals(8192, allocator.takeBuffer(5000).capacity());
+        Assertions.assertEquals(
+            SlabBufferAllocator.MAX_SIZE_CLASS + 1,
+            allocator.takeBuffer(SlabBufferAllocator.MAX_SIZE_CLASS + 1).capacity()
+        );
+
+        Assertions.assertEquals(4, allocator.getAllocations());
+        Assertions.assertEquals(4, allocator.getMisses());
+    }
+
+    @Test
+    void shouldReuseReturnedBuffers() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT);
+        var buffer = allocator.takeBuffer(3000);
+
+        buffer.putInt(10);
+        allocator.putBuffer(buffer);
+
+        Assertions.assertEquals(4096, allocator.getRetainedBytes());
+
+        var reused = allocator.takeBuffer(4000);
+
+        Assertions.assertSame(buffer, reused);
+        Assertions.assertEquals(0, reused.position());
+        Assertions.assertEquals(reused.capacity(), reused.limit());
+        Assertions.assertEquals(1, allocator.getHits());
+        Assertions.assertEquals(0, allocator.getRetainedBytes());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReuseBuffersFromOtherThreads() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT, 1024 * 1024, 1, 4096, false);
+        var buffers = new ByteBuffer[] {allocator.takeBuffer(1024), allocator.takeBuffer(1024)};
+
+        var thread = new Thread(() -> {
+            for (var buffer : buffers) {
+                allocator.putBuffer(buffer);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        // one buffer is in the cache of the finished thread, but another one is in the shared pool
+        Assertions.assertSame(buffers[1], allocator.takeBuffer(1024));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotCacheBuffersInVirtualThreads() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT);
+        var buffer = allocator.takeBuffer(1024);
+
+        Thread.ofVirtual()
+            .start(() -> allocator.putBuffer(buffer))
+            .join();
+
+        Assertions.assertEquals(1024, allocator.getRetainedBytes());
+        Assertions.assertSame(buffer, allocator.takeBuffer(1024));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReturnCachedBuffersOfDiedThreadsToSharedPools() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT) {
+
+            boolean isPooled(int bufferSize) {
+                return !pools[sizeClassOf(bufferSize)].isEmpty();
+            }
+        };
+
+        var buffer = allocator.takeBuffer(1024);
+        var thread = new Thread(() -> allocator.putBuffer(buffer));
+        thread.start();
+        thread.join();
+        thread = null;
+
+        for (int i = 0; i < 100 && !allocator.isPooled(1024); i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        Assertions.assertEquals(1024, allocator.getRetainedBytes());
+        Assertions.assertSame(buffer, allocator.takeBuffer(1024));
+    }
+
+    @Test
+    void shouldNotRetainMoreThanLimit() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT, 4096, 8, 4096, false);
+
+        var buffers = new ByteBuffer[] {
+            allocator.takeBuffer(4096),
+            allocator.takeBuffer(4096),
+            allocator.takeBuffer(4096)
+        };
+
+        for (var buffer : buffers) {
+            allocator.putBuffer(buffer);
+        }
+
+        Assertions.assertEquals(4096, allocator.getRetainedBytes());
+        Assertions.assertEquals(2, allocator.getDrops());
+    }
+
+    @Test
+    void shouldNotReuseForeignBuffers() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT);
+
+        allocator.putBuffer(ByteBuffer.allocate(1000));
+        allocator.putBuffer(ByteBuffer.allocateDirect(1024));
+        allocator.putBuffer(ByteBuffer.allocate(1024).asReadOnlyBuffer());
+
+        Assertions.assertEquals(3, allocator.getDrops());
+        Assertions.assertEquals(0, allocator.getRetainedBytes());
+    }
+
+    @Test
+    void shouldSliceDirectBuffersFromChunks() {
+
+        var allocator = new SlabBufferAllocator(DIRECT_CONFIG, 1024 * 1024, 8, 64 * 1024, false);
+
+        var first = allocator.takeBuffer(1024);
+        var second = allocator.takeBuffer(1024);
+        var big = allocator.takeBuffer(16 * 1024);
+
+        Assertions.assertTrue(first.isDirect());
+        Assertions.assertTrue(second.isDirect());
+        Assertions.assertTrue(big.isDirect());
+        Assertions.assertEquals(ByteOrder.LITTLE_ENDIAN, first.order());
+        Assertions.assertEquals(ByteOrder.LITTLE_ENDIAN, big.order());
+
+        first.putInt(0, 1);
+        second.putInt(0, 2);
+
+        Assertions.assertEquals(1, first.getInt(0));
+        Assertions.assertEquals(2, second.getInt(0));
+        Assertions.assertEquals(1024, first.capacity());
+        Assertions.assertEquals(16 * 1024, big.capacity());
+    }
+
+    @Test
+    void shouldTrackNotReturnedBuffers() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT, 1024 * 1024, 8, 4096, true);
+
+        var first = allocator.takeBuffer(1024);
+        var second = allocator.takeWriteBuffer();
+
+        Assertions.assertEquals(2, allocator.getNotReturnedBuffers());
+
+        allocator.putBuffer(first);
+
+        Assertions.assertEquals(1, allocator.getNotReturnedBuffers());
+
+        allocator.putWriteBuffer(second);
+
+        Assertions.assertEquals(0, allocator.getNotReturnedBuffers());
+        Assertions.assertEquals(0, allocator.reportLeaks());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReportBuffersCollectedWithoutReturning() {
+
+        var allocator = new SlabBufferAllocator(NetworkConfig.DEFAULT_CLIENT, 1024 * 1024, 8, 4096, 1);
+        var returned = allocator.takeBuffer(1024);
+
+        allocator.takeBuffer(2048);
+        allocator.putBuffer(returned);
+
+        for (int i = 0; i < 100 && allocator.getLeaks() < 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+            allocator.reportLeaks();
+        }
+
+        Assertions.assertEquals(1, allocator.getLeaks());
+        Assertions.assertEquals(0, allocator.getNotReturnedBuffers());
+    }
+}
@@ -0,0 +1,111 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkFactory;
+import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.impl.StringDataConnection;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.StandardSocketOptions;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tests of applying socket options of network configs.
+ *
+ * @author JavaSaBr
+ */
+public class SocketOptionsTest {
+
+    @Test
+    void shouldApplyDefaultSocketOptions() {
+
+        Assertions.assertFalse(NetworkConfig.DEFAULT_CLIENT.isTcpNoDelay());
+        Assertions.assertFalse(NetworkConfig.SimpleNetworkConfig.builder().build().isTcpNoDelay());
+        Assertions.assertFalse(SimpleServerNetworkConfig.builder().build().isTcpNoDelay());
+
+        assertSocketOptions(ServerNetworkConfig.DEFAULT_SERVER, NetworkConfig.DEFAULT_CLIENT);
+    }
+
+    @Test
+    void shouldApplyConfiguredSocketOptions() {
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .socketKeepAlive(true)
+            .socketSendBufferSize(64 * 1024)
+            .socketReceiveBufferSize(128 * 1024)
+            .acceptBacklog(1024)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .tcpNoDelay(true)
+            .socketKeepAlive(true)
+            .socketSendBufferSize(32 * 1024)
+            .socketReceiveBufferSize(32 * 1024)
+            .build();
+
+        assertSocketOptions(serverConfig, clientConfig);
+    }
+
+    @SneakyThrows
+    private static void assertSocketOptions(
+        @NotNull ServerNetworkConfig serverConfig,
+        @NotNull NetworkConfig clientConfig
+    ) {
+
+        var serverChannel = new CompletableFuture<AsynchronousSocketChannel>();
+        var clientChannel = new CompletableFuture<AsynchronousSocketChannel>();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        var serverNetwork = NetworkFactory.<StringDataConnection>newServerNetwork(serverConfig, (network, channel) -> {
+            serverChannel.complete(channel);
+            return new StringDataConnection(network, channel, serverAllocator);
+        });
+
+        var clientNetwork = NetworkFactory.<StringDataConnection>newClientNetwork(clientConfig, (network, channel) -> {
+            clientChannel.complete(channel);
+            return new StringDataConnection(network, channel, clientAllocator);
+        });
+
+        try {
+
+            var serverAddress = serverNetwork.start();
+
+            serverNetwork.onAccept(connection -> {});
+            clientNetwork.connect(serverAddress)
+                .get(5, TimeUnit.SECONDS);
+
+            assertSocketOptions(serverChannel.get(5, TimeUnit.SECONDS), serverConfig);
+            assertSocketOptions(clientChannel.get(5, TimeUnit.SECONDS), clientConfig);
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @SneakyThrows
+    private static void assertSocketOptions(@NotNull AsynchronousSocketChannel channel, @NotNull NetworkConfig config) {
+
+        Assertions.assertEquals(config.isTcpNoDelay(), channel.getOption(StandardSocketOptions.TCP_NODELAY));
+        Assertions.assertEquals(config.isSocketKeepAlive(), channel.getOption(StandardSocketOptions.SO_KEEPALIVE));
+
+        // OS can round sizes of socket buffers up, for example linux doubles them
+        if (config.getSocketSendBufferSize() > 0) {
+            Assertions.assertTrue(channel.getOption(StandardSocketOptions.SO_SNDBUF) >= config.getSocketSendBufferSize());
+        }
+
+        if (config.getSocketReceiveBufferSize() > 0) {
+            Assertions.assertTrue(
+                channel.getOption(StandardSocketOptions.SO_RCVBUF) >= config.getSocketReceiveBufferSize());
+        }
+    }
+}
@@ -5,34 +5,49 @@ import static com.ss.rlib.network.NetworkFactory.newStringDataServerNetwork;
 import static com.ss.rlib.network.ServerNetworkConfig.DEFAULT_SERVER;
 import static java.util.stream.Collectors.toList;
 import com.ss.rlib.common.concurrent.atomic.AtomicInteger;
+import com.ss.rlib.common.concurrent.util.ThreadUtils;
 import com.ss.rlib.common.util.ObjectUtils;
 import com.ss.rlib.common.util.StringUtils;
 import com.ss.rlib.logger.api.Logger;
 import com.ss.rlib.logger.api.LoggerLevel;
 import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.IdleState;
 import com.ss.rlib.network.Network;
 import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.PacketDispatchMode;
 import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.UnwritableSendPolicy;
 import com.ss.rlib.network.client.ClientNetwork;
 import com.ss.rlib.network.impl.DefaultBufferAllocator;
 import com.ss.rlib.network.impl.ReuseBufferAllocator;
+import com.ss.rlib.network.metrics.impl.DefaultNetworkMetrics;
 import com.ss.rlib.network.packet.impl.AbstractPacketWriter;
 import com.ss.rlib.network.packet.impl.StringReadablePacket;
 import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import com.ss.rlib.network.server.AcceptorMetrics;
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 
 /**
@@ -231,6 +246,483 @@ public class StringNetworkTest extends BaseNetworkTest {
         }
     }
 
+    @Test
+    void shouldSendManyPacketsUsingBatchWrites() {
+
+        int packetCount = 10_000;
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .maxPacketsByWrite(32)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .maxPacketsByWrite(32)
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var bufferSize = clientConfig.getWriteBufferSize();
+            var random = ThreadLocalRandom.current();
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            var pendingPacketsOnServer = serverToClient.receivedPackets()
+                .buffer(packetCount);
+
+            var startTime = System.nanoTime();
+
+            var messages = IntStream.range(0, packetCount)
+                .mapToObj(value -> {
+
+                    var length = value % 100 == 0 ?
+                        random.nextInt(bufferSize, bufferSize * 5) :
+                        random.nextInt(0, 100);
+
+                    return StringUtils.generate(length);
+                })
+                .peek(message -> clientToServer.send(new StringWritablePacket(message)))
+                .collect(toList());
+
+            var receivedPackets = ObjectUtils.notNull(pendingPacketsOnServer.blockFirst(Duration.ofSeconds(5)));
+            var elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+
+            LOGGER.info("Received " + receivedPackets.size() + " packets from client in " + elapsed.toMillis() + "ms");
+
+            Assertions.assertEquals(receivedPackets.size(), packetCount, "Didn't receive all packets");
+
+            for (int i = 0; i < packetCount; i++) {
+                Assertions.assertEquals(messages.get(i), receivedPackets.get(i).getData(), "Wrong packet's order");
+            }
+        }
+    }
+
+    @Test
+    void shouldReceivePacketsInPlaceOfReadBuffer() {
+
+        int packetCount = 1000;
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .inPlaceReading(true)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .maxPacketsByWrite(16)
+            .build();
+
+        var serverAllocator = new ReuseBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var bufferSize = serverConfig.getReadBufferSize();
+            var random = ThreadLocalRandom.current();
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            var pendingPacketsOnServer = serverToClient.receivedPackets()
+                .buffer(packetCount);
+
+            var messages = IntStream.range(0, packetCount)
+                .mapToObj(value -> {
+
+                    var length = value % 50 == 0 ?
+                        random.nextInt(bufferSize, bufferSize * 10) :
+                        random.nextInt(0, bufferSize / 2);
+
+                    return StringUtils.generate(length);
+                })
+                .peek(message -> clientToServer.send(new StringWritablePacket(message)))
+                .collect(toList());
+
+            var receivedPackets = ObjectUtils.notNull(pendingPacketsOnServer.blockFirst(Duration.ofSeconds(5)));
+
+            Assertions.assertEquals(packetCount, receivedPackets.size(), "Didn't receive all packets");
+
+            for (int i = 0; i < packetCount; i++) {
+                Assertions.assertEquals(messages.get(i), receivedPackets.get(i).getData(), "Wrong received packet");
+            }
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldBecomeUnwritableWhenServerDoesNotRead() {
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .pendingPacketsHighWatermark(100)
+            .unwritableSendPolicy(UnwritableSendPolicy.FAIL)
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            List<Boolean> changes = new CopyOnWriteArrayList<>();
+
+            clientToServer.writabilityChanges()
+                .subscribe(changes::add);
+
+            var message = StringUtils.generate(2000);
+            var sentPackets = 0;
+            var rejected = false;
+
+            // the server doesn't read anything, so socket buffers should be filled soon and
+            // the connection should stay unwritable
+            while (!rejected && sentPackets < 100_000) {
+                if (clientToServer.isWritable()) {
+                    clientToServer.send(new StringWritablePacket(message));
+                    sentPackets++;
+                } else {
+                    var result = clientToServer.sendWithFeedback(new StringWritablePacket(message));
+                    rejected = result.isDone() && !result.join();
+                }
+            }
+
+            Assertions.assertTrue(rejected, "Connection should reject packets when it's unwritable");
+            Assertions.assertFalse(changes.isEmpty());
+            Assertions.assertFalse(changes.get(0));
+
+            serverToClient.receivedPackets()
+                .subscribe();
+
+            var deadline = System.currentTimeMillis() + 5000;
+
+            while (!clientToServer.isWritable() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertTrue(clientToServer.isWritable(), "Connection should become writable");
+            Assertions.assertTrue(changes.get(changes.size() - 1));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldPauseReadingWhileSubscriberHasNoDemand() {
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .receivePrefetch(8)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .pendingPacketsHighWatermark(100)
+            .unwritableSendPolicy(UnwritableSendPolicy.FAIL)
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            var readPackets = new AtomicInteger();
+            var handledPackets = new AtomicInteger();
+
+            var slowSubscriber = new BaseSubscriber<StringReadablePacket>() {
+
+                @Override
+                protected void hookOnSubscribe(@NotNull Subscription subscription) {
+                    request(10);
+                }
+
+                @Override
+                protected void hookOnNext(@NotNull StringReadablePacket packet) {
+                    handledPackets.incrementAndGet();
+                }
+            };
+
+            serverToClient.onReceive((connection, packet) -> readPackets.incrementAndGet());
+            serverToClient.receivedPackets()
+                .subscribe(slowSubscriber);
+
+            var message = StringUtils.generate(2000);
+            var sentPackets = 0;
+            var rejected = false;
+
+            // the server stops reading after 10 handled packets, so the client should become unwritable
+            // instead of buffering all packets on the server
+            while (!rejected && sentPackets < 100_000) {
+                if (clientToServer.isWritable()) {
+                    clientToServer.send(new StringWritablePacket(message));
+                    sentPackets++;
+                } else {
+                    var result = clientToServer.sendWithFeedback(new StringWritablePacket(message));
+                    rejected = result.isDone() && !result.join();
+                    sentPackets += rejected ? 0 : 1;
+                }
+            }
+
+            Assertions.assertTrue(rejected, "Connection should reject packets when the server doesn't read");
+
+            var deadline = System.currentTimeMillis() + 5000;
+
+            while (handledPackets.get() < 10 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // give the server time to read more packets if reading isn't paused
+            Thread.sleep(200);
+
+            Assertions.assertEquals(10, handledPackets.get());
+            Assertions.assertTrue(readPackets.get() < 50, "Read too many packets: " + readPackets.get());
+
+            slowSubscriber.request(Long.MAX_VALUE);
+
+            deadline = System.currentTimeMillis() + 5000;
+
+            while (handledPackets.get() < sentPackets && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertEquals(sentPackets, handledPackets.get());
+            Assertions.assertEquals(sentPackets, readPackets.get());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCloseIdleConnection() {
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .readIdleTimeout(300)
+            .closeIdleConnections(true)
+            .idleTimerTickDuration(10)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            List<IdleState> states = new CopyOnWriteArrayList<>();
+
+            serverToClient.idleEvents()
+                .subscribe(states::add);
+            serverToClient.receivedPackets()
+                .subscribe();
+
+            // the client is active longer than the idle timeout
+            for (int i = 0; i < 5; i++) {
+                clientToServer.send(new StringWritablePacket("ping"));
+                Thread.sleep(100);
+            }
+
+            Assertions.assertTrue(states.isEmpty(), "Active connection shouldn't be idle");
+            Assertions.assertFalse(serverToClient.isClosed());
+
+            var deadline = System.currentTimeMillis() + 5000;
+
+            while (!serverToClient.isClosed() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertTrue(serverToClient.isClosed(), "Idle connection should be closed");
+            Assertions.assertEquals(List.of(IdleState.READ_IDLE), states);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldHandlePacketsByVirtualThreadsInOrder() {
+
+        var packetCount = 200;
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .packetDispatchMode(PacketDispatchMode.VIRTUAL_THREAD)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            List<String> received = new CopyOnWriteArrayList<>();
+            var handled = new CountDownLatch(packetCount);
+            var onlyVirtualThreads = new AtomicBoolean(true);
+
+            serverToClient.onReceive((connection, packet) -> {
+
+                onlyVirtualThreads.compareAndSet(true, Thread.currentThread().isVirtual());
+
+                // slow handling shouldn't break order of packets
+                if (received.size() % 50 == 0) {
+                    ThreadUtils.sleep(20);
+                }
+
+                received.add(packet.getData());
+                handled.countDown();
+            });
+
+            var messages = IntStream.range(0, packetCount)
+                .mapToObj(String::valueOf)
+                .peek(message -> clientToServer.send(new StringWritablePacket(message)))
+                .collect(toList());
+
+            Assertions.assertTrue(
+                handled.await(10, TimeUnit.SECONDS),
+                "Still wait for " + handled.getCount() + " packets..."
+            );
+
+            Assertions.assertEquals(messages, received);
+            Assertions.assertTrue(onlyVirtualThreads.get(), "Packets should be handled by virtual threads");
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldPauseReadingWhileVirtualThreadHandlersAreBehind() {
+
+        var serverMetrics = new DefaultNetworkMetrics();
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .packetDispatchMode(PacketDispatchMode.VIRTUAL_THREAD)
+            .maxDispatchedPackets(8)
+            .networkMetrics(serverMetrics)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .pendingPacketsHighWatermark(100)
+            .unwritableSendPolicy(UnwritableSendPolicy.FAIL)
+            .build();
+
+        var serverAllocator = new DefaultBufferAllocator(serverConfig);
+        var clientAllocator = new DefaultBufferAllocator(clientConfig);
+
+        try (var testNetwork = buildStringNetwork(serverConfig, serverAllocator, clientConfig, clientAllocator)) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            var handledPackets = new AtomicInteger();
+            var continueHandling = new CountDownLatch(1);
+
+            serverToClient.onReceive((connection, packet) -> {
+                try {
+                    continueHandling.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                handledPackets.incrementAndGet();
+            });
+
+            var message = StringUtils.generate(2000);
+            var sentPackets = 0;
+            var rejected = false;
+
+            // the blocked handler stops reading of the server, so the client should become unwritable
+            // instead of queueing all packets to handlers of the server
+            while (!rejected && sentPackets < 100_000) {
+                if (clientToServer.isWritable()) {
+                    clientToServer.send(new StringWritablePacket(message));
+                    sentPackets++;
+                } else {
+                    var result = clientToServer.sendWithFeedback(new StringWritablePacket(message));
+                    rejected = result.isDone() && !result.join();
+                    sentPackets += rejected ? 0 : 1;
+                }
+            }
+
+            Assertions.assertTrue(rejected, "Connection should reject packets when the server doesn't read");
+
+            // give the server time to read more packets if reading isn't paused
+            Thread.sleep(200);
+
+            var readPackets = serverMetrics.snapshot().getReceivedPackets();
+
+            Assertions.assertEquals(0, handledPackets.get());
+            Assertions.assertTrue(readPackets < 50, "Read too many packets: " + readPackets);
+
+            continueHandling.countDown();
+
+            var deadline = System.currentTimeMillis() + 10_000;
+
+            while (handledPackets.get() < sentPackets && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertEquals(sentPackets, handledPackets.get());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldAcceptConnectionsByManyAcceptors() {
+
+        var connectionCount = 200;
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .acceptorCount(4)
+            .reusePort(true)
+            .build();
+
+        boolean reusePortSupported;
+
+        try (var channel = AsynchronousServerSocketChannel.open()) {
+            reusePortSupported = channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        }
+
+        var serverNetwork = newStringDataServerNetwork(serverConfig);
+        var serverAddress = serverNetwork.start();
+        var accepted = new CountDownLatch(connectionCount);
+
+        serverNetwork.onAccept(connection -> accepted.countDown());
+
+        var clients = new ArrayList<SocketChannel>();
+        try {
+
+            for (int i = 0; i < connectionCount; i++) {
+                clients.add(SocketChannel.open(serverAddress));
+            }
+
+            Assertions.assertTrue(
+                accepted.await(10, TimeUnit.SECONDS),
+                "Still wait for " + accepted.getCount() + " connections..."
+            );
+
+            var metrics = serverNetwork.getAcceptorMetrics();
+
+            Assertions.assertEquals(reusePortSupported ? 4 : 1, metrics.size());
+            Assertions.assertEquals(connectionCount, metrics.stream()
+                .mapToLong(AcceptorMetrics::getAcceptedConnections)
+                .sum());
+
+            if (reusePortSupported) {
+                Assertions.assertTrue(metrics.stream()
+                    .filter(value -> value.getAcceptedConnections() > 0)
+                    .count() > 1, () -> "Connections should be distributed between acceptors: " + metrics);
+            }
+
+        } finally {
+            for (var client : clients) {
+                client.close();
+            }
+            serverNetwork.shutdown();
+        }
+    }
+
     @Test
     @SneakyThrows
     void testServerWithMultiplyClients() {
@@ -11,6 +11,9 @@ import com.ss.rlib.logger.api.LoggerManager;
 import com.ss.rlib.network.Connection;
 import com.ss.rlib.network.NetworkConfig;
 import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.client.ClientNetwork;
+import com.ss.rlib.network.impl.StringDataSSLConnection;
+import com.ss.rlib.network.metrics.impl.DefaultNetworkMetrics;
 import com.ss.rlib.network.impl.DefaultBufferAllocator;
 import com.ss.rlib.network.packet.impl.*;
 import com.ss.rlib.network.util.NetworkUtils;
@@ -28,10 +31,15 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 /**
@@ -313,6 +321,208 @@ public class StringSSLNetworkTest extends BaseNetworkTest {
         }
     }
 
+    @Test
+    @SneakyThrows
+    void shouldEchoBatchesOfPacketsBiggerThanSSLRecord() {
+
+        var keystoreFile = StringSSLNetworkTest.class.getResourceAsStream("/ssl/rlib_test_cert.p12");
+        var serverSSLContext = NetworkUtils.createSslContext(keystoreFile, "test");
+        var clientSSLContext = NetworkUtils.createAllTrustedClientSslContext();
+
+        var serverConfig = ServerNetworkConfig.SimpleServerNetworkConfig.builder()
+            .maxPacketsByWrite(16)
+            .maxBytesByWrite(16384)
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .maxPacketsByWrite(16)
+            .maxBytesByWrite(16384)
+            .build();
+
+        var serverNetwork = newStringDataSSLServerNetwork(
+            serverConfig,
+            new DefaultBufferAllocator(serverConfig),
+            serverSSLContext
+        );
+
+        var serverAddress = serverNetwork.start();
+
+        serverNetwork.accepted()
+            .flatMap(Connection::receivedEvents)
+            .subscribe(event -> event.connection.send(new StringWritablePacket(event.packet.getData())));
+
+        var clientNetwork = newStringDataSSLClientNetwork(
+            clientConfig,
+            new DefaultBufferAllocator(clientConfig),
+            clientSSLContext
+        );
+
+        try {
+
+            var connection = clientNetwork.connect(serverAddress)
+                .get(5, TimeUnit.SECONDS);
+
+            // small packets are wrapped together, big packets take a few SSL records
+            var messages = IntStream.range(0, 300)
+                .mapToObj(value -> StringUtils.generate(value % 50 == 0 ? 20_000 : value % 7 * 100 + 10))
+                .collect(toList());
+
+            var received = new ArrayList<String>();
+            var counter = new CountDownLatch(messages.size());
+
+            connection.onReceive((con, packet) -> {
+                synchronized (received) {
+                    received.add(packet.getData());
+                }
+                counter.countDown();
+            });
+
+            messages.forEach(message -> connection.send(new StringWritablePacket(message)));
+
+            Assertions.assertTrue(
+                counter.await(10, TimeUnit.SECONDS),
+                "Still wait for " + counter.getCount() + " echo packets..."
+            );
+
+            synchronized (received) {
+                Assertions.assertEquals(messages, received);
+            }
+
+        } finally {
+            clientNetwork.shutdown();
+            serverNetwork.shutdown();
+        }
+    }
+
+    @Test
+    void shouldHandleManyHandshakesByExecutorOfDelegatedTasks() {
+        handleManyHandshakes(Executors.newFixedThreadPool(2));
+    }
+
+    @Test
+    void shouldHandleManyHandshakesByExecutorWithFullQueue() {
+        handleManyHandshakes(NetworkUtils.newSslTaskExecutor(1, 1));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRunDelegatedTasksByCallerWhenQueueIsFull() {
+
+        var executor = NetworkUtils.newSslTaskExecutor(1, 1);
+        var blocker = new CountDownLatch(1);
+        var callerThread = new CompletableFuture<Thread>();
+
+        try {
+
+            executor.execute(() -> Utils.unchecked(blocker, CountDownLatch::await));
+            executor.execute(() -> {});
+            executor.execute(() -> callerThread.complete(Thread.currentThread()));
+
+            Assertions.assertSame(Thread.currentThread(), callerThread.getNow(null));
+
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @SneakyThrows
+    private void handleManyHandshakes(@NotNull ExecutorService sslTaskThreads) {
+
+        int clientCount = 50;
+
+        var keystoreFile = StringSSLNetworkTest.class.getResourceAsStream("/ssl/rlib_test_cert.p12");
+        var serverSSLContext = NetworkUtils.configureSessionCache(
+            NetworkUtils.createSslContext(keystoreFile, "test"),
+            clientCount,
+            60
+        );
+        var clientSSLContext = NetworkUtils.configureSessionCache(
+            NetworkUtils.createAllTrustedClientSslContext(),
+            clientCount,
+            60
+        );
+
+        var sslTasks = new AtomicInteger();
+        var serverMetrics = new DefaultNetworkMetrics();
+
+        var serverConfig = ServerNetworkConfig.SimpleServerNetworkConfig.builder()
+            .networkMetrics(serverMetrics)
+            .sslTaskExecutor(command -> {
+                sslTasks.incrementAndGet();
+                sslTaskThreads.execute(command);
+            })
+            .build();
+
+        var serverNetwork = newStringDataSSLServerNetwork(
+            serverConfig,
+            new DefaultBufferAllocator(serverConfig),
+            serverSSLContext
+        );
+
+        var serverAddress = serverNetwork.start();
+
+        serverNetwork.accepted()
+            .flatMap(Connection::receivedEvents)
+            .subscribe(event -> event.connection.send(new StringWritablePacket("Echo: " + event.packet.getData())));
+
+        var clientNetworks = new ArrayList<ClientNetwork<StringDataSSLConnection>>();
+        var received = new CountDownLatch(clientCount);
+
+        try {
+
+            // all clients connect at the same time to make a storm of handshakes
+            var connections = IntStream.range(0, clientCount)
+                .mapToObj(value -> {
+                    var clientNetwork = newStringDataSSLClientNetwork(
+                        NetworkConfig.DEFAULT_CLIENT,
+                        new DefaultBufferAllocator(NetworkConfig.DEFAULT_CLIENT),
+                        clientSSLContext
+                    );
+                    clientNetworks.add(clientNetwork);
+                    return clientNetwork.connect(serverAddress);
+                })
+                .collect(toList());
+
+            for (int i = 0; i < clientCount; i++) {
+
+                var message = "Hello " + i;
+                var connection = connections.get(i)
+                    .get(5, TimeUnit.SECONDS);
+
+                connection.onReceive((con, packet) -> {
+                    if (packet.getData().equals("Echo: " + message)) {
+                        received.countDown();
+                    }
+                });
+
+                connection.send(new StringWritablePacket(message));
+            }
+
+            Assertions.assertTrue(
+                received.await(10, TimeUnit.SECONDS),
+                "Still wait for " + received.getCount() + " echo packets..."
+            );
+
+            // finished handshakes are recorded by updating activity of connections after writing echo packets
+            for (int i = 0; i < 500 && serverMetrics.snapshot().getSslHandshakes() < clientCount; i++) {
+                Thread.sleep(10);
+            }
+
+            var snapshot = serverMetrics.snapshot();
+
+            Assertions.assertEquals(clientCount, snapshot.getSslHandshakes());
+            Assertions.assertEquals(clientCount, snapshot.getSslHandshakeDuration().getCount());
+            Assertions.assertTrue(sslTasks.get() > 0, "Delegated tasks should be executed by the executor");
+            Assertions.assertTrue(snapshot.getSslDelegatedTasks() > 0);
+
+        } finally {
+            clientNetworks.forEach(ClientNetwork::shutdown);
+            serverNetwork.shutdown();
+            sslTaskThreads.shutdown();
+        }
+    }
+
     private static @NotNull StringWritablePacket newMessage(int minMessageLength, int maxMessageLength) {
         return new StringWritablePacket(StringUtils.generate(minMessageLength, maxMessageLength));
     }
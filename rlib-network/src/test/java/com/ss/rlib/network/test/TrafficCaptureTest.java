@@ -0,0 +1,258 @@
+package com.ss.rlib.network.test;
+
+import com.ss.rlib.common.util.ObjectUtils;
+import com.ss.rlib.network.Connection;
+import com.ss.rlib.network.NetworkConfig;
+import com.ss.rlib.network.NetworkFactory;
+import com.ss.rlib.network.ServerNetworkConfig;
+import com.ss.rlib.network.ServerNetworkConfig.SimpleServerNetworkConfig;
+import com.ss.rlib.network.capture.CapturedFrame;
+import com.ss.rlib.network.capture.TrafficCapture;
+import com.ss.rlib.network.capture.TrafficCaptureReader;
+import com.ss.rlib.network.capture.TrafficDirection;
+import com.ss.rlib.network.capture.TrafficReplay;
+import com.ss.rlib.network.impl.DefaultBufferAllocator;
+import com.ss.rlib.network.metrics.NetworkMetrics;
+import com.ss.rlib.network.packet.impl.DefaultPacketReader;
+import com.ss.rlib.network.packet.impl.StringReadablePacket;
+import com.ss.rlib.network.packet.impl.StringWritablePacket;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tests of capturing and replaying traffic of connections.
+ *
+ * @author JavaSaBr
+ */
+public class TrafficCaptureTest extends BaseNetworkTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    /**
+     * Send the messages from a client to a server which echoes them with capturing traffic of both sides.
+     *
+     * @param messages         the messages.
+     * @param serverCapture    the directory of captures of the server.
+     * @param clientCapture    the directory of captures of the client.
+     * @param delayAfterFirst  the delay in ms after sending the first message.
+     */
+    @SneakyThrows
+    private void captureExchange(
+        @NotNull List<String> messages,
+        @NotNull Path serverCapture,
+        @NotNull Path clientCapture,
+        long delayAfterFirst
+    ) {
+
+        var serverConfig = SimpleServerNetworkConfig.builder()
+            .trafficCapture(TrafficCapture.toDirectory(serverCapture))
+            .build();
+
+        var clientConfig = NetworkConfig.SimpleNetworkConfig.builder()
+            .trafficCapture(TrafficCapture.toDirectory(clientCapture))
+            .build();
+
+        try (var testNetwork = buildStringNetwork(
+            serverConfig,
+            new DefaultBufferAllocator(serverConfig),
+            clientConfig,
+            new DefaultBufferAllocator(clientConfig)
+        )) {
+
+            var clientToServer = testNetwork.clientToServer;
+            var serverToClient = testNetwork.serverToClient;
+
+            serverToClient.onReceive((connection, packet) ->
+                connection.send(new StringWritablePacket("Echo: " + packet.getData())));
+
+            var echoes = clientToServer.receivedPackets()
+                .buffer(messages.size());
+
+            var first = true;
+
+            for (var message : messages) {
+
+                clientToServer.send(new StringWritablePacket(message));
+
+                if (first && delayAfterFirst > 0) {
+                    Thread.sleep(delayAfterFirst);
+                }
+
+                first = false;
+            }
+
+            var received = ObjectUtils.notNull(echoes.blockFirst(Duration.ofSeconds(5)));
+
+            Assertions.assertEquals(messages.size(), received.size());
+
+            // recorders are flushed by closing of connections
+            clientToServer.close();
+            serverToClient.close();
+        }
+    }
+
+    private static @NotNull List<String> generateMessages(int count) {
+
+        var messages = new ArrayList<String>(count);
+
+        for (int i = 0; i < count; i++) {
+            messages.add("Message " + i + " " + "a".repeat(i * 37 % 3000));
+        }
+
+        return messages;
+    }
+
+    @SneakyThrows
+    private static byte @NotNull [] readBytes(@NotNull Path capture, @NotNull TrafficDirection direction) {
+
+        var bytes = new ByteArrayOutputStream();
+
+        try (var reader = new TrafficCaptureReader(capture)) {
+            for (CapturedFrame frame = reader.next(); frame != null; frame = reader.next()) {
+                if (frame.getDirection() == direction) {
+                    var data = frame.getData();
+                    bytes.write(data.array(), data.position(), data.remaining());
+                }
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull Connection<StringReadablePacket, ?> newConnection() {
+        return (Connection<StringReadablePacket, ?>) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> "getMetrics".equals(method.getName()) ? NetworkMetrics.NOOP : null
+        );
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCaptureBytesOfBothSides() {
+
+        var serverCapture = tempDirectory.resolve("server");
+        var clientCapture = tempDirectory.resolve("client");
+
+        captureExchange(generateMessages(200), serverCapture, clientCapture, 0);
+
+        var serverCaptures = TrafficCaptureReader.findCaptures(serverCapture);
+        var clientCaptures = TrafficCaptureReader.findCaptures(clientCapture);
+
+        Assertions.assertEquals(1, serverCaptures.size());
+        Assertions.assertEquals(1, clientCaptures.size());
+
+        var serverInbound = readBytes(serverCaptures.get(0), TrafficDirection.INBOUND);
+        var serverOutbound = readBytes(serverCaptures.get(0), TrafficDirection.OUTBOUND);
+
+        Assertions.assertTrue(serverInbound.length > 200 * 10);
+        Assertions.assertTrue(serverOutbound.length > serverInbound.length);
+        Assertions.assertArrayEquals(serverInbound, readBytes(clientCaptures.get(0), TrafficDirection.OUTBOUND));
+        Assertions.assertArrayEquals(serverOutbound, readBytes(clientCaptures.get(0), TrafficDirection.INBOUND));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReplayCaptureToPacketReader() {
+
+        var messages = generateMessages(50);
+        var serverCapture = tempDirectory.resolve("server");
+
+        captureExchange(messages, serverCapture, tempDirectory.resolve("client"), 300);
+
+        var capture = TrafficCaptureReader.findCaptures(serverCapture).get(0);
+
+        for (var inPlaceReading : new boolean[] {false, true}) {
+
+            var config = NetworkConfig.SimpleNetworkConfig.builder()
+                .inPlaceReading(inPlaceReading)
+                .build();
+
+            var replayed = new ArrayList<String>();
+
+            try (var channel = AsynchronousSocketChannel.open()) {
+
+                var reader = new DefaultPacketReader<>(
+                    newConnection(),
+                    channel,
+                    new DefaultBufferAllocator(config),
+                    () -> {},
+                    packet -> replayed.add(packet.getData()),
+                    length -> new StringReadablePacket(),
+                    2,
+                    100,
+                    inPlaceReading
+                );
+
+                var startTime = System.nanoTime();
+                var readPackets = TrafficReplay.replay(capture, reader, TrafficReplay.RECORDED_SPEED);
+                var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+                reader.close();
+
+                Assertions.assertEquals(messages.size(), readPackets);
+                Assertions.assertEquals(messages, replayed);
+                Assertions.assertTrue(elapsed >= 250, "The recorded delay was skipped: " + elapsed + "ms");
+            }
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReplayCaptureToServer() {
+
+        var messages = generateMessages(100);
+        var clientCapture = tempDirectory.resolve("client");
+
+        captureExchange(messages, tempDirectory.resolve("server"), clientCapture, 0);
+
+        var serverNetwork = NetworkFactory.newStringDataServerNetwork(
+            ServerNetworkConfig.DEFAULT_SERVER,
+            new DefaultBufferAllocator(ServerNetworkConfig.DEFAULT_SERVER)
+        );
+
+        try {
+
+            var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), serverNetwork.start().getPort());
+            var received = new LinkedBlockingQueue<String>();
+
+            serverNetwork.onAccept(connection -> connection.onReceive((con, packet) -> {
+                received.add(packet.getData());
+                con.send(new StringWritablePacket("Echo: " + packet.getData()));
+            }));
+
+            var bytes = TrafficReplay.replay(
+                TrafficCaptureReader.findCaptures(clientCapture),
+                TrafficDirection.OUTBOUND,
+                address,
+                TrafficReplay.MAX_SPEED
+            );
+
+            Assertions.assertTrue(bytes > 0);
+
+            for (var message : messages) {
+                Assertions.assertEquals(message, received.poll(5, TimeUnit.SECONDS));
+            }
+
+        } finally {
+            serverNetwork.shutdown();
+        }
+    }
+}